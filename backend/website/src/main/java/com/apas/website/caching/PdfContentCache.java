@@ -0,0 +1,188 @@
+package com.apas.website.caching;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Read-through cache for generated PDF contents, keyed by portfolio ID and filename.
+ * <p>
+ * The bytes live in direct {@link ByteBuffer}s outside the Java heap, so only the keys and small buffer
+ * wrappers are heap-resident. The cache is bounded by the total number of content bytes and evicts with
+ * Caffeine's W-TinyLFU policy. Evicted buffers are released by the garbage collector, so
+ * {@code -XX:MaxDirectMemorySize} should leave headroom above {@code app.pdf.cache.maxBytes}.
+ */
+@Component
+public class PdfContentCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfContentCache.class);
+    private static final String CACHE_NAME = "generatedPdfContent";
+    // Must be a power of two
+    private static final int STAMP_STRIPES = 1024;
+
+    private final Cache<String, ByteBuffer> cache;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    // Invalidation counters striped by portfolio ID, bumped so a read that raced with a delete or re-render
+    // does not re-cache the old content. The re-render job invalidates every PDF it rewrites, so a single
+    // counter would turn every concurrent read into a miss; with stripes only reads of PDFs whose portfolio
+    // shares a stripe with the one being invalidated are affected. Striping by portfolio rather than by PDF
+    // keeps invalidatePortfolio to a single stripe.
+    private final AtomicLongArray invalidations = new AtomicLongArray(STAMP_STRIPES);
+
+    public PdfContentCache(@Value("${app.pdf.cache.maxBytes:67108864}") long maxBytes,
+                           @Value("${app.pdf.cache.maxEntryBytes:8388608}") long maxEntryBytes,
+                           @Value("${app.pdf.cache.expireAfterAccessMinutes:60}") long expireAfterAccessMinutes,
+                           MeterRegistry meterRegistry) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, ByteBuffer content) -> content.capacity())
+                .expireAfterAccess(Duration.ofMinutes(expireAfterAccessMinutes))
+                .recordStats()
+                .build();
+
+        logger.info("Generated PDF content cache enabled with {} byte(s) capacity and {} byte(s) max entry size.",
+                    maxBytes, maxEntryBytes);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("pdf.cache.occupancy.bytes", this, PdfContentCache::occupiedBytes)
+                .description("Off-heap bytes held by the generated PDF content cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("pdf.cache.capacity.bytes", this, c -> c.maxBytes)
+                .description("Maximum off-heap bytes the generated PDF content cache may hold")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("pdf.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Fraction of PDF content lookups served from the cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns a heap copy of the cached PDF content, or null on a miss
+     */
+    public byte[] get(String portfolioId, String filename) {
+        ByteBuffer content = cache.getIfPresent(key(portfolioId, filename));
+        if (content == null) {
+            return null;
+        }
+        byte[] bytes = new byte[content.capacity()];
+        // Duplicate so concurrent readers never share a buffer position
+        content.duplicate().rewind().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Copies the PDF content off-heap and caches it, unless it exceeds the per-entry limit
+     */
+    public void put(String portfolioId, String filename, byte[] content) {
+        if (content == null || content.length == 0 || content.length > maxEntryBytes) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(content.length);
+        buffer.put(content).flip();
+        cache.put(key(portfolioId, filename), buffer.asReadOnlyBuffer());
+    }
+
+    /**
+     * Returns a stamp to take before reading a PDF of the portfolio from the database and to pass to
+     * {@link #put(String, String, byte[], long)}
+     */
+    public long loadStamp(String portfolioId) {
+        return invalidations.get(stripe(portfolioId));
+    }
+
+    /**
+     * Caches PDF content read from the database, unless an invalidation of its stripe happened since
+     * {@code stamp} was taken, in which case the PDF may already be deleted or rewritten. An invalidation
+     * that lands between the check and the put is caught by checking again afterwards.
+     */
+    public void put(String portfolioId, String filename, byte[] content, long stamp) {
+        int stripe = stripe(portfolioId);
+        if (invalidations.get(stripe) != stamp) {
+            return;
+        }
+        put(portfolioId, filename, content);
+        if (invalidations.get(stripe) != stamp) {
+            cache.invalidate(key(portfolioId, filename));
+        }
+    }
+
+    /**
+     * Caches the PDF content once the surrounding transaction has committed, so a rolled-back
+     * insert never becomes visible through the cache.
+     */
+    public void putAfterCommit(String portfolioId, String filename, byte[] content) {
+        runAfterCommit(() -> put(portfolioId, filename, content));
+    }
+
+    /**
+     * Drops the cached content of one PDF now and again after the surrounding transaction commits,
+     * so a read racing with the delete cannot leave stale content behind.
+     */
+    public void invalidate(String portfolioId, String filename) {
+        String key = key(portfolioId, filename);
+        int stripe = stripe(portfolioId);
+        Runnable invalidation = () -> {
+            invalidations.incrementAndGet(stripe);
+            cache.invalidate(key);
+        };
+        invalidation.run();
+        runAfterCommit(invalidation);
+    }
+
+    /**
+     * Drops the cached content of every PDF of a portfolio, now and after the surrounding transaction commits
+     */
+    public void invalidatePortfolio(String portfolioId) {
+        String prefix = portfolioId + "/";
+        int stripe = stripe(portfolioId);
+        Runnable invalidation = () -> {
+            invalidations.incrementAndGet(stripe);
+            cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+        };
+        invalidation.run();
+        runAfterCommit(invalidation);
+    }
+
+    private long occupiedBytes() {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static int stripe(String portfolioId) {
+        int hash = portfolioId.hashCode();
+        return (hash ^ (hash >>> 16)) & (STAMP_STRIPES - 1);
+    }
+
+    private static String key(String portfolioId, String filename) {
+        return portfolioId + "/" + filename;
+    }
+}
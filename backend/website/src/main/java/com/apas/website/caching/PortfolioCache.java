@@ -0,0 +1,122 @@
+package com.apas.website.caching;
+
+import com.apas.website.entities.models.response.PortfolioResponse;
+import com.apas.website.events.PortfolioChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, time-limited cache of portfolio responses keyed by portfolio ID. Each entry carries the
+ * owner's user ID, so ownership checks are answered from memory as well.
+ * <p>
+ * Entries are dropped once a {@link PortfolioChangedEvent} has committed. The TTL only bounds staleness
+ * caused by writes that bypass the portfolio service. Callers always receive their own copy, so mutating
+ * a returned response never affects the cached one.
+ */
+@Component
+public class PortfolioCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioCache.class);
+    private static final String CACHE_NAME = "portfolios";
+    // Must be a power of two
+    private static final int STAMP_STRIPES = 1024;
+
+    private final Cache<String, PortfolioResponse> cache;
+    // Invalidation counters striped by portfolio ID, bumped so a load that raced with a write of the same
+    // portfolio does not re-cache the old state. Writes to other portfolios only share a stripe by chance.
+    private final AtomicLongArray invalidations = new AtomicLongArray(STAMP_STRIPES);
+
+    public PortfolioCache(@Value("${app.portfolio.cache.maxEntries:10000}") long maxEntries,
+                          @Value("${app.portfolio.cache.ttlSeconds:300}") long ttlSeconds,
+                          MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns a copy of the cached portfolio, or null on a miss
+     */
+    public PortfolioResponse get(String portfolioId) {
+        PortfolioResponse cached = cache.getIfPresent(portfolioId);
+        return cached != null ? copyOf(cached) : null;
+    }
+
+    /**
+     * Returns a stamp to take before reading a portfolio from the database and to pass to {@link #put}
+     */
+    public long loadStamp(String portfolioId) {
+        return invalidations.get(stripe(portfolioId));
+    }
+
+    /**
+     * Caches a copy of a portfolio loaded from the database, unless the portfolio was invalidated since
+     * {@code stamp} was taken, in which case the loaded state may already be outdated. An invalidation that
+     * lands between the check and the put is caught by checking again afterwards.
+     */
+    public void put(PortfolioResponse portfolio, long stamp) {
+        String portfolioId = portfolio.getPortfolioId();
+        int stripe = stripe(portfolioId);
+        if (invalidations.get(stripe) != stamp) {
+            return;
+        }
+        cache.put(portfolioId, copyOf(portfolio));
+        if (invalidations.get(stripe) != stamp) {
+            cache.invalidate(portfolioId);
+        }
+    }
+
+    public void invalidate(String portfolioId) {
+        invalidations.incrementAndGet(stripe(portfolioId));
+        cache.invalidate(portfolioId);
+    }
+
+    // Runs before every other listener, so caches derived from portfolio responses (e.g. share pages) never
+    // reload from an entry that is about to be dropped
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        if (event.getChangeType() != PortfolioChangedEvent.ChangeType.CREATED) {
+            invalidate(event.getPortfolioId());
+            logger.debug("Evicted portfolio {} from cache after {}.", event.getPortfolioId(), event.getChangeType());
+        }
+    }
+
+    private static int stripe(String portfolioId) {
+        int hash = portfolioId.hashCode();
+        return (hash ^ (hash >>> 16)) & (STAMP_STRIPES - 1);
+    }
+
+    private static PortfolioResponse copyOf(PortfolioResponse portfolio) {
+        // Section values are immutable RawValues, so a shallow copy is enough
+        return new PortfolioResponse(
+                portfolio.getPortfolioId(),
+                portfolio.getTitle(),
+                portfolio.getUserId(),
+                portfolio.getPersonalInformation(),
+                portfolio.getEmploymentHistory(),
+                portfolio.getEducationalBackground(),
+                portfolio.getSkills(),
+                portfolio.getProjectShowcases(),
+                portfolio.getCreatedAt(),
+                portfolio.getUpdatedAt(),
+                portfolio.getVersion(),
+                portfolio.isDiscoverable());
+    }
+}
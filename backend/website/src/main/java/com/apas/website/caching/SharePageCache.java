@@ -0,0 +1,134 @@
+package com.apas.website.caching;
+
+import com.apas.website.events.PortfolioChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Rendered public share pages keyed by share token, each held as UTF-8 bytes and precompressed with gzip,
+ * so a visit is answered without touching the database or the renderer.
+ * <p>
+ * A page is rendered once per portfolio version: every committed {@link PortfolioChangedEvent} drops the
+ * pages of that portfolio, and revoking a link drops its token. The cache is bounded by the total bytes
+ * of both variants.
+ */
+@Component
+public class SharePageCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharePageCache.class);
+    private static final String CACHE_NAME = "sharePages";
+
+    private final Cache<String, SharePage> cache;
+    // Bumped on every invalidation so a render that raced with a write does not re-cache the old state
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public SharePageCache(@Value("${app.share.cache.maxBytes:33554432}") long maxBytes,
+                          MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String token, SharePage page) -> page.html().length + page.gzipped().length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public SharePage get(String token) {
+        return cache.getIfPresent(token);
+    }
+
+    /**
+     * Returns a stamp to take before resolving and rendering a page and to pass to {@link #put}
+     */
+    public long loadStamp() {
+        return invalidations.get();
+    }
+
+    /**
+     * Caches a rendered page, unless an invalidation happened since {@code stamp} was taken
+     */
+    public void put(SharePage page, long stamp) {
+        if (invalidations.get() == stamp) {
+            cache.put(page.token(), page);
+        }
+    }
+
+    /**
+     * Drops the page of a token once the surrounding transaction (if any) has committed
+     */
+    public void invalidateToken(String token) {
+        runAfterCommit(() -> {
+            invalidations.incrementAndGet();
+            cache.invalidate(token);
+        });
+    }
+
+    // Runs after PortfolioCache has dropped the portfolio (see its listener order), so a page rendered after
+    // the bump below is rendered from the committed state
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        if (event.getChangeType() == PortfolioChangedEvent.ChangeType.CREATED) {
+            return;
+        }
+        invalidations.incrementAndGet();
+        // A portfolio has at most one token, and shared portfolios are few, so a scan is cheap
+        if (cache.asMap().values().removeIf(page -> page.portfolioId().equals(event.getPortfolioId()))) {
+            logger.debug("Evicted share page of portfolio {} after {}.", event.getPortfolioId(), event.getChangeType());
+        }
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * A rendered share page with its gzip variant and the entity tag of its content
+     */
+    public record SharePage(String token, String portfolioId, Long version, String etag, byte[] html, byte[] gzipped) {
+
+        public static SharePage render(String token, String portfolioId, Long version, String html) {
+            byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+            // Weak, because the gzip and identity representations share it
+            String etag = "W/\"" + DigestUtils.md5DigestAsHex(bytes) + "\"";
+            return new SharePage(token, portfolioId, version, etag, bytes, gzip(bytes));
+        }
+
+        private static byte[] gzip(byte[] bytes) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+            // Compressed once per version, so the slowest level costs nothing per visit
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed) {{ def.setLevel(Deflater.BEST_COMPRESSION); }}) {
+                gzip.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return compressed.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.apas.website.configurations;
+
+import com.apas.website.entities.models.request.PdfGenerationRequest;
+import com.apas.website.entities.models.response.PdfStyleOptionsResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prebuilt {@link ObjectReader}s and {@link ObjectWriter}s for the JSON that is read and written on every
+ * portfolio and PDF request. Readers and writers are immutable and thread-safe; building them once skips the
+ * per-call type resolution and config copies of {@code readValue}/{@code writer().with(...)}, and binding
+ * straight to the target type avoids the intermediate trees and maps of {@code convertValue}.
+ */
+public class JsonCodecs {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader treeReader;
+    private final ObjectWriter treeWriter;
+    private final ObjectWriter canonicalTreeWriter;
+    private final ObjectReader sectionObjectReader;
+    private final ObjectReader sectionListReader;
+    private final ObjectWriter pdfGenerationRequestWriter;
+    private final ObjectReader pdfGenerationRequestReader;
+    private final ObjectReader pdfStyleOptionsReader;
+
+    public JsonCodecs(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.treeReader = objectMapper.readerFor(JsonNode.class);
+        this.treeWriter = objectMapper.writerFor(JsonNode.class);
+        this.canonicalTreeWriter = treeWriter.with(JsonNodeFeature.WRITE_PROPERTIES_SORTED);
+        this.sectionObjectReader = objectMapper.readerFor(new TypeReference<Map<String, Object>>() {});
+        this.sectionListReader = objectMapper.readerFor(new TypeReference<List<Map<String, Object>>>() {});
+        this.pdfGenerationRequestWriter = objectMapper.writerFor(PdfGenerationRequest.class);
+        this.pdfGenerationRequestReader = objectMapper.readerFor(PdfGenerationRequest.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        // Stored style options are a full PdfGenerationRequest; the response only carries the style part
+        this.pdfStyleOptionsReader = objectMapper.readerFor(PdfStyleOptionsResponse.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * Parses any JSON text (sections, revision documents) into a tree
+     */
+    public ObjectReader getTreeReader() {
+        return treeReader;
+    }
+
+    public ObjectWriter getTreeWriter() {
+        return treeWriter;
+    }
+
+    /**
+     * Writes trees with object properties in sorted order, so equal content always yields equal text
+     */
+    public ObjectWriter getCanonicalTreeWriter() {
+        return canonicalTreeWriter;
+    }
+
+    /**
+     * Binds an object-valued section (e.g. personal information) to a map
+     */
+    public ObjectReader getSectionObjectReader() {
+        return sectionObjectReader;
+    }
+
+    /**
+     * Binds an array-valued section (employment history, education, skills, projects) to a list of maps
+     */
+    public ObjectReader getSectionListReader() {
+        return sectionListReader;
+    }
+
+    public ObjectWriter getPdfGenerationRequestWriter() {
+        return pdfGenerationRequestWriter;
+    }
+
+    /**
+     * Binds stored style options back to the request they were generated with
+     */
+    public ObjectReader getPdfGenerationRequestReader() {
+        return pdfGenerationRequestReader;
+    }
+
+    public ObjectReader getPdfStyleOptionsReader() {
+        return pdfStyleOptionsReader;
+    }
+}
@@ -40,7 +40,8 @@ public class OpenApiConfig {
                 .tags(List.of(
                         new Tag().name("Authentication").description("Authentication management APIs"),
                         new Tag().name("Portfolio Management").description("APIs for managing user portfolios"),
-                        new Tag().name("PDF Management").description("APIs for generating and downloading portfolio PDFs")
+                        new Tag().name("PDF Management").description("APIs for generating and downloading portfolio PDFs"),
+                        new Tag().name("Data Export").description("APIs for exporting all of a user's portfolios and PDFs")
                 ));
     }
     
@@ -0,0 +1,89 @@
+package com.apas.website.controllers;
+
+import com.apas.website.entities.models.response.PdfRerenderStatusResponse;
+import com.apas.website.services.PdfRerenderService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Operations endpoints; only accounts listed in {@code app.admin.emails} get the ADMIN role that guards /api/admin/**
+ */
+@RestController
+@RequestMapping("/api/admin")
+@Tag(name = "Administration", description = "Maintenance jobs, restricted to administrators")
+@SecurityRequirement(name = "bearerAuth")
+public class AdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
+
+    private final PdfRerenderService pdfRerenderService;
+
+    @Autowired
+    public AdminController(PdfRerenderService pdfRerenderService) {
+        this.pdfRerenderService = pdfRerenderService;
+    }
+
+    @Operation(summary = "Start PDF re-render",
+               description = "Re-renders every generated PDF with the current template in the background, using each PDF's stored " +
+                             "style options and the portfolio revision it was generated from. An unfinished job is resumed from its " +
+                             "checkpoint unless restart=true. Calling it while a job runs returns that job's status.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Job running",
+                     content = @Content(schema = @Schema(implementation = PdfRerenderStatusResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Administrators only")
+    })
+    @PostMapping("/pdf-rerender")
+    public ResponseEntity<PdfRerenderStatusResponse> startPdfRerender(
+            @Parameter(description = "Start over from the first PDF instead of resuming an unfinished job")
+            @RequestParam(defaultValue = "false") boolean restart) {
+        PdfRerenderStatusResponse status = pdfRerenderService.start(restart);
+        logger.info("PDF re-render job {} requested (restart: {}).", status.getJobId(), restart);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+    }
+
+    @Operation(summary = "Get PDF re-render progress",
+               description = "Progress of the current or most recent re-render job, with its rate and estimated time to completion")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Job status",
+                     content = @Content(schema = @Schema(implementation = PdfRerenderStatusResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Administrators only")
+    })
+    @GetMapping("/pdf-rerender")
+    public ResponseEntity<PdfRerenderStatusResponse> getPdfRerenderStatus() {
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(pdfRerenderService.getStatus());
+    }
+
+    @Operation(summary = "Stop PDF re-render",
+               description = "Stops the running job after its current batch; starting again resumes it from the checkpoint")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Stop requested",
+                     content = @Content(schema = @Schema(implementation = PdfRerenderStatusResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Administrators only")
+    })
+    @DeleteMapping("/pdf-rerender")
+    public ResponseEntity<PdfRerenderStatusResponse> stopPdfRerender() {
+        logger.info("PDF re-render stop requested.");
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(pdfRerenderService.stop());
+    }
+}
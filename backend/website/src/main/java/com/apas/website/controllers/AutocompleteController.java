@@ -0,0 +1,63 @@
+package com.apas.website.controllers;
+
+import com.apas.website.entities.AutocompleteField;
+import com.apas.website.entities.models.response.AutocompleteSuggestionResponse;
+import com.apas.website.services.AutocompleteService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@Tag(name = "Autocomplete", description = "Type-ahead suggestions for the portfolio editor")
+@SecurityRequirement(name = "bearerAuth")
+public class AutocompleteController {
+
+    private static final int DEFAULT_SUGGESTION_LIMIT = 8;
+
+    private final AutocompleteService autocompleteService;
+
+    @Autowired
+    public AutocompleteController(AutocompleteService autocompleteService) {
+        this.autocompleteService = autocompleteService;
+    }
+
+    @Operation(summary = "Suggest values", 
+               description = "Suggests skills, companies or institutions used in portfolios that start with the given prefix (case-insensitive), most used first. " +
+                             "Answered from an in-memory index that follows saves immediately and is rebuilt from the database in the background.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully", 
+                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = AutocompleteSuggestionResponse.class)))),
+        @ApiResponse(responseCode = "400", description = "Unknown field or invalid limit"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @GetMapping("/autocomplete/{field}")
+    public ResponseEntity<List<AutocompleteSuggestionResponse>> suggest(
+            @PathVariable String field,
+            @RequestParam(required = false, defaultValue = "") String prefix,
+            @RequestParam(required = false) Integer limit) {
+        
+        List<AutocompleteSuggestionResponse> suggestions = autocompleteService.suggest(
+                AutocompleteField.fromName(field), prefix, limit != null ? limit : DEFAULT_SUGGESTION_LIMIT);
+        // Keystrokes repeat prefixes a lot, so let the browser reuse answers briefly
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(1)).cachePrivate())
+                .body(suggestions);
+    }
+}
@@ -0,0 +1,79 @@
+package com.apas.website.controllers;
+
+import com.apas.website.entities.UserEntity;
+import com.apas.website.entities.models.response.DashboardResponse;
+import com.apas.website.repositories.UserRepository;
+import com.apas.website.services.DashboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api")
+@Tag(name = "Dashboard", description = "Aggregate view loaded after login")
+@SecurityRequirement(name = "bearerAuth")
+public class DashboardController {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardController.class);
+
+    private final DashboardService dashboardService;
+    private final UserRepository userRepository;
+
+    @Autowired
+    public DashboardController(DashboardService dashboardService, UserRepository userRepository) {
+        this.dashboardService = dashboardService;
+        this.userRepository = userRepository;
+    }
+
+    @Operation(summary = "Get dashboard",
+               description = "Returns the profile, the first page of portfolio summaries and the most recent generated PDFs of a user in one response, " +
+                             "replacing the profile, portfolio list and generated PDF list requests. Further portfolios are paged with " +
+                             "portfoliosNextCursor on the portfolio list. pdfLimit sets how many PDFs are included. " +
+                             "Only metadata is read: neither portfolio sections nor PDF content are loaded.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Dashboard retrieved successfully",
+                     content = @Content(schema = @Schema(implementation = DashboardResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid pdfLimit"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Can only view your own dashboard")
+    })
+    @GetMapping("/users/{userId}/dashboard")
+    public ResponseEntity<DashboardResponse> getDashboard(@PathVariable String userId,
+                                                          @RequestParam(required = false) Integer pdfLimit) {
+        // The user loaded for the authorization check also provides the profile
+        UserEntity user = getAuthorizedUser(userId);
+        DashboardResponse dashboard = dashboardService.getDashboard(user, pdfLimit);
+        logger.info("Retrieved dashboard for user {}", userId);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(dashboard);
+    }
+
+    private UserEntity getAuthorizedUser(String userIdToCheck) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetails userDetails) {
+            return userRepository.findByEmail(userDetails.getUsername())
+                    .filter(authenticatedUser -> authenticatedUser.getUserId().equals(userIdToCheck))
+                    .orElseThrow(() -> new AccessDeniedException("You can only view your own dashboard"));
+        }
+        throw new AccessDeniedException("You can only view your own dashboard");
+    }
+}
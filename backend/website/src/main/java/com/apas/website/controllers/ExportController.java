@@ -0,0 +1,84 @@
+package com.apas.website.controllers;
+
+import com.apas.website.repositories.UserRepository;
+import com.apas.website.services.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api")
+@Tag(name = "Data Export", description = "APIs for exporting all of a user's portfolios and PDFs")
+@SecurityRequirement(name = "bearerAuth")
+public class ExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportController.class);
+    private static final MediaType APPLICATION_ZIP = MediaType.parseMediaType("application/zip");
+
+    private final ExportService exportService;
+    private final UserRepository userRepository;
+
+    @Autowired
+    public ExportController(ExportService exportService, UserRepository userRepository) {
+        this.exportService = exportService;
+        this.userRepository = userRepository;
+    }
+
+    @Operation(summary = "Export all portfolios and PDFs", 
+               description = "Streams a ZIP archive with every portfolio as JSON and every generated PDF of the user. " +
+                             "Pass the name of the last fully received entry as resumeAfter to continue an interrupted download.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "ZIP archive", content = @Content(mediaType = "application/zip")),
+        @ApiResponse(responseCode = "400", description = "Invalid resume point"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Can only export your own data")
+    })
+    @GetMapping("/users/{userId}/export")
+    public ResponseEntity<StreamingResponseBody> exportUserData(
+            @PathVariable String userId,
+            @Parameter(description = "Name of the last entry received by an interrupted export", example = "pdfs/PDF-A1B2-C3D4/portfolio.pdf")
+            @RequestParam(required = false) String resumeAfter) {
+
+        if (!isUserAuthorized(userId)) {
+            throw new AccessDeniedException("You can only export your own data");
+        }
+        // Validate up front: once streaming starts the status code can no longer change
+        exportService.validateResumePoint(resumeAfter);
+
+        StreamingResponseBody body = outputStream -> exportService.exportUserArchive(userId, resumeAfter, outputStream);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(APPLICATION_ZIP);
+        headers.setContentDisposition(ContentDisposition.attachment().filename("folioflow-export-" + userId + ".zip").build());
+        logger.info("Starting data export for user {}", userId);
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
+    private boolean isUserAuthorized(String userId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetails) {
+            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+            return userRepository.findByEmail(userDetails.getUsername())
+                    .map(user -> user.getUserId().equals(userId))
+                    .orElse(false);
+        }
+        return false;
+    }
+}
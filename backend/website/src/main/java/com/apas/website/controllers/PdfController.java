@@ -1,14 +1,26 @@
 package com.apas.website.controllers;
 
 import com.apas.website.entities.PortfolioEntity;
+import com.apas.website.entities.PortfolioSection;
 import com.apas.website.entities.UserEntity;
+import com.apas.website.entities.models.request.BulkDeleteRequest;
+import com.apas.website.entities.models.request.PdfBundleRequest;
 import com.apas.website.entities.models.request.PdfGenerationRequest;
+import com.apas.website.entities.models.request.PdfStampRequest;
+import com.apas.website.entities.models.request.PinPdfRequest;
+import com.apas.website.entities.models.request.PortfolioPreviewRequest;
+import com.apas.website.entities.models.response.BulkDeleteResponse;
 import com.apas.website.entities.models.response.PdfGenerationResponse;
-// PortfolioResponse is used for ownership check, but we might need PortfolioEntity for storage
-// import com.apas.website.entities.models.response.PortfolioResponse; 
+import com.apas.website.entities.models.response.PortfolioResponse;
+import com.apas.website.repositories.GeneratedPdfRepository.PdfOwnership;
 import com.apas.website.repositories.PortfolioRepository; // Added for fetching PortfolioEntity
+import com.apas.website.services.PdfBundleService;
+import com.apas.website.services.PdfBundleService.StoredBundle;
 import com.apas.website.services.PdfService;
+import com.apas.website.services.PdfStampService;
+import com.apas.website.services.PdfStampService.StampedPdf;
 import com.apas.website.services.PdfStorageService;
+import com.apas.website.services.PortfolioAutosaveService;
 import com.apas.website.services.PortfolioService; // Keep for existing logic
 import com.apas.website.repositories.UserRepository;
 
@@ -27,6 +39,8 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -37,11 +51,16 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.Principal;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.apas.website.entities.models.response.GeneratedPdfItemResponse;
 
@@ -59,16 +78,23 @@ public class PdfController {
     private final PortfolioService portfolioService; // Used for initial fetch and auth check
     private final UserRepository userRepository;
     private final PortfolioRepository portfolioRepository; // For fetching PortfolioEntity
+    private final PortfolioAutosaveService portfolioAutosaveService;
+    private final PdfBundleService pdfBundleService;
+    private final PdfStampService pdfStampService;
 
     @Autowired
     public PdfController(PdfService pdfService, PdfStorageService pdfStorageService, 
                          PortfolioService portfolioService, UserRepository userRepository,
-                         PortfolioRepository portfolioRepository) {
+                         PortfolioRepository portfolioRepository, PortfolioAutosaveService portfolioAutosaveService,
+                         PdfBundleService pdfBundleService, PdfStampService pdfStampService) {
         this.pdfService = pdfService;
         this.pdfStorageService = pdfStorageService;
         this.portfolioService = portfolioService;
         this.userRepository = userRepository;
         this.portfolioRepository = portfolioRepository;
+        this.portfolioAutosaveService = portfolioAutosaveService;
+        this.pdfBundleService = pdfBundleService;
+        this.pdfStampService = pdfStampService;
     }
 
     @Operation(summary = "Generate portfolio PDF", 
@@ -102,15 +128,21 @@ public class PdfController {
             
             PdfGenerationRequest actualRequest = (request == null) ? new PdfGenerationRequest() : request;
             
-            ByteArrayOutputStream pdfContent = pdfService.generatePortfolioPdf(portfolioId, actualRequest);
+            // The PDF must show what the editor shows, including autosaves not yet written
+            portfolioAutosaveService.flushPending(portfolioId);
+            
+            // Render from one loaded copy of the portfolio so the stored revision is exactly what went into the PDF
+            PortfolioResponse portfolioData = portfolioService.getPortfolioById(portfolioId);
+            ByteArrayOutputStream pdfContent = pdfService.generatePortfolioPdf(portfolioData, actualRequest);
             
             // Pass entities to storePdf
             String filename = pdfStorageService.storePdf(
                 portfolioEntity, 
                 userEntity,
-                portfolioEntity.getTitle(), // Use title from entity
+                portfolioData.getTitle(), // Title as rendered
                 pdfContent,
-                actualRequest 
+                actualRequest,
+                portfolioData.getVersion()
             );
             
             String downloadUrl = "/api/portfolios/" + portfolioId + "/download-pdf/" + filename;
@@ -131,6 +163,28 @@ public class PdfController {
         }
     }
 
+    @Operation(summary = "Preview portfolio draft",
+               description = "Renders unsaved editor content as HTML with the PDF template and style options, optionally just one section. " +
+                             "Nothing is read or stored and no PDF is laid out, so it is cheap enough to call on every edit.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "HTML preview", content = @Content(mediaType = "text/html")),
+        @ApiResponse(responseCode = "400", description = "Unknown section or malformed section JSON"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @PostMapping(value = "/portfolios/preview", produces = MediaType.TEXT_HTML_VALUE)
+    public ResponseEntity<String> previewPortfolio(
+            @RequestBody PortfolioPreviewRequest request,
+            @RequestParam(required = false) String section) {
+
+        PortfolioSection onlySection = section != null ? PortfolioSection.fromName(section) : null;
+        String html = pdfService.renderPreviewHtml(request, onlySection);
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                .cacheControl(CacheControl.noStore())
+                .header("Content-Security-Policy", "default-src 'none'; style-src 'unsafe-inline'; img-src data:; base-uri 'none'; form-action 'none'")
+                .body(html);
+    }
+
     @Operation(summary = "Download portfolio PDF", 
                description = "Downloads a previously generated PDF for a portfolio by its filename")
     @ApiResponses(value = {
@@ -261,8 +315,7 @@ public class PdfController {
         // However, a specific check here could be more explicit if needed.
         
         // Check if the PDF exists before attempting deletion to provide a more specific 404 if PDF not found for that portfolio
-        byte[] existingPdf = pdfStorageService.retrievePdf(portfolioId, filename);
-        if (existingPdf == null) {
+        if (!pdfStorageService.pdfExists(portfolioId, filename)) {
              logger.warn("Attempted to delete non-existent PDF with filename {} for portfolio {}.", filename, portfolioId);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build(); // PDF file not found for this portfolio
         }
@@ -277,4 +330,151 @@ public class PdfController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    @Operation(summary = "Delete several generated PDFs", 
+               description = "Deletes the given generated PDFs of a user in a single transaction and returns a result per ID.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Bulk delete processed", 
+                     content = @Content(schema = @Schema(implementation = BulkDeleteResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid request"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Can only delete your own generated PDFs")
+    })
+    @PostMapping("/users/{userId}/generated-pdfs/bulk-delete")
+    public ResponseEntity<BulkDeleteResponse> bulkDeleteGeneratedPdfs(
+            @PathVariable String userId,
+            @Valid @RequestBody BulkDeleteRequest request) {
+
+        if (!isUserAuthorized(userId)) {
+            throw new AccessDeniedException("You can only delete your own generated PDFs.");
+        }
+
+        BulkDeleteResponse response = pdfStorageService.bulkDeletePdfs(userId, request.getIds());
+        logger.info("User {} bulk deleted {} of {} generated PDF(s).", userId, response.getDeleted(), response.getRequested());
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Bundle generated PDFs", 
+               description = "Combines stored PDFs into one document by copying their pages, without rendering again. " +
+                             "The bundle is streamed as it is built; with store=true it is also stored as a new generated PDF " +
+                             "of the first PDF's portfolio, whose download URL is returned in Content-Location.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Bundled PDF", content = @Content(mediaType = "application/pdf")),
+        @ApiResponse(responseCode = "400", description = "Invalid request or too many PDFs"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Can only bundle your own generated PDFs"),
+        @ApiResponse(responseCode = "404", description = "A PDF was not found")
+    })
+    @PostMapping("/users/{userId}/generated-pdfs/bundle")
+    public ResponseEntity<StreamingResponseBody> bundleGeneratedPdfs(
+            @PathVariable String userId,
+            @Valid @RequestBody PdfBundleRequest request) throws IOException {
+
+        if (!isUserAuthorized(userId)) {
+            throw new AccessDeniedException("You can only bundle your own generated PDFs.");
+        }
+        // Resolve up front: once streaming starts the status code can no longer change
+        List<PdfOwnership> sources = pdfBundleService.resolveSources(userId, request.getPdfIds());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        if (Boolean.TRUE.equals(request.getStore())) {
+            StoredBundle stored = pdfBundleService.storeBundle(userId, sources, request.getCustomPdfName());
+            headers.setContentDisposition(ContentDisposition.attachment().filename(stored.filename()).build());
+            headers.setContentLength(stored.content().length);
+            headers.set(HttpHeaders.CONTENT_LOCATION, "/api/portfolios/" + stored.portfolioId() + "/download-pdf/" + stored.filename());
+            return ResponseEntity.ok().headers(headers).body(outputStream -> outputStream.write(stored.content()));
+        }
+
+        headers.setContentDisposition(ContentDisposition.attachment().filename("bundle_" + userId + ".pdf").build());
+        logger.info("Streaming bundle of {} PDF(s) for user {}.", sources.size(), userId);
+        return ResponseEntity.ok().headers(headers).body(outputStream -> pdfBundleService.writeBundle(sources, outputStream));
+    }
+
+    @Operation(summary = "Delete all generated PDFs of a portfolio", 
+               description = "Deletes every generated PDF of the portfolio in a single transaction. Only the owner can delete.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "PDFs deleted", 
+                     content = @Content(schema = @Schema(implementation = BulkDeleteResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - User does not own the portfolio"),
+        @ApiResponse(responseCode = "404", description = "Portfolio not found")
+    })
+    @DeleteMapping("/portfolios/{portfolioId}/generated-pdfs")
+    public ResponseEntity<BulkDeleteResponse> deleteAllGeneratedPdfs(@PathVariable String portfolioId, Principal principal) {
+        UserEntity authenticatedUser = userRepository.findByEmail(principal.getName())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authenticated user not found. Please log in again."));
+
+        BulkDeleteResponse response = pdfStorageService.deleteAllPdfsForPortfolio(authenticatedUser.getUserId(), portfolioId);
+        logger.info("User {} deleted all {} generated PDF(s) of portfolio {}.", authenticatedUser.getUserId(), response.getDeleted(), portfolioId);
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Stamp overlays onto a generated PDF", 
+               description = "Adds a watermark (custom text or \"DRAFT\"), page numbers and/or a footer to every page of a stored PDF " +
+                             "without rendering it again, and stores the result as a new generated PDF of the same portfolio. " +
+                             "The stamped PDF is returned; its download URL is in Content-Location.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stamped PDF", content = @Content(mediaType = "application/pdf")),
+        @ApiResponse(responseCode = "400", description = "Invalid request, nothing to stamp, or text outside Windows-1252"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Can only stamp PDFs of your own portfolios"),
+        @ApiResponse(responseCode = "404", description = "Portfolio or PDF not found")
+    })
+    @PostMapping("/portfolios/{portfolioId}/generated-pdfs/{filename:.+}/stamp")
+    public ResponseEntity<StreamingResponseBody> stampGeneratedPdf(
+            @PathVariable String portfolioId,
+            @PathVariable String filename,
+            @Valid @RequestBody PdfStampRequest request) throws IOException {
+
+        String ownerId = portfolioService.getPortfolioOwnerId(portfolioId);
+        if (!isUserAuthorized(ownerId)) {
+            throw new AccessDeniedException("You can only stamp PDFs of your own portfolios");
+        }
+
+        StampedPdf stamped = pdfStampService.stampPdf(portfolioId, filename, request);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDisposition(ContentDisposition.attachment().filename(stamped.filename()).build());
+        headers.setContentLength(stamped.content().length);
+        headers.set(HttpHeaders.CONTENT_LOCATION, "/api/portfolios/" + portfolioId + "/download-pdf/" + stamped.filename());
+        return ResponseEntity.ok().headers(headers).body(outputStream -> outputStream.write(stamped.content()));
+    }
+
+    @Operation(summary = "Pin or unpin a generated PDF", description = "Pinned PDFs are kept regardless of the retention policy. Only the owner can pin.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Pinned flag updated successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid request"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - User does not own the portfolio or PDF"),
+        @ApiResponse(responseCode = "404", description = "Portfolio or PDF not found")
+    })
+    @PatchMapping("/portfolios/{portfolioId}/generated-pdfs/{filename:.+}/pin")
+    public ResponseEntity<Map<String, Object>> setGeneratedPdfPinned(
+            @PathVariable String portfolioId,
+            @PathVariable String filename,
+            @Valid @RequestBody PinPdfRequest request,
+            Principal principal) {
+
+        UserEntity authenticatedUser = userRepository.findByEmail(principal.getName())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authenticated user not found. Please log in again."));
+
+        PortfolioEntity portfolio = portfolioRepository.findByPortfolioId(portfolioId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Portfolio not found with ID: " + portfolioId));
+
+        if (!portfolio.getUser().getUserId().equals(authenticatedUser.getUserId())) {
+            logger.warn("User {} attempted to change the pinned flag of a PDF in portfolio {} owned by user {}.",
+                authenticatedUser.getUserId(), portfolioId, portfolio.getUser().getUserId());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        if (!pdfStorageService.setPdfPinned(portfolioId, filename, request.getPinned())) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("filename", filename);
+        response.put("pinned", request.getPinned());
+        return ResponseEntity.ok(response);
+    }
 }
\ No newline at end of file
@@ -1,12 +1,31 @@
 package com.apas.website.controllers;
 
+import com.apas.website.entities.PortfolioField;
+import com.apas.website.entities.PortfolioSection;
+import com.apas.website.entities.models.request.BulkDeleteRequest;
 import com.apas.website.entities.models.request.CreatePortfolioRequest;
+import com.apas.website.entities.models.request.PortfolioDiscoverabilityRequest;
 import com.apas.website.entities.models.request.UpdatePortfolioRequest;
+import com.apas.website.entities.models.response.BulkDeleteItemResponse;
+import com.apas.website.entities.models.response.BulkDeleteResponse;
+import com.apas.website.entities.models.response.PortfolioAutosaveResponse;
+import com.apas.website.entities.models.response.PortfolioFieldsResponse;
 import com.apas.website.entities.models.response.PortfolioResponse;
+import com.apas.website.entities.models.response.PortfolioRevisionResponse;
+import com.apas.website.entities.models.response.PortfolioRevisionSummaryResponse;
+import com.apas.website.entities.models.response.PortfolioSearchPageResponse;
+import com.apas.website.entities.models.response.PortfolioSummaryPageResponse;
 import com.apas.website.entities.models.response.PortfolioSummaryResponse;
+import com.apas.website.entities.models.response.PortfolioVersionResponse;
+import com.apas.website.entities.models.response.SimilarPortfolioResponse;
 import com.apas.website.repositories.UserRepository;
+import com.apas.website.services.PortfolioAutosaveService;
+import com.apas.website.services.PortfolioRevisionService;
 import com.apas.website.services.PortfolioService;
+import com.apas.website.services.SimilarityService;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -19,17 +38,24 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api")
@@ -38,12 +64,26 @@ import java.util.Map;
 public class PortfolioController {
 
     private static final Logger logger = LoggerFactory.getLogger(PortfolioController.class);
+    private static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_SUMMARY_PAGE_SIZE = 50;
+    private static final int DEFAULT_REVISION_PAGE_SIZE = 50;
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+    private static final int DEFAULT_SIMILAR_LIMIT = 10;
     private final PortfolioService portfolioService;
+    private final PortfolioRevisionService portfolioRevisionService;
+    private final PortfolioAutosaveService portfolioAutosaveService;
+    private final SimilarityService similarityService;
     private final UserRepository userRepository;
 
     @Autowired
-    public PortfolioController(PortfolioService portfolioService, UserRepository userRepository) {
+    public PortfolioController(PortfolioService portfolioService, PortfolioRevisionService portfolioRevisionService,
+                               PortfolioAutosaveService portfolioAutosaveService, SimilarityService similarityService,
+                               UserRepository userRepository) {
         this.portfolioService = portfolioService;
+        this.portfolioRevisionService = portfolioRevisionService;
+        this.portfolioAutosaveService = portfolioAutosaveService;
+        this.similarityService = similarityService;
         this.userRepository = userRepository;
     }
 
@@ -81,57 +121,190 @@ public class PortfolioController {
         }
     }
 
-    @Operation(summary = "Get all portfolio drafts", description = "Returns all portfolio drafts for a user")
+    @Operation(summary = "Get all portfolio drafts", 
+               description = "Returns the portfolio drafts of a user as summaries. Without paging parameters all drafts are returned, newest first. " +
+                             "With limit, sort (updatedAt|title), direction (asc|desc) or cursor a single page is returned and the cursor for the next page is sent in the X-Next-Cursor header.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Portfolios retrieved successfully", 
                      content = @Content(array = @ArraySchema(schema = @Schema(implementation = PortfolioSummaryResponse.class)))),
+        @ApiResponse(responseCode = "400", description = "Invalid sort, direction, limit or cursor"),
         @ApiResponse(responseCode = "404", description = "User not found"),
         @ApiResponse(responseCode = "401", description = "Unauthorized"),
         @ApiResponse(responseCode = "403", description = "Forbidden - Can only view your own portfolios")
     })
     @GetMapping("/users/{userId}/portfolios")
-    public ResponseEntity<List<PortfolioSummaryResponse>> getAllPortfolios(@PathVariable String userId) {
+    public ResponseEntity<List<PortfolioSummaryResponse>> getAllPortfolios(
+            @PathVariable String userId,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         // Check if the authenticated user is trying to view their own portfolios
         if (!isUserAuthorized(userId)) {
             throw new AccessDeniedException("You can only view portfolios for your own account");
         }
         
-        List<PortfolioSummaryResponse> portfolios = portfolioService.getAllPortfoliosByUserId(userId);
-        logger.info("Retrieved {} portfolios for user {}", portfolios.size(), userId);
-        return ResponseEntity.ok(portfolios);
+        if (sort == null && direction == null && cursor == null && limit == null) {
+            List<PortfolioSummaryResponse> portfolios = portfolioService.getAllPortfoliosByUserId(userId);
+            logger.info("Retrieved {} portfolios for user {}", portfolios.size(), userId);
+            return ResponseEntity.ok(portfolios);
+        }
+        
+        // The body stays a plain array so paged and unpaged responses look the same to clients
+        PortfolioSummaryPageResponse page = portfolioService.getPortfolioSummaries(
+                userId, sort, direction, cursor, limit != null ? limit : DEFAULT_SUMMARY_PAGE_SIZE);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
-    @Operation(summary = "Get portfolio details", description = "Returns the details of a specific portfolio")
+    @Operation(summary = "Find portfolios containing a section fragment", 
+               description = "Returns the IDs of the user's portfolios whose employment history, education, skills or projects contain a JSON fragment, " +
+                             "e.g. fragment=[{\"company\": \"Acme\"}] or [{\"items\": [\"Java\"]}]. Matching follows PostgreSQL jsonb containment (@>).")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "IDs of the matching portfolios", 
+                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = String.class)))),
+        @ApiResponse(responseCode = "400", description = "Fragment is not a JSON array or object"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Can only view your own portfolios")
+    })
+    @GetMapping("/users/{userId}/portfolios/containing")
+    public ResponseEntity<List<String>> findPortfoliosContaining(@PathVariable String userId, @RequestParam String fragment) {
+        if (!isUserAuthorized(userId)) {
+            throw new AccessDeniedException("You can only view portfolios for your own account");
+        }
+        return ResponseEntity.ok(portfolioService.findPortfolioIdsContaining(userId, fragment));
+    }
+
+    @Operation(summary = "Search portfolios", 
+               description = "Full-text search over the title, skills, employment history, projects and education of portfolios whose owners made them discoverable. " +
+                             "Supports web search syntax (quoted phrases, 'or', '-term'). Results are ranked by relevance and come with highlighted fragments. " +
+                             "Very common terms are ranked over a capped number of candidate matches (app.portfolio.search.maxCandidates), " +
+                             "so their results are relevant but not necessarily the most relevant of all matches.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Search completed", 
+                     content = @Content(schema = @Schema(implementation = PortfolioSearchPageResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Missing or too long query, or invalid page or size"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @GetMapping("/portfolios/search")
+    public ResponseEntity<PortfolioSearchPageResponse> searchPortfolios(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        
+        PortfolioSearchPageResponse results = portfolioService.searchPortfolios(
+                q, page != null ? page : 0, size != null ? size : DEFAULT_SEARCH_PAGE_SIZE);
+        return ResponseEntity.ok(results);
+    }
+
+    @Operation(summary = "Find similar portfolios", 
+               description = "Returns the discoverable portfolios whose skills and project technologies overlap most with those of the given portfolio, " +
+                             "most similar first. Similarity is estimated from MinHash signatures held in an in-memory index, so only likely matches are compared. " +
+                             "The given portfolio must be discoverable or your own.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Similar portfolios retrieved; empty if the portfolio lists no skills or technologies", 
+                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = SimilarPortfolioResponse.class)))),
+        @ApiResponse(responseCode = "400", description = "Invalid limit"),
+        @ApiResponse(responseCode = "404", description = "Portfolio not found"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Portfolio is neither discoverable nor your own")
+    })
+    @GetMapping("/portfolios/{portfolioId}/similar")
+    public ResponseEntity<List<SimilarPortfolioResponse>> getSimilarPortfolios(
+            @PathVariable String portfolioId,
+            @RequestParam(required = false) Integer limit) {
+        
+        String ownerId = portfolioService.getPortfolioOwnerId(portfolioId);
+        List<SimilarPortfolioResponse> similar = similarityService.findSimilar(
+                portfolioId, isUserAuthorized(ownerId), limit != null ? limit : DEFAULT_SIMILAR_LIMIT);
+        return ResponseEntity.ok(similar);
+    }
+
+    @Operation(summary = "Get portfolio details", description = "Returns the details of a specific portfolio with its version as ETag; send If-None-Match to get 304 when it is unchanged. " +
+                                                                "Pass fields (e.g. fields=title,skills) to receive only those fields; unrequested sections are not read from the database.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Portfolio retrieved successfully", 
                      content = @Content(schema = @Schema(implementation = PortfolioResponse.class))),
+        @ApiResponse(responseCode = "304", description = "Portfolio unchanged since the given ETag"),
+        @ApiResponse(responseCode = "400", description = "Unknown field in fields"),
         @ApiResponse(responseCode = "404", description = "Portfolio not found"),
         @ApiResponse(responseCode = "401", description = "Unauthorized"),
         @ApiResponse(responseCode = "403", description = "Forbidden - Can only view your own portfolios")
     })
     @GetMapping("/portfolios/{portfolioId}")
-    public ResponseEntity<PortfolioResponse> getPortfolio(@PathVariable String portfolioId) {
+    public ResponseEntity<Object> getPortfolio(
+            @PathVariable String portfolioId,
+            @Parameter(description = "Comma-separated fields to return; the portfolio ID is always included", example = "title,skills")
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            PortfolioResponse portfolio = portfolioService.getPortfolioById(portfolioId);
-            
-            // Check if the authenticated user is trying to view their own portfolio
-            if (!isUserAuthorized(portfolio.getUserId())) {
+            // Parse before any lookup so an unknown field is a 400 regardless of the portfolio
+            Set<PortfolioField> selectedFields = StringUtils.hasText(fields) ? PortfolioField.parseList(fields) : null;
+            // Owner and version are usually answered by the portfolio cache; authorize before the flush writes anything
+            PortfolioVersionResponse current = portfolioService.getPortfolioVersion(portfolioId);
+            if (!isUserAuthorized(current.getUserId())) {
                 throw new AccessDeniedException("You can only view your own portfolios");
             }
+            // Reads always include buffered autosaves
+            Long version = flushAutosave(portfolioId, current.getVersion());
+            
+            // Polling clients send the ETag they have; answer from the version alone when it is still current
+            if (ifNoneMatch != null && etagMatches(ifNoneMatch, toEtag(version, selectedFields))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(toEtag(version, selectedFields)).build();
+            }
             
+            if (selectedFields != null) {
+                PortfolioFieldsResponse portfolio = portfolioService.getPortfolioFields(portfolioId, selectedFields);
+                logger.info("Retrieved fields {} of portfolio {} for user {}", fields, portfolioId, portfolio.getUserId());
+                return ResponseEntity.ok().eTag(toEtag(portfolio.getVersion(), selectedFields)).body(portfolio);
+            }
+            
+            PortfolioResponse portfolio = portfolioService.getPortfolioById(portfolioId);
             logger.info("Retrieved portfolio {} for user {}", portfolioId, portfolio.getUserId());
-            return ResponseEntity.ok(portfolio);
+            return ResponseEntity.ok().eTag(toEtag(portfolio.getVersion())).body(portfolio);
         } catch (EntityNotFoundException e) {
             logger.error("Failed to retrieve portfolio: {}", e.getMessage());
             throw e;
         }
     }
 
-    @Operation(summary = "Update portfolio", description = "Updates a portfolio draft")
+    @Operation(summary = "Get one portfolio section", 
+               description = "Returns a single section of a portfolio as stored, optionally narrowed to a nested value by a dot-separated path (e.g. path=0.company). The other sections are not loaded.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Section retrieved successfully; 'null' if the section or path is empty"),
+        @ApiResponse(responseCode = "400", description = "Unknown section"),
+        @ApiResponse(responseCode = "404", description = "Portfolio not found"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Can only view your own portfolios")
+    })
+    @GetMapping(value = "/portfolios/{portfolioId}/sections/{section}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> getPortfolioSection(
+            @PathVariable String portfolioId,
+            @PathVariable String section,
+            @RequestParam(required = false) String path) {
+        
+        PortfolioSection portfolioSection = PortfolioSection.fromName(section);
+        String ownerId = portfolioService.getPortfolioOwnerId(portfolioId);
+        if (!isUserAuthorized(ownerId)) {
+            throw new AccessDeniedException("You can only view your own portfolios");
+        }
+        portfolioAutosaveService.flushPending(portfolioId);
+        
+        // The JSON text comes straight from PostgreSQL and is written to the response unchanged
+        String json = portfolioService.getPortfolioSectionJson(portfolioId, portfolioSection, path);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
+    }
+
+    @Operation(summary = "Update portfolio", description = "Updates a portfolio draft; send If-Match with the ETag to avoid overwriting concurrent changes")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Portfolio updated successfully", 
                      content = @Content(schema = @Schema(implementation = PortfolioResponse.class))),
         @ApiResponse(responseCode = "400", description = "Invalid input"),
+        @ApiResponse(responseCode = "409", description = "Portfolio was modified concurrently"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version, including buffered autosaves"),
         @ApiResponse(responseCode = "404", description = "Portfolio not found"),
         @ApiResponse(responseCode = "401", description = "Unauthorized"),
         @ApiResponse(responseCode = "403", description = "Forbidden - Can only update your own portfolios")
@@ -139,26 +312,203 @@ public class PortfolioController {
     @PutMapping("/portfolios/{portfolioId}")
     public ResponseEntity<PortfolioResponse> updatePortfolio(
             @PathVariable String portfolioId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody UpdatePortfolioRequest request) {
         
         try {
-            // First get the portfolio to check ownership
-            PortfolioResponse existingPortfolio = portfolioService.getPortfolioById(portfolioId);
+            // First look up the owner and version (usually answered by the portfolio cache) to check ownership
+            PortfolioVersionResponse current = portfolioService.getPortfolioVersion(portfolioId);
             
             // Check if the authenticated user is trying to update their own portfolio
-            if (!isUserAuthorized(existingPortfolio.getUserId())) {
+            if (!isUserAuthorized(current.getUserId())) {
                 throw new AccessDeniedException("You can only update your own portfolios");
             }
+            Long expectedVersion = checkIfMatch(ifMatch, flushAutosave(portfolioId, current.getVersion()));
             
-            PortfolioResponse updatedPortfolio = portfolioService.updatePortfolio(portfolioId, request);
+            PortfolioResponse updatedPortfolio = portfolioService.updatePortfolio(portfolioId, request, expectedVersion);
             logger.info("Updated portfolio {} for user {}", portfolioId, updatedPortfolio.getUserId());
-            return ResponseEntity.ok(updatedPortfolio);
+            return ResponseEntity.ok().eTag(toEtag(updatedPortfolio.getVersion())).body(updatedPortfolio);
         } catch (EntityNotFoundException e) {
             logger.error("Failed to update portfolio: {}", e.getMessage());
             throw e;
         }
     }
 
+    @Operation(summary = "Patch portfolio", 
+               description = "Applies a JSON Merge Patch (RFC 7396). Top-level members are 'title' or section names; each section value is merged into the stored section, and null removes a member. Unchanged sections are not rewritten.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Portfolio patched successfully", 
+                     content = @Content(schema = @Schema(implementation = PortfolioResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid patch or unknown section"),
+        @ApiResponse(responseCode = "409", description = "Portfolio was modified concurrently"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version, including buffered autosaves"),
+        @ApiResponse(responseCode = "404", description = "Portfolio not found"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Can only update your own portfolios")
+    })
+    @PatchMapping(value = "/portfolios/{portfolioId}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<PortfolioResponse> patchPortfolio(
+            @PathVariable String portfolioId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody JsonNode patch) {
+        
+        PortfolioVersionResponse current = portfolioService.getPortfolioVersion(portfolioId);
+        if (!isUserAuthorized(current.getUserId())) {
+            throw new AccessDeniedException("You can only update your own portfolios");
+        }
+        Long expectedVersion = checkIfMatch(ifMatch, flushAutosave(portfolioId, current.getVersion()));
+        
+        PortfolioResponse patchedPortfolio = portfolioService.patchPortfolio(portfolioId, patch, expectedVersion);
+        logger.info("Patched portfolio {} for user {}", portfolioId, current.getUserId());
+        return ResponseEntity.ok().eTag(toEtag(patchedPortfolio.getVersion())).body(patchedPortfolio);
+    }
+
+    @Operation(summary = "Autosave portfolio", 
+               description = "Buffers an editor autosave instead of writing it. The body is a JSON Merge Patch like for PATCH /portfolios/{portfolioId}; " +
+                             "successive autosaves are merged in memory and written as one update after a short delay, once the editor goes idle, " +
+                             "on an explicit save or when any other request reads or changes the portfolio. Buffered edits are journaled and survive a restart.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Edit accepted", 
+                     content = @Content(schema = @Schema(implementation = PortfolioAutosaveResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid patch or unknown section"),
+        @ApiResponse(responseCode = "404", description = "Portfolio not found"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Can only update your own portfolios")
+    })
+    @PatchMapping(value = "/portfolios/{portfolioId}/autosave", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<PortfolioAutosaveResponse> autosavePortfolio(
+            @PathVariable String portfolioId,
+            @RequestBody JsonNode patch) {
+        
+        String ownerId = portfolioService.getPortfolioOwnerId(portfolioId);
+        if (!isUserAuthorized(ownerId)) {
+            throw new AccessDeniedException("You can only update your own portfolios");
+        }
+        
+        PortfolioAutosaveResponse response = portfolioAutosaveService.autosave(portfolioId, patch);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @Operation(summary = "Save autosaved portfolio", description = "Writes the buffered autosaves of a portfolio now and returns the saved portfolio")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Portfolio saved", 
+                     content = @Content(schema = @Schema(implementation = PortfolioResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Portfolio not found"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Can only update your own portfolios")
+    })
+    @PostMapping("/portfolios/{portfolioId}/autosave/flush")
+    public ResponseEntity<PortfolioResponse> flushAutosavedPortfolio(@PathVariable String portfolioId) {
+        String ownerId = portfolioService.getPortfolioOwnerId(portfolioId);
+        if (!isUserAuthorized(ownerId)) {
+            throw new AccessDeniedException("You can only update your own portfolios");
+        }
+        
+        boolean written = portfolioAutosaveService.flushPending(portfolioId);
+        PortfolioResponse portfolio = portfolioService.getPortfolioById(portfolioId);
+        logger.info("Saved autosaves of portfolio {} for user {} (pending edits written: {})", portfolioId, ownerId, written);
+        return ResponseEntity.ok().eTag(toEtag(portfolio.getVersion())).body(portfolio);
+    }
+
+    @Operation(summary = "List portfolio revisions", 
+               description = "Lists the saved revisions of a portfolio, newest first. Pass the oldest returned revision as 'before' to get the next page.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Revisions retrieved successfully", 
+                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = PortfolioRevisionSummaryResponse.class)))),
+        @ApiResponse(responseCode = "400", description = "Invalid limit"),
+        @ApiResponse(responseCode = "404", description = "Portfolio not found"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Can only view your own portfolios")
+    })
+    @GetMapping("/portfolios/{portfolioId}/revisions")
+    public ResponseEntity<List<PortfolioRevisionSummaryResponse>> getPortfolioRevisions(
+            @PathVariable String portfolioId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer limit) {
+        
+        String ownerId = portfolioService.getPortfolioOwnerId(portfolioId);
+        if (!isUserAuthorized(ownerId)) {
+            throw new AccessDeniedException("You can only view your own portfolios");
+        }
+        
+        return ResponseEntity.ok(portfolioRevisionService.getRevisions(
+                portfolioId, before, limit != null ? limit : DEFAULT_REVISION_PAGE_SIZE));
+    }
+
+    @Operation(summary = "Get portfolio revision", description = "Returns the content of a portfolio as it was saved at one revision")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Revision retrieved successfully", 
+                     content = @Content(schema = @Schema(implementation = PortfolioRevisionResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Portfolio or revision not found"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Can only view your own portfolios")
+    })
+    @GetMapping("/portfolios/{portfolioId}/revisions/{revision}")
+    public ResponseEntity<PortfolioRevisionResponse> getPortfolioRevision(
+            @PathVariable String portfolioId,
+            @PathVariable long revision) {
+        
+        String ownerId = portfolioService.getPortfolioOwnerId(portfolioId);
+        if (!isUserAuthorized(ownerId)) {
+            throw new AccessDeniedException("You can only view your own portfolios");
+        }
+        
+        return ResponseEntity.ok(portfolioRevisionService.getRevision(portfolioId, revision));
+    }
+
+    @Operation(summary = "Restore portfolio revision", 
+               description = "Restores the content of an earlier revision. The restore is saved as a new revision; send If-Match with the ETag to avoid overwriting concurrent changes")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Portfolio restored successfully", 
+                     content = @Content(schema = @Schema(implementation = PortfolioResponse.class))),
+        @ApiResponse(responseCode = "409", description = "Portfolio was modified concurrently"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version, including buffered autosaves"),
+        @ApiResponse(responseCode = "404", description = "Portfolio or revision not found"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Can only update your own portfolios")
+    })
+    @PostMapping("/portfolios/{portfolioId}/revisions/{revision}/restore")
+    public ResponseEntity<PortfolioResponse> restorePortfolioRevision(
+            @PathVariable String portfolioId,
+            @PathVariable long revision,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        
+        PortfolioVersionResponse current = portfolioService.getPortfolioVersion(portfolioId);
+        if (!isUserAuthorized(current.getUserId())) {
+            throw new AccessDeniedException("You can only update your own portfolios");
+        }
+        Long expectedVersion = checkIfMatch(ifMatch, flushAutosave(portfolioId, current.getVersion()));
+        
+        PortfolioResponse restoredPortfolio = portfolioService.restorePortfolioRevision(portfolioId, revision, expectedVersion);
+        logger.info("Restored portfolio {} to revision {} for user {}", portfolioId, revision, current.getUserId());
+        return ResponseEntity.ok().eTag(toEtag(restoredPortfolio.getVersion())).body(restoredPortfolio);
+    }
+
+    @Operation(summary = "Set portfolio discoverability", 
+               description = "Opts a portfolio in to or out of full-text search. Portfolios are not discoverable until their owner opts in.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Discoverable flag updated successfully", 
+                     content = @Content(schema = @Schema(implementation = PortfolioResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid request"),
+        @ApiResponse(responseCode = "404", description = "Portfolio not found"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Can only update your own portfolios")
+    })
+    @PatchMapping("/portfolios/{portfolioId}/discoverable")
+    public ResponseEntity<PortfolioResponse> setPortfolioDiscoverable(
+            @PathVariable String portfolioId,
+            @Valid @RequestBody PortfolioDiscoverabilityRequest request) {
+        
+        String ownerId = portfolioService.getPortfolioOwnerId(portfolioId);
+        if (!isUserAuthorized(ownerId)) {
+            throw new AccessDeniedException("You can only update your own portfolios");
+        }
+        
+        PortfolioResponse portfolio = portfolioService.setPortfolioDiscoverable(portfolioId, request.getDiscoverable());
+        logger.info("Set discoverable={} for portfolio {} of user {}", request.getDiscoverable(), portfolioId, ownerId);
+        return ResponseEntity.ok().eTag(toEtag(portfolio.getVersion())).body(portfolio);
+    }
+
     @Operation(summary = "Delete portfolio", description = "Deletes a portfolio draft")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Portfolio deleted successfully"),
@@ -169,16 +519,17 @@ public class PortfolioController {
     @DeleteMapping("/portfolios/{portfolioId}")
     public ResponseEntity<Map<String, String>> deletePortfolio(@PathVariable String portfolioId) {
         try {
-            // First get the portfolio to check ownership
-            PortfolioResponse existingPortfolio = portfolioService.getPortfolioById(portfolioId);
+            // First look up the owner (usually answered by the portfolio cache) to check ownership
+            String ownerId = portfolioService.getPortfolioOwnerId(portfolioId);
             
             // Check if the authenticated user is trying to delete their own portfolio
-            if (!isUserAuthorized(existingPortfolio.getUserId())) {
+            if (!isUserAuthorized(ownerId)) {
                 throw new AccessDeniedException("You can only delete your own portfolios");
             }
             
+            portfolioAutosaveService.discard(portfolioId);
             portfolioService.deletePortfolio(portfolioId);
-            logger.info("Deleted portfolio {} for user {}", portfolioId, existingPortfolio.getUserId());
+            logger.info("Deleted portfolio {} for user {}", portfolioId, ownerId);
             
             Map<String, String> response = new HashMap<>();
             response.put("message", "Portfolio deleted successfully");
@@ -190,6 +541,103 @@ public class PortfolioController {
         }
     }
     
+    @Operation(summary = "Delete several portfolios", 
+               description = "Deletes the given portfolio drafts and their generated PDFs in a single transaction and returns a result per ID")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Bulk delete processed", 
+                     content = @Content(schema = @Schema(implementation = BulkDeleteResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Can only delete your own portfolios")
+    })
+    @PostMapping("/users/{userId}/portfolios/bulk-delete")
+    public ResponseEntity<BulkDeleteResponse> bulkDeletePortfolios(
+            @PathVariable String userId,
+            @Valid @RequestBody BulkDeleteRequest request) {
+        
+        // Ownership is checked once for the caller; the service only deletes rows owned by this user
+        if (!isUserAuthorized(userId)) {
+            throw new AccessDeniedException("You can only delete your own portfolios");
+        }
+        
+        BulkDeleteResponse response = portfolioService.bulkDeletePortfolios(userId, request.getIds());
+        response.getResults().stream()
+                .filter(result -> BulkDeleteItemResponse.DELETED.equals(result.getStatus()))
+                .forEach(result -> portfolioAutosaveService.discard(result.getId()));
+        logger.info("Bulk deleted {} of {} portfolio(s) for user {}", response.getDeleted(), response.getRequested(), userId);
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Validates an If-Match header against the current version
+     * 
+     * @param ifMatch The If-Match header value, may be null
+     * @param currentVersion The portfolio's current version
+     * @return The version the write must still find, or null when the request is unconditional
+     * @throws ResponseStatusException with 412 if the client's ETag is outdated
+     */
+    private Long checkIfMatch(String ifMatch, Long currentVersion) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        // Writes replace the whole portfolio, so the ETag of a field subset at the current version matches too
+        String etag = toEtag(currentVersion);
+        String subsetPrefix = etag.substring(0, etag.length() - 1) + "-";
+        if (!anyEtagMatches(ifMatch, candidate -> candidate.equals(etag) || candidate.startsWith(subsetPrefix))) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                    "The portfolio has been modified since it was loaded (current ETag: " + etag + ")");
+        }
+        return currentVersion;
+    }
+    
+    /**
+     * Writes the buffered autosaves of a portfolio before an explicit write and returns the version they
+     * produced. If-Match is checked against that version, so a client that has not seen the autosaved edits
+     * (e.g. a second tab) gets 412 instead of silently overwriting them.
+     * 
+     * @param currentVersion The version before the flush
+     * @return The version after the flush
+     */
+    private Long flushAutosave(String portfolioId, Long currentVersion) {
+        if (portfolioAutosaveService.flushPending(portfolioId)) {
+            return portfolioService.getPortfolioVersion(portfolioId).getVersion();
+        }
+        return currentVersion;
+    }
+    
+    private static boolean etagMatches(String header, String etag) {
+        return anyEtagMatches(header, etag::equals);
+    }
+    
+    private static boolean anyEtagMatches(String header, Predicate<String> matches) {
+        for (String candidate : header.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals("*") || matches.test(trimmed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String toEtag(Long version) {
+        return "\"" + (version != null ? version : 0L) + "\"";
+    }
+    
+    /**
+     * Entity tag of a response with only some fields, e.g. "7-portfolioId.title": the same version yields
+     * different bodies for different field sets, so each set gets its own tag
+     */
+    private static String toEtag(Long version, Set<PortfolioField> fields) {
+        if (fields == null) {
+            return toEtag(version);
+        }
+        String names = fields.stream().map(PortfolioField::getName).collect(Collectors.joining("."));
+        return "\"" + (version != null ? version : 0L) + "-" + names + "\"";
+    }
+    
     /**
      * Checks if the currently authenticated user is authorized to access resources for the given user ID
      * 
@@ -0,0 +1,197 @@
+package com.apas.website.controllers;
+
+import com.apas.website.caching.SharePageCache.SharePage;
+import com.apas.website.entities.models.response.ShareLinkResponse;
+import com.apas.website.repositories.UserRepository;
+import com.apas.website.services.PortfolioService;
+import com.apas.website.services.PortfolioShareService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+@RestController
+@Tag(name = "Portfolio Sharing", description = "Public share links that show a portfolio as a web page")
+public class PortfolioShareController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioShareController.class);
+    private static final MediaType TEXT_HTML_UTF8 = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
+    // The page only carries inline styles: no scripts, frames, forms or external resources
+    private static final String CONTENT_SECURITY_POLICY =
+            "default-src 'none'; style-src 'unsafe-inline'; img-src data:; base-uri 'none'; form-action 'none'; frame-ancestors 'none'";
+
+    private final PortfolioShareService portfolioShareService;
+    private final PortfolioService portfolioService;
+    private final UserRepository userRepository;
+    private final CacheControl sharePageCacheControl;
+
+    @Autowired
+    public PortfolioShareController(PortfolioShareService portfolioShareService, PortfolioService portfolioService,
+                                    UserRepository userRepository,
+                                    @Value("${app.share.maxAgeSeconds:300}") long maxAgeSeconds) {
+        this.portfolioShareService = portfolioShareService;
+        this.portfolioService = portfolioService;
+        this.userRepository = userRepository;
+        this.sharePageCacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic();
+    }
+
+    @Operation(summary = "Create share link",
+               description = "Returns the public share link of a portfolio, creating an unguessable token on first use. Calling it again returns the same link.",
+               security = { @SecurityRequirement(name = "bearerAuth") })
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Share link returned",
+                     content = @Content(schema = @Schema(implementation = ShareLinkResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Portfolio not found"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Can only share your own portfolios")
+    })
+    @PostMapping("/api/portfolios/{portfolioId}/share")
+    public ResponseEntity<ShareLinkResponse> createShareLink(@PathVariable String portfolioId) {
+        String ownerId = portfolioService.getPortfolioOwnerId(portfolioId);
+        if (!isUserAuthorized(ownerId)) {
+            throw new AccessDeniedException("You can only share your own portfolios");
+        }
+        return ResponseEntity.ok(portfolioShareService.createShareLink(portfolioId));
+    }
+
+    @Operation(summary = "Revoke share link",
+               description = "Revokes the public share link of a portfolio. Sharing again afterwards creates a new token.",
+               security = { @SecurityRequirement(name = "bearerAuth") })
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Share link revoked"),
+        @ApiResponse(responseCode = "404", description = "Portfolio not found or not shared"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Can only unshare your own portfolios")
+    })
+    @DeleteMapping("/api/portfolios/{portfolioId}/share")
+    public ResponseEntity<Void> revokeShareLink(@PathVariable String portfolioId) {
+        String ownerId = portfolioService.getPortfolioOwnerId(portfolioId);
+        if (!isUserAuthorized(ownerId)) {
+            throw new AccessDeniedException("You can only unshare your own portfolios");
+        }
+        return portfolioShareService.revokeShareLink(portfolioId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @Operation(summary = "View shared portfolio",
+               description = "Public page of a shared portfolio, rendered from the PDF template. The page is rendered once per portfolio version " +
+                             "and kept gzip-compressed; send If-None-Match with the ETag to get 304 Not Modified.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "HTML page"),
+        @ApiResponse(responseCode = "304", description = "Not modified"),
+        @ApiResponse(responseCode = "404", description = "Unknown or revoked share link")
+    })
+    @GetMapping(value = "/share/{token}", produces = MediaType.TEXT_HTML_VALUE)
+    public ResponseEntity<byte[]> getSharePage(
+            @PathVariable String token,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        Optional<SharePage> found = portfolioShareService.getSharePage(token);
+        if (found.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).cacheControl(CacheControl.noStore()).build();
+        }
+        SharePage page = found.get();
+
+        if (ifNoneMatch != null && etagMatches(ifNoneMatch, page.etag())) {
+            return pageHeaders(ResponseEntity.status(HttpStatus.NOT_MODIFIED), page).build();
+        }
+
+        boolean gzip = acceptEncoding != null && acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = pageHeaders(ResponseEntity.ok(), page).contentType(TEXT_HTML_UTF8);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        logger.debug("Served share page of portfolio {} ({})", page.portfolioId(), gzip ? "gzip" : "identity");
+        return response.body(gzip ? page.gzipped() : page.html());
+    }
+
+    private ResponseEntity.BodyBuilder pageHeaders(ResponseEntity.BodyBuilder builder, SharePage page) {
+        return builder
+                .eTag(page.etag())
+                .cacheControl(sharePageCacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .header("Content-Security-Policy", CONTENT_SECURITY_POLICY)
+                // The token is the credential; keep it out of Referer headers and search indexes
+                .header("Referrer-Policy", "no-referrer")
+                .header("X-Robots-Tag", "noindex, nofollow");
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip: listed as gzip (or x-gzip), or covered by "*", with a
+     * non-zero q-value. An explicit gzip entry takes precedence over "*", so "*, gzip;q=0" refuses gzip.
+     */
+    private static boolean acceptsGzip(String header) {
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String entry : header.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().toLowerCase();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0; // A malformed weight does not make a coding acceptable
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = gzipQuality == null ? quality : Math.max(gzipQuality, quality);
+            } else if (coding.equals("*")) {
+                wildcardQuality = quality;
+            }
+        }
+        if (gzipQuality != null) {
+            return gzipQuality > 0;
+        }
+        return wildcardQuality != null && wildcardQuality > 0;
+    }
+
+    private static boolean etagMatches(String header, String etag) {
+        String opaque = etag.substring(2);
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            // Weak comparison, as RFC 9110 requires for If-None-Match
+            if (value.equals("*") || value.equals(etag) || value.equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isUserAuthorized(String userId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetails) {
+            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+            return userRepository.findByEmail(userDetails.getUsername())
+                    .map(user -> user.getUserId().equals(userId))
+                    .orElse(false);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,102 @@
+package com.apas.website.controllers;
+
+import com.apas.website.entities.models.response.PortfolioImportReportResponse;
+import com.apas.website.repositories.UserRepository;
+import com.apas.website.services.PortfolioTransferService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api")
+@Tag(name = "Portfolio Import/Export", description = "APIs for moving portfolios in and out in bulk as NDJSON")
+@SecurityRequirement(name = "bearerAuth")
+public class PortfolioTransferController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioTransferController.class);
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private final PortfolioTransferService portfolioTransferService;
+    private final UserRepository userRepository;
+
+    @Autowired
+    public PortfolioTransferController(PortfolioTransferService portfolioTransferService, UserRepository userRepository) {
+        this.portfolioTransferService = portfolioTransferService;
+        this.userRepository = userRepository;
+    }
+
+    @Operation(summary = "Import portfolios from NDJSON",
+               description = "Creates one portfolio per line of the request body. Each line is a JSON object with a title, " +
+                             "optionally discoverable and any portfolio sections; the output of the export endpoint is accepted as-is. " +
+                             "Invalid lines are skipped and listed in the report together with their line number.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import finished; see the report for rejected lines",
+                     content = @Content(schema = @Schema(implementation = PortfolioImportReportResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Can only import into your own account"),
+        @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    @PostMapping(value = "/users/{userId}/portfolios/import", consumes = {APPLICATION_NDJSON, MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<PortfolioImportReportResponse> importPortfolios(@PathVariable String userId,
+                                                                          HttpServletRequest request) throws IOException {
+        if (!isUserAuthorized(userId)) {
+            throw new AccessDeniedException("You can only import portfolios into your own account");
+        }
+        // Read from the request stream directly so the upload is never buffered as a whole
+        PortfolioImportReportResponse report = portfolioTransferService.importPortfolios(userId, request.getInputStream());
+        return ResponseEntity.ok(report);
+    }
+
+    @Operation(summary = "Export portfolios as NDJSON",
+               description = "Streams every portfolio of the user as one JSON object per line, ordered by portfolio ID")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "NDJSON stream", content = @Content(mediaType = APPLICATION_NDJSON)),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Can only export your own portfolios")
+    })
+    @GetMapping(value = "/users/{userId}/portfolios/export", produces = APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportPortfolios(@PathVariable String userId) {
+        if (!isUserAuthorized(userId)) {
+            throw new AccessDeniedException("You can only export your own portfolios");
+        }
+
+        StreamingResponseBody body = outputStream -> portfolioTransferService.exportPortfolios(userId, outputStream);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(APPLICATION_NDJSON));
+        headers.setContentDisposition(ContentDisposition.attachment().filename("folioflow-portfolios-" + userId + ".ndjson").build());
+        logger.info("Starting NDJSON portfolio export for user {}", userId);
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
+    private boolean isUserAuthorized(String userId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetails) {
+            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+            return userRepository.findByEmail(userDetails.getUsername())
+                    .map(user -> user.getUserId().equals(userId))
+                    .orElse(false);
+        }
+        return false;
+    }
+}
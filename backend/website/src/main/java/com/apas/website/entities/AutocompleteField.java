@@ -0,0 +1,42 @@
+package com.apas.website.entities;
+
+import java.util.Arrays;
+
+/**
+ * The portfolio values offered as autocomplete suggestions, with the name used in the API
+ * and the section they are taken from.
+ */
+public enum AutocompleteField {
+
+    SKILLS("skills", PortfolioSection.SKILLS),
+    COMPANIES("companies", PortfolioSection.EMPLOYMENT_HISTORY),
+    INSTITUTIONS("institutions", PortfolioSection.EDUCATIONAL_BACKGROUND);
+
+    private final String name;
+    private final PortfolioSection section;
+
+    AutocompleteField(String name, PortfolioSection section) {
+        this.name = name;
+        this.section = section;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public PortfolioSection getSection() {
+        return section;
+    }
+
+    /**
+     * Resolves a field from its API name, e.g. "companies"
+     *
+     * @throws IllegalArgumentException if the name matches no field
+     */
+    public static AutocompleteField fromName(String name) {
+        return Arrays.stream(values())
+                .filter(field -> field.name.equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown autocomplete field: " + name));
+    }
+}
@@ -11,7 +11,6 @@ import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
 import java.time.OffsetDateTime;
-import java.util.Map;
 
 @Entity
 @Table(name = "generated_pdfs")
@@ -63,5 +62,16 @@ public class GeneratedPdf {
 
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "style_options", columnDefinition = "jsonb")
-    private Map<String, Object> styleOptions; // To store PdfGenerationRequest
+    private String styleOptions; // The PdfGenerationRequest as JSON
+
+    @Column(name = "portfolio_revision")
+    private Long portfolioRevision; // Portfolio revision the PDF was rendered from
+
+    @Builder.Default
+    @Column(name = "pinned", nullable = false, columnDefinition = "BOOLEAN NOT NULL DEFAULT FALSE")
+    private boolean pinned = false; // Pinned PDFs are never removed by the retention purge
+
+    @Builder.Default
+    @Column(name = "derived", nullable = false, columnDefinition = "BOOLEAN NOT NULL DEFAULT FALSE")
+    private boolean derived = false; // Built from other stored PDFs (stamped, bundled) rather than rendered
 } 
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.apas.website.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Checkpointed progress of one re-render of the generated PDFs. PDFs are processed in ID order; every PDF up to
+ * {@code lastPdfId} has been handled, so an interrupted job continues right after it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "pdf_rerender_jobs")
+public class PdfRerenderJob {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String STOPPED = "STOPPED";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @Column(name = "job_id", length = 36, updatable = false, nullable = false)
+    private String jobId;
+
+    @Column(name = "status", length = 16, nullable = false)
+    private String status;
+
+    @Column(name = "total", nullable = false)
+    private long total; // PDFs that existed when the job was created
+
+    @Column(name = "processed", nullable = false)
+    private long processed; // Re-rendered and written back
+
+    @Column(name = "skipped", nullable = false)
+    private long skipped; // Revision no longer in the history, or deleted while the job ran
+
+    @Column(name = "skipped_changed", nullable = false)
+    private long skippedChanged; // No recorded revision and the portfolio changed after the PDF was generated
+
+    @Column(name = "failed", nullable = false)
+    private long failed;
+
+    @Column(name = "last_pdf_id", length = 20)
+    private String lastPdfId;
+
+    @Column(name = "started_at", nullable = false, columnDefinition = "TIMESTAMP WITH TIME ZONE")
+    private OffsetDateTime startedAt;
+
+    @Column(name = "updated_at", nullable = false, columnDefinition = "TIMESTAMP WITH TIME ZONE")
+    private OffsetDateTime updatedAt;
+
+    @Column(name = "finished_at", columnDefinition = "TIMESTAMP WITH TIME ZONE")
+    private OffsetDateTime finishedAt;
+}
@@ -10,9 +10,12 @@ import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
@@ -36,32 +39,55 @@ public class PortfolioEntity {
     @Schema(description = "Portfolio title", example = "My Professional Portfolio")
     private String title;
     
-    @Column(name = "personal_information", columnDefinition = "TEXT")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "personal_information", columnDefinition = "jsonb")
     @Schema(description = "Personal information in JSON format")
     private String personalInformation;
     
-    @Column(name = "employment_history", columnDefinition = "TEXT")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "employment_history", columnDefinition = "jsonb")
     @Schema(description = "Employment history in JSON format")
     private String employmentHistory;
     
-    @Column(name = "educational_background", columnDefinition = "TEXT")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "educational_background", columnDefinition = "jsonb")
     @Schema(description = "Educational background in JSON format")
     private String educationalBackground;
     
-    @Column(name = "skills", columnDefinition = "TEXT")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "skills", columnDefinition = "jsonb")
     @Schema(description = "Skills in JSON format")
     private String skills;
     
-    @Column(name = "project_showcases", columnDefinition = "TEXT")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "project_showcases", columnDefinition = "jsonb")
     @Schema(description = "Project showcases in JSON format")
     private String projectShowcases;
     
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "section_hashes", columnDefinition = "jsonb")
+    @Schema(description = "SHA-256 of each stored section, keyed by section field name; used to skip no-op writes")
+    private Map<String, String> sectionHashes;
+    
+    @Column(name = "discoverable", nullable = false)
+    @Schema(description = "Whether the owner opted in to the portfolio showing up in full-text search")
+    private boolean discoverable;
+    
+    @Column(name = "share_token", length = 64)
+    @Schema(description = "Token of the public share link, or null if the portfolio is not shared")
+    private String shareToken;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @JsonBackReference
     @Schema(description = "User who owns this portfolio")
     private UserEntity user;
     
+    @Version
+    @Column(name = "version", nullable = false)
+    @Schema(description = "Optimistic locking version, incremented on every update")
+    private Long version;
+    
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     @Schema(description = "Creation timestamp")
@@ -71,4 +97,28 @@ public class PortfolioEntity {
     @Column(name = "updated_at", nullable = false)
     @Schema(description = "Last update timestamp")
     private LocalDateTime updatedAt;
-} 
\ No newline at end of file
+    
+    // Helper method to read a section by its enum constant
+    public String getSection(PortfolioSection section) {
+        switch (section) {
+            case PERSONAL_INFORMATION: return personalInformation;
+            case EMPLOYMENT_HISTORY: return employmentHistory;
+            case EDUCATIONAL_BACKGROUND: return educationalBackground;
+            case SKILLS: return skills;
+            case PROJECT_SHOWCASES: return projectShowcases;
+            default: throw new IllegalArgumentException("Unknown portfolio section: " + section);
+        }
+    }
+    
+    // Helper method to write a section by its enum constant
+    public void setSection(PortfolioSection section, String json) {
+        switch (section) {
+            case PERSONAL_INFORMATION: personalInformation = json; break;
+            case EMPLOYMENT_HISTORY: employmentHistory = json; break;
+            case EDUCATIONAL_BACKGROUND: educationalBackground = json; break;
+            case SKILLS: skills = json; break;
+            case PROJECT_SHOWCASES: projectShowcases = json; break;
+            default: throw new IllegalArgumentException("Unknown portfolio section: " + section);
+        }
+    }
+}
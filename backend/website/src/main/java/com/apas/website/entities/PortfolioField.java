@@ -0,0 +1,72 @@
+package com.apas.website.entities;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The top-level fields of a portfolio response that can be requested with {@code fields=}, with the name used
+ * in the API. The name is also the attribute path on {@link PortfolioEntity}, except for the owner ID, which is
+ * read through the user association.
+ */
+public enum PortfolioField {
+
+    PORTFOLIO_ID("portfolioId", null),
+    TITLE("title", null),
+    USER_ID("userId", null),
+    PERSONAL_INFORMATION("personalInformation", PortfolioSection.PERSONAL_INFORMATION),
+    EMPLOYMENT_HISTORY("employmentHistory", PortfolioSection.EMPLOYMENT_HISTORY),
+    EDUCATIONAL_BACKGROUND("educationalBackground", PortfolioSection.EDUCATIONAL_BACKGROUND),
+    SKILLS("skills", PortfolioSection.SKILLS),
+    PROJECT_SHOWCASES("projectShowcases", PortfolioSection.PROJECT_SHOWCASES),
+    CREATED_AT("createdAt", null),
+    UPDATED_AT("updatedAt", null),
+    VERSION("version", null),
+    DISCOVERABLE("discoverable", null);
+
+    private final String name;
+    private final PortfolioSection section;
+
+    PortfolioField(String name, PortfolioSection section) {
+        this.name = name;
+        this.section = section;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The JSON section behind the field, or null for plain columns
+     */
+    public PortfolioSection getSection() {
+        return section;
+    }
+
+    /**
+     * Resolves a field from its API name, e.g. "employmentHistory"
+     *
+     * @throws IllegalArgumentException if the name matches no field
+     */
+    public static PortfolioField fromName(String name) {
+        return Arrays.stream(values())
+                .filter(field -> field.name.equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown portfolio field: " + name));
+    }
+
+    /**
+     * Parses a comma-separated field list such as "title,skills". The portfolio ID is always included.
+     *
+     * @throws IllegalArgumentException if a name matches no field
+     */
+    public static Set<PortfolioField> parseList(String fields) {
+        Set<PortfolioField> parsed = EnumSet.of(PORTFOLIO_ID);
+        for (String name : fields.split(",")) {
+            if (!name.isBlank()) {
+                parsed.add(fromName(name.trim()));
+            }
+        }
+        return parsed;
+    }
+}
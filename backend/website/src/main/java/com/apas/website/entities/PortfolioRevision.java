@@ -0,0 +1,46 @@
+package com.apas.website.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.OffsetDateTime;
+
+/**
+ * One stored revision of a portfolio. Snapshots hold the full portfolio document; the other rows hold
+ * a JSON Patch that turns the previous revision into this one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "portfolio_revisions")
+public class PortfolioRevision {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Plain column instead of a relation: revisions are only ever read by portfolio ID and go away with
+    // the portfolio through ON DELETE CASCADE
+    @Column(name = "portfolio_id", nullable = false, updatable = false)
+    private String portfolioId;
+
+    @Column(name = "revision", nullable = false, updatable = false)
+    private Long revision; // Portfolio version this revision was written as
+
+    @Column(name = "snapshot", nullable = false, updatable = false)
+    private boolean snapshot;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "content", nullable = false, updatable = false, columnDefinition = "jsonb")
+    private String content; // Full document for snapshots, JSON Patch array otherwise
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false, columnDefinition = "TIMESTAMP WITH TIME ZONE")
+    private OffsetDateTime createdAt;
+}
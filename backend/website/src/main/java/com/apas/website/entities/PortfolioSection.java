@@ -0,0 +1,44 @@
+package com.apas.website.entities;
+
+import java.util.Arrays;
+
+/**
+ * The JSON sections of a portfolio, with the response field name used in the API
+ * and the jsonb column that stores them.
+ */
+public enum PortfolioSection {
+
+    PERSONAL_INFORMATION("personalInformation", "personal_information"),
+    EMPLOYMENT_HISTORY("employmentHistory", "employment_history"),
+    EDUCATIONAL_BACKGROUND("educationalBackground", "educational_background"),
+    SKILLS("skills", "skills"),
+    PROJECT_SHOWCASES("projectShowcases", "project_showcases");
+
+    private final String fieldName;
+    private final String columnName;
+
+    PortfolioSection(String fieldName, String columnName) {
+        this.fieldName = fieldName;
+        this.columnName = columnName;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public String getColumnName() {
+        return columnName;
+    }
+
+    /**
+     * Resolves a section from its API field name (e.g. "employmentHistory") or column name (e.g. "employment_history")
+     *
+     * @throws IllegalArgumentException if the name matches no section
+     */
+    public static PortfolioSection fromName(String name) {
+        return Arrays.stream(values())
+                .filter(section -> section.fieldName.equalsIgnoreCase(name) || section.columnName.equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown portfolio section: " + name));
+    }
+}
@@ -0,0 +1,22 @@
+package com.apas.website.entities.models.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Request payload for deleting several resources in one call")
+public class BulkDeleteRequest {
+
+    @NotEmpty(message = "At least one ID is required")
+    @Size(max = 500, message = "At most 500 IDs can be deleted per request")
+    @Schema(description = "IDs of the resources to delete", example = "[\"PDF-A1B2-C3D4\", \"PDF-E5F6-G7H8\"]", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<String> ids;
+}
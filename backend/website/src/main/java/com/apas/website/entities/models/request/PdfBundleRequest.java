@@ -0,0 +1,26 @@
+package com.apas.website.entities.models.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Stored PDFs to combine into one document")
+public class PdfBundleRequest {
+
+    @NotEmpty(message = "At least one PDF ID is required")
+    @Schema(description = "IDs of the generated PDFs, in the order their pages should appear", example = "[\"PDF-A1B2-C3D4\", \"PDF-E5F6-G7H8\"]")
+    private List<String> pdfIds;
+
+    @Schema(description = "Also store the bundle as a new generated PDF of the first PDF's portfolio", example = "false", defaultValue = "false")
+    private Boolean store = false;
+
+    @Schema(description = "A custom name for the stored bundle", example = "Applications October")
+    private String customPdfName;
+}
@@ -0,0 +1,31 @@
+package com.apas.website.entities.models.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Overlays to stamp onto a stored PDF")
+public class PdfStampRequest {
+
+    @Size(max = 60, message = "Watermark must be at most 60 characters")
+    @Schema(description = "Text shown diagonally across every page", example = "CONFIDENTIAL")
+    private String watermarkText;
+
+    @Schema(description = "Stamp a \"DRAFT\" watermark; ignored when watermarkText is set", example = "true", defaultValue = "false")
+    private Boolean draft = false;
+
+    @Schema(description = "Add \"Page X of Y\" to the bottom of every page", example = "true", defaultValue = "false")
+    private Boolean pageNumbers = false;
+
+    @Size(max = 120, message = "Footer must be at most 120 characters")
+    @Schema(description = "Text added to the bottom of every page", example = "Confidential - prepared for Client X")
+    private String footerText;
+
+    @Schema(description = "A custom name for the stamped copy; defaults to the name of the original", example = "Client X Draft")
+    private String customPdfName;
+}
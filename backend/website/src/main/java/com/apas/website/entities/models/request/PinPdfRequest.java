@@ -0,0 +1,18 @@
+package com.apas.website.entities.models.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Request payload for pinning or unpinning a generated PDF")
+public class PinPdfRequest {
+
+    @NotNull(message = "Pinned flag is required")
+    @Schema(description = "Whether the PDF should be kept regardless of the retention policy", example = "true", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Boolean pinned;
+}
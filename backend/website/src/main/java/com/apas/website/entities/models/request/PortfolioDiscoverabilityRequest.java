@@ -0,0 +1,18 @@
+package com.apas.website.entities.models.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Request payload for opting a portfolio in to or out of full-text search")
+public class PortfolioDiscoverabilityRequest {
+
+    @NotNull(message = "Discoverable flag is required")
+    @Schema(description = "Whether the portfolio should show up in full-text search", example = "true", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Boolean discoverable;
+}
@@ -0,0 +1,34 @@
+package com.apas.website.entities.models.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Unsaved portfolio draft to preview, with the same style options as PDF generation")
+public class PortfolioPreviewRequest {
+
+    @Schema(description = "Portfolio title", example = "My Professional Portfolio")
+    private String title;
+
+    @Schema(description = "Personal information in JSON format")
+    private Object personalInformation;
+
+    @Schema(description = "Employment history in JSON format")
+    private Object employmentHistory;
+
+    @Schema(description = "Educational background in JSON format")
+    private Object educationalBackground;
+
+    @Schema(description = "Skills in JSON format")
+    private Object skills;
+
+    @Schema(description = "Project showcases in JSON format")
+    private Object projectShowcases;
+
+    @Schema(description = "Style options; the defaults of PDF generation apply when omitted")
+    private PdfGenerationRequest options;
+}
@@ -0,0 +1,19 @@
+package com.apas.website.entities.models.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Autocomplete suggestion drawn from all portfolios")
+public class AutocompleteSuggestionResponse {
+
+    @Schema(description = "Suggested value", example = "Spring Boot")
+    private String value;
+
+    @Schema(description = "Number of portfolios that use the value", example = "42")
+    private long portfolios;
+}
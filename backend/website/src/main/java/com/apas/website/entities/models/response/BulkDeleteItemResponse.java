@@ -0,0 +1,23 @@
+package com.apas.website.entities.models.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Outcome of deleting a single resource within a bulk delete")
+public class BulkDeleteItemResponse {
+
+    public static final String DELETED = "DELETED";
+    public static final String NOT_FOUND = "NOT_FOUND";
+    public static final String FORBIDDEN = "FORBIDDEN";
+
+    @Schema(description = "ID of the resource", example = "PDF-A1B2-C3D4")
+    private String id;
+
+    @Schema(description = "Result for this ID", example = "DELETED", allowableValues = {DELETED, NOT_FOUND, FORBIDDEN})
+    private String status;
+}
@@ -0,0 +1,24 @@
+package com.apas.website.entities.models.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Result of a bulk delete request")
+public class BulkDeleteResponse {
+
+    @Schema(description = "Number of IDs in the request", example = "3")
+    private int requested;
+
+    @Schema(description = "Number of resources that were deleted", example = "2")
+    private int deleted;
+
+    @Schema(description = "Per-ID results, in request order")
+    private List<BulkDeleteItemResponse> results;
+}
@@ -0,0 +1,27 @@
+package com.apas.website.entities.models.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Everything the dashboard shows after login, in one response")
+public class DashboardResponse {
+
+    @Schema(description = "Profile of the user")
+    private UserProfileResponse profile;
+
+    @Schema(description = "Summaries of the user's most recently updated portfolio drafts, newest first (first page only)")
+    private List<PortfolioSummaryResponse> portfolios;
+
+    @Schema(description = "Cursor for the next page of portfolios, to pass to GET /api/users/{userId}/portfolios with the default sort; null if there are no more")
+    private String portfoliosNextCursor;
+
+    @Schema(description = "The most recently generated PDFs of the user, newest first")
+    private List<GeneratedPdfItemResponse> recentPdfs;
+}
@@ -39,4 +39,10 @@ public class GeneratedPdfItemResponse {
 
     @Schema(description = "Style options used for generating this PDF")
     private PdfStyleOptionsResponse styleOptions; // Added style options
+
+    @Schema(description = "Whether the PDF is pinned and therefore exempt from the retention purge", example = "false")
+    private boolean pinned;
+
+    @Schema(description = "Portfolio revision the PDF was rendered from; empty for PDFs generated before revisions were recorded", example = "7")
+    private Long portfolioRevision;
 } 
\ No newline at end of file
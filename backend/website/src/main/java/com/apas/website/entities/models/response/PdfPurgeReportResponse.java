@@ -0,0 +1,25 @@
+package com.apas.website.entities.models.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Outcome of a generated PDF retention purge run")
+public class PdfPurgeReportResponse {
+
+    @Schema(description = "Number of generated PDF rows deleted", example = "120")
+    private long rowsDeleted;
+
+    @Schema(description = "Total size of the deleted PDF contents in bytes", example = "12582912")
+    private long bytesReclaimed;
+
+    @Schema(description = "Number of delete batches executed", example = "3")
+    private int batches;
+
+    @Schema(description = "Wall-clock duration of the purge in milliseconds", example = "842")
+    private long durationMs;
+}
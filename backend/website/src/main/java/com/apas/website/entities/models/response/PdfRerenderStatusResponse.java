@@ -0,0 +1,57 @@
+package com.apas.website.entities.models.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Progress of the generated PDF re-render job")
+public class PdfRerenderStatusResponse {
+
+    @Schema(description = "Job ID, or null if no job was ever started", example = "0f8fad5b-d9cb-469f-a165-70867728950e")
+    private String jobId;
+
+    @Schema(description = "RUNNING, STOPPED, COMPLETED, FAILED, INTERRUPTED (the process ended while it ran), or NONE if no job was ever started", example = "RUNNING")
+    private String status;
+
+    @Schema(description = "Generated PDFs that existed when the job was created", example = "12000")
+    private long total;
+
+    @Schema(description = "PDFs re-rendered and written back", example = "4200")
+    private long processed;
+
+    @Schema(description = "PDFs left as they are: their revision is no longer stored, or they were deleted meanwhile", example = "35")
+    private long skipped;
+
+    @Schema(description = "PDFs generated before revisions were recorded and left as they are because their portfolio changed since", example = "120")
+    private long skippedChanged;
+
+    @Schema(description = "PDFs that failed to render", example = "2")
+    private long failed;
+
+    @Schema(description = "Checkpoint: every PDF up to this ID has been handled", example = "PDF-7K2M-Q9XD")
+    private String lastPdfId;
+
+    @Schema(description = "PDFs handled per second since the job was (re)started", example = "18.5")
+    private double ratePerSecond;
+
+    @Schema(description = "Estimated seconds until the job completes, or null while unknown", example = "420")
+    private Long etaSeconds;
+
+    @Schema(description = "Times the job backed off because the connection pool was busy with other requests", example = "3")
+    private long yields;
+
+    @Schema(description = "When the job was created")
+    private OffsetDateTime startedAt;
+
+    @Schema(description = "When the last checkpoint was written")
+    private OffsetDateTime updatedAt;
+
+    @Schema(description = "When the job completed, failed or was stopped")
+    private OffsetDateTime finishedAt;
+}
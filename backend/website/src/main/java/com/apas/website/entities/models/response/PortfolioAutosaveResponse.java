@@ -0,0 +1,27 @@
+package com.apas.website.entities.models.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "State of the buffered autosave draft of a portfolio")
+public class PortfolioAutosaveResponse {
+
+    @Schema(description = "Portfolio ID", example = "PORT-A0DR-2DA3")
+    private String portfolioId;
+
+    @Schema(description = "Whether the edit was buffered; false if it was written to the database right away", example = "true")
+    private boolean buffered;
+
+    @Schema(description = "Number of buffered edits not yet written to the database", example = "4")
+    private int pendingEdits;
+
+    @Schema(description = "Latest time the buffered edits will be written; null if nothing is pending")
+    private Instant flushDueAt;
+}
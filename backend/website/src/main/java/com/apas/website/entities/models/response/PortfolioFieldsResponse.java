@@ -0,0 +1,44 @@
+package com.apas.website.entities.models.response;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * A portfolio reduced to the fields requested with {@code fields=}. Only those fields are serialized, in the
+ * order of the full {@link PortfolioResponse}; sections are written verbatim as stored.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Portfolio with only the requested fields; the portfolio ID is always included")
+public class PortfolioFieldsResponse {
+
+    private String userId;
+    private Long version;
+    private Map<String, Object> fields;
+
+    /**
+     * Owner of the portfolio, for authorization; only serialized when requested
+     */
+    @JsonIgnore
+    public String getUserId() {
+        return userId;
+    }
+
+    /**
+     * Version of the portfolio, for the ETag; only serialized when requested
+     */
+    @JsonIgnore
+    public Long getVersion() {
+        return version;
+    }
+
+    @JsonAnyGetter
+    public Map<String, Object> getFields() {
+        return fields;
+    }
+}
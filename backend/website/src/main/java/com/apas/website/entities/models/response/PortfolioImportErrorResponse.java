@@ -0,0 +1,19 @@
+package com.apas.website.entities.models.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "A line of an NDJSON import that was not imported")
+public class PortfolioImportErrorResponse {
+
+    @Schema(description = "1-based line number in the uploaded file", example = "17")
+    private long line;
+
+    @Schema(description = "Why the line was rejected", example = "Title must be between 1 and 100 characters")
+    private String message;
+}
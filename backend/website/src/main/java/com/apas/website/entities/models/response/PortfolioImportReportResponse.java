@@ -0,0 +1,27 @@
+package com.apas.website.entities.models.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Result of an NDJSON portfolio import")
+public class PortfolioImportReportResponse {
+
+    @Schema(description = "Number of portfolios that were created", example = "4998")
+    private long imported;
+
+    @Schema(description = "Number of non-blank lines that were rejected", example = "2")
+    private long failed;
+
+    @Schema(description = "Why each rejected line failed, in line order; capped, see errorsTruncated")
+    private List<PortfolioImportErrorResponse> errors;
+
+    @Schema(description = "Whether more lines failed than are listed in errors", example = "false")
+    private boolean errorsTruncated;
+}
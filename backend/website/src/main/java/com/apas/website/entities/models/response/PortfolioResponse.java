@@ -57,4 +57,10 @@ public class PortfolioResponse {
     
     @Schema(description = "Last update timestamp", example = "2023-04-16T14:45:00")
     private LocalDateTime updatedAt;
+    
+    @Schema(description = "Version of the portfolio, also sent as the ETag; pass it in If-Match to avoid overwriting concurrent changes", example = "7")
+    private Long version;
+    
+    @Schema(description = "Whether the portfolio shows up in full-text search", example = "false")
+    private boolean discoverable;
 } 
\ No newline at end of file
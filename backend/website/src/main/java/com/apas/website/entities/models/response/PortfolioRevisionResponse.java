@@ -0,0 +1,42 @@
+package com.apas.website.entities.models.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Content of a portfolio as it was at one revision")
+public class PortfolioRevisionResponse {
+
+    @Schema(description = "Portfolio ID", example = "PORT-A0DR-2DA3")
+    private String portfolioId;
+
+    @Schema(description = "Revision number; equals the portfolio version that was saved", example = "7")
+    private Long revision;
+
+    @Schema(description = "When the revision was saved", example = "2023-04-16T14:45:00Z")
+    private OffsetDateTime createdAt;
+
+    @Schema(description = "Portfolio title at this revision", example = "My Professional Portfolio")
+    private String title;
+
+    @Schema(description = "Personal information at this revision")
+    private Object personalInformation;
+
+    @Schema(description = "Employment history at this revision")
+    private Object employmentHistory;
+
+    @Schema(description = "Educational background at this revision")
+    private Object educationalBackground;
+
+    @Schema(description = "Skills at this revision")
+    private Object skills;
+
+    @Schema(description = "Project showcases at this revision")
+    private Object projectShowcases;
+}
@@ -0,0 +1,21 @@
+package com.apas.website.entities.models.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Entry of a portfolio's revision history")
+public class PortfolioRevisionSummaryResponse {
+
+    @Schema(description = "Revision number; equals the portfolio version that was saved", example = "7")
+    private Long revision;
+
+    @Schema(description = "When the revision was saved", example = "2023-04-16T14:45:00Z")
+    private OffsetDateTime createdAt;
+}
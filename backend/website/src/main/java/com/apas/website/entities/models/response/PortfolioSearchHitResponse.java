@@ -0,0 +1,26 @@
+package com.apas.website.entities.models.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Portfolio matching a full-text search")
+public class PortfolioSearchHitResponse {
+
+    @Schema(description = "Portfolio ID", example = "PORT-A0DR-2DA3")
+    private String portfolioId;
+
+    @Schema(description = "Portfolio title", example = "My Professional Portfolio")
+    private String title;
+
+    @Schema(description = "Relevance of the match; higher is better", example = "0.42")
+    private Double rank;
+
+    @Schema(description = "Matching fragments as HTML: the text is escaped and matched terms are wrapped in <mark>",
+            example = "<mark>Java</mark>; Spring Boot ... Senior <mark>Developer</mark> at Tech Company Inc.")
+    private String highlight;
+}
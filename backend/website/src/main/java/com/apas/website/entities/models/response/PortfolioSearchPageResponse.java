@@ -0,0 +1,27 @@
+package com.apas.website.entities.models.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "One page of full-text search results, best match first")
+public class PortfolioSearchPageResponse {
+
+    @Schema(description = "Matching portfolios on this page")
+    private List<PortfolioSearchHitResponse> items;
+
+    @Schema(description = "Zero-based page number", example = "0")
+    private int page;
+
+    @Schema(description = "Page size", example = "20")
+    private int size;
+
+    @Schema(description = "Whether another page follows", example = "true")
+    private boolean hasMore;
+}
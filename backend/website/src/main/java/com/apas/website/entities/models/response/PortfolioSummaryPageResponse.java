@@ -0,0 +1,21 @@
+package com.apas.website.entities.models.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "One page of portfolio summaries")
+public class PortfolioSummaryPageResponse {
+
+    @Schema(description = "Portfolio summaries of this page")
+    private List<PortfolioSummaryResponse> items;
+
+    @Schema(description = "Opaque cursor for the next page, or null if this is the last page")
+    private String nextCursor;
+}
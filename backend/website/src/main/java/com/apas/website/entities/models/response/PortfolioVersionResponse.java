@@ -0,0 +1,19 @@
+package com.apas.website.entities.models.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Owner and current version of a portfolio, used for conditional requests")
+public class PortfolioVersionResponse {
+
+    @Schema(description = "User ID of the portfolio owner", example = "USER-A0DR-2DA3")
+    private String userId;
+
+    @Schema(description = "Current portfolio version", example = "7")
+    private Long version;
+}
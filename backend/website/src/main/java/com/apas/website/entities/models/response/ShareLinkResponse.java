@@ -0,0 +1,22 @@
+package com.apas.website.entities.models.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Public share link of a portfolio")
+public class ShareLinkResponse {
+
+    @Schema(description = "Portfolio ID", example = "PORT-A0DR-2DA3")
+    private String portfolioId;
+
+    @Schema(description = "Unguessable share token", example = "q3Xv0d7nF1c8mZk2Yp5sWb9tLr4hGj6aEo0uNi3yTxQ")
+    private String token;
+
+    @Schema(description = "Path of the public page, relative to the API host", example = "/share/q3Xv0d7nF1c8mZk2Yp5sWb9tLr4hGj6aEo0uNi3yTxQ")
+    private String url;
+}
@@ -0,0 +1,22 @@
+package com.apas.website.entities.models.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Discoverable portfolio with similar skills and project technologies")
+public class SimilarPortfolioResponse {
+
+    @Schema(description = "Portfolio ID", example = "PORT-A0DR-2DA3")
+    private String portfolioId;
+
+    @Schema(description = "Portfolio title", example = "My Professional Portfolio")
+    private String title;
+
+    @Schema(description = "Estimated share of skills and technologies the two portfolios have in common, from 0 to 1", example = "0.62")
+    private Double similarity;
+}
@@ -0,0 +1,65 @@
+package com.apas.website.events;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Published by the portfolio service whenever a portfolio is created, updated or deleted.
+ * Listeners that keep derived state (caches, indexes) should react with
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ * <p>
+ * When the service has them at hand, the event also carries the portfolio document (title and sections,
+ * as stored in the revision history) before and after the change. Either may be null: before a creation,
+ * after a deletion, and for bulk deletes, where the documents are never loaded.
+ */
+public class PortfolioChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final String portfolioId;
+    private final String userId;
+    private final ChangeType changeType;
+    private final JsonNode previousDocument;
+    private final JsonNode document;
+
+    public PortfolioChangedEvent(String portfolioId, String userId, ChangeType changeType) {
+        this(portfolioId, userId, changeType, null, null);
+    }
+
+    public PortfolioChangedEvent(String portfolioId, String userId, ChangeType changeType,
+                                 JsonNode previousDocument, JsonNode document) {
+        this.portfolioId = portfolioId;
+        this.userId = userId;
+        this.changeType = changeType;
+        this.previousDocument = previousDocument;
+        this.document = document;
+    }
+
+    public String getPortfolioId() {
+        return portfolioId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public JsonNode getPreviousDocument() {
+        return previousDocument;
+    }
+
+    public JsonNode getDocument() {
+        return document;
+    }
+
+    @Override
+    public String toString() {
+        return "PortfolioChangedEvent{portfolioId='" + portfolioId + "', userId='" + userId + "', changeType=" + changeType + "}";
+    }
+}
@@ -1,21 +1,210 @@
 package com.apas.website.repositories;
 
 import com.apas.website.entities.GeneratedPdf;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface GeneratedPdfRepository extends JpaRepository<GeneratedPdf, String> {
 
     Optional<GeneratedPdf> findByPortfolioPortfolioIdAndFilename(String portfolioId, String filename);
-    
+
     List<GeneratedPdf> findByPortfolioPortfolioIdOrderByGeneratedAtDesc(String portfolioId);
 
     List<GeneratedPdf> findByUserUserIdOrderByGeneratedAtDesc(String userId);
 
+    /**
+     * Blob-free listing of a user's generated PDFs, newest first; the page only bounds the row count,
+     * no count query is issued for a List result.
+     */
+    @Query("SELECT g.pdfId AS pdfId, g.portfolio.portfolioId AS portfolioId, g.customDisplayName AS customDisplayName, " +
+           "g.originalPortfolioTitle AS originalPortfolioTitle, g.filename AS filename, g.generatedAt AS generatedAt, " +
+           "g.fileSizeBytes AS fileSizeBytes, g.styleOptions AS styleOptions, g.pinned AS pinned, " +
+           "g.portfolioRevision AS portfolioRevision " +
+           "FROM GeneratedPdf g WHERE g.user.userId = :userId ORDER BY g.generatedAt DESC, g.pdfId DESC")
+    List<PdfMetadata> findMetadataByUserId(@Param("userId") String userId, Pageable pageable);
+
     // Optional: if you want to retrieve the latest PDF for a portfolio directly
     Optional<GeneratedPdf> findFirstByPortfolioPortfolioIdOrderByGeneratedAtDesc(String portfolioId);
-} 
\ No newline at end of file
+
+    /**
+     * Streams a user's generated PDFs, including their content, in ID order starting after {@code afterPdfId}.
+     * The small fetch size keeps only a few blobs in memory at a time; must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "4"))
+    @Query("SELECT g FROM GeneratedPdf g WHERE g.user.userId = :userId AND g.pdfId > :afterPdfId ORDER BY g.pdfId")
+    Stream<GeneratedPdf> streamByUserIdAfter(@Param("userId") String userId, @Param("afterPdfId") String afterPdfId);
+
+    boolean existsByPortfolioPortfolioIdAndFilename(String portfolioId, String filename);
+
+    /**
+     * Reads only the content of one PDF, for callers that already hold its metadata
+     */
+    @Query("SELECT g.pdfContent FROM GeneratedPdf g WHERE g.pdfId = :pdfId")
+    Optional<byte[]> findContentByPdfId(@Param("pdfId") String pdfId);
+
+    /**
+     * Blob-free view of one PDF with what is needed to store a stamped copy of it
+     */
+    @Query("SELECT g.pdfId AS pdfId, g.user.userId AS userId, g.customDisplayName AS customDisplayName, " +
+           "g.originalPortfolioTitle AS originalPortfolioTitle, g.styleOptions AS styleOptions, " +
+           "g.portfolioRevision AS portfolioRevision " +
+           "FROM GeneratedPdf g WHERE g.portfolio.portfolioId = :portfolioId AND g.filename = :filename")
+    Optional<StampSource> findStampSource(@Param("portfolioId") String portfolioId, @Param("filename") String filename);
+
+    @Modifying
+    @Query("DELETE FROM GeneratedPdf g WHERE g.portfolio.portfolioId = :portfolioId AND g.filename = :filename")
+    int deleteByPortfolioIdAndFilename(@Param("portfolioId") String portfolioId, @Param("filename") String filename);
+
+    @Query("SELECT g.pdfId AS pdfId, g.portfolio.portfolioId AS portfolioId, g.filename AS filename, g.user.userId AS userId " +
+           "FROM GeneratedPdf g WHERE g.pdfId IN :pdfIds")
+    List<PdfOwnership> findOwnershipByPdfIdIn(@Param("pdfIds") Collection<String> pdfIds);
+
+    @Query("SELECT g.pdfId AS pdfId, g.portfolio.portfolioId AS portfolioId, g.filename AS filename, g.user.userId AS userId " +
+           "FROM GeneratedPdf g WHERE g.portfolio.portfolioId IN :portfolioIds")
+    List<PdfOwnership> findOwnershipByPortfolioIdIn(@Param("portfolioIds") Collection<String> portfolioIds);
+
+    @Modifying
+    @Query("DELETE FROM GeneratedPdf g WHERE g.pdfId IN :pdfIds AND g.user.userId = :userId")
+    int deleteByPdfIdInAndUserId(@Param("pdfIds") Collection<String> pdfIds, @Param("userId") String userId);
+
+    @Modifying
+    @Query("DELETE FROM GeneratedPdf g WHERE g.portfolio.portfolioId IN :portfolioIds")
+    int deleteByPortfolioIdIn(@Param("portfolioIds") Collection<String> portfolioIds);
+
+    @Modifying
+    @Query("UPDATE GeneratedPdf g SET g.pinned = :pinned WHERE g.portfolio.portfolioId = :portfolioId AND g.filename = :filename")
+    int updatePinned(@Param("portfolioId") String portfolioId, @Param("filename") String filename, @Param("pinned") boolean pinned);
+
+    /**
+     * Returns the last portfolio ID of the next purge range: the portfolio of the {@code rows}-th unpinned PDF
+     * after {@code afterPortfolioId} (or of the last one, when fewer are left), or null when none are left.
+     * A range therefore spans about {@code rows} unpinned PDFs plus the rest of its last portfolio, and is
+     * found by walking the partial index on unpinned PDFs.
+     */
+    @Query(value = "SELECT COALESCE(" +
+                   "  (SELECT p.portfolio_id FROM generated_pdfs p WHERE p.pinned = false AND p.portfolio_id > :afterPortfolioId " +
+                   "   ORDER BY p.portfolio_id OFFSET :rows - 1 LIMIT 1), " +
+                   "  (SELECT max(p.portfolio_id) FROM generated_pdfs p WHERE p.pinned = false AND p.portfolio_id > :afterPortfolioId))",
+           nativeQuery = true)
+    String findPurgeRangeEnd(@Param("afterPortfolioId") String afterPortfolioId, @Param("rows") int rows);
+
+    /**
+     * Selects and locks the next batch of unpinned PDFs in the portfolio range
+     * ({@code afterPortfolioId}, {@code lastPortfolioId}] that fall outside the retention policy: either beyond
+     * the newest {@code keepLatest} unpinned entries of their portfolio, or generated before {@code cutoff}.
+     * The window only covers the range, so each batch costs the same however many PDFs are stored.
+     * Rows locked by concurrent requests are skipped rather than waited on.
+     */
+    @Query(value = "SELECT g.pdf_id AS pdfId, g.portfolio_id AS portfolioId, g.filename AS filename, " +
+                   "g.file_size_bytes AS fileSizeBytes " +
+                   "FROM generated_pdfs g " +
+                   "WHERE g.pinned = false AND g.pdf_id IN (" +
+                   "  SELECT r.pdf_id FROM (" +
+                   "    SELECT p.pdf_id, p.generated_at, " +
+                   "           ROW_NUMBER() OVER (PARTITION BY p.portfolio_id ORDER BY p.generated_at DESC) AS rn " +
+                   "    FROM generated_pdfs p " +
+                   "    WHERE p.pinned = false AND p.portfolio_id > :afterPortfolioId AND p.portfolio_id <= :lastPortfolioId" +
+                   "  ) r WHERE r.rn > :keepLatest OR r.generated_at < :cutoff" +
+                   ") " +
+                   "LIMIT :batchSize FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<PurgeCandidate> findPurgeCandidates(@Param("afterPortfolioId") String afterPortfolioId,
+                                             @Param("lastPortfolioId") String lastPortfolioId,
+                                             @Param("keepLatest") int keepLatest,
+                                             @Param("cutoff") OffsetDateTime cutoff,
+                                             @Param("batchSize") int batchSize);
+
+    @Modifying
+    @Query("DELETE FROM GeneratedPdf g WHERE g.pdfId IN :pdfIds AND g.pinned = false")
+    int deleteUnpinnedByPdfIdIn(@Param("pdfIds") Collection<String> pdfIds);
+
+    /**
+     * Blob-free keyset page of the rendered (not derived) PDFs in ID order, for the re-render job
+     */
+    @Query("SELECT g.pdfId AS pdfId, g.portfolio.portfolioId AS portfolioId, g.filename AS filename, " +
+           "g.styleOptions AS styleOptions, g.portfolioRevision AS portfolioRevision, g.generatedAt AS generatedAt " +
+           "FROM GeneratedPdf g WHERE g.pdfId > :afterPdfId AND g.derived = false ORDER BY g.pdfId")
+    List<RerenderCandidate> findRerenderCandidates(@Param("afterPdfId") String afterPdfId, Pageable pageable);
+
+    long countByDerivedFalse();
+
+    @Modifying
+    @Query("UPDATE GeneratedPdf g SET g.pdfContent = :pdfContent, g.fileSizeBytes = :fileSizeBytes WHERE g.pdfId = :pdfId")
+    int updateContent(@Param("pdfId") String pdfId, @Param("pdfContent") byte[] pdfContent, @Param("fileSizeBytes") long fileSizeBytes);
+
+    /**
+     * Blob-free view of a generated PDF with the identifiers needed for ownership checks.
+     */
+    interface PdfOwnership {
+        String getPdfId();
+        String getPortfolioId();
+        String getFilename();
+        String getUserId();
+    }
+
+    /**
+     * Blob-free view of a generated PDF with everything the PDF listings show.
+     */
+    interface PdfMetadata {
+        String getPdfId();
+        String getPortfolioId();
+        String getCustomDisplayName();
+        String getOriginalPortfolioTitle();
+        String getFilename();
+        OffsetDateTime getGeneratedAt();
+        Long getFileSizeBytes();
+        String getStyleOptions();
+        Boolean getPinned();
+        Long getPortfolioRevision();
+    }
+
+    /**
+     * Blob-free view of a generated PDF with what is needed to store a stamped copy of it.
+     */
+    interface StampSource {
+        String getPdfId();
+        String getUserId();
+        String getCustomDisplayName();
+        String getOriginalPortfolioTitle();
+        String getStyleOptions();
+        Long getPortfolioRevision();
+    }
+
+    /**
+     * Blob-free view of a generated PDF with what is needed to render it again.
+     */
+    interface RerenderCandidate {
+        String getPdfId();
+        String getPortfolioId();
+        String getFilename();
+        String getStyleOptions();
+        Long getPortfolioRevision();
+        OffsetDateTime getGeneratedAt();
+    }
+
+    /**
+     * Blob-free view of a generated PDF selected for purging.
+     */
+    interface PurgeCandidate {
+        String getPdfId();
+        String getPortfolioId();
+        String getFilename();
+        Long getFileSizeBytes();
+    }
+}
@@ -0,0 +1,13 @@
+package com.apas.website.repositories;
+
+import com.apas.website.entities.PdfRerenderJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PdfRerenderJobRepository extends JpaRepository<PdfRerenderJob, String> {
+
+    Optional<PdfRerenderJob> findFirstByOrderByStartedAtDesc();
+}
@@ -0,0 +1,21 @@
+package com.apas.website.repositories;
+
+import com.apas.website.entities.PortfolioField;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Repository fragment that reads a chosen subset of a portfolio's columns with a Criteria tuple query,
+ * so unrequested jsonb sections are neither fetched nor parsed.
+ */
+public interface PortfolioFieldsRepository {
+
+    /**
+     * @param portfolioId Portfolio ID
+     * @param fields Fields to read; the owner ID and version are always read as well, for authorization and the ETag
+     * @return The values by field, sections as their JSON text, or empty if the portfolio does not exist
+     */
+    Optional<Map<PortfolioField, Object>> findFieldsByPortfolioId(String portfolioId, Set<PortfolioField> fields);
+}
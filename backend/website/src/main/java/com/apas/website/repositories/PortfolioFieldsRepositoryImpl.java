@@ -0,0 +1,55 @@
+package com.apas.website.repositories;
+
+import com.apas.website.entities.PortfolioEntity;
+import com.apas.website.entities.PortfolioField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+class PortfolioFieldsRepositoryImpl implements PortfolioFieldsRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Map<PortfolioField, Object>> findFieldsByPortfolioId(String portfolioId, Set<PortfolioField> fields) {
+        Set<PortfolioField> selected = EnumSet.of(PortfolioField.USER_ID, PortfolioField.VERSION);
+        selected.addAll(fields);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<PortfolioEntity> portfolio = query.from(PortfolioEntity.class);
+
+        List<Selection<?>> selections = new ArrayList<>(selected.size());
+        for (PortfolioField field : selected) {
+            // The owner ID is the foreign key column itself, so reading it does not join users
+            Path<?> path = field == PortfolioField.USER_ID ? portfolio.get("user").get("userId") : portfolio.get(field.getName());
+            selections.add(path.alias(field.getName()));
+        }
+        query.multiselect(selections).where(cb.equal(portfolio.get("portfolioId"), portfolioId));
+
+        List<Tuple> rows = entityManager.createQuery(query).setMaxResults(1).getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Tuple row = rows.get(0);
+        Map<PortfolioField, Object> values = new EnumMap<>(PortfolioField.class);
+        for (PortfolioField field : selected) {
+            values.put(field, row.get(field.getName()));
+        }
+        return Optional.of(values);
+    }
+}
@@ -2,16 +2,266 @@ package com.apas.website.repositories;
 
 import com.apas.website.entities.PortfolioEntity;
 import com.apas.website.entities.UserEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface PortfolioRepository extends JpaRepository<PortfolioEntity, String> {
+public interface PortfolioRepository extends JpaRepository<PortfolioEntity, String>, PortfolioSummaryRepository,
+                                             PortfolioFieldsRepository {
+
+    // Picks the jsonb column named by the :section parameter; column names cannot be bound directly
+    String SECTION_COLUMN = "(CASE :section " +
+            "WHEN 'personal_information' THEN p.personal_information " +
+            "WHEN 'employment_history' THEN p.employment_history " +
+            "WHEN 'educational_background' THEN p.educational_background " +
+            "WHEN 'skills' THEN p.skills " +
+            "WHEN 'project_showcases' THEN p.project_showcases END)";
+
+    // The columns of SimilaritySource, with the sections as JSON text
+    String SIMILARITY_SOURCE_SELECT = "SELECT p.portfolio_id AS portfolioId, p.discoverable AS discoverable, " +
+            "CAST(p.skills AS TEXT) AS skills, CAST(p.project_showcases AS TEXT) AS projectShowcases FROM portfolios p ";
+
     List<PortfolioEntity> findByUser(UserEntity user);
     List<PortfolioEntity> findByUserUserId(String userId);
     Optional<PortfolioEntity> findByPortfolioIdAndUserUserId(String portfolioId, String userId);
     Optional<PortfolioEntity> findByPortfolioId(String portfolioId);
-} 
\ No newline at end of file
+
+    // Fetches the owner in the same query so the result can be used outside a transaction
+    @EntityGraph(attributePaths = "user")
+    Optional<PortfolioEntity> findWithUserByPortfolioId(String portfolioId);
+
+    @Query("SELECT p.user.userId FROM PortfolioEntity p WHERE p.portfolioId = :portfolioId")
+    Optional<String> findOwnerIdByPortfolioId(@Param("portfolioId") String portfolioId);
+
+    @Query("SELECT p.user.userId AS userId, p.version AS version FROM PortfolioEntity p WHERE p.portfolioId = :portfolioId")
+    Optional<PortfolioVersionInfo> findVersionInfoByPortfolioId(@Param("portfolioId") String portfolioId);
+
+    @Query("SELECT p.title AS title, p.sectionHashes AS sectionHashes, p.version AS version FROM PortfolioEntity p WHERE p.portfolioId = :portfolioId")
+    Optional<PortfolioWriteState> findWriteStateByPortfolioId(@Param("portfolioId") String portfolioId);
+
+    @Query("SELECT p.portfolioId AS portfolioId, p.user.userId AS userId FROM PortfolioEntity p WHERE p.portfolioId IN :portfolioIds")
+    List<PortfolioOwnership> findOwnershipByPortfolioIdIn(@Param("portfolioIds") Collection<String> portfolioIds);
+
+    /**
+     * Streams a user's portfolios in ID order, starting after {@code afterPortfolioId}.
+     * Must be consumed inside a transaction so the driver can use a server-side cursor.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "50"))
+    @Query("SELECT p FROM PortfolioEntity p WHERE p.user.userId = :userId AND p.portfolioId > :afterPortfolioId ORDER BY p.portfolioId")
+    Stream<PortfolioEntity> streamByUserIdAfter(@Param("userId") String userId, @Param("afterPortfolioId") String afterPortfolioId);
+
+    /**
+     * Returns one section of a portfolio as JSON text without loading the other sections.
+     *
+     * @param section Column name of the section, see {@link com.apas.website.entities.PortfolioSection#getColumnName()}
+     */
+    @Query(value = "SELECT CAST(" + SECTION_COLUMN + " AS TEXT) FROM portfolios p WHERE p.portfolio_id = :portfolioId",
+           nativeQuery = true)
+    Optional<String> findSectionJson(@Param("portfolioId") String portfolioId, @Param("section") String section);
+
+    /**
+     * Returns a nested value of one section as JSON text, resolved by PostgreSQL with the {@code #>} operator.
+     * Path elements are separated by dots; array elements are addressed by index, e.g. {@code 0.company}.
+     * Yields an empty result when the path does not exist.
+     */
+    @Query(value = "SELECT CAST(" + SECTION_COLUMN + " #> string_to_array(:path, '.') AS TEXT) " +
+                   "FROM portfolios p WHERE p.portfolio_id = :portfolioId",
+           nativeQuery = true)
+    Optional<String> findSectionPathJson(@Param("portfolioId") String portfolioId, @Param("section") String section,
+                                         @Param("path") String path);
+
+    /**
+     * Finds a user's portfolios whose list sections contain the given JSON fragment,
+     * e.g. {@code [{"company": "Acme"}]}. Served by the jsonb_path_ops GIN indexes.
+     */
+    @Query(value = "SELECT p.portfolio_id FROM portfolios p WHERE p.user_id = :userId AND (" +
+                   "p.employment_history @> CAST(:fragment AS jsonb) OR " +
+                   "p.educational_background @> CAST(:fragment AS jsonb) OR " +
+                   "p.skills @> CAST(:fragment AS jsonb) OR " +
+                   "p.project_showcases @> CAST(:fragment AS jsonb))",
+           nativeQuery = true)
+    List<String> findIdsByUserIdAndSectionsContaining(@Param("userId") String userId, @Param("fragment") String fragment);
+
+    /**
+     * Ranked full-text search over discoverable portfolios, served by the partial GIN index on
+     * {@code search_vector}. Only the first {@code maxCandidates} matches the index scan returns are
+     * ranked, in no particular order, which caps the cost of very common terms: beyond that many matches
+     * the results are the best of an arbitrary subset, not the best overall. {@code ts_headline} (which
+     * re-parses the document text) only runs for the rows of the requested page. The highlight text is HTML-escaped before matched terms are marked.
+     */
+    @Query(value = "SELECT m.portfolio_id AS portfolioId, p.title AS title, m.rank AS rank, " +
+                   "ts_headline('english', " +
+                   "  replace(replace(replace(concat_ws(' ... ', p.title, " +
+                   "    (SELECT string_agg(jsonb_build_array(v) ->> 0, '; ') FROM jsonb_path_query(" +
+                   "       jsonb_build_array(p.skills, p.employment_history, p.project_showcases, p.educational_background), " +
+                   "       'strict $.**') AS v WHERE jsonb_typeof(v) = 'string')), " +
+                   "  '&', '&amp;'), '<', '&lt;'), '>', '&gt;'), " +
+                   "  m.query, 'StartSel=<mark>, StopSel=</mark>, MaxFragments=3, MaxWords=15, MinWords=5, FragmentDelimiter=\" ... \"') AS highlight " +
+                   "FROM (" +
+                   "  SELECT c.portfolio_id, c.query, CAST(ts_rank_cd(c.search_vector, c.query) AS double precision) AS rank " +
+                   "  FROM (" +
+                   "    SELECT s.portfolio_id, s.search_vector, q.query " +
+                   "    FROM portfolios s, websearch_to_tsquery('english', :query) AS q(query) " +
+                   "    WHERE s.discoverable AND s.search_vector @@ q.query " +
+                   "    LIMIT :maxCandidates" +
+                   "  ) c " +
+                   "  ORDER BY rank DESC, c.portfolio_id LIMIT :limit OFFSET :offset" +
+                   ") m " +
+                   "JOIN portfolios p ON p.portfolio_id = m.portfolio_id " +
+                   "ORDER BY m.rank DESC, m.portfolio_id",
+           nativeQuery = true)
+    List<PortfolioSearchHit> searchDiscoverable(@Param("query") String query, @Param("maxCandidates") int maxCandidates,
+                                                @Param("limit") int limit, @Param("offset") int offset);
+
+    /**
+     * Counts how many portfolios use each skill, company and institution (case-insensitively), keeping the
+     * {@code maxTerms} most used values per field. Skill items may be plain strings or {"name": ...} objects.
+     * Scans every portfolio, so it is only meant for the periodic background rebuild of the autocomplete index.
+     */
+    @Query(value = "SELECT r.field AS field, r.term AS term, r.portfolios AS portfolios FROM (" +
+                   "  SELECT t.field, min(t.term) AS term, COUNT(DISTINCT t.portfolio_id) AS portfolios, " +
+                   "         ROW_NUMBER() OVER (PARTITION BY t.field ORDER BY COUNT(DISTINCT t.portfolio_id) DESC, lower(t.term)) AS rn " +
+                   "  FROM (" +
+                   "    SELECT p.portfolio_id, 'skills' AS field, btrim(CASE jsonb_typeof(v) " +
+                   "           WHEN 'string' THEN jsonb_build_array(v) ->> 0 WHEN 'object' THEN v ->> 'name' END) AS term " +
+                   "    FROM portfolios p, jsonb_path_query(p.skills, 'lax $[*].items[*]') AS v " +
+                   "    UNION ALL " +
+                   "    SELECT p.portfolio_id, 'companies', btrim(jsonb_build_array(v) ->> 0) " +
+                   "    FROM portfolios p, jsonb_path_query(p.employment_history, 'lax $[*].company') AS v WHERE jsonb_typeof(v) = 'string' " +
+                   "    UNION ALL " +
+                   "    SELECT p.portfolio_id, 'institutions', btrim(jsonb_build_array(v) ->> 0) " +
+                   "    FROM portfolios p, jsonb_path_query(p.educational_background, 'lax $[*].institution') AS v WHERE jsonb_typeof(v) = 'string'" +
+                   "  ) t WHERE t.term <> '' AND length(t.term) <= :maxLength " +
+                   "  GROUP BY t.field, lower(t.term)" +
+                   ") r WHERE r.rn <= :maxTerms",
+           nativeQuery = true)
+    List<AutocompleteTermCount> countAutocompleteTerms(@Param("maxTerms") int maxTerms, @Param("maxLength") int maxLength);
+
+    /**
+     * Returns the skills and projects a portfolio's similarity signature is computed from, without the other sections.
+     */
+    @Query(value = SIMILARITY_SOURCE_SELECT + "WHERE p.portfolio_id = :portfolioId", nativeQuery = true)
+    Optional<SimilaritySource> findSimilaritySource(@Param("portfolioId") String portfolioId);
+
+    /**
+     * Streams the similarity sources of all discoverable portfolios for a full rebuild of the similarity index.
+     * Must be consumed inside a transaction so the driver can use a server-side cursor.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(value = SIMILARITY_SOURCE_SELECT + "WHERE p.discoverable", nativeQuery = true)
+    Stream<SimilaritySource> streamDiscoverableSimilaritySources();
+
+    /**
+     * Streams the similarity sources of portfolios changed after {@code since}, discoverable or not, to bring a
+     * similarity index loaded from a snapshot up to date. Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(value = SIMILARITY_SOURCE_SELECT + "WHERE p.updated_at > :since", nativeQuery = true)
+    Stream<SimilaritySource> streamSimilaritySourcesUpdatedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT p.discoverable FROM PortfolioEntity p WHERE p.portfolioId = :portfolioId")
+    Optional<Boolean> findDiscoverableByPortfolioId(@Param("portfolioId") String portfolioId);
+
+    @Query("SELECT max(p.updatedAt) FROM PortfolioEntity p")
+    Optional<LocalDateTime> findLatestUpdatedAt();
+
+    @Query("SELECT p.portfolioId AS portfolioId, p.title AS title FROM PortfolioEntity p " +
+           "WHERE p.portfolioId IN :portfolioIds AND p.discoverable = true")
+    List<PortfolioTitle> findDiscoverableTitlesByPortfolioIdIn(@Param("portfolioIds") Collection<String> portfolioIds);
+
+    @Modifying
+    @Query("DELETE FROM PortfolioEntity p WHERE p.portfolioId IN :portfolioIds AND p.user.userId = :userId")
+    int deleteByPortfolioIdInAndUserId(@Param("portfolioIds") Collection<String> portfolioIds, @Param("userId") String userId);
+
+    @Query("SELECT p.shareToken FROM PortfolioEntity p WHERE p.portfolioId = :portfolioId")
+    Optional<String> findShareTokenByPortfolioId(@Param("portfolioId") String portfolioId);
+
+    // Served by the partial unique index idx_portfolios_share_token
+    @Query("SELECT p.portfolioId FROM PortfolioEntity p WHERE p.shareToken = :shareToken")
+    Optional<String> findPortfolioIdByShareToken(@Param("shareToken") String shareToken);
+
+    /**
+     * Sets or clears the share token without touching the version: sharing does not change the content
+     */
+    @Modifying
+    @Query("UPDATE PortfolioEntity p SET p.shareToken = :shareToken WHERE p.portfolioId = :portfolioId")
+    int updateShareToken(@Param("portfolioId") String portfolioId, @Param("shareToken") String shareToken);
+
+    /**
+     * Section-free view of a portfolio with the identifiers needed for ownership checks.
+     */
+    interface PortfolioOwnership {
+        String getPortfolioId();
+        String getUserId();
+    }
+
+    /**
+     * Section-free view of a portfolio with what an update compares against to detect no-op writes.
+     */
+    interface PortfolioWriteState {
+        String getTitle();
+        Map<String, String> getSectionHashes();
+        Long getVersion();
+    }
+
+    /**
+     * One full-text search match with its rank and highlighted fragments.
+     */
+    interface PortfolioSearchHit {
+        String getPortfolioId();
+        String getTitle();
+        Double getRank();
+        String getHighlight();
+    }
+
+    /**
+     * Skills and projects of a portfolio as JSON text, for computing its similarity signature.
+     */
+    interface SimilaritySource {
+        String getPortfolioId();
+        Boolean getDiscoverable();
+        String getSkills();
+        String getProjectShowcases();
+    }
+
+    /**
+     * Section-free view of a portfolio with its title.
+     */
+    interface PortfolioTitle {
+        String getPortfolioId();
+        String getTitle();
+    }
+
+    /**
+     * Number of portfolios using one autocomplete value.
+     */
+    interface AutocompleteTermCount {
+        String getField();
+        String getTerm();
+        Long getPortfolios();
+    }
+
+    /**
+     * Section-free view of a portfolio's owner and version for conditional requests.
+     */
+    interface PortfolioVersionInfo {
+        String getUserId();
+        Long getVersion();
+    }
+}
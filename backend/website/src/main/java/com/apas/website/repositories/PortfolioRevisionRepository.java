@@ -0,0 +1,49 @@
+package com.apas.website.repositories;
+
+import com.apas.website.entities.PortfolioRevision;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Repository
+public interface PortfolioRevisionRepository extends JpaRepository<PortfolioRevision, Long> {
+
+    @Query("SELECT MAX(r.revision) AS latestRevision, " +
+           "MAX(CASE WHEN r.snapshot = true THEN r.revision END) AS latestSnapshotRevision " +
+           "FROM PortfolioRevision r WHERE r.portfolioId = :portfolioId")
+    RevisionHeads findHeadsByPortfolioId(@Param("portfolioId") String portfolioId);
+
+    /**
+     * Returns what is needed to rebuild one revision: the latest snapshot at or before it followed by
+     * the patches up to and including it, in revision order.
+     */
+    @Query("SELECT r FROM PortfolioRevision r WHERE r.portfolioId = :portfolioId AND r.revision <= :revision " +
+           "AND r.revision >= (SELECT MAX(s.revision) FROM PortfolioRevision s " +
+           "WHERE s.portfolioId = :portfolioId AND s.snapshot = true AND s.revision <= :revision) " +
+           "ORDER BY r.revision")
+    List<PortfolioRevision> findReconstructionChain(@Param("portfolioId") String portfolioId, @Param("revision") long revision);
+
+    // Content-free listing, newest first
+    @Query("SELECT r.revision AS revision, r.createdAt AS createdAt FROM PortfolioRevision r " +
+           "WHERE r.portfolioId = :portfolioId AND r.revision < :beforeRevision ORDER BY r.revision DESC")
+    List<RevisionInfo> findInfoByPortfolioIdBefore(@Param("portfolioId") String portfolioId,
+                                                   @Param("beforeRevision") long beforeRevision, Pageable pageable);
+
+    /**
+     * Latest revision number and latest snapshot revision number of a portfolio; both null without history.
+     */
+    interface RevisionHeads {
+        Long getLatestRevision();
+        Long getLatestSnapshotRevision();
+    }
+
+    interface RevisionInfo {
+        Long getRevision();
+        OffsetDateTime getCreatedAt();
+    }
+}
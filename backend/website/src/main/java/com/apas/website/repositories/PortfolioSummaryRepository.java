@@ -0,0 +1,39 @@
+package com.apas.website.repositories;
+
+import com.apas.website.entities.models.response.PortfolioSummaryResponse;
+
+import java.util.List;
+
+/**
+ * Repository fragment that reads portfolio summaries as a projection of the id, title and timestamp
+ * columns only, so the jsonb sections are never fetched. Pages are addressed by keyset (the sort value
+ * and ID of the last row seen) rather than by offset, so deep pages cost the same as the first.
+ */
+public interface PortfolioSummaryRepository {
+
+    enum SummarySort {
+        UPDATED_AT("updatedAt"),
+        TITLE("title");
+
+        private final String attribute;
+
+        SummarySort(String attribute) {
+            this.attribute = attribute;
+        }
+
+        public String getAttribute() {
+            return attribute;
+        }
+    }
+
+    /**
+     * @param userId Owner of the portfolios
+     * @param sort Sort attribute; ties are broken by portfolio ID in the same direction
+     * @param ascending Sort direction
+     * @param afterValue Sort value of the last row of the previous page, or null for the first page
+     * @param afterPortfolioId Portfolio ID of the last row of the previous page, or null for the first page
+     * @param limit Maximum number of rows, or 0 for no limit
+     */
+    List<PortfolioSummaryResponse> findSummaries(String userId, SummarySort sort, boolean ascending,
+                                                 Comparable<?> afterValue, String afterPortfolioId, int limit);
+}
@@ -0,0 +1,59 @@
+package com.apas.website.repositories;
+
+import com.apas.website.entities.PortfolioEntity;
+import com.apas.website.entities.models.response.PortfolioSummaryResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class PortfolioSummaryRepositoryImpl implements PortfolioSummaryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<PortfolioSummaryResponse> findSummaries(String userId, SummarySort sort, boolean ascending,
+                                                        Comparable<?> afterValue, String afterPortfolioId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PortfolioSummaryResponse> query = cb.createQuery(PortfolioSummaryResponse.class);
+        Root<PortfolioEntity> portfolio = query.from(PortfolioEntity.class);
+
+        Path<Comparable> sortPath = portfolio.get(sort.getAttribute());
+        Path<String> idPath = portfolio.get("portfolioId");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(portfolio.get("user").get("userId"), userId));
+        if (afterValue != null && afterPortfolioId != null) {
+            // (sort, id) strictly beyond the last row seen, in the requested direction
+            Comparable value = afterValue;
+            Predicate beyondValue = ascending ? cb.greaterThan(sortPath, value) : cb.lessThan(sortPath, value);
+            Predicate beyondId = ascending ? cb.greaterThan(idPath, afterPortfolioId) : cb.lessThan(idPath, afterPortfolioId);
+            predicates.add(cb.or(beyondValue, cb.and(cb.equal(sortPath, value), beyondId)));
+        }
+
+        query.select(cb.construct(PortfolioSummaryResponse.class,
+                        idPath, portfolio.get("title"), portfolio.get("createdAt"), portfolio.get("updatedAt")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(order(cb, sortPath, ascending), order(cb, idPath, ascending));
+
+        TypedQuery<PortfolioSummaryResponse> typedQuery = entityManager.createQuery(query);
+        if (limit > 0) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList();
+    }
+
+    private static jakarta.persistence.criteria.Order order(CriteriaBuilder cb, Expression<?> expression, boolean ascending) {
+        return ascending ? cb.asc(expression) : cb.desc(expression);
+    }
+}
@@ -1,6 +1,8 @@
 package com.apas.website.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.apas.website.entities.UserEntity;
@@ -11,5 +13,8 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<UserEntity, String> {
     Optional<UserEntity> findByEmail(String email);
     Optional<UserEntity> findByUserId(String userId);
-    Boolean existsByEmail(String email);
+
+    // Case-insensitive so "John@x.com" cannot register next to "john@x.com"; served by idx_users_lower_email
+    @Query("SELECT COUNT(u) > 0 FROM UserEntity u WHERE lower(u.email) = lower(:email)")
+    Boolean existsByEmail(@Param("email") String email);
 } 
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.apas.website.services;
+
+import com.apas.website.entities.AutocompleteField;
+import com.apas.website.entities.models.response.AutocompleteSuggestionResponse;
+
+import java.util.List;
+
+/**
+ * Service for type-ahead suggestions of skills, companies and institutions used across all portfolios.
+ * Suggestions are answered from an in-memory index, never from the database.
+ */
+public interface AutocompleteService {
+
+    /**
+     * Suggests the values most portfolios use that start with the prefix (case-insensitive)
+     *
+     * @param field Which values to suggest
+     * @param prefix What the user typed so far; empty returns the overall most used values
+     * @param limit Maximum number of suggestions
+     * @return Suggestions, most used first
+     */
+    List<AutocompleteSuggestionResponse> suggest(AutocompleteField field, String prefix, int limit);
+
+    /**
+     * Rebuilds the index from all portfolios in the database, correcting any drift of the incremental updates
+     */
+    void rebuildIndex();
+}
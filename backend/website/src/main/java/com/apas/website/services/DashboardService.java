@@ -0,0 +1,20 @@
+package com.apas.website.services;
+
+import com.apas.website.entities.UserEntity;
+import com.apas.website.entities.models.response.DashboardResponse;
+
+/**
+ * Service that assembles the dashboard shown after login, which would otherwise take
+ * the profile, portfolio list and generated PDF list requests one after another.
+ */
+public interface DashboardService {
+
+    /**
+     * Builds the dashboard of a user from blob-free projections, in a fixed number of queries
+     *
+     * @param user The authenticated user, already loaded by the caller
+     * @param pdfLimit Maximum number of generated PDFs to include; null for the configured default
+     * @return Profile, the first page of portfolio summaries with the cursor for the next one, and the most recent PDF metadata
+     */
+    DashboardResponse getDashboard(UserEntity user, Integer pdfLimit);
+}
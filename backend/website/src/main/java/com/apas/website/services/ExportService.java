@@ -0,0 +1,34 @@
+package com.apas.website.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Service for exporting all of a user's data as a single archive
+ */
+public interface ExportService {
+
+    /**
+     * Writes a ZIP archive of the user's portfolios (as JSON) and generated PDFs to the given stream.
+     * Rows are read through database cursors, so memory use does not grow with the account size.
+     * <p>
+     * Entries are written in a fixed order: {@code portfolios/<portfolioId>.json} sorted by portfolio ID,
+     * then {@code pdfs/<pdfId>/<filename>} sorted by PDF ID. A client whose download was interrupted can pass
+     * the name of the last entry it fully received as {@code resumeAfter} to receive only the remaining entries.
+     * 
+     * @param userId The ID of the user whose data is exported
+     * @param resumeAfter The last entry name already received, or null to export everything
+     * @param outputStream The stream to write the archive to; it is finished but not closed
+     * @throws IOException if writing to the stream fails, e.g. because the client disconnected
+     * @throws IllegalArgumentException if {@code resumeAfter} is not an entry name of this archive layout
+     */
+    void exportUserArchive(String userId, String resumeAfter, OutputStream outputStream) throws IOException;
+
+    /**
+     * Checks a resume point before any bytes of the archive are sent
+     * 
+     * @param resumeAfter The last entry name already received, or null
+     * @throws IllegalArgumentException if {@code resumeAfter} is not an entry name of this archive layout
+     */
+    void validateResumePoint(String resumeAfter);
+}
@@ -0,0 +1,52 @@
+package com.apas.website.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import com.apas.website.repositories.GeneratedPdfRepository.PdfOwnership;
+
+/**
+ * Service for combining stored PDFs into one document by copying their pages, without rendering anything again
+ */
+public interface PdfBundleService {
+
+    /**
+     * Resolves and checks the PDFs of a bundle before any bytes are sent
+     * 
+     * @param userId The ID of the user requesting the bundle
+     * @param pdfIds The PDF IDs in bundle order; an ID may appear more than once
+     * @return The PDFs in bundle order
+     * @throws IllegalArgumentException if the list is empty or longer than the configured maximum
+     * @throws jakarta.persistence.EntityNotFoundException if a PDF does not exist
+     * @throws org.springframework.security.access.AccessDeniedException if a PDF belongs to another user
+     */
+    List<PdfOwnership> resolveSources(String userId, List<String> pdfIds);
+
+    /**
+     * Writes the pages of the given PDFs to the stream as one document. Sources are loaded and copied one at a
+     * time and each page is written out as soon as it is copied, so memory does not grow with the bundle.
+     * 
+     * @param sources The PDFs, as returned by {@link #resolveSources}
+     * @param outputStream The stream to write the bundle to; it is not closed
+     * @throws IOException if a source cannot be read or writing to the stream fails
+     */
+    void writeBundle(List<PdfOwnership> sources, OutputStream outputStream) throws IOException;
+
+    /**
+     * Builds the bundle and stores it as a new generated PDF of the first source's portfolio
+     * 
+     * @param userId The ID of the owning user
+     * @param sources The PDFs, as returned by {@link #resolveSources}
+     * @param customPdfName Optional display name of the stored bundle
+     * @return The stored bundle
+     * @throws IOException if a source cannot be read
+     */
+    StoredBundle storeBundle(String userId, List<PdfOwnership> sources, String customPdfName) throws IOException;
+
+    /**
+     * A stored bundle with the filename it is downloadable under
+     */
+    record StoredBundle(String portfolioId, String filename, byte[] content) {
+    }
+}
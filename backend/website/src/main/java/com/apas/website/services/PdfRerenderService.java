@@ -0,0 +1,36 @@
+package com.apas.website.services;
+
+import com.apas.website.entities.models.response.PdfRerenderStatusResponse;
+
+/**
+ * Service for re-rendering stored PDFs with the current template, e.g. after the template or its CSS changed
+ */
+public interface PdfRerenderService {
+
+    /**
+     * Starts re-rendering every generated PDF in the background with its stored style options and the portfolio
+     * content it was generated from, replacing its content in place. An unfinished job (stopped, failed or
+     * interrupted by a restart) is resumed from its checkpoint unless {@code restart} is set.
+     *
+     * @param restart Start over from the first PDF even if an unfinished job exists
+     * A job that is still running, even one asked to stop but still finishing its current batch, is not
+     * started again; any pending stop is withdrawn so it carries on.
+     *
+     * @return The status of the started job, or of the running one if a job is already running
+     */
+    PdfRerenderStatusResponse start(boolean restart);
+
+    /**
+     * Asks the running job to stop after its current batch; it can be resumed with {@link #start}
+     *
+     * @return The status of the job
+     */
+    PdfRerenderStatusResponse stop();
+
+    /**
+     * Reports the progress of the current or most recent job
+     *
+     * @return The status of the job, with rate and ETA while it runs
+     */
+    PdfRerenderStatusResponse getStatus();
+}
@@ -0,0 +1,17 @@
+package com.apas.website.services;
+
+import com.apas.website.entities.models.response.PdfPurgeReportResponse;
+
+/**
+ * Service for enforcing the retention policy on generated PDFs
+ */
+public interface PdfRetentionService {
+
+    /**
+     * Deletes unpinned generated PDFs that fall outside the configured retention policy.
+     * Rows are removed in small batches, each in its own short transaction.
+     *
+     * @return The number of rows and bytes reclaimed by this run
+     */
+    PdfPurgeReportResponse purgeExpiredPdfs();
+}
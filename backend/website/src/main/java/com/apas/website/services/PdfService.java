@@ -2,7 +2,10 @@ package com.apas.website.services;
 
 import java.io.ByteArrayOutputStream;
 
+import com.apas.website.entities.PortfolioSection;
 import com.apas.website.entities.models.request.PdfGenerationRequest;
+import com.apas.website.entities.models.request.PortfolioPreviewRequest;
+import com.apas.website.entities.models.response.PortfolioResponse;
 
 /**
  * Service for generating PDF files from portfolio data
@@ -25,4 +28,34 @@ public interface PdfService {
      * @return The generated PDF as a byte array output stream
      */
     ByteArrayOutputStream generatePortfolioPdf(String portfolioId, PdfGenerationRequest options);
-} 
\ No newline at end of file
+    
+    /**
+     * Generates a PDF from already loaded portfolio data, so the caller knows exactly
+     * which portfolio version was rendered
+     * 
+     * @param portfolio The portfolio data to render
+     * @param options Customization options for the PDF
+     * @return The generated PDF as a byte array output stream
+     */
+    ByteArrayOutputStream generatePortfolioPdf(PortfolioResponse portfolio, PdfGenerationRequest options);
+    
+    /**
+     * Renders the HTML the PDF is laid out from, for showing a portfolio in the browser. User content is
+     * HTML-escaped, so the result is safe to serve as a page.
+     * 
+     * @param portfolio The portfolio data to render
+     * @param options Customization options, as for the PDF
+     * @return A complete HTML document
+     */
+    String renderPortfolioHtml(PortfolioResponse portfolio, PdfGenerationRequest options);
+    
+    /**
+     * Renders an unsaved draft with the same template, without storing or laying out anything, for a live
+     * preview while editing
+     * 
+     * @param draft The draft sections and style options
+     * @param section The only section to render, or null for the whole document
+     * @return A complete HTML document
+     */
+    String renderPreviewHtml(PortfolioPreviewRequest draft, PortfolioSection section);
+}
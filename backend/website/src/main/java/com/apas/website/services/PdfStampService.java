@@ -0,0 +1,31 @@
+package com.apas.website.services;
+
+import java.io.IOException;
+
+import com.apas.website.entities.models.request.PdfStampRequest;
+
+/**
+ * Service for adding overlays (watermark, page numbers, footer) to stored PDFs without rendering them again
+ */
+public interface PdfStampService {
+
+    /**
+     * Stamps the requested overlays onto every page of a stored PDF and stores the result as a new generated PDF
+     * of the same portfolio. The original is left unchanged.
+     * 
+     * @param portfolioId The portfolio ID
+     * @param filename The filename of the stored PDF
+     * @param request The overlays to add
+     * @return The stored copy
+     * @throws IllegalArgumentException if no overlay is requested, or its text has characters outside Windows-1252
+     * @throws jakarta.persistence.EntityNotFoundException if the PDF does not exist
+     * @throws IOException if the stored PDF cannot be read
+     */
+    StampedPdf stampPdf(String portfolioId, String filename, PdfStampRequest request) throws IOException;
+
+    /**
+     * A stamped copy with the filename it is downloadable under
+     */
+    record StampedPdf(String portfolioId, String filename, byte[] content) {
+    }
+}
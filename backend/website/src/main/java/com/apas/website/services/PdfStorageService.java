@@ -5,6 +5,7 @@ import java.util.List;
 import com.apas.website.entities.PortfolioEntity;
 import com.apas.website.entities.UserEntity;
 import com.apas.website.entities.models.request.PdfGenerationRequest;
+import com.apas.website.entities.models.response.BulkDeleteResponse;
 import com.apas.website.entities.models.response.GeneratedPdfItemResponse;
 
 /**
@@ -20,9 +21,23 @@ public interface PdfStorageService {
      * @param originalPortfolioTitle The title of the portfolio at the time of generation
      * @param pdfContent The PDF content
      * @param options The generation options
+     * @param portfolioRevision The portfolio revision (version) the PDF was rendered from
      * @return The filename of the stored PDF
      */
-    String storePdf(PortfolioEntity portfolio, UserEntity user, String originalPortfolioTitle, ByteArrayOutputStream pdfContent, PdfGenerationRequest options);
+    default String storePdf(PortfolioEntity portfolio, UserEntity user, String originalPortfolioTitle, ByteArrayOutputStream pdfContent,
+                            PdfGenerationRequest options, Long portfolioRevision) {
+        return storePdf(portfolio, user, originalPortfolioTitle, pdfContent, options, portfolioRevision, false);
+    }
+    
+    /**
+     * Stores a PDF, recording whether it was built from other stored PDFs (a stamped copy or a bundle) instead
+     * of rendered from the portfolio. Derived PDFs are never re-rendered, which would drop what was added on top.
+     * 
+     * @param derived Whether the content was built from other stored PDFs
+     * @return The filename of the stored PDF
+     */
+    String storePdf(PortfolioEntity portfolio, UserEntity user, String originalPortfolioTitle, ByteArrayOutputStream pdfContent,
+                    PdfGenerationRequest options, Long portfolioRevision, boolean derived);
     
     /**
      * Retrieves a PDF for a portfolio
@@ -62,5 +77,54 @@ public interface PdfStorageService {
 
     List<GeneratedPdfItemResponse> getAllGeneratedPdfsByUserId(String userId);
 
+    /**
+     * Lists the most recently generated PDFs of a user without reading their content
+     * 
+     * @param userId The user ID
+     * @param limit Maximum number of entries
+     * @return Up to limit entries, newest first
+     */
+    List<GeneratedPdfItemResponse> getRecentGeneratedPdfsByUserId(String userId, int limit);
+
     void deletePdf(String portfolioId, String filename);
+
+    /**
+     * Checks whether a PDF is stored for a portfolio without loading its content
+     * 
+     * @param portfolioId The portfolio ID
+     * @param filename The filename of the PDF
+     * @return true if the PDF exists, false otherwise
+     */
+    boolean pdfExists(String portfolioId, String filename);
+
+    /**
+     * Deletes several generated PDFs owned by a user in a single transaction.
+     * IDs that do not exist or belong to another user are reported and left untouched.
+     * 
+     * @param userId The ID of the user performing the delete
+     * @param pdfIds The IDs of the PDFs to delete
+     * @return Per-ID results of the delete
+     */
+    BulkDeleteResponse bulkDeletePdfs(String userId, List<String> pdfIds);
+
+    /**
+     * Deletes every generated PDF of a portfolio in a single transaction
+     * 
+     * @param userId The ID of the user performing the delete
+     * @param portfolioId The portfolio ID
+     * @return Per-ID results of the delete
+     * @throws jakarta.persistence.EntityNotFoundException if the portfolio does not exist
+     * @throws org.springframework.security.access.AccessDeniedException if the user does not own the portfolio
+     */
+    BulkDeleteResponse deleteAllPdfsForPortfolio(String userId, String portfolioId);
+
+    /**
+     * Pins or unpins a stored PDF. Pinned PDFs are exempt from the retention purge.
+     *
+     * @param portfolioId The portfolio ID
+     * @param filename The filename of the PDF
+     * @param pinned Whether the PDF should be pinned
+     * @return true if the PDF exists and was updated, false otherwise
+     */
+    boolean setPdfPinned(String portfolioId, String filename, boolean pinned);
 } 
\ No newline at end of file
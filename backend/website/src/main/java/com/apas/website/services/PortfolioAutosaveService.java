@@ -0,0 +1,38 @@
+package com.apas.website.services;
+
+import com.apas.website.entities.models.response.PortfolioAutosaveResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Write-behind buffer for editor autosaves. Successive autosaves of a portfolio are merged into one
+ * in-memory draft, which is written to the database as a single update once it has been pending for a
+ * while, when the editor goes quiet, on an explicit save, or on shutdown. Every accepted edit is appended
+ * to a local journal first, so drafts that were not yet written survive a crash.
+ */
+public interface PortfolioAutosaveService {
+
+    /**
+     * Merges a JSON Merge Patch (same format as PATCH /api/portfolios/{id}) into the portfolio's draft
+     * 
+     * @param portfolioId Portfolio ID
+     * @param patch Merge patch document with 'title' and/or section members
+     * @return The draft state after the edit
+     */
+    PortfolioAutosaveResponse autosave(String portfolioId, JsonNode patch);
+
+    /**
+     * Writes the pending draft of a portfolio, if any, to the database now. Called before anything
+     * that reads or replaces the stored portfolio, so it never misses buffered edits.
+     * 
+     * @param portfolioId Portfolio ID
+     * @return true if a draft was pending
+     */
+    boolean flushPending(String portfolioId);
+
+    /**
+     * Drops the pending draft of a portfolio without writing it, e.g. because the portfolio is being deleted
+     * 
+     * @param portfolioId Portfolio ID
+     */
+    void discard(String portfolioId);
+}
@@ -0,0 +1,68 @@
+package com.apas.website.services;
+
+import com.apas.website.entities.models.response.PortfolioRevisionResponse;
+import com.apas.website.entities.models.response.PortfolioRevisionSummaryResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * Service for the revision history of portfolios. A revision is the whole portfolio document
+ * ({"title": ..., "personalInformation": ..., ...}) as saved at one portfolio version. Most revisions are
+ * stored as a JSON Patch against the previous one, with a full snapshot every few revisions so rebuilding
+ * any revision replays a bounded number of patches.
+ */
+public interface PortfolioRevisionService {
+
+    /**
+     * Records the first revision of a new portfolio as a snapshot
+     *
+     * @param portfolioId Portfolio ID
+     * @param revision Version the portfolio was created with
+     * @param document The portfolio document
+     */
+    void recordInitialRevision(String portfolioId, long revision, JsonNode document);
+
+    /**
+     * Records a saved change of a portfolio. Must run in the transaction that wrote the change.
+     * If the history does not reach the previous version yet (portfolios created before revisions were
+     * recorded), the previous document is stored as a snapshot first.
+     *
+     * @param portfolioId Portfolio ID
+     * @param previousRevision Version the portfolio had before the change
+     * @param previousDocument The portfolio document before the change
+     * @param revision Version the change was saved as
+     * @param document The portfolio document after the change
+     */
+    void recordRevision(String portfolioId, long previousRevision, JsonNode previousDocument, long revision, JsonNode document);
+
+    /**
+     * Lists revisions of a portfolio, newest first, without their content
+     *
+     * @param portfolioId Portfolio ID
+     * @param beforeRevision Only list revisions older than this one, or null to start at the newest
+     * @param limit Maximum number of revisions to return
+     * @return Revision numbers and timestamps
+     */
+    List<PortfolioRevisionSummaryResponse> getRevisions(String portfolioId, Long beforeRevision, int limit);
+
+    /**
+     * Gets the content of a portfolio at one revision
+     *
+     * @param portfolioId Portfolio ID
+     * @param revision Revision number
+     * @return The portfolio content at that revision
+     * @throws jakarta.persistence.EntityNotFoundException if the revision is not in the history
+     */
+    PortfolioRevisionResponse getRevision(String portfolioId, long revision);
+
+    /**
+     * Rebuilds the portfolio document of one revision from the nearest snapshot and the patches after it
+     *
+     * @param portfolioId Portfolio ID
+     * @param revision Revision number
+     * @return The portfolio document at that revision
+     * @throws jakarta.persistence.EntityNotFoundException if the revision is not in the history
+     */
+    JsonNode getRevisionDocument(String portfolioId, long revision);
+}
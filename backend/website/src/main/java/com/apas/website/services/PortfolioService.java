@@ -1,11 +1,20 @@
 package com.apas.website.services;
 
+import com.apas.website.entities.PortfolioField;
+import com.apas.website.entities.PortfolioSection;
 import com.apas.website.entities.models.request.CreatePortfolioRequest;
 import com.apas.website.entities.models.request.UpdatePortfolioRequest;
+import com.apas.website.entities.models.response.BulkDeleteResponse;
+import com.apas.website.entities.models.response.PortfolioFieldsResponse;
 import com.apas.website.entities.models.response.PortfolioResponse;
+import com.apas.website.entities.models.response.PortfolioSearchPageResponse;
+import com.apas.website.entities.models.response.PortfolioSummaryPageResponse;
 import com.apas.website.entities.models.response.PortfolioSummaryResponse;
+import com.apas.website.entities.models.response.PortfolioVersionResponse;
+import com.fasterxml.jackson.databind.JsonNode;
 
 import java.util.List;
+import java.util.Set;
 
 public interface PortfolioService {
     
@@ -26,6 +35,28 @@ public interface PortfolioService {
      */
     List<PortfolioSummaryResponse> getAllPortfoliosByUserId(String userId);
     
+    /**
+     * Gets one page of portfolio summaries for a user using keyset pagination
+     * 
+     * @param userId User ID
+     * @param sort Sort field, "updatedAt" or "title"
+     * @param direction Sort direction, "asc" or "desc"
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @param limit Page size
+     * @return The page with the cursor for the next one
+     */
+    PortfolioSummaryPageResponse getPortfolioSummaries(String userId, String sort, String direction, String cursor, int limit);
+    
+    /**
+     * Finds a user's portfolios whose list sections (employment history, education, skills, projects)
+     * contain a JSON fragment, e.g. {@code [{"company": "Acme"}]}
+     * 
+     * @param userId User ID
+     * @param fragment JSON array or object to look for
+     * @return IDs of the matching portfolios
+     */
+    List<String> findPortfolioIdsContaining(String userId, String fragment);
+    
     /**
      * Gets a specific portfolio by ID
      * 
@@ -39,9 +70,58 @@ public interface PortfolioService {
      * 
      * @param portfolioId Portfolio ID
      * @param request Portfolio update request
+     * @param expectedVersion Version the client based its changes on, or null to update unconditionally
      * @return The updated portfolio
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the portfolio is no longer at the expected version
+     */
+    PortfolioResponse updatePortfolio(String portfolioId, UpdatePortfolioRequest request, Long expectedVersion);
+    
+    /**
+     * Applies a JSON Merge Patch (RFC 7396) to a portfolio. Top-level members name the title or a section;
+     * each section value is merged into the stored section. Sections whose result is unchanged are not
+     * written, and a patch that changes nothing does not touch the database row at all.
+     * 
+     * @param portfolioId Portfolio ID
+     * @param patch Merge patch document, e.g. {"title": "New title", "personalInformation": {"phone": null}}
+     * @param expectedVersion Version the client based its patch on, or null to patch unconditionally
+     * @return The resulting portfolio
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the portfolio is no longer at the expected version
+     */
+    PortfolioResponse patchPortfolio(String portfolioId, JsonNode patch, Long expectedVersion);
+    
+    /**
+     * Restores a portfolio to the content it had at an earlier revision. The restore is saved as a new
+     * revision, so the history in between is kept.
+     * 
+     * @param portfolioId Portfolio ID
+     * @param revision Revision to restore
+     * @param expectedVersion Version the client based the restore on, or null to restore unconditionally
+     * @return The restored portfolio
+     * @throws jakarta.persistence.EntityNotFoundException if the revision is not in the history
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the portfolio is no longer at the expected version
+     */
+    PortfolioResponse restorePortfolioRevision(String portfolioId, long revision, Long expectedVersion);
+    
+    /**
+     * Opts a portfolio in to or out of full-text search
+     * 
+     * @param portfolioId Portfolio ID
+     * @param discoverable Whether the portfolio should show up in search results
+     * @return The updated portfolio
+     */
+    PortfolioResponse setPortfolioDiscoverable(String portfolioId, boolean discoverable);
+    
+    /**
+     * Searches the title, skills, employment history, projects and education of all discoverable
+     * portfolios, best match first. Queries matching more than the configured candidate cap are ranked
+     * over the first matches found only, so such results are relevant but not necessarily the best.
+     * 
+     * @param query Search terms in web search syntax: quoted phrases, "or", and "-" to exclude a term
+     * @param page Zero-based page number
+     * @param size Page size
+     * @return One page of ranked matches with highlighted fragments
      */
-    PortfolioResponse updatePortfolio(String portfolioId, UpdatePortfolioRequest request);
+    PortfolioSearchPageResponse searchPortfolios(String query, int page, int size);
     
     /**
      * Deletes a portfolio
@@ -50,4 +130,54 @@ public interface PortfolioService {
      * @return Success status
      */
     boolean deletePortfolio(String portfolioId);
-} 
\ No newline at end of file
+
+    /**
+     * Deletes several portfolios owned by a user, together with their generated PDFs,
+     * in a single transaction. IDs that do not exist or belong to another user are
+     * reported and left untouched.
+     * 
+     * @param userId User ID of the owner performing the delete
+     * @param portfolioIds Portfolio IDs to delete
+     * @return Per-ID results of the delete
+     */
+    BulkDeleteResponse bulkDeletePortfolios(String userId, List<String> portfolioIds);
+
+    /**
+     * Gets the user ID of a portfolio's owner without loading the portfolio
+     * 
+     * @param portfolioId Portfolio ID
+     * @return User ID of the owner
+     */
+    String getPortfolioOwnerId(String portfolioId);
+
+    /**
+     * Gets the owner and current version of a portfolio without loading its sections,
+     * for answering conditional requests
+     * 
+     * @param portfolioId Portfolio ID
+     * @return Owner user ID and version
+     */
+    PortfolioVersionResponse getPortfolioVersion(String portfolioId);
+
+    /**
+     * Gets only the requested fields of a portfolio. Served from the portfolio cache when the full portfolio
+     * is in it; otherwise only the columns behind the requested fields are read, and sections are passed
+     * through as stored without being parsed.
+     * 
+     * @param portfolioId Portfolio ID
+     * @param fields Fields to return
+     * @return The requested fields, plus the owner ID and version for authorization and the ETag
+     */
+    PortfolioFieldsResponse getPortfolioFields(String portfolioId, Set<PortfolioField> fields);
+
+    /**
+     * Gets one section of a portfolio, or a nested value within it, as JSON text.
+     * The other sections are neither loaded nor parsed.
+     * 
+     * @param portfolioId Portfolio ID
+     * @param section Section to read
+     * @param path Optional dot-separated path inside the section, e.g. "0.company"
+     * @return The JSON text, or "null" if the section or path is empty
+     */
+    String getPortfolioSectionJson(String portfolioId, PortfolioSection section, String path);
+}
@@ -0,0 +1,36 @@
+package com.apas.website.services;
+
+import com.apas.website.caching.SharePageCache.SharePage;
+import com.apas.website.entities.models.response.ShareLinkResponse;
+
+import java.util.Optional;
+
+/**
+ * Service for public, unguessable share links that show a portfolio as a server-rendered page
+ */
+public interface PortfolioShareService {
+
+    /**
+     * Returns the share link of a portfolio, creating it on first use
+     * 
+     * @param portfolioId Portfolio ID
+     * @return The share link
+     */
+    ShareLinkResponse createShareLink(String portfolioId);
+
+    /**
+     * Revokes the share link of a portfolio; the page stops being served immediately
+     * 
+     * @param portfolioId Portfolio ID
+     * @return true if the portfolio was shared
+     */
+    boolean revokeShareLink(String portfolioId);
+
+    /**
+     * Returns the rendered page of a share token, rendering it only if the portfolio changed since the last visit
+     * 
+     * @param token Share token from the URL
+     * @return The page, or empty if the token is unknown or revoked
+     */
+    Optional<SharePage> getSharePage(String token);
+}
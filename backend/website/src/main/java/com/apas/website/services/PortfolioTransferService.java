@@ -0,0 +1,40 @@
+package com.apas.website.services;
+
+import com.apas.website.entities.models.response.PortfolioImportReportResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Service for moving portfolios in and out in bulk as NDJSON (one JSON object per line)
+ */
+public interface PortfolioTransferService {
+
+    /**
+     * Creates a portfolio for every valid line of an NDJSON stream. Lines are parsed one at a time and
+     * inserted in bounded JDBC batches, each batch in its own transaction, so memory use does not grow
+     * with the size of the upload. Invalid lines are skipped and reported; they do not stop the import.
+     * <p>
+     * Each line is an object with a {@code title}, optionally {@code discoverable} and any of the section
+     * fields of a portfolio. {@code portfolioId}, {@code userId}, {@code version}, {@code createdAt} and
+     * {@code updatedAt} are ignored, so the output of {@link #exportPortfolios} can be imported as-is.
+     *
+     * @param userId The ID of the user who will own the imported portfolios
+     * @param inputStream The UTF-8 encoded NDJSON stream; it is read to the end but not closed
+     * @return How many lines were imported and why the others failed
+     * @throws IOException if reading the stream fails, e.g. because the client disconnected
+     * @throws jakarta.persistence.EntityNotFoundException if the user does not exist
+     */
+    PortfolioImportReportResponse importPortfolios(String userId, InputStream inputStream) throws IOException;
+
+    /**
+     * Writes every portfolio of a user as NDJSON, ordered by portfolio ID. Rows are read through a
+     * database cursor and sections are copied as stored, without being parsed.
+     *
+     * @param userId The ID of the user whose portfolios are exported
+     * @param outputStream The stream to write to; it is flushed but not closed
+     * @throws IOException if writing to the stream fails, e.g. because the client disconnected
+     */
+    void exportPortfolios(String userId, OutputStream outputStream) throws IOException;
+}
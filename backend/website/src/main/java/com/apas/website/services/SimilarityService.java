@@ -0,0 +1,31 @@
+package com.apas.website.services;
+
+import com.apas.website.entities.models.response.SimilarPortfolioResponse;
+
+import java.util.List;
+
+/**
+ * Service for finding portfolios with similar skills and project technologies. Candidates come from an
+ * in-memory locality-sensitive hashing index of the discoverable portfolios, never from a scan of all of them.
+ */
+public interface SimilarityService {
+
+    /**
+     * Finds the discoverable portfolios most similar to a portfolio
+     *
+     * @param portfolioId The portfolio to compare against
+     * @param ownedByCaller Whether the caller owns that portfolio; others may only compare against discoverable ones
+     * @param limit Maximum number of results
+     * @return Similar portfolios, most similar first; empty if the portfolio lists no skills or technologies
+     * @throws jakarta.persistence.EntityNotFoundException If the portfolio does not exist
+     * @throws org.springframework.security.access.AccessDeniedException If the portfolio is neither discoverable nor the caller's
+     */
+    List<SimilarPortfolioResponse> findSimilar(String portfolioId, boolean ownedByCaller, int limit);
+
+    /**
+     * Rebuilds the index from all discoverable portfolios in the database, correcting any drift of the
+     * incremental updates. Right after startup it loads the persisted snapshot instead and only re-reads the
+     * portfolios saved since. Runs in the background; returns immediately.
+     */
+    void rebuildIndex();
+}
@@ -0,0 +1,241 @@
+package com.apas.website.services.implementations;
+
+import com.apas.website.entities.AutocompleteField;
+import com.apas.website.entities.models.response.AutocompleteSuggestionResponse;
+import com.apas.website.events.PortfolioChangedEvent;
+import com.apas.website.repositories.PortfolioRepository;
+import com.apas.website.repositories.PortfolioRepository.AutocompleteTermCount;
+import com.apas.website.services.AutocompleteService;
+import com.apas.website.utilities.RankedPrefixTrie;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps one {@link RankedPrefixTrie} per autocomplete field in memory. Counts are the number of portfolios
+ * using a value. Saves adjust the counts incrementally from the before/after documents carried by
+ * {@link PortfolioChangedEvent}; a periodic rebuild from the database corrects what the events cannot see
+ * (bulk deletes) and drops values that fell out of the top. Deltas of saves that commit while a rebuild reads
+ * the database are applied to the current tries as usual and replayed on the rebuilt ones after the swap.
+ * A save committing just as the rebuild starts may be counted twice; the next rebuild corrects that.
+ * <p>
+ * Memory is bounded by {@code app.autocomplete.maxTermsPerField}: once a trie is full, new values are only
+ * picked up by the next rebuild, which keeps the most used ones.
+ */
+@Service
+public class AutocompleteServiceImpl implements AutocompleteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutocompleteServiceImpl.class);
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final int MAX_TERM_LENGTH = 100;
+
+    private final PortfolioRepository portfolioRepository;
+    private final Map<AutocompleteField, RankedPrefixTrie> tries = new EnumMap<>(AutocompleteField.class);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // Deltas applied while a rebuild reads the database, replayed on the rebuilt tries; both guarded by lock
+    private final List<FieldDelta> deltasDuringRebuild = new ArrayList<>();
+    private boolean recordingDeltas;
+
+    @Value("${app.autocomplete.maxTermsPerField:50000}")
+    private int maxTermsPerField;
+
+    @Value("${app.autocomplete.minPortfolios:2}") // Values used by fewer portfolios are never suggested
+    private long minPortfolios;
+
+    @Autowired
+    public AutocompleteServiceImpl(PortfolioRepository portfolioRepository) {
+        this.portfolioRepository = portfolioRepository;
+        for (AutocompleteField field : AutocompleteField.values()) {
+            tries.put(field, new RankedPrefixTrie());
+        }
+    }
+
+    @Override
+    public List<AutocompleteSuggestionResponse> suggest(AutocompleteField field, String prefix, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        String key = prefix != null ? normalize(prefix) : "";
+        if (key.length() > MAX_TERM_LENGTH) {
+            return List.of();
+        }
+
+        List<RankedPrefixTrie.Suggestion> suggestions;
+        lock.readLock().lock();
+        try {
+            suggestions = tries.get(field).top(key, limit, minPortfolios);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return suggestions.stream()
+                .map(suggestion -> new AutocompleteSuggestionResponse(suggestion.getValue(), suggestion.getCount()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${app.autocomplete.initialDelayMs:10000}",
+               fixedDelayString = "${app.autocomplete.rebuildIntervalMs:1800000}")
+    public void rebuildIndex() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            logger.debug("Autocomplete index rebuild already running; skipping.");
+            return;
+        }
+        try {
+            long startedAt = System.currentTimeMillis();
+            // Built off to the side so suggestions keep being served from the current tries meanwhile
+            Map<AutocompleteField, RankedPrefixTrie> rebuilt = new EnumMap<>(AutocompleteField.class);
+            for (AutocompleteField field : AutocompleteField.values()) {
+                rebuilt.put(field, new RankedPrefixTrie());
+            }
+            lock.writeLock().lock();
+            try {
+                deltasDuringRebuild.clear();
+                recordingDeltas = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            List<AutocompleteTermCount> counts = portfolioRepository.countAutocompleteTerms(maxTermsPerField, MAX_TERM_LENGTH);
+            for (AutocompleteTermCount count : counts) {
+                rebuilt.get(AutocompleteField.fromName(count.getField()))
+                        .add(normalize(count.getTerm()), count.getTerm().trim(), count.getPortfolios());
+            }
+
+            int replayed;
+            lock.writeLock().lock();
+            try {
+                tries.putAll(rebuilt);
+                for (FieldDelta change : deltasDuringRebuild) {
+                    applyDelta(tries.get(change.field()), change.delta(), change.displays());
+                }
+                replayed = deltasDuringRebuild.size();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Rebuilt autocomplete index with {} value(s) in {} ms ({} delta(s) replayed).",
+                        counts.size(), System.currentTimeMillis() - startedAt, replayed);
+        } catch (RuntimeException e) {
+            logger.error("Autocomplete index rebuild failed; keeping the current index: {}", e.getMessage(), e);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                recordingDeltas = false;
+                deltasDuringRebuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        if (event.getPreviousDocument() == null && event.getDocument() == null) {
+            return; // Nothing to diff, e.g. bulk deletes; the next rebuild catches up
+        }
+        Map<AutocompleteField, Map<String, Integer>> deltas = new EnumMap<>(AutocompleteField.class);
+        for (AutocompleteField field : AutocompleteField.values()) {
+            Map<String, String> before = extractTerms(field, event.getPreviousDocument());
+            Map<String, String> after = extractTerms(field, event.getDocument());
+            Map<String, Integer> delta = new HashMap<>();
+            after.keySet().stream().filter(key -> !before.containsKey(key)).forEach(key -> delta.put(key, 1));
+            before.keySet().stream().filter(key -> !after.containsKey(key)).forEach(key -> delta.put(key, -1));
+            if (!delta.isEmpty()) {
+                deltas.put(field, delta);
+                applyDelta(field, delta, after);
+            }
+        }
+        if (!deltas.isEmpty()) {
+            logger.debug("Updated autocomplete index for portfolio {}: {}", event.getPortfolioId(), deltas);
+        }
+    }
+
+    private void applyDelta(AutocompleteField field, Map<String, Integer> delta, Map<String, String> displays) {
+        lock.writeLock().lock();
+        try {
+            applyDelta(tries.get(field), delta, displays);
+            if (recordingDeltas) {
+                deltasDuringRebuild.add(new FieldDelta(field, delta, displays));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void applyDelta(RankedPrefixTrie trie, Map<String, Integer> delta, Map<String, String> displays) {
+        delta.forEach((key, change) -> {
+            if (change > 0 && trie.size() >= maxTermsPerField && trie.count(key) == 0) {
+                return; // Full; the next rebuild decides whether the value makes the cut
+            }
+            trie.add(key, displays.get(key), change);
+        });
+    }
+
+    /**
+     * Collects the distinct values of a field in a portfolio document, keyed by their normalized form.
+     * Mirrors the JSON paths of {@link PortfolioRepository#countAutocompleteTerms}.
+     */
+    private static Map<String, String> extractTerms(AutocompleteField field, JsonNode document) {
+        Map<String, String> terms = new HashMap<>();
+        if (document == null) {
+            return terms;
+        }
+        JsonNode section = document.path(field.getSection().getFieldName());
+        if (!section.isArray()) {
+            return terms;
+        }
+        for (JsonNode entry : section) {
+            switch (field) {
+                case SKILLS:
+                    for (JsonNode item : entry.path("items")) {
+                        addTerm(terms, item.isObject() ? item.path("name") : item);
+                    }
+                    break;
+                case COMPANIES:
+                    addTerm(terms, entry.path("company"));
+                    break;
+                case INSTITUTIONS:
+                    addTerm(terms, entry.path("institution"));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown autocomplete field: " + field);
+            }
+        }
+        return terms;
+    }
+
+    private static void addTerm(Map<String, String> terms, JsonNode value) {
+        if (!value.isTextual()) {
+            return;
+        }
+        String display = value.asText().trim();
+        if (!display.isEmpty() && display.length() <= MAX_TERM_LENGTH) {
+            terms.putIfAbsent(normalize(display), display);
+        }
+    }
+
+    private static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record FieldDelta(AutocompleteField field, Map<String, Integer> delta, Map<String, String> displays) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.apas.website.services.implementations;
+
+import com.apas.website.entities.UserEntity;
+import com.apas.website.entities.models.response.DashboardResponse;
+import com.apas.website.entities.models.response.GeneratedPdfItemResponse;
+import com.apas.website.entities.models.response.PortfolioSummaryPageResponse;
+import com.apas.website.entities.models.response.UserProfileResponse;
+import com.apas.website.services.DashboardService;
+import com.apas.website.services.PdfStorageService;
+import com.apas.website.services.PortfolioService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class DashboardServiceImpl implements DashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardServiceImpl.class);
+
+    private final PortfolioService portfolioService;
+    private final PdfStorageService pdfStorageService;
+    private final int defaultPdfLimit;
+    private final int maxPdfLimit;
+    private final int portfolioLimit;
+
+    @Autowired
+    public DashboardServiceImpl(PortfolioService portfolioService,
+                                PdfStorageService pdfStorageService,
+                                @Value("${app.dashboard.pdfLimit:5}") int defaultPdfLimit,
+                                @Value("${app.dashboard.maxPdfLimit:50}") int maxPdfLimit,
+                                @Value("${app.dashboard.portfolioLimit:20}") int portfolioLimit) {
+        this.portfolioService = portfolioService;
+        this.pdfStorageService = pdfStorageService;
+        this.defaultPdfLimit = defaultPdfLimit;
+        this.maxPdfLimit = maxPdfLimit;
+        this.portfolioLimit = portfolioLimit;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DashboardResponse getDashboard(UserEntity user, Integer pdfLimit) {
+        int limit = pdfLimit != null ? pdfLimit : defaultPdfLimit;
+        if (limit < 0 || limit > maxPdfLimit) {
+            throw new IllegalArgumentException("pdfLimit must be between 0 and " + maxPdfLimit);
+        }
+        
+        // The profile comes from the entity the caller loaded for authorization; the lists are
+        // one projection query each, neither reads the jsonb sections nor the PDF content. Portfolios
+        // are the first keyset page, newest first; the rest is fetched with the returned cursor.
+        UserProfileResponse profile = new UserProfileResponse(
+                user.getUserId(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getEmail(),
+                user.getIsOAuth2User()
+        );
+        PortfolioSummaryPageResponse portfolios = portfolioService.getPortfolioSummaries(user.getUserId(), null, null, null, portfolioLimit);
+        List<GeneratedPdfItemResponse> recentPdfs = pdfStorageService.getRecentGeneratedPdfsByUserId(user.getUserId(), limit);
+        
+        logger.debug("Dashboard for user {}: {} portfolios{}, {} recent PDFs", user.getUserId(), portfolios.getItems().size(),
+                     portfolios.getNextCursor() != null ? " (more available)" : "", recentPdfs.size());
+        return new DashboardResponse(profile, portfolios.getItems(), portfolios.getNextCursor(), recentPdfs);
+    }
+}
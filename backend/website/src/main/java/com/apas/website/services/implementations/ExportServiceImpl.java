@@ -0,0 +1,216 @@
+package com.apas.website.services.implementations;
+
+import com.apas.website.configurations.JsonCodecs;
+import com.apas.website.entities.GeneratedPdf;
+import com.apas.website.entities.PortfolioEntity;
+import com.apas.website.repositories.GeneratedPdfRepository;
+import com.apas.website.repositories.PortfolioRepository;
+import com.apas.website.services.ExportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportServiceImpl.class);
+
+    private static final String PORTFOLIO_ENTRY_PREFIX = "portfolios/";
+    private static final String PORTFOLIO_ENTRY_SUFFIX = ".json";
+    private static final String PDF_ENTRY_PREFIX = "pdfs/";
+
+    private final PortfolioRepository portfolioRepository;
+    private final GeneratedPdfRepository generatedPdfRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter exportWriter;
+    private final JsonCodecs jsonCodecs;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public ExportServiceImpl(PortfolioRepository portfolioRepository, GeneratedPdfRepository generatedPdfRepository,
+                             JsonCodecs jsonCodecs, PlatformTransactionManager transactionManager) {
+        this.portfolioRepository = portfolioRepository;
+        this.generatedPdfRepository = generatedPdfRepository;
+        this.objectMapper = jsonCodecs.getObjectMapper();
+        this.exportWriter = jsonCodecs.getTreeWriter().withDefaultPrettyPrinter();
+        this.jsonCodecs = jsonCodecs;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public void exportUserArchive(String userId, String resumeAfter, OutputStream outputStream) throws IOException {
+        ResumePoint resumePoint = parseResumePoint(resumeAfter);
+        ZipOutputStream zip = new ZipOutputStream(outputStream);
+        long startedAt = System.currentTimeMillis();
+
+        try {
+            int portfolioCount = resumePoint.includePortfolios
+                ? readOnlyTransactionTemplate.execute(status -> writePortfolios(userId, resumePoint.afterPortfolioId, zip))
+                : 0;
+            int pdfCount = readOnlyTransactionTemplate.execute(status -> writePdfs(userId, resumePoint.afterPdfId, zip));
+            zip.finish();
+            zip.flush();
+
+            logger.info("Exported {} portfolio(s) and {} PDF(s) for user {} in {} ms (resumed after: {}).",
+                        portfolioCount, pdfCount, userId, System.currentTimeMillis() - startedAt,
+                        StringUtils.hasText(resumeAfter) ? resumeAfter : "none");
+        } catch (UncheckedIOException e) {
+            logger.warn("Export for user {} aborted, most likely because the client disconnected: {}", userId, e.getMessage());
+            throw e.getCause();
+        }
+    }
+
+    private int writePortfolios(String userId, String afterPortfolioId, ZipOutputStream zip) {
+        int count = 0;
+        try (Stream<PortfolioEntity> portfolios = portfolioRepository.streamByUserIdAfter(userId, afterPortfolioId)) {
+            Iterator<PortfolioEntity> iterator = portfolios.iterator();
+            while (iterator.hasNext()) {
+                PortfolioEntity portfolio = iterator.next();
+                ZipEntry entry = new ZipEntry(PORTFOLIO_ENTRY_PREFIX + portfolio.getPortfolioId() + PORTFOLIO_ENTRY_SUFFIX);
+                if (portfolio.getUpdatedAt() != null) {
+                    entry.setTime(portfolio.getUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli());
+                }
+                zip.putNextEntry(entry);
+                zip.write(exportWriter.writeValueAsBytes(toExportJson(portfolio)));
+                zip.closeEntry();
+
+                // Keep the persistence context from growing with the number of exported rows
+                entityManager.detach(portfolio);
+                count++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
+    private int writePdfs(String userId, String afterPdfId, ZipOutputStream zip) {
+        int count = 0;
+        try (Stream<GeneratedPdf> pdfs = generatedPdfRepository.streamByUserIdAfter(userId, afterPdfId)) {
+            Iterator<GeneratedPdf> iterator = pdfs.iterator();
+            while (iterator.hasNext()) {
+                GeneratedPdf pdf = iterator.next();
+                byte[] content = pdf.getPdfContent();
+                if (content != null) {
+                    // PDFs are already compressed, so they are stored as-is instead of being deflated again
+                    CRC32 crc = new CRC32();
+                    crc.update(content);
+                    ZipEntry entry = new ZipEntry(PDF_ENTRY_PREFIX + pdf.getPdfId() + "/" + sanitizeEntryName(pdf.getFilename()));
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setSize(content.length);
+                    entry.setCompressedSize(content.length);
+                    entry.setCrc(crc.getValue());
+                    entry.setTime(pdf.getGeneratedAt().toInstant().toEpochMilli());
+                    zip.putNextEntry(entry);
+                    zip.write(content);
+                    zip.closeEntry();
+                    zip.flush();
+                    count++;
+                } else {
+                    logger.warn("Skipping PDF {} in export for user {}: no stored content.", pdf.getPdfId(), userId);
+                }
+                entityManager.detach(pdf);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
+    private ObjectNode toExportJson(PortfolioEntity portfolio) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("portfolioId", portfolio.getPortfolioId());
+        node.put("title", portfolio.getTitle());
+        node.putPOJO("createdAt", portfolio.getCreatedAt());
+        node.putPOJO("updatedAt", portfolio.getUpdatedAt());
+        node.set("personalInformation", readSection(portfolio.getPersonalInformation()));
+        node.set("employmentHistory", readSection(portfolio.getEmploymentHistory()));
+        node.set("educationalBackground", readSection(portfolio.getEducationalBackground()));
+        node.set("skills", readSection(portfolio.getSkills()));
+        node.set("projectShowcases", readSection(portfolio.getProjectShowcases()));
+        return node;
+    }
+
+    private JsonNode readSection(String json) {
+        if (json == null) {
+            return NullNode.getInstance();
+        }
+        try {
+            return jsonCodecs.getTreeReader().readValue(json);
+        } catch (IOException e) {
+            // Export whatever was stored rather than dropping it
+            return TextNode.valueOf(json);
+        }
+    }
+
+    @Override
+    public void validateResumePoint(String resumeAfter) {
+        parseResumePoint(resumeAfter);
+    }
+
+    private ResumePoint parseResumePoint(String resumeAfter) {
+        if (!StringUtils.hasText(resumeAfter)) {
+            return new ResumePoint(true, "", "");
+        }
+        if (resumeAfter.startsWith(PORTFOLIO_ENTRY_PREFIX) && resumeAfter.endsWith(PORTFOLIO_ENTRY_SUFFIX)) {
+            String portfolioId = resumeAfter.substring(PORTFOLIO_ENTRY_PREFIX.length(), resumeAfter.length() - PORTFOLIO_ENTRY_SUFFIX.length());
+            if (!portfolioId.isEmpty()) {
+                return new ResumePoint(true, portfolioId, "");
+            }
+        }
+        if (resumeAfter.startsWith(PDF_ENTRY_PREFIX)) {
+            String remainder = resumeAfter.substring(PDF_ENTRY_PREFIX.length());
+            int separator = remainder.indexOf('/');
+            String pdfId = separator >= 0 ? remainder.substring(0, separator) : remainder;
+            if (!pdfId.isEmpty()) {
+                return new ResumePoint(false, "", pdfId);
+            }
+        }
+        throw new IllegalArgumentException("resumeAfter must be the name of an entry from a previous export, e.g. 'pdfs/PDF-A1B2-C3D4/portfolio.pdf'");
+    }
+
+    private static String sanitizeEntryName(String filename) {
+        return filename == null ? "document.pdf" : filename.replaceAll("[^a-zA-Z0-9._-]", "_");
+    }
+
+    /**
+     * Where an export picks up: which phases still have to run and the last ID already delivered in each.
+     */
+    private static final class ResumePoint {
+        private final boolean includePortfolios;
+        private final String afterPortfolioId;
+        private final String afterPdfId;
+
+        private ResumePoint(boolean includePortfolios, String afterPortfolioId, String afterPdfId) {
+            this.includePortfolios = includePortfolios;
+            this.afterPortfolioId = afterPortfolioId;
+            this.afterPdfId = afterPdfId;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.apas.website.services.implementations;
+
+import com.apas.website.caching.PdfContentCache;
+import com.apas.website.entities.PortfolioEntity;
+import com.apas.website.entities.UserEntity;
+import com.apas.website.entities.models.request.PdfGenerationRequest;
+import com.apas.website.repositories.GeneratedPdfRepository;
+import com.apas.website.repositories.GeneratedPdfRepository.PdfOwnership;
+import com.apas.website.repositories.PortfolioRepository;
+import com.apas.website.repositories.UserRepository;
+import com.apas.website.services.PdfBundleService;
+import com.apas.website.services.PdfStorageService;
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.pdf.PdfCopy;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.RandomAccessFileOrArray;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class PdfBundleServiceImpl implements PdfBundleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfBundleServiceImpl.class);
+
+    private final GeneratedPdfRepository generatedPdfRepository;
+    private final PortfolioRepository portfolioRepository;
+    private final UserRepository userRepository;
+    private final PdfStorageService pdfStorageService;
+    private final PdfContentCache pdfContentCache;
+    private final int maxSources;
+
+    @Autowired
+    public PdfBundleServiceImpl(GeneratedPdfRepository generatedPdfRepository, PortfolioRepository portfolioRepository,
+                                UserRepository userRepository, PdfStorageService pdfStorageService,
+                                PdfContentCache pdfContentCache,
+                                @Value("${app.pdf.bundle.maxSources:50}") int maxSources) {
+        this.generatedPdfRepository = generatedPdfRepository;
+        this.portfolioRepository = portfolioRepository;
+        this.userRepository = userRepository;
+        this.pdfStorageService = pdfStorageService;
+        this.pdfContentCache = pdfContentCache;
+        this.maxSources = maxSources;
+    }
+
+    @Override
+    public List<PdfOwnership> resolveSources(String userId, List<String> pdfIds) {
+        if (pdfIds == null || pdfIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one PDF ID is required");
+        }
+        if (pdfIds.size() > maxSources) {
+            throw new IllegalArgumentException("A bundle can combine at most " + maxSources + " PDFs");
+        }
+
+        // Blob-free: the contents are only read while the bundle is written
+        Map<String, PdfOwnership> pdfsById = generatedPdfRepository.findOwnershipByPdfIdIn(pdfIds).stream()
+            .collect(Collectors.toMap(PdfOwnership::getPdfId, Function.identity()));
+
+        List<PdfOwnership> sources = new ArrayList<>(pdfIds.size());
+        for (String pdfId : pdfIds) {
+            PdfOwnership pdf = pdfsById.get(pdfId);
+            if (pdf == null) {
+                throw new EntityNotFoundException("Generated PDF not found with ID: " + pdfId);
+            }
+            if (!pdf.getUserId().equals(userId)) {
+                throw new AccessDeniedException("You can only bundle your own PDFs");
+            }
+            sources.add(pdf);
+        }
+        return sources;
+    }
+
+    @Override
+    public void writeBundle(List<PdfOwnership> sources, OutputStream outputStream) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        Document document = new Document();
+        int pages = 0;
+        try {
+            PdfCopy copy = new PdfCopy(document, outputStream);
+            copy.setCloseStream(false);
+            document.open();
+
+            for (PdfOwnership source : sources) {
+                byte[] content = loadContent(source);
+                // Partial mode parses objects on demand, so only the page being copied is held as PDF objects
+                PdfReader reader = new PdfReader(new RandomAccessFileOrArray(content), null);
+                try {
+                    int pageCount = reader.getNumberOfPages();
+                    for (int page = 1; page <= pageCount; page++) {
+                        copy.addPage(copy.getImportedPage(reader, page));
+                    }
+                    // Writes what is left of this source and drops its objects before the next one is loaded
+                    copy.freeReader(reader);
+                    pages += pageCount;
+                } finally {
+                    reader.close();
+                }
+            }
+            document.close();
+        } catch (DocumentException e) {
+            throw new IOException("Failed to bundle PDFs: " + e.getMessage(), e);
+        }
+        logger.info("Bundled {} PDF(s) with {} page(s) in {} ms.", sources.size(), pages, System.currentTimeMillis() - startedAt);
+    }
+
+    @Override
+    public StoredBundle storeBundle(String userId, List<PdfOwnership> sources, String customPdfName) throws IOException {
+        // The content column is a single bytea value, so a stored bundle is built in memory once
+        ByteArrayOutputStream bundle = new ByteArrayOutputStream();
+        writeBundle(sources, bundle);
+
+        String portfolioId = sources.get(0).getPortfolioId();
+        PortfolioEntity portfolio = portfolioRepository.findById(portfolioId)
+            .orElseThrow(() -> new EntityNotFoundException("Portfolio not found with ID: " + portfolioId));
+        UserEntity user = userRepository.findById(userId)
+            .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + userId));
+
+        PdfGenerationRequest options = new PdfGenerationRequest();
+        options.setCustomPdfName(StringUtils.hasText(customPdfName) ? customPdfName : "Bundle of " + sources.size() + " PDFs");
+        String filename = pdfStorageService.storePdf(portfolio, user, portfolio.getTitle(), bundle, options, null, true);
+        logger.info("Stored bundle of {} PDF(s) for user {} as {}.", sources.size(), userId, filename);
+        return new StoredBundle(portfolioId, filename, bundle.toByteArray());
+    }
+
+    private byte[] loadContent(PdfOwnership source) {
+        // Use a cached copy when there is one, but do not cache sources: bundling says nothing about downloads
+        byte[] cached = pdfContentCache.get(source.getPortfolioId(), source.getFilename());
+        if (cached != null) {
+            return cached;
+        }
+        return generatedPdfRepository.findContentByPdfId(source.getPdfId())
+            .orElseThrow(() -> new EntityNotFoundException("Generated PDF not found with ID: " + source.getPdfId()));
+    }
+}
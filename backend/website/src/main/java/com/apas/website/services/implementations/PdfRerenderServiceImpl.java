@@ -0,0 +1,432 @@
+package com.apas.website.services.implementations;
+
+import com.apas.website.caching.PdfContentCache;
+import com.apas.website.configurations.JsonCodecs;
+import com.apas.website.entities.PdfRerenderJob;
+import com.apas.website.entities.models.request.PdfGenerationRequest;
+import com.apas.website.entities.models.response.PdfRerenderStatusResponse;
+import com.apas.website.entities.models.response.PortfolioResponse;
+import com.apas.website.entities.models.response.PortfolioRevisionResponse;
+import com.apas.website.repositories.GeneratedPdfRepository;
+import com.apas.website.repositories.GeneratedPdfRepository.RerenderCandidate;
+import com.apas.website.repositories.PdfRerenderJobRepository;
+import com.apas.website.services.PdfRerenderService;
+import com.apas.website.services.PdfService;
+import com.apas.website.services.PortfolioRevisionService;
+import com.apas.website.services.PortfolioService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Re-renders generated PDFs in the background. A coordinator walks the table in PDF ID order in batches; each
+ * batch is rendered in parallel on a pool of low-priority workers, and the job row is checkpointed once the whole
+ * batch is done. Workers draw from a shared rate limit and back off while the connection pool is busy, so
+ * interactive requests always get a connection first.
+ * <p>
+ * Derived PDFs (stamped copies, bundles) are not re-rendered: their overlays and merged pages are not part of
+ * the template, so they are left as they are. PDFs generated before revisions were recorded are rendered from
+ * the current portfolio as long as it has not been saved since; otherwise they are counted as skipped-changed.
+ */
+@Service
+public class PdfRerenderServiceImpl implements PdfRerenderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfRerenderServiceImpl.class);
+
+    private enum Outcome { PROCESSED, SKIPPED, SKIPPED_CHANGED, FAILED }
+
+    private final GeneratedPdfRepository generatedPdfRepository;
+    private final PdfRerenderJobRepository pdfRerenderJobRepository;
+    private final PortfolioService portfolioService;
+    private final PortfolioRevisionService portfolioRevisionService;
+    private final PdfService pdfService;
+    private final PdfContentCache pdfContentCache;
+    private final JsonCodecs jsonCodecs;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int threads;
+    private final int batchSize;
+    private final double maxPerSecond;
+    private final int reservedConnections;
+    private final long backoffMs;
+    private final long maxBackoffMs;
+
+    private final ExecutorService coordinator;
+    private final ExecutorService workers;
+    private final Object lock = new Object();
+    // Next time (System.nanoTime) a worker may start a render; shared by all workers
+    private final AtomicLong nextPermitNanos = new AtomicLong(System.nanoTime());
+    private final AtomicLong yields = new AtomicLong();
+
+    // Guarded by lock
+    private PdfRerenderJob currentJob;
+    private volatile boolean stopRequested;
+    private volatile long runStartedNanos;
+    private volatile long handledAtRunStart;
+
+    @Autowired
+    public PdfRerenderServiceImpl(GeneratedPdfRepository generatedPdfRepository, PdfRerenderJobRepository pdfRerenderJobRepository,
+                                  PortfolioService portfolioService, PortfolioRevisionService portfolioRevisionService,
+                                  PdfService pdfService, PdfContentCache pdfContentCache, JsonCodecs jsonCodecs,
+                                  DataSource dataSource, PlatformTransactionManager transactionManager,
+                                  @Value("${app.pdf.rerender.threads:0}") int threads,
+                                  @Value("${app.pdf.rerender.batchSize:50}") int batchSize,
+                                  @Value("${app.pdf.rerender.maxPerSecond:10}") double maxPerSecond,
+                                  @Value("${app.pdf.rerender.reservedConnections:3}") int reservedConnections,
+                                  @Value("${app.pdf.rerender.backoffMs:250}") long backoffMs,
+                                  @Value("${app.pdf.rerender.maxBackoffMs:5000}") long maxBackoffMs) {
+        this.generatedPdfRepository = generatedPdfRepository;
+        this.pdfRerenderJobRepository = pdfRerenderJobRepository;
+        this.portfolioService = portfolioService;
+        this.portfolioRevisionService = portfolioRevisionService;
+        this.pdfService = pdfService;
+        this.pdfContentCache = pdfContentCache;
+        this.jsonCodecs = jsonCodecs;
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // 0 means one worker per core, minus one left for request handling
+        this.threads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        this.batchSize = batchSize;
+        this.maxPerSecond = maxPerSecond;
+        this.reservedConnections = reservedConnections;
+        this.backoffMs = backoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.coordinator = Executors.newSingleThreadExecutor(namedThreads("pdf-rerender"));
+        this.workers = Executors.newFixedThreadPool(this.threads, namedThreads("pdf-rerender-worker-"));
+    }
+
+    @Override
+    public PdfRerenderStatusResponse start(boolean restart) {
+        synchronized (lock) {
+            if (currentJob != null && PdfRerenderJob.RUNNING.equals(currentJob.getStatus())) {
+                // Still running, possibly draining its last batch after a stop: withdraw the stop so it carries on
+                stopRequested = false;
+                return toStatus(currentJob);
+            }
+            OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+            PdfRerenderJob job = restart ? null : pdfRerenderJobRepository.findFirstByOrderByStartedAtDesc()
+                    .filter(previous -> !PdfRerenderJob.COMPLETED.equals(previous.getStatus()))
+                    .orElse(null);
+            if (job == null) {
+                job = new PdfRerenderJob(UUID.randomUUID().toString(), PdfRerenderJob.RUNNING,
+                                         generatedPdfRepository.countByDerivedFalse(), 0, 0, 0, 0, null, now, now, null);
+                logger.info("Starting PDF re-render job {} over {} PDF(s) with {} worker(s), at most {} per second.",
+                            job.getJobId(), job.getTotal(), threads, maxPerSecond);
+            } else {
+                // RUNNING here means the previous process stopped without finishing it
+                logger.info("Resuming PDF re-render job {} after PDF {} ({} of {} handled).",
+                            job.getJobId(), job.getLastPdfId(), handled(job), job.getTotal());
+            }
+            job.setStatus(PdfRerenderJob.RUNNING);
+            job.setUpdatedAt(now);
+            job.setFinishedAt(null);
+            currentJob = pdfRerenderJobRepository.save(job);
+            stopRequested = false;
+            runStartedNanos = System.nanoTime();
+            handledAtRunStart = handled(currentJob);
+            coordinator.execute(this::run);
+            return toStatus(currentJob);
+        }
+    }
+
+    @Override
+    public PdfRerenderStatusResponse stop() {
+        synchronized (lock) {
+            stopRequested = true;
+        }
+        return getStatus();
+    }
+
+    @Override
+    public PdfRerenderStatusResponse getStatus() {
+        synchronized (lock) {
+            PdfRerenderJob job = currentJob != null ? currentJob : pdfRerenderJobRepository.findFirstByOrderByStartedAtDesc().orElse(null);
+            if (job == null) {
+                PdfRerenderStatusResponse none = new PdfRerenderStatusResponse();
+                none.setStatus("NONE");
+                return none;
+            }
+            PdfRerenderStatusResponse status = toStatus(job);
+            if (job != currentJob && PdfRerenderJob.RUNNING.equals(job.getStatus())) {
+                // Left RUNNING by a process that stopped without finishing it
+                status.setStatus("INTERRUPTED");
+            }
+            return status;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // The job row stays RUNNING with its last checkpoint; the next start resumes it
+        stopRequested = true;
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void run() {
+        PdfRerenderJob job;
+        synchronized (lock) {
+            job = currentJob;
+        }
+        String after = job.getLastPdfId() != null ? job.getLastPdfId() : "";
+        try {
+            while (!stopIfRequested()) {
+                List<RerenderCandidate> batch = generatedPdfRepository.findRerenderCandidates(after, PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) {
+                    finish(PdfRerenderJob.COMPLETED);
+                    return;
+                }
+
+                List<Future<Outcome>> results = new ArrayList<>(batch.size());
+                for (RerenderCandidate candidate : batch) {
+                    results.add(workers.submit(() -> rerender(candidate)));
+                }
+                long processed = 0, skipped = 0, skippedChanged = 0, failed = 0;
+                for (Future<Outcome> result : results) {
+                    switch (result.get()) {
+                        case PROCESSED -> processed++;
+                        case SKIPPED -> skipped++;
+                        case SKIPPED_CHANGED -> skippedChanged++;
+                        case FAILED -> failed++;
+                    }
+                }
+                after = batch.get(batch.size() - 1).getPdfId();
+                checkpoint(after, processed, skipped, skippedChanged, failed);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("PDF re-render job {} interrupted after PDF {}; it resumes from there on the next start.", job.getJobId(), after);
+        } catch (ExecutionException | RuntimeException e) {
+            logger.error("PDF re-render job {} failed after PDF {}: {}", job.getJobId(), after, e.getMessage(), e);
+            finish(PdfRerenderJob.FAILED);
+        }
+    }
+
+    private Outcome rerender(RerenderCandidate candidate) throws InterruptedException {
+        acquirePermit();
+        awaitIdleConnectionPool();
+        try {
+            PortfolioResponse portfolio;
+            try {
+                PortfolioResponse current = portfolioService.getPortfolioById(candidate.getPortfolioId());
+                if (candidate.getPortfolioRevision() != null) {
+                    portfolio = loadRenderedRevision(candidate, current);
+                } else if (changedSince(current, candidate.getGeneratedAt())) {
+                    return Outcome.SKIPPED_CHANGED;
+                } else {
+                    portfolio = current; // Generated before revisions were recorded, but nothing changed since
+                }
+            } catch (EntityNotFoundException e) {
+                logger.debug("Skipping re-render of PDF {}: {}", candidate.getPdfId(), e.getMessage());
+                return Outcome.SKIPPED;
+            }
+            ByteArrayOutputStream pdf = pdfService.generatePortfolioPdf(portfolio, readOptions(candidate));
+            byte[] content = pdf.toByteArray();
+            Integer updated = transactionTemplate.execute(status ->
+                    generatedPdfRepository.updateContent(candidate.getPdfId(), content, content.length));
+            if (updated == null || updated == 0) {
+                return Outcome.SKIPPED; // Deleted while the job ran
+            }
+            pdfContentCache.invalidate(candidate.getPortfolioId(), candidate.getFilename());
+            return Outcome.PROCESSED;
+        } catch (RuntimeException e) {
+            logger.warn("Could not re-render PDF {} of portfolio {}: {}", candidate.getPdfId(), candidate.getPortfolioId(), e.getMessage());
+            return Outcome.FAILED;
+        }
+    }
+
+    /**
+     * Returns the portfolio content a PDF with a recorded revision was generated from: the current portfolio
+     * (usually from the portfolio cache) when it has not changed since, otherwise the stored revision. Throws
+     * {@link EntityNotFoundException} when the revision is no longer in the history.
+     */
+    private PortfolioResponse loadRenderedRevision(RerenderCandidate candidate, PortfolioResponse current) {
+        if (candidate.getPortfolioRevision().equals(current.getVersion())) {
+            return current;
+        }
+        PortfolioRevisionResponse revision = portfolioRevisionService.getRevision(candidate.getPortfolioId(), candidate.getPortfolioRevision());
+        PortfolioResponse portfolio = new PortfolioResponse();
+        portfolio.setPortfolioId(candidate.getPortfolioId());
+        portfolio.setUserId(current.getUserId());
+        portfolio.setVersion(revision.getRevision());
+        portfolio.setTitle(revision.getTitle());
+        portfolio.setPersonalInformation(revision.getPersonalInformation());
+        portfolio.setEmploymentHistory(revision.getEmploymentHistory());
+        portfolio.setEducationalBackground(revision.getEducationalBackground());
+        portfolio.setSkills(revision.getSkills());
+        portfolio.setProjectShowcases(revision.getProjectShowcases());
+        return portfolio;
+    }
+
+    /**
+     * Whether the portfolio was saved after the PDF was generated. updated_at is written by Hibernate in the
+     * JVM's zone; a PDF without a timestamp counts as changed.
+     */
+    private static boolean changedSince(PortfolioResponse portfolio, OffsetDateTime generatedAt) {
+        if (generatedAt == null || portfolio.getUpdatedAt() == null) {
+            return true;
+        }
+        return portfolio.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().isAfter(generatedAt.toInstant());
+    }
+
+    private PdfGenerationRequest readOptions(RerenderCandidate candidate) {
+        if (candidate.getStyleOptions() != null) {
+            try {
+                return jsonCodecs.getPdfGenerationRequestReader().readValue(candidate.getStyleOptions());
+            } catch (JsonProcessingException e) {
+                logger.warn("Could not deserialize styleOptions for PDF ID {}: {}", candidate.getPdfId(), e.getMessage());
+            }
+        }
+        return new PdfGenerationRequest();
+    }
+
+    /**
+     * Blocks until the shared rate limit allows another render
+     */
+    private void acquirePermit() throws InterruptedException {
+        if (maxPerSecond <= 0) {
+            return;
+        }
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / maxPerSecond);
+        long now = System.nanoTime();
+        // Reserve the next slot; an idle limiter does not bank permits for a burst later
+        long slot = nextPermitNanos.getAndAccumulate(now, (next, current) -> Math.max(next, current) + interval);
+        long wait = Math.max(slot, now) - now;
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * Backs off, with exponentially growing pauses, while requests are waiting for a connection or fewer than
+     * {@code reservedConnections} connections are left for them
+     */
+    private void awaitIdleConnectionPool() throws InterruptedException {
+        HikariDataSource hikari = hikariDataSource();
+        if (hikari == null) {
+            return;
+        }
+        long pause = backoffMs;
+        while (true) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            if (pool == null) {
+                return;
+            }
+            boolean busy = pool.getThreadsAwaitingConnection() > 0
+                    || pool.getActiveConnections() >= hikari.getMaximumPoolSize() - reservedConnections;
+            if (!busy) {
+                return;
+            }
+            yields.incrementAndGet();
+            Thread.sleep(pause);
+            pause = Math.min(pause * 2, maxBackoffMs);
+        }
+    }
+
+    private HikariDataSource hikariDataSource() {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private void checkpoint(String lastPdfId, long processed, long skipped, long skippedChanged, long failed) {
+        synchronized (lock) {
+            currentJob.setLastPdfId(lastPdfId);
+            currentJob.setProcessed(currentJob.getProcessed() + processed);
+            currentJob.setSkipped(currentJob.getSkipped() + skipped);
+            currentJob.setSkippedChanged(currentJob.getSkippedChanged() + skippedChanged);
+            currentJob.setFailed(currentJob.getFailed() + failed);
+            currentJob.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
+            currentJob = pdfRerenderJobRepository.save(currentJob);
+        }
+    }
+
+    /**
+     * Finishes the job as stopped if a stop is pending. Checked and applied under the lock, so a start that
+     * withdraws the stop either lands before the check and the job carries on, or after it and starts anew.
+     */
+    private boolean stopIfRequested() {
+        synchronized (lock) {
+            if (stopRequested) {
+                finish(PdfRerenderJob.STOPPED);
+            }
+            return stopRequested;
+        }
+    }
+
+    private void finish(String status) {
+        synchronized (lock) {
+            OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+            currentJob.setStatus(status);
+            currentJob.setUpdatedAt(now);
+            currentJob.setFinishedAt(now);
+            currentJob = pdfRerenderJobRepository.save(currentJob);
+            logger.info("PDF re-render job {} {}: {} processed, {} skipped, {} skipped as changed since, {} failed of {}.",
+                        currentJob.getJobId(), status.toLowerCase(), currentJob.getProcessed(), currentJob.getSkipped(),
+                        currentJob.getSkippedChanged(), currentJob.getFailed(), currentJob.getTotal());
+        }
+    }
+
+    private PdfRerenderStatusResponse toStatus(PdfRerenderJob job) {
+        double rate = 0;
+        Long eta = null;
+        if (job == currentJob && PdfRerenderJob.RUNNING.equals(job.getStatus())) {
+            double seconds = (System.nanoTime() - runStartedNanos) / 1e9;
+            long handledThisRun = handled(job) - handledAtRunStart;
+            if (seconds > 0 && handledThisRun > 0) {
+                rate = handledThisRun / seconds;
+                // PDFs created after the job started are picked up too, so this is a lower bound near the end
+                eta = (long) Math.ceil(Math.max(0, job.getTotal() - handled(job)) / rate);
+            }
+        }
+        return new PdfRerenderStatusResponse(job.getJobId(), job.getStatus(), job.getTotal(), job.getProcessed(),
+                                             job.getSkipped(), job.getSkippedChanged(), job.getFailed(), job.getLastPdfId(), rate, eta, yields.get(),
+                                             job.getStartedAt(), job.getUpdatedAt(), job.getFinishedAt());
+    }
+
+    private static long handled(PdfRerenderJob job) {
+        return job.getProcessed() + job.getSkipped() + job.getSkippedChanged() + job.getFailed();
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix.endsWith("-") ? prefix + counter.incrementAndGet() : prefix);
+            thread.setDaemon(true);
+            // Renders are CPU-bound; let request threads win under contention
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,154 @@
+package com.apas.website.services.implementations;
+
+import com.apas.website.caching.PdfContentCache;
+import com.apas.website.entities.models.response.PdfPurgeReportResponse;
+import com.apas.website.repositories.GeneratedPdfRepository;
+import com.apas.website.repositories.GeneratedPdfRepository.PurgeCandidate;
+import com.apas.website.services.PdfRetentionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+@Service
+public class PdfRetentionServiceImpl implements PdfRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfRetentionServiceImpl.class);
+
+    private final GeneratedPdfRepository generatedPdfRepository;
+    private final PdfContentCache pdfContentCache;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${app.pdf.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.pdf.retention.keepLatestPerPortfolio:20}") // 0 disables the per-portfolio limit
+    private int keepLatestPerPortfolio;
+
+    @Value("${app.pdf.retention.maxAgeDays:180}") // 0 disables the age limit
+    private int maxAgeDays;
+
+    @Value("${app.pdf.retention.batchSize:200}")
+    private int batchSize;
+
+    @Value("${app.pdf.retention.maxBatchesPerRun:500}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.pdf.retention.batchPauseMs:100}") // Pause between batches to spread I/O and vacuum load
+    private long batchPauseMs;
+
+    @Autowired
+    public PdfRetentionServiceImpl(GeneratedPdfRepository generatedPdfRepository, PdfContentCache pdfContentCache,
+                                   PlatformTransactionManager transactionManager) {
+        this.generatedPdfRepository = generatedPdfRepository;
+        this.pdfContentCache = pdfContentCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${app.pdf.retention.cron:0 30 3 * * *}")
+    public void scheduledPurge() {
+        if (!enabled) {
+            logger.debug("Generated PDF retention purge is disabled; skipping scheduled run.");
+            return;
+        }
+        purgeExpiredPdfs();
+    }
+
+    @Override
+    public PdfPurgeReportResponse purgeExpiredPdfs() {
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Generated PDF retention purge is already running; skipping this invocation.");
+            return new PdfPurgeReportResponse(0, 0, 0, 0);
+        }
+
+        long startedAt = System.currentTimeMillis();
+        int keepLatest = keepLatestPerPortfolio > 0 ? keepLatestPerPortfolio : Integer.MAX_VALUE;
+        OffsetDateTime cutoff = maxAgeDays > 0
+                ? OffsetDateTime.now(ZoneOffset.UTC).minusDays(maxAgeDays)
+                : OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+        long rowsDeleted = 0;
+        long bytesReclaimed = 0;
+        int batches = 0;
+
+        try {
+            logger.info("Starting generated PDF retention purge (keep latest: {}, max age days: {}, batch size: {}).",
+                        keepLatestPerPortfolio, maxAgeDays, batchSize);
+
+            // Walks the portfolios in ID order, one range of about batchSize unpinned PDFs at a time, so no
+            // batch re-evaluates the retention window over every stored PDF
+            String afterPortfolioId = "";
+            String lastPortfolioId;
+            while (batches < maxBatchesPerRun
+                    && (lastPortfolioId = generatedPdfRepository.findPurgeRangeEnd(afterPortfolioId, batchSize)) != null) {
+                String rangeStart = afterPortfolioId;
+                String rangeEnd = lastPortfolioId;
+                while (batches < maxBatchesPerRun) {
+                    long[] batchResult = transactionTemplate.execute(status -> purgeBatch(rangeStart, rangeEnd, keepLatest, cutoff));
+                    if (batchResult == null) {
+                        break;
+                    }
+                    if (batchResult[0] > 0) {
+                        batches++;
+                        rowsDeleted += batchResult[0];
+                        bytesReclaimed += batchResult[1];
+                        if (batchPauseMs > 0) {
+                            Thread.sleep(batchPauseMs);
+                        }
+                    }
+                    if (batchResult[2] < batchSize) {
+                        break; // The range holds no more candidates (apart from rows locked elsewhere)
+                    }
+                }
+                afterPortfolioId = lastPortfolioId;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Generated PDF retention purge interrupted after {} batch(es).", batches);
+        } catch (Exception e) {
+            logger.error("Generated PDF retention purge failed after {} batch(es): {}", batches, e.getMessage(), e);
+        } finally {
+            running.set(false);
+        }
+
+        PdfPurgeReportResponse report = new PdfPurgeReportResponse(
+                rowsDeleted, bytesReclaimed, batches, System.currentTimeMillis() - startedAt);
+        logger.info("Generated PDF retention purge finished: {} row(s) deleted, {} byte(s) reclaimed in {} batch(es) ({} ms).",
+                    report.getRowsDeleted(), report.getBytesReclaimed(), report.getBatches(), report.getDurationMs());
+        return report;
+    }
+
+    /**
+     * Locks one batch of purge candidates in a portfolio range and deletes them within the current transaction.
+     *
+     * @return A three-element array holding the rows deleted, the bytes reclaimed and the candidates found
+     */
+    private long[] purgeBatch(String afterPortfolioId, String lastPortfolioId, int keepLatest, OffsetDateTime cutoff) {
+        List<PurgeCandidate> candidates = generatedPdfRepository.findPurgeCandidates(
+                afterPortfolioId, lastPortfolioId, keepLatest, cutoff, batchSize);
+        if (candidates.isEmpty()) {
+            return new long[] {0, 0, 0};
+        }
+
+        List<String> pdfIds = candidates.stream().map(PurgeCandidate::getPdfId).collect(Collectors.toList());
+        int deleted = generatedPdfRepository.deleteUnpinnedByPdfIdIn(pdfIds);
+        candidates.forEach(candidate -> pdfContentCache.invalidate(candidate.getPortfolioId(), candidate.getFilename()));
+        long bytes = candidates.stream()
+                .mapToLong(candidate -> candidate.getFileSizeBytes() != null ? candidate.getFileSizeBytes() : 0L)
+                .sum();
+
+        logger.debug("Purged {} generated PDF(s) ({} bytes) in retention batch.", deleted, bytes);
+        return new long[] {deleted, bytes, candidates.size()};
+    }
+}
@@ -1,10 +1,16 @@
 package com.apas.website.services.implementations;
 
+import com.apas.website.configurations.JsonCodecs;
+import com.apas.website.entities.PortfolioSection;
 import com.apas.website.entities.models.request.PdfGenerationRequest;
+import com.apas.website.entities.models.request.PortfolioPreviewRequest;
 import com.apas.website.entities.models.response.PortfolioResponse;
 import com.apas.website.services.PdfService;
 import com.apas.website.services.PortfolioService;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -14,26 +20,34 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
 import org.xhtmlrenderer.pdf.ITextRenderer;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.List;
-
-import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.regex.Pattern;
 
 @Service
 public class PdfServiceImpl implements PdfService {
 
     private static final Logger logger = LoggerFactory.getLogger(PdfServiceImpl.class);
+    // Option values are copied into the style element, so only plain colors and font lists are accepted
+    private static final Pattern SAFE_COLOR = Pattern.compile("#[0-9a-fA-F]{3,8}|[a-zA-Z]{3,20}|rgba?\\([0-9.,%\\s]+\\)");
+    private static final Pattern SAFE_FONT_FAMILY = Pattern.compile("[\\w\\s,.\"'-]{1,200}");
     private final PortfolioService portfolioService;
-    private final ObjectMapper objectMapper;
+    private final JsonCodecs jsonCodecs;
+    // Stylesheets by color and font combination; there are few distinct ones in practice
+    private final Cache<String, String> stylesheets = Caffeine.newBuilder().maximumSize(256).build();
 
     @Autowired
-    public PdfServiceImpl(PortfolioService portfolioService, ObjectMapper objectMapper) {
+    public PdfServiceImpl(PortfolioService portfolioService, JsonCodecs jsonCodecs) {
         this.portfolioService = portfolioService;
-        this.objectMapper = objectMapper;
+        this.jsonCodecs = jsonCodecs;
     }
 
     @Override
@@ -45,8 +59,17 @@ public class PdfServiceImpl implements PdfService {
     public ByteArrayOutputStream generatePortfolioPdf(String portfolioId, PdfGenerationRequest options) {
         try {
             // Get portfolio data
-            PortfolioResponse portfolio = portfolioService.getPortfolioById(portfolioId);
-            
+            return generatePortfolioPdf(portfolioService.getPortfolioById(portfolioId), options);
+        } catch (EntityNotFoundException e) {
+            logger.error("Portfolio not found with ID: {}", portfolioId);
+            throw e;
+        }
+    }
+    
+    @Override
+    public ByteArrayOutputStream generatePortfolioPdf(PortfolioResponse portfolio, PdfGenerationRequest options) {
+        String portfolioId = portfolio.getPortfolioId();
+        try {
             // Convert portfolio data to HTML with customization options
             String html = generateHtmlFromPortfolio(portfolio, options);
             
@@ -56,15 +79,36 @@ public class PdfServiceImpl implements PdfService {
             // Convert XHTML to PDF
             return convertToPdf(xhtml);
             
-        } catch (EntityNotFoundException e) {
-            logger.error("Portfolio not found with ID: {}", portfolioId);
-            throw e;
         } catch (Exception e) {
             logger.error("Error generating PDF for portfolio {}: {}", portfolioId, e.getMessage());
             throw new RuntimeException("Failed to generate PDF: " + e.getMessage(), e);
         }
     }
     
+    @Override
+    public String renderPortfolioHtml(PortfolioResponse portfolio, PdfGenerationRequest options) {
+        return generateHtmlFromPortfolio(portfolio, options);
+    }
+    
+    @Override
+    public String renderPreviewHtml(PortfolioPreviewRequest draft, PortfolioSection section) {
+        Map<PortfolioSection, Object> sections = new EnumMap<>(PortfolioSection.class);
+        sections.put(PortfolioSection.PERSONAL_INFORMATION, draft.getPersonalInformation());
+        sections.put(PortfolioSection.EMPLOYMENT_HISTORY, draft.getEmploymentHistory());
+        sections.put(PortfolioSection.EDUCATIONAL_BACKGROUND, draft.getEducationalBackground());
+        sections.put(PortfolioSection.SKILLS, draft.getSkills());
+        sections.put(PortfolioSection.PROJECT_SHOWCASES, draft.getProjectShowcases());
+        PdfGenerationRequest options = draft.getOptions() != null ? draft.getOptions() : new PdfGenerationRequest();
+        try {
+            return writeHtml(draft.getTitle(), sections, options, section);
+        } catch (JsonProcessingException e) {
+            // The draft is whatever the editor holds right now; a section that does not parse is the client's problem
+            throw new IllegalArgumentException("Could not render preview: " + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to generate HTML: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Generates HTML from portfolio data with customization options
      * 
@@ -72,451 +116,522 @@ public class PdfServiceImpl implements PdfService {
      * @param options Customization options
      * @return HTML string
      */
-    @SuppressWarnings({ "unused", "unchecked" })
     private String generateHtmlFromPortfolio(PortfolioResponse portfolio, PdfGenerationRequest options) {
+        Map<PortfolioSection, Object> sections = new EnumMap<>(PortfolioSection.class);
+        sections.put(PortfolioSection.PERSONAL_INFORMATION, portfolio.getPersonalInformation());
+        sections.put(PortfolioSection.EMPLOYMENT_HISTORY, portfolio.getEmploymentHistory());
+        sections.put(PortfolioSection.EDUCATIONAL_BACKGROUND, portfolio.getEducationalBackground());
+        sections.put(PortfolioSection.SKILLS, portfolio.getSkills());
+        sections.put(PortfolioSection.PROJECT_SHOWCASES, portfolio.getProjectShowcases());
+        return renderHtml(portfolio.getTitle(), sections, options, null);
+    }
+    
+    private String renderHtml(String title, Map<PortfolioSection, Object> sections, PdfGenerationRequest options,
+                              PortfolioSection onlySection) {
         try {
-            StringBuilder html = new StringBuilder();
-            
-            String primaryColor = options.getPrimaryColor() != null && !options.getPrimaryColor().isEmpty() ? options.getPrimaryColor() : "#004A70"; 
-            String secondaryColor = options.getSecondaryColor() != null && !options.getSecondaryColor().isEmpty() ? options.getSecondaryColor() : "#555555"; 
-            String fontFamily = options.getFontFamily() != null && !options.getFontFamily().isEmpty() ? options.getFontFamily() : "\"Helvetica Neue\", Helvetica, Arial, sans-serif";
-            Boolean includeFooter = options.getIncludeFooter() != null ? options.getIncludeFooter() : true;
-            
-            String bodyTextColor = "#333333";
-            String lightGrayBorder = "#dddddd"; // For the border below contact info
-
-            html.append("<!DOCTYPE html>");
-            html.append("<html lang=\"en\">");
-            html.append("<head>");
-            html.append("<meta charset=\"UTF-8\">");
-            html.append("<title>").append(portfolio.getTitle()).append("</title>");
-            html.append("<style>");
-            html.append("body { font-family: ").append(fontFamily).append("; margin: 0; padding: 0; background-color: #fff; color: ").append(bodyTextColor).append("; font-size: 10pt; line-height: 1.4;}");
-            html.append(".container { width: 90%; margin: 0 auto; padding: 30px 25px; }");
-            
-            // Header: Full Name and Contact Info
-            html.append(".header-fullname { font-size: 30pt; font-weight: bold; color: ").append(primaryColor).append("; margin: 0 0 10px 0; line-height: 1.1; }");
-            html.append(".contact-block { margin-bottom: 20px; padding-bottom: 15px; border-bottom: 1px solid ").append(lightGrayBorder).append("; }");
-            html.append(".contact-item { font-size: 9pt; color: ").append(secondaryColor).append("; margin-bottom: 2px; display: flex; }");
-            html.append(".contact-item strong { font-weight: bold; color: ").append(bodyTextColor).append("; width: 70px; /* Fixed width for labels */ display: inline-block; }");
-
-            // General section styling
-            html.append(".section { margin-bottom: 20px; }");
-            html.append(".section-title { font-size: 13pt; font-weight: bold; color: ").append(primaryColor).append("; margin-top: 0; margin-bottom: 12px; padding-bottom: 4px; border-bottom: 2px solid ").append(primaryColor).append("; text-transform: uppercase; letter-spacing: 0.5px;}");
-            
-            // Professional Summary
-            html.append(".summary-text p { margin: 0 0 10px 0; text-align: left; overflow-wrap: break-word; word-wrap: break-word; }");
-
-            // Employment & Education entries - General
-            html.append(".entry { margin-bottom: 15px; }");
-            html.append(".entry-header { display: flex; justify-content: space-between; align-items: flex-start; margin-bottom: 3px; }"); // align-items to flex-start
-            html.append(".entry-left-column { flex-grow: 1; }"); // Column for title/subtitle
-            html.append(".entry-title { font-size: 11pt; font-weight: bold; color: ").append(bodyTextColor).append("; display: block;}"); // was span, now block for edu
-            html.append(".entry-subtitle { font-size: 10pt; color: ").append(secondaryColor).append("; display: block;}"); // was span, now block for edu, removed italic
-            html.append(".employment-detail-line { font-size: 11pt;}"); // For "Company, Position" on one line
-            html.append(".employment-company { font-weight: bold; color: ").append(bodyTextColor).append("; }");
-            html.append(".employment-position { color: ").append(bodyTextColor).append("; }"); // Removed italic from here, was not used for position
-
-            html.append(".entry-dates { font-size: 9pt; color: ").append(secondaryColor).append("; text-align: right; white-space: nowrap; min-width: 120px; padding-left:10px; }"); // min-width for date alignment
-            html.append(".entry-description { margin-left: 0px; } ");
-            html.append(".entry-description p, .entry-description ul { margin: 3px 0 5px 15px; font-size: 10pt; }"); 
-            html.append(".entry-description ul { padding-left: 15px; list-style-position: outside; }");
-            html.append(".entry-description li { margin-bottom: 3px; }");
-
-            // Skills section
-            html.append(".skills-block { margin-left: 0; padding-left: 0; } /* Ensure no extra indent for the block itself */");
-            html.append(".skill-entry { margin-bottom: 4px; font-size: 10pt; display: flex; align-items: flex-start; }");
-            html.append(".skill-bullet { margin-right: 5px; color: ").append(bodyTextColor).append("; font-weight: bold; display: inline-block; width: 10px; /* Ensures space for bullet */ }");
-            html.append(".skill-line-content { flex-grow: 1; }"); // To contain title and items
-            html.append(".skill-category-title { font-weight: bold; font-size: 10pt; color: ").append(bodyTextColor).append("; }");
-            html.append(".skill-items { font-size: 10pt; color: ").append(secondaryColor).append("; }");
-
-            // Projects section
-            html.append(".project { margin-bottom: 15px; }");
-            html.append(".project-header { display: flex; justify-content: space-between; align-items: center; margin-bottom: 3px; }");
-            html.append(".project-title { font-size: 11pt; font-weight: bold; color: ").append(bodyTextColor).append("; }");
-            html.append(".project-description { margin-left: 0px; }"); /* Consistent with .entry-description */
-            html.append(".project-description p, .project-description ul { margin: 5px 0 5px 15px; font-size: 10pt; }");
-            html.append(".project-description ul { padding-left: 15px; list-style-position: outside; }");
-            html.append(".project-tech, .project-link { font-size: 9pt; color: ").append(secondaryColor).append("; margin-top: 3px; margin-left: 15px; }");
-            html.append(".project-link a { color: ").append(primaryColor).append("; text-decoration: none; }");
-            html.append(".project-link a:hover { text-decoration: underline; }");
-
-            html.append(".footer { text-align: center; font-size: 8pt; color: #999; margin-top: 30px; padding-top: 10px; border-top: 1px solid ").append(lightGrayBorder).append("; }");
-            html.append("</style>");
-            html.append("</head>");
-            html.append("<body>");
-            html.append("<div class=\"container\">");
-            
-            String fullName = "FULL NAME NOT PROVIDED"; // Default full name
-            Map<String, Object> personalInfoForHeader = null;
-            if (portfolio.getPersonalInformation() != null) {
-                try {
-                    personalInfoForHeader = objectMapper.readValue(
-                    portfolio.getPersonalInformation().toString(), 
-                    Map.class
+            return writeHtml(title, sections, options, onlySection);
+        } catch (Exception e) {
+            logger.error("Error generating HTML: {}", e.getMessage());
+            throw new RuntimeException("Failed to generate HTML: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Renders the document: the shared stylesheet, then each section in template order, then the footer.
+     * With {@code onlySection} set, the body holds just that section (for previews).
+     */
+    private String writeHtml(String title, Map<PortfolioSection, Object> sections, PdfGenerationRequest options,
+                             PortfolioSection onlySection) throws IOException {
+        StringBuilder html = new StringBuilder(16384);
+        boolean includeFooter = options.getIncludeFooter() != null ? options.getIncludeFooter() : true;
+
+        html.append("<!DOCTYPE html>");
+        html.append("<html lang=\"en\">");
+        html.append("<head>");
+        html.append("<meta charset=\"UTF-8\">");
+        html.append("<title>").append(esc(title)).append("</title>");
+        html.append("<style>").append(stylesheet(options)).append("</style>");
+        html.append("</head>");
+        html.append("<body>");
+        html.append("<div class=\"container\">");
+        
+        for (PortfolioSection section : PortfolioSection.values()) {
+            if (onlySection != null && onlySection != section) {
+                continue;
+            }
+            Object value = sections.get(section);
+            switch (section) {
+                case PERSONAL_INFORMATION -> appendPersonalInformation(html, value);
+                case EMPLOYMENT_HISTORY -> appendEmploymentHistory(html, value);
+                case EDUCATIONAL_BACKGROUND -> appendEducationalBackground(html, value);
+                case SKILLS -> appendSkills(html, value);
+                case PROJECT_SHOWCASES -> appendProjectShowcases(html, value);
+            }
+        }
+        
+        // Footer
+        if (includeFooter && onlySection == null) {
+            html.append("<div class=\"footer\">");
+            html.append("<p>Generated by FolioFlow on ").append(java.time.LocalDate.now().format(java.time.format.DateTimeFormatter.ofPattern("MMMM d, yyyy"))).append("</p>");
+            html.append("</div>");
+        }
+        
+        html.append("</div>"); // End container
+        html.append("</body>");
+        html.append("</html>");
+        
+        return html.toString();
+    }
+    
+    /**
+     * Returns the stylesheet for a style combination. It only depends on the colors and the font, so it is
+     * built once per combination and shared by every PDF, share page and preview that uses it.
+     */
+    private String stylesheet(PdfGenerationRequest options) {
+        String primaryColor = cssColor(options.getPrimaryColor(), "#004A70");
+        String secondaryColor = cssColor(options.getSecondaryColor(), "#555555");
+        String fontFamily = options.getFontFamily() != null && SAFE_FONT_FAMILY.matcher(options.getFontFamily()).matches()
+                ? options.getFontFamily() : "\"Helvetica Neue\", Helvetica, Arial, sans-serif";
+        return stylesheets.get(primaryColor + '\n' + secondaryColor + '\n' + fontFamily,
+                               key -> buildStylesheet(primaryColor, secondaryColor, fontFamily));
+    }
+    
+    /**
+     * Falls back to the default for anything but a hex, named or rgb() color
+     */
+    private static String cssColor(String color, String defaultColor) {
+        return color != null && SAFE_COLOR.matcher(color).matches() ? color : defaultColor;
+    }
+    
+    private static String buildStylesheet(String primaryColor, String secondaryColor, String fontFamily) {
+        StringBuilder css = new StringBuilder(4096);
+        String bodyTextColor = "#333333";
+        String lightGrayBorder = "#dddddd"; // For the border below contact info
+
+        css.append("body { font-family: ").append(fontFamily).append("; margin: 0; padding: 0; background-color: #fff; color: ").append(bodyTextColor).append("; font-size: 10pt; line-height: 1.4;}");
+        css.append(".container { width: 90%; margin: 0 auto; padding: 30px 25px; }");
+        
+        // Header: Full Name and Contact Info
+        css.append(".header-fullname { font-size: 30pt; font-weight: bold; color: ").append(primaryColor).append("; margin: 0 0 10px 0; line-height: 1.1; }");
+        css.append(".contact-block { margin-bottom: 20px; padding-bottom: 15px; border-bottom: 1px solid ").append(lightGrayBorder).append("; }");
+        css.append(".contact-item { font-size: 9pt; color: ").append(secondaryColor).append("; margin-bottom: 2px; display: flex; }");
+        css.append(".contact-item strong { font-weight: bold; color: ").append(bodyTextColor).append("; width: 70px; /* Fixed width for labels */ display: inline-block; }");
+
+        // General section styling
+        css.append(".section { margin-bottom: 20px; }");
+        css.append(".section-title { font-size: 13pt; font-weight: bold; color: ").append(primaryColor).append("; margin-top: 0; margin-bottom: 12px; padding-bottom: 4px; border-bottom: 2px solid ").append(primaryColor).append("; text-transform: uppercase; letter-spacing: 0.5px;}");
+        
+        // Professional Summary
+        css.append(".summary-text p { margin: 0 0 10px 0; text-align: left; overflow-wrap: break-word; word-wrap: break-word; }");
+
+        // Employment & Education entries - General
+        css.append(".entry { margin-bottom: 15px; }");
+        css.append(".entry-header { display: flex; justify-content: space-between; align-items: flex-start; margin-bottom: 3px; }"); // align-items to flex-start
+        css.append(".entry-left-column { flex-grow: 1; }"); // Column for title/subtitle
+        css.append(".entry-title { font-size: 11pt; font-weight: bold; color: ").append(bodyTextColor).append("; display: block;}"); // was span, now block for edu
+        css.append(".entry-subtitle { font-size: 10pt; color: ").append(secondaryColor).append("; display: block;}"); // was span, now block for edu, removed italic
+        css.append(".employment-detail-line { font-size: 11pt;}"); // For "Company, Position" on one line
+        css.append(".employment-company { font-weight: bold; color: ").append(bodyTextColor).append("; }");
+        css.append(".employment-position { color: ").append(bodyTextColor).append("; }"); // Removed italic from here, was not used for position
+
+        css.append(".entry-dates { font-size: 9pt; color: ").append(secondaryColor).append("; text-align: right; white-space: nowrap; min-width: 120px; padding-left:10px; }"); // min-width for date alignment
+        css.append(".entry-description { margin-left: 0px; } ");
+        css.append(".entry-description p, .entry-description ul { margin: 3px 0 5px 15px; font-size: 10pt; }"); 
+        css.append(".entry-description ul { padding-left: 15px; list-style-position: outside; }");
+        css.append(".entry-description li { margin-bottom: 3px; }");
+
+        // Skills section
+        css.append(".skills-block { margin-left: 0; padding-left: 0; } /* Ensure no extra indent for the block itself */");
+        css.append(".skill-entry { margin-bottom: 4px; font-size: 10pt; display: flex; align-items: flex-start; }");
+        css.append(".skill-bullet { margin-right: 5px; color: ").append(bodyTextColor).append("; font-weight: bold; display: inline-block; width: 10px; /* Ensures space for bullet */ }");
+        css.append(".skill-line-content { flex-grow: 1; }"); // To contain title and items
+        css.append(".skill-category-title { font-weight: bold; font-size: 10pt; color: ").append(bodyTextColor).append("; }");
+        css.append(".skill-items { font-size: 10pt; color: ").append(secondaryColor).append("; }");
+
+        // Projects section
+        css.append(".project { margin-bottom: 15px; }");
+        css.append(".project-header { display: flex; justify-content: space-between; align-items: center; margin-bottom: 3px; }");
+        css.append(".project-title { font-size: 11pt; font-weight: bold; color: ").append(bodyTextColor).append("; }");
+        css.append(".project-description { margin-left: 0px; }"); /* Consistent with .entry-description */
+        css.append(".project-description p, .project-description ul { margin: 5px 0 5px 15px; font-size: 10pt; }");
+        css.append(".project-description ul { padding-left: 15px; list-style-position: outside; }");
+        css.append(".project-tech, .project-link { font-size: 9pt; color: ").append(secondaryColor).append("; margin-top: 3px; margin-left: 15px; }");
+        css.append(".project-link a { color: ").append(primaryColor).append("; text-decoration: none; }");
+        css.append(".project-link a:hover { text-decoration: underline; }");
+
+        css.append(".footer { text-align: center; font-size: 8pt; color: #999; margin-top: 30px; padding-top: 10px; border-top: 1px solid ").append(lightGrayBorder).append("; }");
+        return css.toString();
+    }
+    
+    private void appendPersonalInformation(StringBuilder html, Object section) throws IOException {
+        String fullName = "FULL NAME NOT PROVIDED"; // Default full name
+        Map<String, Object> personalInfoForHeader = null;
+        if (section != null) {
+            try {
+                personalInfoForHeader = jsonCodecs.getSectionObjectReader().readValue(
+                    sectionJson(section)
                 );
-                    if (personalInfoForHeader.containsKey("fullName") && personalInfoForHeader.get("fullName") != null && !personalInfoForHeader.get("fullName").toString().trim().isEmpty()) {
-                        fullName = personalInfoForHeader.get("fullName").toString().trim();
-                    }
-                } catch (Exception e) {
-                    logger.warn("Could not parse personalInformation for full name: {}", e.getMessage());
+                if (personalInfoForHeader.containsKey("fullName") && personalInfoForHeader.get("fullName") != null && !personalInfoForHeader.get("fullName").toString().trim().isEmpty()) {
+                    fullName = personalInfoForHeader.get("fullName").toString().trim();
                 }
+            } catch (Exception e) {
+                logger.warn("Could not parse personalInformation for full name: {}", e.getMessage());
             }
-            html.append("<h1 class=\"header-fullname\">").append(fullName).append("</h1>");
-
-            // Contact Information Block
-            if (personalInfoForHeader != null) {
-                html.append("<div class=\"contact-block\">");
-                if (personalInfoForHeader.containsKey("address") && personalInfoForHeader.get("address") != null && !personalInfoForHeader.get("address").toString().trim().isEmpty()) {
-                    html.append("<div class=\"contact-item\"><strong>Address:</strong><span>")
-                        .append(personalInfoForHeader.get("address").toString().trim()).append("</span></div>");
-                }
-                if (personalInfoForHeader.containsKey("phone") && personalInfoForHeader.get("phone") != null && !personalInfoForHeader.get("phone").toString().trim().isEmpty()) {
-                    html.append("<div class=\"contact-item\"><strong>Phone:</strong><span>")
-                        .append(personalInfoForHeader.get("phone").toString().trim()).append("</span></div>");
-                }
-                if (personalInfoForHeader.containsKey("email") && personalInfoForHeader.get("email") != null && !personalInfoForHeader.get("email").toString().trim().isEmpty()) {
-                    html.append("<div class=\"contact-item\"><strong>Email:</strong><span>")
-                        .append(personalInfoForHeader.get("email").toString().trim()).append("</span></div>");
-                }
-                if (personalInfoForHeader.containsKey("website") && personalInfoForHeader.get("website") != null && !personalInfoForHeader.get("website").toString().trim().isEmpty()) {
-                    html.append("<div class=\"contact-item\"><strong>Website:</strong><span>")
-                        .append(personalInfoForHeader.get("website").toString().trim()).append("</span></div>");
-                } else if (personalInfoForHeader.containsKey("linkedin") && personalInfoForHeader.get("linkedin") != null && !personalInfoForHeader.get("linkedin").toString().trim().isEmpty()) {
-                    html.append("<div class=\"contact-item\"><strong>LinkedIn:</strong><span>")
-                        .append(personalInfoForHeader.get("linkedin").toString().trim()).append("</span></div>");
-                }
-                html.append("</div>"); // End contact-block
+        }
+        html.append("<h1 class=\"header-fullname\">").append(esc(fullName)).append("</h1>");
+
+        // Contact Information Block
+        if (personalInfoForHeader != null) {
+            html.append("<div class=\"contact-block\">");
+            if (personalInfoForHeader.containsKey("address") && personalInfoForHeader.get("address") != null && !personalInfoForHeader.get("address").toString().trim().isEmpty()) {
+                html.append("<div class=\"contact-item\"><strong>Address:</strong><span>")
+                    .append(esc(personalInfoForHeader.get("address").toString().trim())).append("</span></div>");
             }
-            
-            // Professional Summary (from Personal Information's summary field)
-            if (portfolio.getPersonalInformation() != null) {
-                try {
-                    Map<String, Object> personalInfo = objectMapper.readValue(
-                        portfolio.getPersonalInformation().toString(), 
-                        Map.class
-                    );
-                    if (personalInfo.containsKey("summary") && personalInfo.get("summary") != null && !personalInfo.get("summary").toString().isEmpty()) {
-                        html.append("<div class=\"section\">");
-                        html.append("<h2 class=\"section-title\">Professional Summary</h2>");
-                        html.append("<div class=\"summary-text\">");
-                        html.append("<p>").append(personalInfo.get("summary").toString()).append("</p>");
+            if (personalInfoForHeader.containsKey("phone") && personalInfoForHeader.get("phone") != null && !personalInfoForHeader.get("phone").toString().trim().isEmpty()) {
+                html.append("<div class=\"contact-item\"><strong>Phone:</strong><span>")
+                    .append(esc(personalInfoForHeader.get("phone").toString().trim())).append("</span></div>");
+            }
+            if (personalInfoForHeader.containsKey("email") && personalInfoForHeader.get("email") != null && !personalInfoForHeader.get("email").toString().trim().isEmpty()) {
+                html.append("<div class=\"contact-item\"><strong>Email:</strong><span>")
+                    .append(esc(personalInfoForHeader.get("email").toString().trim())).append("</span></div>");
+            }
+            if (personalInfoForHeader.containsKey("website") && personalInfoForHeader.get("website") != null && !personalInfoForHeader.get("website").toString().trim().isEmpty()) {
+                html.append("<div class=\"contact-item\"><strong>Website:</strong><span>")
+                    .append(esc(personalInfoForHeader.get("website").toString().trim())).append("</span></div>");
+            } else if (personalInfoForHeader.containsKey("linkedin") && personalInfoForHeader.get("linkedin") != null && !personalInfoForHeader.get("linkedin").toString().trim().isEmpty()) {
+                html.append("<div class=\"contact-item\"><strong>LinkedIn:</strong><span>")
+                    .append(esc(personalInfoForHeader.get("linkedin").toString().trim())).append("</span></div>");
+            }
+            html.append("</div>"); // End contact-block
+        }
+        
+        // Professional Summary (from Personal Information's summary field, parsed once above)
+        if (personalInfoForHeader != null) {
+            Map<String, Object> personalInfo = personalInfoForHeader;
+            if (personalInfo.containsKey("summary") && personalInfo.get("summary") != null && !personalInfo.get("summary").toString().isEmpty()) {
+                html.append("<div class=\"section\">");
+                html.append("<h2 class=\"section-title\">Professional Summary</h2>");
+                html.append("<div class=\"summary-text\">");
+                html.append("<p>").append(esc(personalInfo.get("summary"))).append("</p>");
                 html.append("</div>");
                 html.append("</div>");
-                    }
-                } catch (Exception e) {
-                    logger.warn("Could not parse personalInformation for summary: {}", e.getMessage());
-                }
             }
-            
-            // Employment History
-            if (portfolio.getEmploymentHistory() != null) {
-                Object[] employmentHistory = objectMapper.readValue(
-                    portfolio.getEmploymentHistory().toString(), 
-                    Object[].class
-                );
+        }
+    }
+
+    private void appendEmploymentHistory(StringBuilder html, Object section) throws IOException {
+        if (section != null) {
+            List<Map<String, Object>> employmentHistory = jsonCodecs.getSectionListReader().readValue(
+                sectionJson(section)
+            );
 
-                if (employmentHistory != null && employmentHistory.length > 0) {
-                    html.append("<div class=\"section\">");
-                    html.append("<h2 class=\"section-title\">Employment History</h2>");
+            if (employmentHistory != null && !employmentHistory.isEmpty()) {
+                html.append("<div class=\"section\">");
+                html.append("<h2 class=\"section-title\">Employment History</h2>");
+                
+                for (Map<String, Object> jobDetails : employmentHistory) {
+                    html.append("<div class=\"entry\">");
+                    html.append("<div class=\"entry-header\">");
+                    html.append("<div class=\"entry-left-column\">"); 
                     
-                    for (Object job : employmentHistory) {
-                        Map<String, Object> jobDetails = objectMapper.convertValue(job, Map.class);
-                        
-                        html.append("<div class=\"entry\">");
-                        html.append("<div class=\"entry-header\">");
-                        html.append("<div class=\"entry-left-column\">"); 
-                        
-                        String company = jobDetails.getOrDefault("company", "").toString().trim();
-                        String position = jobDetails.getOrDefault("position", "").toString().trim();
-                        html.append("<div class=\"employment-detail-line\">");
-                        if (!company.isEmpty()) {
-                            html.append("<span class=\"employment-company\">").append(company).append("</span>");
-                            if (!position.isEmpty()) {
-                                html.append(", ");
-                            }
-                        }
+                    String company = jobDetails.getOrDefault("company", "").toString().trim();
+                    String position = jobDetails.getOrDefault("position", "").toString().trim();
+                    html.append("<div class=\"employment-detail-line\">");
+                    if (!company.isEmpty()) {
+                        html.append("<span class=\"employment-company\">").append(esc(company)).append("</span>");
                         if (!position.isEmpty()) {
-                            html.append("<span class=\"employment-position\">").append(position).append("</span>");
+                            html.append(", ");
                         }
-                        html.append("</div>"); // End employment-detail-line
-
-                        html.append("</div>"); // End entry-left-column
-                        
-                        String startDate = jobDetails.getOrDefault("startDate", "").toString();
-                        String endDate = jobDetails.getOrDefault("endDate", "").toString();
-                        String dateRange = "";
-                        if (!startDate.isEmpty() && !endDate.isEmpty()) {
-                            dateRange = startDate + " - " + endDate;
-                        } else if (!startDate.isEmpty()) {
-                            dateRange = startDate;
-                        } else if (!endDate.isEmpty()) {
-                            dateRange = endDate;
-                        }
-                        html.append("<span class=\"entry-dates\">").append(dateRange).append("</span>");
-                        html.append("</div>"); // End entry-header
-                        
-                        String description = jobDetails.getOrDefault("description", "").toString();
-                        if (!description.isEmpty()) {
-                            html.append("<div class=\"entry-description\">");
-                            // Attempt to convert bullet points from plain text (e.g., lines starting with * or -)
-                            if (description.contains("\n")) { // Assuming newlines separate points
-                                 html.append("<ul>");
-                                 for (String line : description.split("\n")) {
-                                     if (!line.trim().isEmpty()) {
-                                         html.append("<li>").append(line.trim().replaceAll("^[-*]\s*", "")).append("</li>");
-                                     }
+                    }
+                    if (!position.isEmpty()) {
+                        html.append("<span class=\"employment-position\">").append(esc(position)).append("</span>");
+                    }
+                    html.append("</div>"); // End employment-detail-line
+
+                    html.append("</div>"); // End entry-left-column
+                    
+                    String startDate = jobDetails.getOrDefault("startDate", "").toString();
+                    String endDate = jobDetails.getOrDefault("endDate", "").toString();
+                    String dateRange = "";
+                    if (!startDate.isEmpty() && !endDate.isEmpty()) {
+                        dateRange = startDate + " - " + endDate;
+                    } else if (!startDate.isEmpty()) {
+                        dateRange = startDate;
+                    } else if (!endDate.isEmpty()) {
+                        dateRange = endDate;
+                    }
+                    html.append("<span class=\"entry-dates\">").append(esc(dateRange)).append("</span>");
+                    html.append("</div>"); // End entry-header
+                    
+                    String description = jobDetails.getOrDefault("description", "").toString();
+                    if (!description.isEmpty()) {
+                        html.append("<div class=\"entry-description\">");
+                        // Attempt to convert bullet points from plain text (e.g., lines starting with * or -)
+                        if (description.contains("\n")) { // Assuming newlines separate points
+                             html.append("<ul>");
+                             for (String line : description.split("\n")) {
+                                 if (!line.trim().isEmpty()) {
+                                     html.append("<li>").append(esc(line.trim().replaceAll("^[-*]\s*", ""))).append("</li>");
                                  }
-                                 html.append("</ul>");
-                            } else {
-                                 html.append("<p>").append(description).append("</p>");
-                            }
-                            html.append("</div>"); // End entry-description
+                             }
+                             html.append("</ul>");
+                        } else {
+                             html.append("<p>").append(esc(description)).append("</p>");
                         }
-                        html.append("</div>"); // End entry
+                        html.append("</div>"); // End entry-description
                     }
-                    
-                    html.append("</div>");
-                } // End if employmentHistory is not empty
-            }
-            
-            // Educational Background
-            if (portfolio.getEducationalBackground() != null) {
-                Object[] education = objectMapper.readValue(
-                    portfolio.getEducationalBackground().toString(), 
-                    Object[].class
-                );
+                    html.append("</div>"); // End entry
+                }
+                
+                html.append("</div>");
+            } // End if employmentHistory is not empty
+        }
+    }
+
+    private void appendEducationalBackground(StringBuilder html, Object section) throws IOException {
+        if (section != null) {
+            List<Map<String, Object>> education = jsonCodecs.getSectionListReader().readValue(
+                sectionJson(section)
+            );
 
-                if (education != null && education.length > 0) {
-                    html.append("<div class=\"section\">");
-                    html.append("<h2 class=\"section-title\">Education</h2>");
+            if (education != null && !education.isEmpty()) {
+                html.append("<div class=\"section\">");
+                html.append("<h2 class=\"section-title\">Education</h2>");
+                
+                for (Map<String, Object> eduDetails : education) {
+                    html.append("<div class=\"entry\">");
+                    html.append("<div class=\"entry-header\">");
+                    html.append("<div class=\"entry-left-column\">");
+                    html.append("<span class=\"entry-title\">").append(esc(eduDetails.getOrDefault("degree", ""))).append("</span>");
+                    if (eduDetails.containsKey("institution") && eduDetails.get("institution") != null && !eduDetails.get("institution").toString().trim().isEmpty()) {
+                        html.append("<span class=\"entry-subtitle\">").append(esc(eduDetails.get("institution"))).append("</span>");
+                    }
+                    html.append("</div>"); // End entry-left-column
                     
-                    for (Object edu : education) {
-                        Map<String, Object> eduDetails = objectMapper.convertValue(edu, Map.class);
-                        
-                        html.append("<div class=\"entry\">");
-                        html.append("<div class=\"entry-header\">");
-                        html.append("<div class=\"entry-left-column\">");
-                        html.append("<span class=\"entry-title\">").append(eduDetails.getOrDefault("degree", "")).append("</span>");
-                        if (eduDetails.containsKey("institution") && eduDetails.get("institution") != null && !eduDetails.get("institution").toString().trim().isEmpty()) {
-                            html.append("<span class=\"entry-subtitle\">").append(eduDetails.get("institution")).append("</span>");
-                        }
-                        html.append("</div>"); // End entry-left-column
-                        
-                        String startDate = eduDetails.getOrDefault("startDate", "").toString().trim();
-                        String endDate = eduDetails.getOrDefault("endDate", "").toString().trim();
-                        String dateRange = "";
-
-                        if (!startDate.isEmpty()) {
-                            dateRange += startDate;
-                            if (!endDate.isEmpty() && !endDate.equalsIgnoreCase("present") && !endDate.equals(startDate)) {
-                                dateRange += " - " + endDate;
-                            } else if (endDate.equalsIgnoreCase("present")) {
-                                dateRange += " - Present";
-                            } else if (endDate.equals(startDate) && !endDate.equalsIgnoreCase("present")) {
-                                // If start and end are same year, and not present, just show start year
-                                // Date range is already just startDate
-                            }
-                        } else if (!endDate.isEmpty()) {
-                            // Only end date is present (e.g. "Present" or a single year for completion)
-                            dateRange = endDate;
-                        }
+                    String startDate = eduDetails.getOrDefault("startDate", "").toString().trim();
+                    String endDate = eduDetails.getOrDefault("endDate", "").toString().trim();
+                    String dateRange = "";
 
-                        html.append("<span class=\"entry-dates\">").append(dateRange).append("</span>"); 
-                        html.append("</div>"); // End entry-header
-                        
-                        html.append("</div>"); // End entry
+                    if (!startDate.isEmpty()) {
+                        dateRange += startDate;
+                        if (!endDate.isEmpty() && !endDate.equalsIgnoreCase("present") && !endDate.equals(startDate)) {
+                            dateRange += " - " + endDate;
+                        } else if (endDate.equalsIgnoreCase("present")) {
+                            dateRange += " - Present";
+                        } else if (endDate.equals(startDate) && !endDate.equalsIgnoreCase("present")) {
+                            // If start and end are same year, and not present, just show start year
+                            // Date range is already just startDate
+                        }
+                    } else if (!endDate.isEmpty()) {
+                        // Only end date is present (e.g. "Present" or a single year for completion)
+                        dateRange = endDate;
                     }
+
+                    html.append("<span class=\"entry-dates\">").append(esc(dateRange)).append("</span>"); 
+                    html.append("</div>"); // End entry-header
                     
-                    html.append("</div>");
-                } // End if education is not empty
-            }
-            
-            // Skills
-            if (portfolio.getSkills() != null) {
-                Object[] skills = objectMapper.readValue(
-                    portfolio.getSkills().toString(), 
-                    Object[].class
-                );
+                    html.append("</div>"); // End entry
+                }
+                
+                html.append("</div>");
+            } // End if education is not empty
+        }
+    }
+
+    private void appendSkills(StringBuilder html, Object section) throws IOException {
+        if (section != null) {
+            List<Map<String, Object>> skills = jsonCodecs.getSectionListReader().readValue(
+                sectionJson(section)
+            );
 
-                if (skills != null && skills.length > 0) {
-                    html.append("<div class=\"section\">");
-                    html.append("<h2 class=\"section-title\">Skills</h2>");
+            if (skills != null && !skills.isEmpty()) {
+                html.append("<div class=\"section\">");
+                html.append("<h2 class=\"section-title\">Skills</h2>");
+                
+                html.append("<div class=\"skills-block\">");
+                for (Map<String, Object> category : skills) {
+                    String categoryTitle = category.getOrDefault("category", "").toString().trim();
                     
-                    html.append("<div class=\"skills-block\">");
-                    for (Object skillCategoryObj : skills) {
-                        Map<String, Object> category = objectMapper.convertValue(skillCategoryObj, Map.class);
-                        String categoryTitle = category.getOrDefault("category", "").toString().trim();
-                        
-                        StringBuilder skillLineContent = new StringBuilder();
-                        boolean hasContentForThisLine = false;
-
-                        if (!categoryTitle.isEmpty()){
-                             skillLineContent.append("<span class=\"skill-category-title\">").append(categoryTitle).append(": </span>");
-                             // hasContentForThisLine = true; // We will check based on final content
-                        }
-                        
-                        if (category.containsKey("items")) {
-                            try {
-                                List<Map<String, String>> itemsList = objectMapper.convertValue(category.get("items"), List.class);
-                                StringBuilder itemsString = new StringBuilder();
-                                int validSkillsCount = 0;
-                                for (int i = 0; i < itemsList.size(); i++) {
-                                    Map<String, String> itemMap = itemsList.get(i);
-                                    String skillName = itemMap.getOrDefault("name", "").trim();
-                                    if (!skillName.isEmpty()) {
-                                        if (validSkillsCount > 0) itemsString.append(", "); // Add comma before adding next skill if not the first valid one
-                                        itemsString.append(skillName);
-                                        validSkillsCount++;
-                                    }
-                                }
-                                if (itemsString.length() > 0) {
-                                    skillLineContent.append("<span class=\"skill-items\">").append(itemsString.toString()).append("</span>");
-                                    // hasContentForThisLine = true; // We will check based on final content
-                                }
-                            } catch (Exception e) {
-                                logger.error("Error parsing skills items for category '{}': {}. Expected List<Map<String, String>>.", categoryTitle, e.getMessage());
-                                Object rawItems = category.get("items");
-                                if (rawItems != null) {
-                                    skillLineContent.append("<span class=\"skill-items\">").append(rawItems.toString()).append(" (Parsing Error)</span>");
-                                    // hasContentForThisLine = true; // We will check based on final content
+                    StringBuilder skillLineContent = new StringBuilder();
+                    boolean hasContentForThisLine = false;
+
+                    if (!categoryTitle.isEmpty()){
+                         skillLineContent.append("<span class=\"skill-category-title\">").append(esc(categoryTitle)).append(": </span>");
+                         // hasContentForThisLine = true; // We will check based on final content
+                    }
+                    
+                    if (category.containsKey("items")) {
+                        try {
+                            // Items are already bound as a list; each is either {"name": ...} or a plain string
+                            List<?> itemsList = (List<?>) category.get("items");
+                            StringBuilder itemsString = new StringBuilder();
+                            int validSkillsCount = 0;
+                            for (Object item : itemsList) {
+                                Object name = item instanceof Map<?, ?> itemMap ? itemMap.get("name") : item;
+                                String skillName = name != null ? name.toString().trim() : "";
+                                if (!skillName.isEmpty()) {
+                                    if (validSkillsCount > 0) itemsString.append(", "); // Add comma before adding next skill if not the first valid one
+                                    itemsString.append(esc(skillName));
+                                    validSkillsCount++;
                                 }
                             }
+                            if (itemsString.length() > 0) {
+                                skillLineContent.append("<span class=\"skill-items\">").append(itemsString.toString()).append("</span>");
+                                // hasContentForThisLine = true; // We will check based on final content
+                            }
+                        } catch (Exception e) {
+                            logger.error("Error parsing skills items for category '{}': {}. Expected a list of skills.", categoryTitle, e.getMessage());
+                            Object rawItems = category.get("items");
+                            if (rawItems != null) {
+                                skillLineContent.append("<span class=\"skill-items\">").append(esc(rawItems)).append(" (Parsing Error)</span>");
+                                // hasContentForThisLine = true; // We will check based on final content
+                            }
                         }
+                    }
 
-                        // Only create the skill-entry div if there is actual renderable text content
-                        String finalSkillLineHtml = skillLineContent.toString();
-                        String visibleTextInSkillLine = Jsoup.parse(finalSkillLineHtml).text().trim();
+                    // Only create the skill-entry div if there is actual renderable text content
+                    String finalSkillLineHtml = skillLineContent.toString();
+                    String visibleTextInSkillLine = Jsoup.parse(finalSkillLineHtml).text().trim();
 
-                        if (!visibleTextInSkillLine.isEmpty()) {
-                            html.append("<div class=\"skill-entry\">");
-                            html.append("<div class=\"skill-line-content\">");
-                            html.append(finalSkillLineHtml); // Append the original HTML for the skill line
-                            html.append("</div>"); // End skill-line-content
-                            html.append("</div>"); // End skill-entry
-                        }
+                    if (!visibleTextInSkillLine.isEmpty()) {
+                        html.append("<div class=\"skill-entry\">");
+                        html.append("<div class=\"skill-line-content\">");
+                        html.append(finalSkillLineHtml); // Append the original HTML for the skill line
+                        html.append("</div>"); // End skill-line-content
+                        html.append("</div>"); // End skill-entry
                     }
-                    html.append("</div>"); // End skills-block
-                    html.append("</div>"); // End section
-                } // End if skills is not empty
-            }
-            
-            // Project Showcases
-            if (portfolio.getProjectShowcases() != null) {
-                Object[] projects = objectMapper.readValue(
-                    portfolio.getProjectShowcases().toString(), 
-                    Object[].class
-                );
+                }
+                html.append("</div>"); // End skills-block
+                html.append("</div>"); // End section
+            } // End if skills is not empty
+        }
+    }
 
-                if (projects != null && projects.length > 0) {
-                    html.append("<div class=\"section\">");
-                    html.append("<h2 class=\"section-title\">Projects</h2>");
+    @SuppressWarnings("unchecked")
+    private void appendProjectShowcases(StringBuilder html, Object section) throws IOException {
+        if (section != null) {
+            List<Map<String, Object>> projects = jsonCodecs.getSectionListReader().readValue(
+                sectionJson(section)
+            );
+
+            if (projects != null && !projects.isEmpty()) {
+                html.append("<div class=\"section\">");
+                html.append("<h2 class=\"section-title\">Projects</h2>");
+                
+                for (Map<String, Object> project : projects) {
+                    html.append("<div class=\"project\">");
+                    // Project header for title (and dates, if you add them later)
+                    html.append("<div class=\"project-header\">"); 
+                    html.append("<span class=\"project-title\">").append(esc(project.getOrDefault("title", ""))).append("</span>");
+                    // If you add dates to projects, display them here similar to employment/education
+                    // String projectStartDate = project.getOrDefault("startDate", "").toString();
+                    // String projectEndDate = project.getOrDefault("endDate", "").toString();
+                    // if (!projectStartDate.isEmpty() || !projectEndDate.isEmpty()) {
+                    //     html.append("<span class=\"project-dates\">").append(projectStartDate).append(" - ").append(projectEndDate).append("</span>");
+                    // }
+                    html.append("</div>"); // End project-header
                     
-                    for (Object proj : projects) {
-                        Map<String, Object> project = objectMapper.convertValue(proj, new TypeReference<Map<String, Object>>() {});
-                        
-                        html.append("<div class=\"project\">");
-                        // Project header for title (and dates, if you add them later)
-                        html.append("<div class=\"project-header\">"); 
-                        html.append("<span class=\"project-title\">").append(project.getOrDefault("title", "")).append("</span>");
-                        // If you add dates to projects, display them here similar to employment/education
-                        // String projectStartDate = project.getOrDefault("startDate", "").toString();
-                        // String projectEndDate = project.getOrDefault("endDate", "").toString();
-                        // if (!projectStartDate.isEmpty() || !projectEndDate.isEmpty()) {
-                        //     html.append("<span class=\"project-dates\">").append(projectStartDate).append(" - ").append(projectEndDate).append("</span>");
-                        // }
-                        html.append("</div>"); // End project-header
-                        
-                        String projectDescription = project.getOrDefault("description", "").toString().trim();
-                        if (!projectDescription.isEmpty()) {
-                             // Similar to employment history, try to make bullet points for project description
-                             html.append("<div class=\"entry-description\">"); // Re-use entry-description for similar styling
-                             if (projectDescription.contains("\n")) { 
-                                 html.append("<ul>");
-                                 for (String line : projectDescription.split("\n")) {
-                                     if (!line.trim().isEmpty()) {
-                                         html.append("<li>").append(line.trim().replaceAll("^[-*]\s*", "")).append("</li>");
-                                     }
+                    String projectDescription = project.getOrDefault("description", "").toString().trim();
+                    if (!projectDescription.isEmpty()) {
+                         // Similar to employment history, try to make bullet points for project description
+                         html.append("<div class=\"entry-description\">"); // Re-use entry-description for similar styling
+                         if (projectDescription.contains("\n")) { 
+                             html.append("<ul>");
+                             for (String line : projectDescription.split("\n")) {
+                                 if (!line.trim().isEmpty()) {
+                                     html.append("<li>").append(esc(line.trim().replaceAll("^[-*]\s*", ""))).append("</li>");
                                  }
-                                 html.append("</ul>");
-                            } else {
-                                 html.append("<p>").append(projectDescription).append("</p>");
-                            }
-                            html.append("</div>");
+                             }
+                             html.append("</ul>");
+                        } else {
+                             html.append("<p>").append(esc(projectDescription)).append("</p>");
                         }
-                        
-                        if (project.containsKey("technologies")) {
-                            Object rawTech = project.get("technologies");
-                            String techString = "";
-                            if (rawTech instanceof List) {
-                                // Assuming List<String> or List<Map<String,String>> with a "name" key
-                                List<?> techList = (List<?>) rawTech;
-                                StringBuilder techBuilder = new StringBuilder();
-                                for (int i = 0; i < techList.size(); i++) {
-                                    Object techItem = techList.get(i);
-                                    String currentTech = "";
-                                    if (techItem instanceof Map) {
-                                        Map<String, String> techMap = (Map<String, String>) techItem;
-                                        currentTech = techMap.getOrDefault("name", "").trim();
-                                    } else {
-                                        currentTech = techItem.toString().trim();
-                                    }
-                                    if (!currentTech.isEmpty()) {
-                                        techBuilder.append(currentTech);
-                                        if (i < techList.size() - 1) {
-                                            // Check next item before adding comma
-                                            Object nextTechItem = techList.get(i + 1);
-                                            String nextTech = "";
-                                            if (nextTechItem instanceof Map) {
-                                                Map<String, String> nextTechMap = (Map<String, String>) nextTechItem;
-                                                nextTech = nextTechMap.getOrDefault("name", "").trim();
-                                            } else {
-                                                nextTech = nextTechItem.toString().trim();
-                                            }
-                                            if(!nextTech.isEmpty()) techBuilder.append(", ");
+                        html.append("</div>");
+                    }
+                    
+                    if (project.containsKey("technologies")) {
+                        Object rawTech = project.get("technologies");
+                        String techString = "";
+                        if (rawTech instanceof List) {
+                            // Assuming List<String> or List<Map<String,String>> with a "name" key
+                            List<?> techList = (List<?>) rawTech;
+                            StringBuilder techBuilder = new StringBuilder();
+                            for (int i = 0; i < techList.size(); i++) {
+                                Object techItem = techList.get(i);
+                                String currentTech = "";
+                                if (techItem instanceof Map) {
+                                    Map<String, String> techMap = (Map<String, String>) techItem;
+                                    currentTech = techMap.getOrDefault("name", "").trim();
+                                } else {
+                                    currentTech = techItem.toString().trim();
+                                }
+                                if (!currentTech.isEmpty()) {
+                                    techBuilder.append(currentTech);
+                                    if (i < techList.size() - 1) {
+                                        // Check next item before adding comma
+                                        Object nextTechItem = techList.get(i + 1);
+                                        String nextTech = "";
+                                        if (nextTechItem instanceof Map) {
+                                            Map<String, String> nextTechMap = (Map<String, String>) nextTechItem;
+                                            nextTech = nextTechMap.getOrDefault("name", "").trim();
+                                        } else {
+                                            nextTech = nextTechItem.toString().trim();
                                         }
+                                        if(!nextTech.isEmpty()) techBuilder.append(", ");
                                     }
                                 }
-                                techString = techBuilder.toString();
-                            } else {
-                                techString = rawTech.toString().trim(); // Fallback if not a list
-                            }
-                            if (!techString.isEmpty()) {
-                                html.append("<p class=\"project-tech\"><strong>Technologies:</strong> ").append(techString).append("</p>");
                             }
+                            techString = techBuilder.toString();
+                        } else {
+                            techString = rawTech.toString().trim(); // Fallback if not a list
                         }
-                        
-                        if (project.containsKey("link") && project.get("link") != null && !project.get("link").toString().isEmpty()) {
-                            html.append("<p class=\"project-link\"><strong>Link:</strong> <a href=\"").append(project.get("link")).append("\">").append(project.get("link")).append("</a></p>");
+                        if (!techString.isEmpty()) {
+                            html.append("<p class=\"project-tech\"><strong>Technologies:</strong> ").append(esc(techString)).append("</p>");
                         }
-                        
-                        html.append("</div>");
+                    }
+                    
+                    if (project.containsKey("link") && project.get("link") != null && !project.get("link").toString().isEmpty()) {
+                        String link = project.get("link").toString().trim();
+                        html.append("<p class=\"project-link\"><strong>Link:</strong> ");
+                        // Only web and mail links become anchors; anything else (e.g. javascript:) is shown as text
+                        if (link.regionMatches(true, 0, "http://", 0, 7) || link.regionMatches(true, 0, "https://", 0, 8)
+                                || link.regionMatches(true, 0, "mailto:", 0, 7)) {
+                            html.append("<a href=\"").append(esc(link)).append("\">").append(esc(link)).append("</a>");
+                        } else {
+                            html.append(esc(link));
+                        }
+                        html.append("</p>");
                     }
                     
                     html.append("</div>");
-                } // End if projects is not empty
-            }
-            
-            // Footer
-            if (includeFooter) {
-                html.append("<div class=\"footer\">");
-                html.append("<p>Generated by FolioFlow on ").append(java.time.LocalDate.now().format(java.time.format.DateTimeFormatter.ofPattern("MMMM d, yyyy"))).append("</p>");
+                }
+                
                 html.append("</div>");
-            }
-            
-            html.append("</div>"); // End container
-            html.append("</body>");
-            html.append("</html>");
-            
-            return html.toString();
-            
-        } catch (Exception e) {
-            logger.error("Error generating HTML: {}", e.getMessage());
-            throw new RuntimeException("Failed to generate HTML: " + e.getMessage(), e);
+            } // End if projects is not empty
         }
     }
     
+    /**
+     * Escapes user content for HTML text and attribute values; the page is UTF-8, so only markup characters are replaced
+     */
+    private static String esc(Object value) {
+        return value != null ? HtmlUtils.htmlEscape(value.toString(), StandardCharsets.UTF_8.name()) : "";
+    }
+    
+    /**
+     * Returns a portfolio section as JSON text, whether the response carries it as a string, a parsed value or a RawValue.
+     * Stored sections arrive as RawValue wrapping the column text, which is handed over without re-serializing it.
+     */
+    private String sectionJson(Object section) throws IOException {
+        if (section instanceof String text) {
+            return text;
+        }
+        if (section instanceof RawValue raw && raw.rawValue() instanceof String text) {
+            return text;
+        }
+        return jsonCodecs.getObjectMapper().writeValueAsString(section);
+    }
+
     /**
      * Converts HTML to XHTML for Flying Saucer processing
      * 
@@ -0,0 +1,190 @@
+package com.apas.website.services.implementations;
+
+import com.apas.website.caching.PdfContentCache;
+import com.apas.website.configurations.JsonCodecs;
+import com.apas.website.entities.PortfolioEntity;
+import com.apas.website.entities.UserEntity;
+import com.apas.website.entities.models.request.PdfGenerationRequest;
+import com.apas.website.entities.models.request.PdfStampRequest;
+import com.apas.website.repositories.GeneratedPdfRepository;
+import com.apas.website.repositories.GeneratedPdfRepository.StampSource;
+import com.apas.website.repositories.PortfolioRepository;
+import com.apas.website.repositories.UserRepository;
+import com.apas.website.services.PdfStampService;
+import com.apas.website.services.PdfStorageService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Element;
+import com.lowagie.text.Rectangle;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.PdfContentByte;
+import com.lowagie.text.pdf.PdfGState;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.PdfStamper;
+import com.lowagie.text.pdf.RandomAccessFileOrArray;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+@Service
+public class PdfStampServiceImpl implements PdfStampService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfStampServiceImpl.class);
+    private static final String DRAFT_WATERMARK = "DRAFT";
+    private static final float MARGIN = 36f;
+    private static final float FOOTER_FONT_SIZE = 8f;
+    // The overlays use the standard Helvetica fonts, which every viewer has, so nothing is embedded; they
+    // can only show the WinAnsi (Windows-1252) character set and would draw anything else as blanks
+    private static final Charset STAMP_CHARSET = Charset.forName("windows-1252");
+
+    private final GeneratedPdfRepository generatedPdfRepository;
+    private final PortfolioRepository portfolioRepository;
+    private final UserRepository userRepository;
+    private final PdfStorageService pdfStorageService;
+    private final PdfContentCache pdfContentCache;
+    private final JsonCodecs jsonCodecs;
+
+    @Autowired
+    public PdfStampServiceImpl(GeneratedPdfRepository generatedPdfRepository, PortfolioRepository portfolioRepository,
+                               UserRepository userRepository, PdfStorageService pdfStorageService,
+                               PdfContentCache pdfContentCache, JsonCodecs jsonCodecs) {
+        this.generatedPdfRepository = generatedPdfRepository;
+        this.portfolioRepository = portfolioRepository;
+        this.userRepository = userRepository;
+        this.pdfStorageService = pdfStorageService;
+        this.pdfContentCache = pdfContentCache;
+        this.jsonCodecs = jsonCodecs;
+    }
+
+    @Override
+    public StampedPdf stampPdf(String portfolioId, String filename, PdfStampRequest request) throws IOException {
+        String watermark = StringUtils.hasText(request.getWatermarkText()) ? request.getWatermarkText().trim()
+                : Boolean.TRUE.equals(request.getDraft()) ? DRAFT_WATERMARK : null;
+        boolean pageNumbers = Boolean.TRUE.equals(request.getPageNumbers());
+        String footer = StringUtils.hasText(request.getFooterText()) ? request.getFooterText().trim() : null;
+        if (watermark == null && !pageNumbers && footer == null) {
+            throw new IllegalArgumentException("Nothing to stamp: set watermarkText, draft, pageNumbers or footerText");
+        }
+        requireStampable("watermarkText", watermark);
+        requireStampable("footerText", footer);
+
+        // Metadata and content are read separately, so no entity holds the blob and no transaction stays open while stamping
+        StampSource source = generatedPdfRepository.findStampSource(portfolioId, filename)
+            .orElseThrow(() -> new EntityNotFoundException("PDF not found: " + filename));
+        byte[] content = loadContent(portfolioId, filename, source);
+
+        long startedAt = System.currentTimeMillis();
+        ByteArrayOutputStream stamped = new ByteArrayOutputStream(content.length + 8192);
+        // Partial mode: page objects are parsed as the stamper reaches them, and untouched ones are copied as they are
+        PdfReader reader = new PdfReader(new RandomAccessFileOrArray(content), null);
+        try {
+            PdfStamper stamper = new PdfStamper(reader, stamped);
+            BaseFont font = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+            BaseFont boldFont = BaseFont.createFont(BaseFont.HELVETICA_BOLD, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+            int pageCount = reader.getNumberOfPages();
+            for (int page = 1; page <= pageCount; page++) {
+                Rectangle size = reader.getPageSizeWithRotation(page);
+                PdfContentByte over = stamper.getOverContent(page);
+                if (watermark != null) {
+                    stampWatermark(over, boldFont, size, watermark);
+                }
+                if (footer != null) {
+                    // Centered, one line above the page numbers when there are any
+                    float y = size.getBottom() + MARGIN / 2 + (pageNumbers ? FOOTER_FONT_SIZE * 1.5f : 0f);
+                    stampText(over, font, Element.ALIGN_CENTER, footer, (size.getLeft() + size.getRight()) / 2, y);
+                }
+                if (pageNumbers) {
+                    stampText(over, font, Element.ALIGN_RIGHT, "Page " + page + " of " + pageCount,
+                              size.getRight() - MARGIN, size.getBottom() + MARGIN / 2);
+                }
+            }
+            stamper.close();
+        } catch (DocumentException e) {
+            throw new IOException("Failed to stamp PDF: " + e.getMessage(), e);
+        } finally {
+            reader.close();
+        }
+        long stampedIn = System.currentTimeMillis() - startedAt;
+
+        PdfGenerationRequest options = readOptions(source);
+        if (StringUtils.hasText(request.getCustomPdfName())) {
+            options.setCustomPdfName(request.getCustomPdfName());
+        }
+        PortfolioEntity portfolio = portfolioRepository.findById(portfolioId)
+            .orElseThrow(() -> new EntityNotFoundException("Portfolio not found with ID: " + portfolioId));
+        UserEntity user = userRepository.findById(source.getUserId())
+            .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + source.getUserId()));
+        // Same portfolio revision: only overlays were added, the rendered content is unchanged
+        String stampedFilename = pdfStorageService.storePdf(portfolio, user, source.getOriginalPortfolioTitle(),
+                                                            stamped, options, source.getPortfolioRevision(), true);
+        logger.info("Stamped PDF {} of portfolio {} in {} ms and stored it as {}.", filename, portfolioId, stampedIn, stampedFilename);
+        return new StampedPdf(portfolioId, stampedFilename, stamped.toByteArray());
+    }
+
+    private static void requireStampable(String field, String text) {
+        if (text != null && !STAMP_CHARSET.newEncoder().canEncode(text)) {
+            throw new IllegalArgumentException(field + " can only contain Latin characters (Windows-1252)");
+        }
+    }
+
+    private byte[] loadContent(String portfolioId, String filename, StampSource source) {
+        // Use a cached copy when there is one, but do not cache the source: stamping says nothing about downloads
+        byte[] cached = pdfContentCache.get(portfolioId, filename);
+        if (cached != null) {
+            return cached;
+        }
+        return generatedPdfRepository.findContentByPdfId(source.getPdfId())
+            .orElseThrow(() -> new EntityNotFoundException("PDF not found: " + filename));
+    }
+
+    private static void stampWatermark(PdfContentByte over, BaseFont font, Rectangle size, String text) {
+        float diagonal = (float) Math.hypot(size.getWidth(), size.getHeight());
+        // Scale the text to about two thirds of the diagonal, but keep short words from becoming huge
+        float fontSize = Math.min(96f, diagonal * 0.66f / Math.max(font.getWidthPoint(text, 1f), 1f));
+        double angle = Math.toDegrees(Math.atan2(size.getHeight(), size.getWidth()));
+
+        PdfGState translucent = new PdfGState();
+        translucent.setFillOpacity(0.15f);
+        over.saveState();
+        over.setGState(translucent);
+        over.setColorFill(Color.GRAY);
+        over.beginText();
+        over.setFontAndSize(font, fontSize);
+        over.showTextAligned(Element.ALIGN_CENTER, text,
+                             (size.getLeft() + size.getRight()) / 2, (size.getBottom() + size.getTop()) / 2 - fontSize / 3,
+                             (float) angle);
+        over.endText();
+        over.restoreState();
+    }
+
+    private static void stampText(PdfContentByte over, BaseFont font, int alignment, String text, float x, float y) {
+        over.saveState();
+        over.setColorFill(Color.GRAY);
+        over.beginText();
+        over.setFontAndSize(font, FOOTER_FONT_SIZE);
+        over.showTextAligned(alignment, text, x, y, 0f);
+        over.endText();
+        over.restoreState();
+    }
+
+    private PdfGenerationRequest readOptions(StampSource source) {
+        if (source.getStyleOptions() != null) {
+            try {
+                return jsonCodecs.getPdfGenerationRequestReader().readValue(source.getStyleOptions());
+            } catch (JsonProcessingException e) {
+                logger.warn("Could not deserialize styleOptions for PDF ID {}: {}", source.getPdfId(), e.getMessage());
+            }
+        }
+        PdfGenerationRequest options = new PdfGenerationRequest();
+        options.setCustomPdfName(source.getCustomDisplayName());
+        return options;
+    }
+}
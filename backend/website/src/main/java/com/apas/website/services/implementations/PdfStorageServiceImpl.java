@@ -1,18 +1,28 @@
 package com.apas.website.services.implementations;
 
+import com.apas.website.caching.PdfContentCache;
+import com.apas.website.configurations.JsonCodecs;
 import com.apas.website.entities.GeneratedPdf;
 import com.apas.website.entities.PortfolioEntity;
 import com.apas.website.entities.UserEntity;
 import com.apas.website.entities.models.request.PdfGenerationRequest;
+import com.apas.website.entities.models.response.BulkDeleteItemResponse;
+import com.apas.website.entities.models.response.BulkDeleteResponse;
 import com.apas.website.entities.models.response.GeneratedPdfItemResponse;
 import com.apas.website.entities.models.response.PdfStyleOptionsResponse;
 import com.apas.website.repositories.GeneratedPdfRepository;
+import com.apas.website.repositories.GeneratedPdfRepository.PdfMetadata;
+import com.apas.website.repositories.GeneratedPdfRepository.PdfOwnership;
+import com.apas.website.repositories.PortfolioRepository;
 import com.apas.website.services.PdfStorageService;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -21,9 +31,12 @@ import java.io.ByteArrayOutputStream;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -36,28 +49,34 @@ public class PdfStorageServiceImpl implements PdfStorageService {
 
     private static final Logger logger = LoggerFactory.getLogger(PdfStorageServiceImpl.class);
     private final GeneratedPdfRepository generatedPdfRepository;
-    private final ObjectMapper objectMapper; // For converting PdfGenerationRequest to Map
+    private final PortfolioRepository portfolioRepository;
+    private final JsonCodecs jsonCodecs; // Writes the style options and binds them back for responses
+    private final PdfContentCache pdfContentCache;
     private static final DateTimeFormatter FILENAME_TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
 
     @Autowired
-    public PdfStorageServiceImpl(GeneratedPdfRepository generatedPdfRepository, ObjectMapper objectMapper) {
+    public PdfStorageServiceImpl(GeneratedPdfRepository generatedPdfRepository, PortfolioRepository portfolioRepository,
+                                 JsonCodecs jsonCodecs, PdfContentCache pdfContentCache) {
         this.generatedPdfRepository = generatedPdfRepository;
-        this.objectMapper = objectMapper;
+        this.portfolioRepository = portfolioRepository;
+        this.jsonCodecs = jsonCodecs;
+        this.pdfContentCache = pdfContentCache;
     }
 
     @Override
     @Transactional
-    public String storePdf(PortfolioEntity portfolio, UserEntity user, String originalPortfolioTitle, ByteArrayOutputStream pdfContent, PdfGenerationRequest options) {
+    public String storePdf(PortfolioEntity portfolio, UserEntity user, String originalPortfolioTitle, ByteArrayOutputStream pdfContent,
+                           PdfGenerationRequest options, Long portfolioRevision, boolean derived) {
         String filename = getFilename(portfolio.getPortfolioId(), options);
         byte[] pdfBytes = pdfContent.toByteArray();
         OffsetDateTime generatedAt = OffsetDateTime.now(ZoneOffset.UTC);
 
-        Map<String, Object> styleOptionsMap = null;
+        String styleOptionsJson = null;
         if (options != null) {
             try {
-                styleOptionsMap = objectMapper.convertValue(options, new TypeReference<Map<String, Object>>() {});
-            } catch (IllegalArgumentException e) {
-                logger.warn("Could not convert PdfGenerationRequest options to Map for storing: {}", e.getMessage());
+                styleOptionsJson = jsonCodecs.getPdfGenerationRequestWriter().writeValueAsString(options);
+            } catch (JsonProcessingException e) {
+                logger.warn("Could not serialize PdfGenerationRequest options for storing: {}", e.getMessage());
             }
         }
 
@@ -70,7 +89,9 @@ public class PdfStorageServiceImpl implements PdfStorageService {
             .generatedAt(generatedAt)
             .fileSizeBytes((long) pdfBytes.length)
             .pdfContent(pdfBytes)
-            .styleOptions(styleOptionsMap)
+            .styleOptions(styleOptionsJson)
+            .portfolioRevision(portfolioRevision)
+            .derived(derived)
             .build();
 
         try {
@@ -82,6 +103,8 @@ public class PdfStorageServiceImpl implements PdfStorageService {
                         savedPdf.getCustomDisplayName(),
                         originalPortfolioTitle, 
                         filename);
+            // A freshly generated PDF is usually downloaded right away, so warm the cache once the row is visible
+            pdfContentCache.putAfterCommit(portfolio.getPortfolioId(), filename, pdfBytes);
             return filename;
         } catch (Exception e) {
             logger.error("Error storing PDF for portfolio {} in database: {}", portfolio.getPortfolioId(), e.getMessage());
@@ -90,13 +113,21 @@ public class PdfStorageServiceImpl implements PdfStorageService {
     }
 
     @Override
-    @Transactional(readOnly = true)
     public byte[] retrievePdf(String portfolioId, String filename) {
+        byte[] cachedContent = pdfContentCache.get(portfolioId, filename);
+        if (cachedContent != null) {
+            logger.debug("Served PDF for portfolio {} (filename: {}) from cache.", portfolioId, filename);
+            return cachedContent;
+        }
+
+        // Not transactional on purpose: cache hits never touch the connection pool
+        long stamp = pdfContentCache.loadStamp(portfolioId);
         Optional<GeneratedPdf> pdfOptional = generatedPdfRepository.findByPortfolioPortfolioIdAndFilename(portfolioId, filename);
 
         if (pdfOptional.isPresent()) {
             GeneratedPdf pdf = pdfOptional.get();
             logger.info("Retrieved PDF for portfolio {} (filename: {}) from database.", portfolioId, pdf.getFilename());
+            pdfContentCache.put(portfolioId, filename, pdf.getPdfContent(), stamp);
             return pdf.getPdfContent();
         }
         logger.warn("PDF for portfolio {} (filename: {}) not found in database.", portfolioId, filename);
@@ -140,52 +171,137 @@ public class PdfStorageServiceImpl implements PdfStorageService {
             return List.of();
         }
         logger.info("Fetching all generated PDFs for user ID: {}", userId);
-        List<GeneratedPdf> userPdfs = generatedPdfRepository.findByUserUserIdOrderByGeneratedAtDesc(userId);
+        // Metadata projection: the listing never needs pdf_content, so it is not read
+        List<GeneratedPdfItemResponse> responseItems = toItemResponses(
+                generatedPdfRepository.findMetadataByUserId(userId, Pageable.unpaged()));
+
+        if (responseItems.isEmpty()) {
+            logger.info("No generated PDFs found in database for user ID: {}", userId);
+        } else {
+            logger.info("Found {} generated PDF(s) in database for user ID: {}", responseItems.size(), userId);
+        }
+        return responseItems;
+    }
 
-        List<GeneratedPdfItemResponse> responseItems = userPdfs.stream()
+    @Override
+    @Transactional(readOnly = true)
+    public List<GeneratedPdfItemResponse> getRecentGeneratedPdfsByUserId(String userId, int limit) {
+        if (limit < 1) {
+            return List.of();
+        }
+        return toItemResponses(generatedPdfRepository.findMetadataByUserId(userId, PageRequest.of(0, limit)));
+    }
+
+    private List<GeneratedPdfItemResponse> toItemResponses(List<PdfMetadata> rows) {
+        return rows.stream()
             .map(pdf -> {
                 PdfStyleOptionsResponse styleOptsResponse = null;
                 if (pdf.getStyleOptions() != null) {
                     try {
-                        styleOptsResponse = objectMapper.convertValue(pdf.getStyleOptions(), PdfStyleOptionsResponse.class);
-                    } catch (IllegalArgumentException e) {
+                        styleOptsResponse = jsonCodecs.getPdfStyleOptionsReader().readValue(pdf.getStyleOptions());
+                    } catch (JsonProcessingException e) {
                         logger.warn("Could not deserialize styleOptions for PDF ID {}: {}", pdf.getPdfId(), e.getMessage());
                     }
                 }
                 return new GeneratedPdfItemResponse(
                     pdf.getPdfId(),
-                    pdf.getPortfolio().getPortfolioId(),
+                    pdf.getPortfolioId(),
                     pdf.getCustomDisplayName(),
                     pdf.getOriginalPortfolioTitle(),
                     pdf.getFilename(),
-                    "/api/portfolios/" + pdf.getPortfolio().getPortfolioId() + "/download-pdf/" + pdf.getFilename(), 
+                    "/api/portfolios/" + pdf.getPortfolioId() + "/download-pdf/" + pdf.getFilename(), 
                     pdf.getGeneratedAt().toInstant(),
                     pdf.getFileSizeBytes(),
-                    styleOptsResponse
+                    styleOptsResponse,
+                    Boolean.TRUE.equals(pdf.getPinned()),
+                    pdf.getPortfolioRevision()
                 );
             })
             .collect(Collectors.toList());
-
-        if (responseItems.isEmpty()) {
-            logger.info("No generated PDFs found in database for user ID: {}", userId);
-        } else {
-            logger.info("Found {} generated PDF(s) in database for user ID: {}", responseItems.size(), userId);
-        }
-        return responseItems;
     }
 
     @Override
     @Transactional
     public void deletePdf(String portfolioId, String filename) {
-        Optional<GeneratedPdf> pdfOptional = generatedPdfRepository.findByPortfolioPortfolioIdAndFilename(portfolioId, filename);
-        if (pdfOptional.isPresent()) {
-            generatedPdfRepository.delete(pdfOptional.get());
+        int deleted = generatedPdfRepository.deleteByPortfolioIdAndFilename(portfolioId, filename);
+        pdfContentCache.invalidate(portfolioId, filename);
+        if (deleted > 0) {
             logger.info("Deleted PDF for portfolio {} with filename {} from database.", portfolioId, filename);
         } else {
             logger.warn("Attempted to delete PDF for portfolio {} with filename {}, but it was not found.", portfolioId, filename);
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public boolean pdfExists(String portfolioId, String filename) {
+        return generatedPdfRepository.existsByPortfolioPortfolioIdAndFilename(portfolioId, filename);
+    }
+
+    @Override
+    @Transactional
+    public BulkDeleteResponse bulkDeletePdfs(String userId, List<String> pdfIds) {
+        List<String> requestedIds = pdfIds.stream()
+            .filter(Objects::nonNull)
+            .distinct()
+            .collect(Collectors.toList());
+
+        Map<String, PdfOwnership> pdfsById = generatedPdfRepository.findOwnershipByPdfIdIn(requestedIds).stream()
+            .collect(Collectors.toMap(PdfOwnership::getPdfId, Function.identity()));
+
+        List<String> ownedIds = new ArrayList<>();
+        List<BulkDeleteItemResponse> results = new ArrayList<>(requestedIds.size());
+        for (String pdfId : requestedIds) {
+            PdfOwnership pdf = pdfsById.get(pdfId);
+            if (pdf == null) {
+                results.add(new BulkDeleteItemResponse(pdfId, BulkDeleteItemResponse.NOT_FOUND));
+            } else if (!userId.equals(pdf.getUserId())) {
+                results.add(new BulkDeleteItemResponse(pdfId, BulkDeleteItemResponse.FORBIDDEN));
+            } else {
+                ownedIds.add(pdfId);
+                pdfContentCache.invalidate(pdf.getPortfolioId(), pdf.getFilename());
+                results.add(new BulkDeleteItemResponse(pdfId, BulkDeleteItemResponse.DELETED));
+            }
+        }
+
+        int deleted = ownedIds.isEmpty() ? 0 : generatedPdfRepository.deleteByPdfIdInAndUserId(ownedIds, userId);
+        logger.info("Bulk deleted {} of {} requested PDF(s) for user {}.", deleted, requestedIds.size(), userId);
+        return new BulkDeleteResponse(requestedIds.size(), deleted, results);
+    }
+
+    @Override
+    @Transactional
+    public BulkDeleteResponse deleteAllPdfsForPortfolio(String userId, String portfolioId) {
+        String ownerId = portfolioRepository.findOwnerIdByPortfolioId(portfolioId)
+            .orElseThrow(() -> new EntityNotFoundException("Portfolio not found with ID: " + portfolioId));
+        if (!ownerId.equals(userId)) {
+            throw new AccessDeniedException("You can only delete PDFs of your own portfolios");
+        }
+
+        List<PdfOwnership> pdfs = generatedPdfRepository.findOwnershipByPortfolioIdIn(List.of(portfolioId));
+        int deleted = pdfs.isEmpty() ? 0 : generatedPdfRepository.deleteByPortfolioIdIn(List.of(portfolioId));
+        pdfContentCache.invalidatePortfolio(portfolioId);
+
+        List<BulkDeleteItemResponse> results = pdfs.stream()
+            .map(pdf -> new BulkDeleteItemResponse(pdf.getPdfId(), BulkDeleteItemResponse.DELETED))
+            .collect(Collectors.toList());
+        logger.info("Deleted all {} PDF(s) of portfolio {} for user {}.", deleted, portfolioId, userId);
+        return new BulkDeleteResponse(pdfs.size(), deleted, results);
+    }
+
+    @Override
+    @Transactional
+    public boolean setPdfPinned(String portfolioId, String filename, boolean pinned) {
+        int updated = generatedPdfRepository.updatePinned(portfolioId, filename, pinned);
+        if (updated == 0) {
+            logger.warn("Attempted to {} PDF for portfolio {} with filename {}, but it was not found.",
+                        pinned ? "pin" : "unpin", portfolioId, filename);
+            return false;
+        }
+        logger.info("{} PDF for portfolio {} with filename {}.", pinned ? "Pinned" : "Unpinned", portfolioId, filename);
+        return true;
+    }
+
     @Override
     public String getFilename(String portfolioId) {
         String timestamp = FILENAME_TIMESTAMP_FORMATTER.format(OffsetDateTime.now(ZoneOffset.UTC));
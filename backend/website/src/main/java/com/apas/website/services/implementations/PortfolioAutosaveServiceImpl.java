@@ -0,0 +1,444 @@
+package com.apas.website.services.implementations;
+
+import com.apas.website.configurations.JsonCodecs;
+import com.apas.website.entities.PortfolioSection;
+import com.apas.website.entities.models.request.UpdatePortfolioRequest;
+import com.apas.website.entities.models.response.PortfolioAutosaveResponse;
+import com.apas.website.services.PortfolioAutosaveService;
+import com.apas.website.services.PortfolioService;
+import com.apas.website.utilities.JsonMergePatch;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one draft per portfolio with the fully merged title and section values, so each autosave only
+ * costs a journal append. Sections are read from the database the first time a draft touches them;
+ * later edits are merged in memory. A flush writes the draft through {@link PortfolioService#updatePortfolio},
+ * which skips sections whose content hash did not change.
+ * <p>
+ * The journal holds one line per accepted patch and a marker line once a portfolio's draft has been
+ * written. On startup the patches after the last marker are replayed into drafts, which are flushed by
+ * the next scheduled check. The file is truncated whenever no draft is pending.
+ */
+@Service
+public class PortfolioAutosaveServiceImpl implements PortfolioAutosaveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioAutosaveServiceImpl.class);
+    private static final String TITLE_FIELD = "title";
+    private static final String PORTFOLIO_ID_FIELD = "portfolioId";
+    private static final String PATCH_FIELD = "patch";
+    private static final String FLUSHED_FIELD = "flushed";
+
+    private final PortfolioService portfolioService;
+    private final JsonCodecs jsonCodecs;
+    private final long flushDelayMs;
+    private final long idleMs;
+    private final int maxPendingPortfolios;
+    private final boolean fsync;
+    private final Path journalPath;
+    private final Counter editCounter;
+    private final Counter writeCounter;
+
+    private final Map<String, Draft> drafts = new ConcurrentHashMap<>();
+    private final Object journalLock = new Object();
+    private FileChannel journal; // null if the journal could not be opened; autosaves are then written through
+
+    @Autowired
+    public PortfolioAutosaveServiceImpl(PortfolioService portfolioService, JsonCodecs jsonCodecs, MeterRegistry meterRegistry,
+                                        @Value("${app.portfolio.autosave.flushDelayMs:30000}") long flushDelayMs,
+                                        @Value("${app.portfolio.autosave.idleMs:10000}") long idleMs,
+                                        @Value("${app.portfolio.autosave.maxPendingPortfolios:10000}") int maxPendingPortfolios,
+                                        @Value("${app.portfolio.autosave.fsync:false}") boolean fsync,
+                                        @Value("${app.portfolio.autosave.journalPath:data/autosave.journal}") String journalPath) {
+        this.portfolioService = portfolioService;
+        this.jsonCodecs = jsonCodecs;
+        this.flushDelayMs = flushDelayMs;
+        this.idleMs = idleMs;
+        this.maxPendingPortfolios = maxPendingPortfolios;
+        this.fsync = fsync;
+        this.journalPath = Path.of(journalPath);
+        this.editCounter = Counter.builder("portfolio.autosave.edits")
+                .description("Autosave edits accepted")
+                .register(meterRegistry);
+        this.writeCounter = Counter.builder("portfolio.autosave.writes")
+                .description("Database updates issued for autosave edits")
+                .register(meterRegistry);
+        meterRegistry.gauge("portfolio.autosave.pending", drafts, Map::size);
+    }
+
+    @PostConstruct
+    void openJournal() {
+        try {
+            if (journalPath.getParent() != null) {
+                Files.createDirectories(journalPath.getParent());
+            }
+            if (Files.exists(journalPath)) {
+                recoverDrafts();
+            }
+            journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            if (journal.size() > 0) {
+                // Terminate a line torn by a crash so the next entry starts on its own line
+                journal.write(ByteBuffer.wrap(new byte[] {'\n'}));
+            }
+        } catch (IOException e) {
+            logger.error("Autosave journal {} is not usable; autosaves will be written to the database directly", journalPath, e);
+            journal = null;
+        }
+    }
+
+    @Override
+    public PortfolioAutosaveResponse autosave(String portfolioId, JsonNode patch) {
+        Edit edit = parsePatch(patch);
+        editCounter.increment();
+
+        if (journal == null || (drafts.size() >= maxPendingPortfolios && !drafts.containsKey(portfolioId))) {
+            // Without crash safety, or with too many drafts in memory, fall back to an ordinary write
+            portfolioService.patchPortfolio(portfolioId, patch, null);
+            writeCounter.increment();
+            return new PortfolioAutosaveResponse(portfolioId, false, 0, null);
+        }
+
+        while (true) {
+            Draft draft = drafts.computeIfAbsent(portfolioId, id -> new Draft());
+            synchronized (draft) {
+                if (draft.closed) {
+                    // Flushed and removed concurrently; start a new draft
+                    continue;
+                }
+                Map<PortfolioSection, JsonNode> merged;
+                try {
+                    merged = mergeSections(portfolioId, draft, edit);
+                    appendToJournal(journalEntry(portfolioId).set(PATCH_FIELD, patch));
+                } catch (RuntimeException e) {
+                    if (draft.edits == 0) {
+                        close(portfolioId, draft, false);
+                    }
+                    throw e;
+                }
+                draft.accept(edit.title(), merged, System.currentTimeMillis());
+                logger.debug("Buffered autosave of portfolio {} ({} edits pending)", portfolioId, draft.pending());
+                return new PortfolioAutosaveResponse(portfolioId, true, (int) draft.pending(),
+                                                     Instant.ofEpochMilli(draft.firstPendingAt + flushDelayMs));
+            }
+        }
+    }
+
+    @Override
+    public boolean flushPending(String portfolioId) {
+        Draft draft = drafts.get(portfolioId);
+        return draft != null && flush(portfolioId, draft);
+    }
+
+    @Override
+    public void discard(String portfolioId) {
+        Draft draft = drafts.get(portfolioId);
+        if (draft == null) {
+            return;
+        }
+        synchronized (draft.flushLock) {
+            synchronized (draft) {
+                if (!draft.closed) {
+                    logger.info("Discarded autosave draft of portfolio {} with {} unsaved edit(s)", portfolioId, draft.pending());
+                    close(portfolioId, draft, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes every draft whose oldest edit has waited for the flush delay, or whose editor has gone idle
+     */
+    @Scheduled(fixedDelayString = "${app.portfolio.autosave.checkIntervalMs:1000}")
+    public void flushDueDrafts() {
+        long now = System.currentTimeMillis();
+        drafts.forEach((portfolioId, draft) -> {
+            boolean due;
+            synchronized (draft) {
+                due = draft.pending() > 0
+                        && (now - draft.firstPendingAt >= flushDelayMs || now - draft.lastEditAt >= idleMs);
+            }
+            if (due) {
+                flushQuietly(portfolioId, draft);
+            }
+        });
+        compactJournal();
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        drafts.forEach(this::flushQuietly);
+        compactJournal();
+        synchronized (journalLock) {
+            if (journal != null) {
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    logger.warn("Could not close autosave journal {}: {}", journalPath, e.getMessage());
+                }
+                journal = null;
+            }
+        }
+        if (!drafts.isEmpty()) {
+            logger.warn("{} autosave draft(s) could not be written on shutdown; they remain in {}", drafts.size(), journalPath);
+        }
+    }
+
+    private void flushQuietly(String portfolioId, Draft draft) {
+        try {
+            flush(portfolioId, draft);
+        } catch (RuntimeException e) {
+            // The draft and its journal entries stay, so the next check retries
+            logger.warn("Could not write autosave draft of portfolio {}: {}", portfolioId, e.getMessage());
+        }
+    }
+
+    private boolean flush(String portfolioId, Draft draft) {
+        synchronized (draft.flushLock) {
+            UpdatePortfolioRequest request;
+            long flushedEdits;
+            synchronized (draft) {
+                if (draft.closed || draft.pending() == 0) {
+                    return false;
+                }
+                // Section values are replaced, never mutated, so the request can hold them outside the lock
+                request = new UpdatePortfolioRequest(draft.title,
+                        draft.sections.get(PortfolioSection.PERSONAL_INFORMATION),
+                        draft.sections.get(PortfolioSection.EMPLOYMENT_HISTORY),
+                        draft.sections.get(PortfolioSection.EDUCATIONAL_BACKGROUND),
+                        draft.sections.get(PortfolioSection.SKILLS),
+                        draft.sections.get(PortfolioSection.PROJECT_SHOWCASES));
+                flushedEdits = draft.edits;
+            }
+
+            try {
+                portfolioService.updatePortfolio(portfolioId, request, null);
+            } catch (EntityNotFoundException e) {
+                synchronized (draft) {
+                    logger.info("Dropped autosave draft of portfolio {}; the portfolio no longer exists", portfolioId);
+                    close(portfolioId, draft, true);
+                }
+                return false;
+            }
+            writeCounter.increment();
+
+            synchronized (draft) {
+                logger.debug("Wrote {} autosave edit(s) of portfolio {}", flushedEdits - draft.flushedEdits, portfolioId);
+                draft.flushedEdits = flushedEdits;
+                if (draft.pending() == 0) {
+                    close(portfolioId, draft, true);
+                } else {
+                    // Edits arrived while writing; they are due one flush delay from now at the latest
+                    draft.firstPendingAt = System.currentTimeMillis();
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Marks the draft as finished and removes it; the caller holds the draft's lock
+     */
+    private void close(String portfolioId, Draft draft, boolean journaled) {
+        draft.closed = true;
+        drafts.remove(portfolioId, draft);
+        if (journaled) {
+            try {
+                appendToJournal(journalEntry(portfolioId).put(FLUSHED_FIELD, true));
+            } catch (UncheckedIOException e) {
+                // Without the marker a restart replays edits that are already stored, which is harmless
+                logger.warn("Could not mark autosave draft of portfolio {} as written: {}", portfolioId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Applies the edit's section patches to the draft's values, reading a section from the database the first time it is touched
+     */
+    private Map<PortfolioSection, JsonNode> mergeSections(String portfolioId, Draft draft, Edit edit) {
+        Map<PortfolioSection, JsonNode> merged = new EnumMap<>(PortfolioSection.class);
+        edit.sections().forEach((section, sectionPatch) -> {
+            JsonNode current = draft.sections.containsKey(section)
+                    ? draft.sections.get(section)
+                    : readSection(portfolioService.getPortfolioSectionJson(portfolioId, section, null));
+            merged.put(section, JsonMergePatch.apply(current, sectionPatch));
+        });
+        return merged;
+    }
+
+    private JsonNode readSection(String json) {
+        try {
+            return jsonCodecs.getTreeReader().readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored portfolio section is not valid JSON", e);
+        }
+    }
+
+    private static Edit parsePatch(JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("A portfolio merge patch must be a JSON object");
+        }
+        String title = null;
+        Map<PortfolioSection, JsonNode> sections = new EnumMap<>(PortfolioSection.class);
+        Iterator<Map.Entry<String, JsonNode>> members = patch.fields();
+        while (members.hasNext()) {
+            Map.Entry<String, JsonNode> member = members.next();
+            if (TITLE_FIELD.equals(member.getKey())) {
+                JsonNode value = member.getValue();
+                if (!value.isTextual() || value.asText().isEmpty() || value.asText().length() > 100) {
+                    throw new IllegalArgumentException("Title must be between 1 and 100 characters");
+                }
+                title = value.asText();
+                continue;
+            }
+            sections.put(PortfolioSection.fromName(member.getKey()), member.getValue());
+        }
+        return new Edit(title, sections);
+    }
+
+    private void recoverDrafts() throws IOException {
+        Map<String, List<JsonNode>> unsaved = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode entry;
+                try {
+                    entry = jsonCodecs.getTreeReader().readValue(line);
+                } catch (JsonProcessingException e) {
+                    // Only the line being appended during a crash can be torn
+                    logger.warn("Skipping unreadable line {} of autosave journal {}", lineNumber, journalPath);
+                    continue;
+                }
+                String portfolioId = entry.path(PORTFOLIO_ID_FIELD).asText(null);
+                if (portfolioId == null) {
+                    continue;
+                }
+                if (entry.path(FLUSHED_FIELD).asBoolean(false)) {
+                    unsaved.remove(portfolioId);
+                } else {
+                    unsaved.computeIfAbsent(portfolioId, id -> new ArrayList<>()).add(entry.get(PATCH_FIELD));
+                }
+            }
+        }
+
+        // Replayed drafts are due right away; the journal already holds their edits
+        long recoveredAt = System.currentTimeMillis() - flushDelayMs;
+        unsaved.forEach((portfolioId, patches) -> {
+            Draft draft = new Draft();
+            try {
+                for (JsonNode patch : patches) {
+                    Edit edit = parsePatch(patch);
+                    draft.accept(edit.title(), mergeSections(portfolioId, draft, edit), recoveredAt);
+                }
+                drafts.put(portfolioId, draft);
+            } catch (RuntimeException e) {
+                logger.warn("Dropped journaled autosaves of portfolio {}: {}", portfolioId, e.getMessage());
+            }
+        });
+        if (!drafts.isEmpty()) {
+            logger.info("Recovered unsaved autosave drafts of {} portfolio(s) from {}", drafts.size(), journalPath);
+        }
+    }
+
+    private ObjectNode journalEntry(String portfolioId) {
+        return JsonNodeFactory.instance.objectNode().put(PORTFOLIO_ID_FIELD, portfolioId);
+    }
+
+    private void appendToJournal(JsonNode entry) {
+        try {
+            byte[] json = jsonCodecs.getTreeWriter().writeValueAsBytes(entry);
+            ByteBuffer line = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+            synchronized (journalLock) {
+                if (journal == null) {
+                    throw new IOException("Autosave journal is closed");
+                }
+                while (line.hasRemaining()) {
+                    journal.write(line);
+                }
+                if (fsync) {
+                    journal.force(false);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to autosave journal " + journalPath, e);
+        }
+    }
+
+    private void compactJournal() {
+        synchronized (journalLock) {
+            // A new draft is registered before its first entry is appended, so no entry can be lost here
+            try {
+                if (journal != null && drafts.isEmpty() && journal.size() > 0) {
+                    journal.truncate(0);
+                }
+            } catch (IOException e) {
+                logger.warn("Could not truncate autosave journal {}: {}", journalPath, e.getMessage());
+            }
+        }
+    }
+
+    private record Edit(String title, Map<PortfolioSection, JsonNode> sections) {
+    }
+
+    private static final class Draft {
+        private final Object flushLock = new Object();
+        private final Map<PortfolioSection, JsonNode> sections = new EnumMap<>(PortfolioSection.class);
+        private String title;
+        private long edits;
+        private long flushedEdits;
+        private long firstPendingAt;
+        private long lastEditAt;
+        private boolean closed;
+
+        private long pending() {
+            return edits - flushedEdits;
+        }
+
+        private void accept(String newTitle, Map<PortfolioSection, JsonNode> mergedSections, long at) {
+            if (newTitle != null) {
+                title = newTitle;
+            }
+            sections.putAll(mergedSections);
+            if (pending() == 0) {
+                firstPendingAt = at;
+            }
+            edits++;
+            lastEditAt = at;
+        }
+    }
+}
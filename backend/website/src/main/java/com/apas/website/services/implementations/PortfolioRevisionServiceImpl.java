@@ -0,0 +1,172 @@
+package com.apas.website.services.implementations;
+
+import com.apas.website.configurations.JsonCodecs;
+import com.apas.website.entities.PortfolioRevision;
+import com.apas.website.entities.PortfolioSection;
+import com.apas.website.entities.models.response.PortfolioRevisionResponse;
+import com.apas.website.entities.models.response.PortfolioRevisionSummaryResponse;
+import com.apas.website.repositories.PortfolioRevisionRepository;
+import com.apas.website.repositories.PortfolioRevisionRepository.RevisionHeads;
+import com.apas.website.services.PortfolioRevisionService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.flipkart.zjsonpatch.JsonDiff;
+import com.flipkart.zjsonpatch.JsonPatch;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class PortfolioRevisionServiceImpl implements PortfolioRevisionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioRevisionServiceImpl.class);
+    private static final int MAX_REVISION_PAGE_SIZE = 200;
+
+    private final PortfolioRevisionRepository portfolioRevisionRepository;
+    private final JsonCodecs jsonCodecs;
+    private final int snapshotInterval;
+
+    @Autowired
+    public PortfolioRevisionServiceImpl(PortfolioRevisionRepository portfolioRevisionRepository, JsonCodecs jsonCodecs,
+                                        @Value("${app.portfolio.revisions.snapshotInterval:10}") int snapshotInterval) {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("app.portfolio.revisions.snapshotInterval must be at least 1");
+        }
+        this.portfolioRevisionRepository = portfolioRevisionRepository;
+        this.jsonCodecs = jsonCodecs;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    @Override
+    @Transactional
+    public void recordInitialRevision(String portfolioId, long revision, JsonNode document) {
+        saveRevision(portfolioId, revision, true, document);
+    }
+
+    @Override
+    @Transactional
+    public void recordRevision(String portfolioId, long previousRevision, JsonNode previousDocument, long revision, JsonNode document) {
+        RevisionHeads heads = portfolioRevisionRepository.findHeadsByPortfolioId(portfolioId);
+        Long latestSnapshotRevision = heads.getLatestSnapshotRevision();
+        if (heads.getLatestRevision() == null || heads.getLatestRevision() < previousRevision) {
+            // The history does not reach the previous version, so anchor the patch below with a snapshot
+            saveRevision(portfolioId, previousRevision, true, previousDocument);
+            latestSnapshotRevision = previousRevision;
+        }
+
+        if (latestSnapshotRevision == null || revision - latestSnapshotRevision >= snapshotInterval) {
+            saveRevision(portfolioId, revision, true, document);
+            return;
+        }
+        JsonNode patch = JsonDiff.asJson(previousDocument, document);
+        String patchJson = writeJson(patch);
+        String documentJson = writeJson(document);
+        // A patch that is not smaller than the document buys nothing, and a snapshot shortens later rebuilds
+        if (patchJson.length() >= documentJson.length()) {
+            saveRevision(portfolioId, revision, true, documentJson);
+        } else {
+            saveRevision(portfolioId, revision, false, patchJson);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PortfolioRevisionSummaryResponse> getRevisions(String portfolioId, Long beforeRevision, int limit) {
+        if (limit < 1 || limit > MAX_REVISION_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_REVISION_PAGE_SIZE);
+        }
+        List<PortfolioRevisionSummaryResponse> revisions = portfolioRevisionRepository
+                .findInfoByPortfolioIdBefore(portfolioId, beforeRevision != null ? beforeRevision : Long.MAX_VALUE,
+                                             PageRequest.of(0, limit))
+                .stream()
+                .map(info -> new PortfolioRevisionSummaryResponse(info.getRevision(), info.getCreatedAt()))
+                .collect(Collectors.toList());
+        logger.info("Retrieved {} revision(s) of portfolio with ID: {}", revisions.size(), portfolioId);
+        return revisions;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PortfolioRevisionResponse getRevision(String portfolioId, long revision) {
+        List<PortfolioRevision> chain = loadChain(portfolioId, revision);
+        JsonNode document = replay(chain);
+
+        PortfolioRevisionResponse response = new PortfolioRevisionResponse();
+        response.setPortfolioId(portfolioId);
+        response.setRevision(revision);
+        response.setCreatedAt(chain.get(chain.size() - 1).getCreatedAt());
+        response.setTitle(document.path("title").isTextual() ? document.get("title").asText() : null);
+        response.setPersonalInformation(document.get(PortfolioSection.PERSONAL_INFORMATION.getFieldName()));
+        response.setEmploymentHistory(document.get(PortfolioSection.EMPLOYMENT_HISTORY.getFieldName()));
+        response.setEducationalBackground(document.get(PortfolioSection.EDUCATIONAL_BACKGROUND.getFieldName()));
+        response.setSkills(document.get(PortfolioSection.SKILLS.getFieldName()));
+        response.setProjectShowcases(document.get(PortfolioSection.PROJECT_SHOWCASES.getFieldName()));
+        logger.info("Rebuilt revision {} of portfolio with ID: {} from {} stored row(s)", revision, portfolioId, chain.size());
+        return response;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public JsonNode getRevisionDocument(String portfolioId, long revision) {
+        return replay(loadChain(portfolioId, revision));
+    }
+
+    /**
+     * Loads the nearest snapshot at or before the revision and the patches up to it. Snapshots are at most
+     * {@code snapshotInterval} revisions apart, so the chain never has more rows than that.
+     */
+    private List<PortfolioRevision> loadChain(String portfolioId, long revision) {
+        List<PortfolioRevision> chain = portfolioRevisionRepository.findReconstructionChain(portfolioId, revision);
+        if (chain.isEmpty() || chain.get(chain.size() - 1).getRevision() != revision) {
+            throw new EntityNotFoundException("Revision " + revision + " of portfolio " + portfolioId + " not found");
+        }
+        return chain;
+    }
+
+    private JsonNode replay(List<PortfolioRevision> chain) {
+        JsonNode document = readJson(chain.get(0).getContent());
+        for (int i = 1; i < chain.size(); i++) {
+            document = JsonPatch.apply(readJson(chain.get(i).getContent()), document);
+        }
+        return document;
+    }
+
+    private void saveRevision(String portfolioId, long revision, boolean snapshot, JsonNode content) {
+        saveRevision(portfolioId, revision, snapshot, writeJson(content));
+    }
+
+    private void saveRevision(String portfolioId, long revision, boolean snapshot, String content) {
+        PortfolioRevision portfolioRevision = new PortfolioRevision();
+        portfolioRevision.setPortfolioId(portfolioId);
+        portfolioRevision.setRevision(revision);
+        portfolioRevision.setSnapshot(snapshot);
+        portfolioRevision.setContent(content);
+        portfolioRevisionRepository.save(portfolioRevision);
+        logger.debug("Recorded {} for revision {} of portfolio with ID: {} ({} characters)",
+                     snapshot ? "snapshot" : "patch", revision, portfolioId, content.length());
+    }
+
+    private String writeJson(JsonNode node) {
+        try {
+            return jsonCodecs.getTreeWriter().writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Portfolio revision could not be serialized", e);
+        }
+    }
+
+    private JsonNode readJson(String json) {
+        try {
+            return jsonCodecs.getTreeReader().readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored portfolio revision is not valid JSON", e);
+        }
+    }
+}
@@ -1,39 +1,106 @@
 package com.apas.website.services.implementations;
 
+import com.apas.website.caching.PdfContentCache;
+import com.apas.website.caching.PortfolioCache;
+import com.apas.website.configurations.JsonCodecs;
 import com.apas.website.entities.PortfolioEntity;
+import com.apas.website.entities.PortfolioField;
+import com.apas.website.entities.PortfolioSection;
 import com.apas.website.entities.UserEntity;
 import com.apas.website.entities.models.request.CreatePortfolioRequest;
 import com.apas.website.entities.models.request.UpdatePortfolioRequest;
+import com.apas.website.entities.models.response.BulkDeleteItemResponse;
+import com.apas.website.entities.models.response.BulkDeleteResponse;
+import com.apas.website.entities.models.response.PortfolioFieldsResponse;
 import com.apas.website.entities.models.response.PortfolioResponse;
+import com.apas.website.entities.models.response.PortfolioSearchHitResponse;
+import com.apas.website.entities.models.response.PortfolioSearchPageResponse;
+import com.apas.website.entities.models.response.PortfolioSummaryPageResponse;
 import com.apas.website.entities.models.response.PortfolioSummaryResponse;
+import com.apas.website.entities.models.response.PortfolioVersionResponse;
+import com.apas.website.events.PortfolioChangedEvent;
+import com.apas.website.events.PortfolioChangedEvent.ChangeType;
+import com.apas.website.repositories.GeneratedPdfRepository;
 import com.apas.website.repositories.PortfolioRepository;
+import com.apas.website.repositories.PortfolioRepository.PortfolioOwnership;
+import com.apas.website.repositories.PortfolioRepository.PortfolioWriteState;
+import com.apas.website.repositories.PortfolioSummaryRepository.SummarySort;
 import com.apas.website.repositories.UserRepository;
+import com.apas.website.services.PortfolioRevisionService;
 import com.apas.website.services.PortfolioService;
+import com.apas.website.utilities.JsonMergePatch;
+import com.apas.website.utilities.SectionJson;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class PortfolioServiceImpl implements PortfolioService {
 
     private static final Logger logger = LoggerFactory.getLogger(PortfolioServiceImpl.class);
+    private static final String TITLE_FIELD = "title";
+    private static final int MAX_SUMMARY_PAGE_SIZE = 200;
+    private static final int MAX_SEARCH_PAGE_SIZE = 50;
+    private static final int MAX_SEARCH_QUERY_LENGTH = 200;
+    private static final int MAX_CONTAINMENT_FRAGMENT_LENGTH = 1000;
     
     private final PortfolioRepository portfolioRepository;
     private final UserRepository userRepository;
+    private final GeneratedPdfRepository generatedPdfRepository;
     private final ObjectMapper objectMapper;
+    private final JsonCodecs jsonCodecs;
+    private final PdfContentCache pdfContentCache;
+    private final PortfolioCache portfolioCache;
+    private final PortfolioRevisionService portfolioRevisionService;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${app.portfolio.search.maxCandidates:2000}")
+    private int searchMaxCandidates;
     
     @Autowired
-    public PortfolioServiceImpl(PortfolioRepository portfolioRepository, UserRepository userRepository, ObjectMapper objectMapper) {
+    public PortfolioServiceImpl(PortfolioRepository portfolioRepository, UserRepository userRepository,
+                                GeneratedPdfRepository generatedPdfRepository, JsonCodecs jsonCodecs,
+                                PdfContentCache pdfContentCache, PortfolioCache portfolioCache,
+                                PortfolioRevisionService portfolioRevisionService,
+                                ApplicationEventPublisher eventPublisher) {
         this.portfolioRepository = portfolioRepository;
         this.userRepository = userRepository;
-        this.objectMapper = objectMapper;
+        this.generatedPdfRepository = generatedPdfRepository;
+        this.objectMapper = jsonCodecs.getObjectMapper();
+        this.jsonCodecs = jsonCodecs;
+        this.pdfContentCache = pdfContentCache;
+        this.portfolioCache = portfolioCache;
+        this.portfolioRevisionService = portfolioRevisionService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -46,8 +113,13 @@ public class PortfolioServiceImpl implements PortfolioService {
         portfolio.setTitle(request.getTitle());
         portfolio.setUser(user);
         
-        PortfolioEntity savedPortfolio = portfolioRepository.save(portfolio);
+        // Flush so the portfolio row exists before its first revision references it
+        PortfolioEntity savedPortfolio = portfolioRepository.saveAndFlush(portfolio);
+        ObjectNode document = toRevisionDocument(savedPortfolio);
+        portfolioRevisionService.recordInitialRevision(savedPortfolio.getPortfolioId(), savedPortfolio.getVersion(), document);
         logger.info("Created portfolio with ID: {} for user: {}", savedPortfolio.getPortfolioId(), userId);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(savedPortfolio.getPortfolioId(), userId, ChangeType.CREATED,
+                                                              null, document));
         
         return convertToPortfolioResponse(savedPortfolio);
     }
@@ -55,79 +127,477 @@ public class PortfolioServiceImpl implements PortfolioService {
     @Override
     @Transactional(readOnly = true)
     public List<PortfolioSummaryResponse> getAllPortfoliosByUserId(String userId) {
-        List<PortfolioEntity> portfolios = portfolioRepository.findByUserUserId(userId);
+        // Projection query: only the summary columns are read, never the jsonb sections
+        List<PortfolioSummaryResponse> portfolios = portfolioRepository.findSummaries(
+                userId, SummarySort.UPDATED_AT, false, null, null, 0);
         logger.info("Retrieved {} portfolios for user: {}", portfolios.size(), userId);
+        return portfolios;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> findPortfolioIdsContaining(String userId, String fragment) {
+        if (!StringUtils.hasText(fragment) || fragment.length() > MAX_CONTAINMENT_FRAGMENT_LENGTH) {
+            throw new IllegalArgumentException("fragment must be between 1 and " + MAX_CONTAINMENT_FRAGMENT_LENGTH + " characters");
+        }
+        JsonNode node;
+        try {
+            node = jsonCodecs.getTreeReader().readValue(fragment);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("fragment is not valid JSON: " + e.getOriginalMessage());
+        }
+        // Scalars would only match sections that are a bare scalar, which never happens
+        if (node == null || !node.isContainerNode()) {
+            throw new IllegalArgumentException("fragment must be a JSON array or object");
+        }
         
-        return portfolios.stream()
-                .map(this::convertToPortfolioSummaryResponse)
-                .collect(Collectors.toList());
+        List<String> portfolioIds = portfolioRepository.findIdsByUserIdAndSectionsContaining(userId, node.toString());
+        logger.info("Found {} portfolio(s) of user {} containing a section fragment", portfolioIds.size(), userId);
+        return portfolioIds;
     }
 
     @Override
     @Transactional(readOnly = true)
+    public PortfolioSummaryPageResponse getPortfolioSummaries(String userId, String sort, String direction, String cursor, int limit) {
+        SummarySort summarySort = parseSummarySort(sort);
+        boolean ascending = parseAscending(direction);
+        if (limit < 1 || limit > MAX_SUMMARY_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SUMMARY_PAGE_SIZE);
+        }
+        
+        Comparable<?> afterValue = null;
+        String afterPortfolioId = null;
+        if (StringUtils.hasText(cursor)) {
+            String[] position = decodeCursor(cursor);
+            afterPortfolioId = position[0];
+            afterValue = summarySort == SummarySort.UPDATED_AT ? parseCursorTimestamp(position[1]) : position[1];
+        }
+        
+        // One extra row tells whether another page follows without a count query
+        List<PortfolioSummaryResponse> rows = portfolioRepository.findSummaries(
+                userId, summarySort, ascending, afterValue, afterPortfolioId, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<PortfolioSummaryResponse> items = hasMore ? new ArrayList<>(rows.subList(0, limit)) : rows;
+        
+        String nextCursor = null;
+        if (hasMore) {
+            PortfolioSummaryResponse last = items.get(items.size() - 1);
+            String lastValue = summarySort == SummarySort.UPDATED_AT ? last.getUpdatedAt().toString() : last.getTitle();
+            nextCursor = encodeCursor(last.getPortfolioId(), lastValue);
+        }
+        logger.info("Retrieved page of {} portfolio summaries for user: {} (sort: {} {}, more: {})",
+                    items.size(), userId, summarySort.getAttribute(), ascending ? "asc" : "desc", hasMore);
+        return new PortfolioSummaryPageResponse(items, nextCursor);
+    }
+
+    @Override
     public PortfolioResponse getPortfolioById(String portfolioId) {
-        PortfolioEntity portfolio = portfolioRepository.findById(portfolioId)
+        // Not transactional on purpose: cache hits never touch the connection pool
+        PortfolioResponse cached = portfolioCache.get(portfolioId);
+        if (cached != null) {
+            logger.debug("Retrieved portfolio with ID: {} from cache", portfolioId);
+            return cached;
+        }
+        
+        long stamp = portfolioCache.loadStamp(portfolioId);
+        PortfolioEntity portfolio = portfolioRepository.findWithUserByPortfolioId(portfolioId)
                 .orElseThrow(() -> new EntityNotFoundException("Portfolio not found with ID: " + portfolioId));
         
         logger.info("Retrieved portfolio with ID: {}", portfolioId);
-        return convertToPortfolioResponse(portfolio);
+        PortfolioResponse response = convertToPortfolioResponse(portfolio);
+        portfolioCache.put(response, stamp);
+        return response;
     }
 
     @Override
     @Transactional
-    public PortfolioResponse updatePortfolio(String portfolioId, UpdatePortfolioRequest request) {
-        PortfolioEntity portfolio = portfolioRepository.findById(portfolioId)
-                .orElseThrow(() -> new EntityNotFoundException("Portfolio not found with ID: " + portfolioId));
+    public PortfolioResponse updatePortfolio(String portfolioId, UpdatePortfolioRequest request, Long expectedVersion) {
+        PortfolioWriteState state = loadWriteState(portfolioId, expectedVersion);
         
-        // Update fields if provided
-        if (request.getTitle() != null) {
-            portfolio.setTitle(request.getTitle());
+        // Convert the provided JSON fields; sections left out of the request stay untouched
+        Map<PortfolioSection, JsonNode> sections = new EnumMap<>(PortfolioSection.class);
+        putSection(sections, PortfolioSection.PERSONAL_INFORMATION, request.getPersonalInformation());
+        putSection(sections, PortfolioSection.EMPLOYMENT_HISTORY, request.getEmploymentHistory());
+        putSection(sections, PortfolioSection.EDUCATIONAL_BACKGROUND, request.getEducationalBackground());
+        putSection(sections, PortfolioSection.SKILLS, request.getSkills());
+        putSection(sections, PortfolioSection.PROJECT_SHOWCASES, request.getProjectShowcases());
+        
+        return applyChanges(portfolioId, state, request.getTitle(), sections);
+    }
+
+    @Override
+    @Transactional
+    public PortfolioResponse patchPortfolio(String portfolioId, JsonNode patch, Long expectedVersion) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("A portfolio merge patch must be a JSON object");
         }
+        PortfolioWriteState state = loadWriteState(portfolioId, expectedVersion);
         
-        try {
-            // Convert and set JSON fields if provided
-            if (request.getPersonalInformation() != null) {
-                portfolio.setPersonalInformation(objectMapper.writeValueAsString(request.getPersonalInformation()));
-            }
-            
-            if (request.getEmploymentHistory() != null) {
-                portfolio.setEmploymentHistory(objectMapper.writeValueAsString(request.getEmploymentHistory()));
-            }
-            
-            if (request.getEducationalBackground() != null) {
-                portfolio.setEducationalBackground(objectMapper.writeValueAsString(request.getEducationalBackground()));
+        String title = null;
+        Map<PortfolioSection, JsonNode> sections = new EnumMap<>(PortfolioSection.class);
+        Iterator<Map.Entry<String, JsonNode>> members = patch.fields();
+        while (members.hasNext()) {
+            Map.Entry<String, JsonNode> member = members.next();
+            if (TITLE_FIELD.equals(member.getKey())) {
+                title = validateTitle(member.getValue());
+                continue;
             }
-            
-            if (request.getSkills() != null) {
-                portfolio.setSkills(objectMapper.writeValueAsString(request.getSkills()));
-            }
-            
-            if (request.getProjectShowcases() != null) {
-                portfolio.setProjectShowcases(objectMapper.writeValueAsString(request.getProjectShowcases()));
+            // Only the patched sections are read, and PostgreSQL hands them over as JSON text
+            PortfolioSection section = PortfolioSection.fromName(member.getKey());
+            JsonNode current = readSectionNode(portfolioRepository.findSectionJson(portfolioId, section.getColumnName()).orElse(null));
+            sections.put(section, JsonMergePatch.apply(current, member.getValue()));
+        }
+        
+        return applyChanges(portfolioId, state, title, sections);
+    }
+
+    @Override
+    @Transactional
+    public PortfolioResponse restorePortfolioRevision(String portfolioId, long revision, Long expectedVersion) {
+        PortfolioWriteState state = loadWriteState(portfolioId, expectedVersion);
+        JsonNode document = portfolioRevisionService.getRevisionDocument(portfolioId, revision);
+        
+        // Restoring is an ordinary write of the old content, so it becomes a new revision on top of the history
+        Map<PortfolioSection, JsonNode> sections = new EnumMap<>(PortfolioSection.class);
+        for (PortfolioSection section : PortfolioSection.values()) {
+            sections.put(section, document.path(section.getFieldName()));
+        }
+        String title = document.path(TITLE_FIELD).isTextual() ? document.get(TITLE_FIELD).asText() : null;
+        
+        logger.info("Restoring portfolio with ID: {} to revision {}", portfolioId, revision);
+        return applyChanges(portfolioId, state, title, sections);
+    }
+
+    /**
+     * Writes the title and the sections whose content hash differs from the stored one. When nothing
+     * differs, the portfolio entity is never loaded, so there is no dirty checking and no UPDATE.
+     */
+    private PortfolioResponse applyChanges(String portfolioId, PortfolioWriteState state, String title,
+                                           Map<PortfolioSection, JsonNode> sections) {
+        Map<String, String> storedHashes = state.getSectionHashes() != null ? state.getSectionHashes() : Map.of();
+        boolean titleChanged = title != null && !title.equals(state.getTitle());
+        
+        Map<PortfolioSection, String> changedSections = new EnumMap<>(PortfolioSection.class);
+        Map<String, String> hashes = new HashMap<>(storedHashes);
+        for (Map.Entry<PortfolioSection, JsonNode> entry : sections.entrySet()) {
+            String json = SectionJson.write(jsonCodecs, entry.getValue());
+            String hash = SectionJson.sha256(json);
+            if (hash.equals(storedHashes.get(entry.getKey().getFieldName()))) {
+                continue;
             }
-        } catch (Exception e) {
-            logger.error("Error converting portfolio data to JSON", e);
-            throw new RuntimeException("Error updating portfolio: " + e.getMessage());
+            changedSections.put(entry.getKey(), json);
+            hashes.put(entry.getKey().getFieldName(), hash);
+        }
+        
+        if (!titleChanged && changedSections.isEmpty()) {
+            logger.info("Skipped update of portfolio with ID: {}; nothing changed", portfolioId);
+            return getPortfolioById(portfolioId);
+        }
+        
+        PortfolioEntity portfolio = portfolioRepository.findById(portfolioId)
+                .orElseThrow(() -> new EntityNotFoundException("Portfolio not found with ID: " + portfolioId));
+        if (!Objects.equals(portfolio.getVersion(), state.getVersion())) {
+            // Another write committed between the version check and loading the entity
+            throw new OptimisticLockingFailureException("Portfolio " + portfolioId + " was modified concurrently");
+        }
+        ObjectNode previousDocument = toRevisionDocument(portfolio);
+        ObjectNode document = previousDocument.deepCopy();
+        if (titleChanged) {
+            document.put(TITLE_FIELD, title);
+            portfolio.setTitle(title);
+        }
+        changedSections.forEach((section, json) -> {
+            portfolio.setSection(section, SectionJson.NULL_JSON.equals(json) ? null : json);
+            document.set(section.getFieldName(), SectionJson.NULL_JSON.equals(json) ? NullNode.getInstance() : sections.get(section));
+        });
+        portfolio.setSectionHashes(hashes);
+        
+        // Flush so the version check runs now and the response carries the incremented version
+        PortfolioEntity updatedPortfolio = portfolioRepository.saveAndFlush(portfolio);
+        portfolioRevisionService.recordRevision(portfolioId, state.getVersion(), previousDocument,
+                                                updatedPortfolio.getVersion(), document);
+        logger.info("Updated portfolio with ID: {} (title changed: {}, sections changed: {})",
+                    portfolioId, titleChanged, changedSections.keySet());
+        eventPublisher.publishEvent(new PortfolioChangedEvent(portfolioId, portfolio.getUser().getUserId(), ChangeType.UPDATED,
+                                                              previousDocument, document));
+        
+        return convertToPortfolioResponse(updatedPortfolio);
+    }
+
+    private PortfolioWriteState loadWriteState(String portfolioId, Long expectedVersion) {
+        PortfolioWriteState state = portfolioRepository.findWriteStateByPortfolioId(portfolioId)
+                .orElseThrow(() -> new EntityNotFoundException("Portfolio not found with ID: " + portfolioId));
+        if (expectedVersion != null && !expectedVersion.equals(state.getVersion())) {
+            throw new OptimisticLockingFailureException("Portfolio " + portfolioId + " is at version " + state.getVersion()
+                    + ", not the expected version " + expectedVersion);
+        }
+        return state;
+    }
+
+    @Override
+    @Transactional
+    public PortfolioResponse setPortfolioDiscoverable(String portfolioId, boolean discoverable) {
+        PortfolioEntity portfolio = portfolioRepository.findById(portfolioId)
+                .orElseThrow(() -> new EntityNotFoundException("Portfolio not found with ID: " + portfolioId));
+        if (portfolio.isDiscoverable() == discoverable) {
+            return convertToPortfolioResponse(portfolio);
         }
         
-        PortfolioEntity updatedPortfolio = portfolioRepository.save(portfolio);
-        logger.info("Updated portfolio with ID: {}", portfolioId);
+        portfolio.setDiscoverable(discoverable);
+        PortfolioEntity updatedPortfolio = portfolioRepository.saveAndFlush(portfolio);
+        logger.info("Set discoverable={} for portfolio with ID: {}", discoverable, portfolioId);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(portfolioId, portfolio.getUser().getUserId(), ChangeType.UPDATED));
         
         return convertToPortfolioResponse(updatedPortfolio);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PortfolioSearchPageResponse searchPortfolios(String query, int page, int size) {
+        if (!StringUtils.hasText(query) || query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new IllegalArgumentException("q must be between 1 and " + MAX_SEARCH_QUERY_LENGTH + " characters");
+        }
+        if (size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+        // At most maxCandidates matches (whichever the index returns first) are ranked, so pages beyond them would always be empty
+        if (page < 0 || (long) page * size >= searchMaxCandidates) {
+            throw new IllegalArgumentException("page must be between 0 and " + ((searchMaxCandidates - 1) / size));
+        }
+        
+        long startedAt = System.currentTimeMillis();
+        // One extra row tells whether another page follows without a count query
+        List<PortfolioSearchHitResponse> hits = portfolioRepository
+                .searchDiscoverable(query.trim(), searchMaxCandidates, size + 1, page * size).stream()
+                .map(hit -> new PortfolioSearchHitResponse(hit.getPortfolioId(), hit.getTitle(), hit.getRank(), hit.getHighlight()))
+                .collect(Collectors.toList());
+        boolean hasMore = hits.size() > size && (long) (page + 1) * size < searchMaxCandidates;
+        List<PortfolioSearchHitResponse> items = hits.size() > size ? new ArrayList<>(hits.subList(0, size)) : hits;
+        
+        logger.info("Full-text search returned {} portfolio(s) on page {} in {} ms (more: {})",
+                    items.size(), page, System.currentTimeMillis() - startedAt, hasMore);
+        return new PortfolioSearchPageResponse(items, page, size, hasMore);
+    }
+
     @Override
     @Transactional
     public boolean deletePortfolio(String portfolioId) {
         PortfolioEntity portfolio = portfolioRepository.findById(portfolioId)
                 .orElseThrow(() -> new EntityNotFoundException("Portfolio not found with ID: " + portfolioId));
         
+        // Generated PDFs reference the portfolio, so they have to go first
+        generatedPdfRepository.deleteByPortfolioIdIn(List.of(portfolioId));
+        pdfContentCache.invalidatePortfolio(portfolioId);
+        ObjectNode previousDocument = toRevisionDocument(portfolio);
         portfolioRepository.delete(portfolio);
         logger.info("Deleted portfolio with ID: {}", portfolioId);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(portfolioId, portfolio.getUser().getUserId(), ChangeType.DELETED,
+                                                              previousDocument, null));
         
         return true;
     }
+
+    @Override
+    @Transactional
+    public BulkDeleteResponse bulkDeletePortfolios(String userId, List<String> portfolioIds) {
+        List<String> requestedIds = portfolioIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+
+        Map<String, String> ownerIdsByPortfolioId = portfolioRepository.findOwnershipByPortfolioIdIn(requestedIds).stream()
+                .collect(Collectors.toMap(PortfolioOwnership::getPortfolioId, PortfolioOwnership::getUserId));
+
+        List<String> ownedIds = new ArrayList<>();
+        List<BulkDeleteItemResponse> results = new ArrayList<>(requestedIds.size());
+        for (String portfolioId : requestedIds) {
+            String ownerId = ownerIdsByPortfolioId.get(portfolioId);
+            if (ownerId == null) {
+                results.add(new BulkDeleteItemResponse(portfolioId, BulkDeleteItemResponse.NOT_FOUND));
+            } else if (!ownerId.equals(userId)) {
+                results.add(new BulkDeleteItemResponse(portfolioId, BulkDeleteItemResponse.FORBIDDEN));
+            } else {
+                ownedIds.add(portfolioId);
+                results.add(new BulkDeleteItemResponse(portfolioId, BulkDeleteItemResponse.DELETED));
+            }
+        }
+
+        int deleted = 0;
+        if (!ownedIds.isEmpty()) {
+            int deletedPdfs = generatedPdfRepository.deleteByPortfolioIdIn(ownedIds);
+            ownedIds.forEach(pdfContentCache::invalidatePortfolio);
+            deleted = portfolioRepository.deleteByPortfolioIdInAndUserId(ownedIds, userId);
+            ownedIds.forEach(portfolioId -> eventPublisher.publishEvent(
+                    new PortfolioChangedEvent(portfolioId, userId, ChangeType.DELETED)));
+            logger.info("Bulk deleted {} generated PDF(s) together with their portfolios for user: {}", deletedPdfs, userId);
+        }
+        logger.info("Bulk deleted {} of {} requested portfolio(s) for user: {}", deleted, requestedIds.size(), userId);
+        
+        return new BulkDeleteResponse(requestedIds.size(), deleted, results);
+    }
     
+    @Override
+    public String getPortfolioOwnerId(String portfolioId) {
+        PortfolioResponse cached = portfolioCache.get(portfolioId);
+        if (cached != null) {
+            return cached.getUserId();
+        }
+        return portfolioRepository.findOwnerIdByPortfolioId(portfolioId)
+                .orElseThrow(() -> new EntityNotFoundException("Portfolio not found with ID: " + portfolioId));
+    }
+
+    @Override
+    public PortfolioVersionResponse getPortfolioVersion(String portfolioId) {
+        PortfolioResponse cached = portfolioCache.get(portfolioId);
+        if (cached != null) {
+            return new PortfolioVersionResponse(cached.getUserId(), cached.getVersion());
+        }
+        return portfolioRepository.findVersionInfoByPortfolioId(portfolioId)
+                .map(info -> new PortfolioVersionResponse(info.getUserId(), info.getVersion()))
+                .orElseThrow(() -> new EntityNotFoundException("Portfolio not found with ID: " + portfolioId));
+    }
+
+    @Override
+    public PortfolioFieldsResponse getPortfolioFields(String portfolioId, Set<PortfolioField> fields) {
+        // Not transactional, like getPortfolioById: a cached full portfolio answers any field selection
+        PortfolioResponse cached = portfolioCache.get(portfolioId);
+        Map<PortfolioField, Object> values;
+        if (cached != null) {
+            values = new EnumMap<>(PortfolioField.class);
+            for (PortfolioField field : fields) {
+                values.put(field, fieldValue(cached, field));
+            }
+            values.put(PortfolioField.USER_ID, cached.getUserId());
+            values.put(PortfolioField.VERSION, cached.getVersion());
+        } else {
+            values = portfolioRepository.findFieldsByPortfolioId(portfolioId, fields)
+                    .orElseThrow(() -> new EntityNotFoundException("Portfolio not found with ID: " + portfolioId));
+        }
+        
+        Map<String, Object> selected = new LinkedHashMap<>();
+        for (PortfolioField field : fields) {
+            Object value = values.get(field);
+            selected.put(field.getName(), field.getSection() != null && value instanceof String json ? rawJson(json) : value);
+        }
+        logger.info("Retrieved fields {} of portfolio with ID: {}{}", selected.keySet(), portfolioId, cached != null ? " from cache" : "");
+        return new PortfolioFieldsResponse((String) values.get(PortfolioField.USER_ID), (Long) values.get(PortfolioField.VERSION), selected);
+    }
+
+    private static Object fieldValue(PortfolioResponse portfolio, PortfolioField field) {
+        switch (field) {
+            case PORTFOLIO_ID: return portfolio.getPortfolioId();
+            case TITLE: return portfolio.getTitle();
+            case USER_ID: return portfolio.getUserId();
+            case PERSONAL_INFORMATION: return portfolio.getPersonalInformation();
+            case EMPLOYMENT_HISTORY: return portfolio.getEmploymentHistory();
+            case EDUCATIONAL_BACKGROUND: return portfolio.getEducationalBackground();
+            case SKILLS: return portfolio.getSkills();
+            case PROJECT_SHOWCASES: return portfolio.getProjectShowcases();
+            case CREATED_AT: return portfolio.getCreatedAt();
+            case UPDATED_AT: return portfolio.getUpdatedAt();
+            case VERSION: return portfolio.getVersion();
+            case DISCOVERABLE: return portfolio.isDiscoverable();
+            default: throw new IllegalArgumentException("Unknown portfolio field: " + field);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getPortfolioSectionJson(String portfolioId, PortfolioSection section, String path) {
+        Optional<String> json = StringUtils.hasText(path)
+                ? portfolioRepository.findSectionPathJson(portfolioId, section.getColumnName(), path)
+                : portfolioRepository.findSectionJson(portfolioId, section.getColumnName());
+        logger.info("Retrieved section {}{} of portfolio with ID: {}", section.getFieldName(),
+                    StringUtils.hasText(path) ? " at path " + path : "", portfolioId);
+        return json.orElse("null");
+    }
+
+    private static SummarySort parseSummarySort(String sort) {
+        if (!StringUtils.hasText(sort)) {
+            return SummarySort.UPDATED_AT;
+        }
+        for (SummarySort candidate : SummarySort.values()) {
+            if (candidate.getAttribute().equalsIgnoreCase(sort)) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("sort must be 'updatedAt' or 'title'");
+    }
+
+    private static boolean parseAscending(String direction) {
+        if (!StringUtils.hasText(direction) || direction.equalsIgnoreCase("desc")) {
+            return false;
+        }
+        if (direction.equalsIgnoreCase("asc")) {
+            return true;
+        }
+        throw new IllegalArgumentException("direction must be 'asc' or 'desc'");
+    }
+
+    // Cursors are "<portfolioId>|<sort value>" in URL-safe Base64; IDs never contain '|'
+    private static String encodeCursor(String portfolioId, String sortValue) {
+        String position = portfolioId + "|" + (sortValue != null ? sortValue : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf('|');
+            if (separator > 0) {
+                return new String[] {position.substring(0, separator), position.substring(separator + 1)};
+            }
+        } catch (IllegalArgumentException e) {
+            // Not Base64, reported below
+        }
+        throw new IllegalArgumentException("Invalid cursor");
+    }
+
+    private static LocalDateTime parseCursorTimestamp(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private void putSection(Map<PortfolioSection, JsonNode> sections, PortfolioSection section, Object value) {
+        if (value != null) {
+            sections.put(section, SectionJson.toNode(jsonCodecs, value));
+        }
+    }
+
+    /**
+     * Builds the document stored in the revision history: the title and every section as a JSON value
+     */
+    private ObjectNode toRevisionDocument(PortfolioEntity portfolio) {
+        ObjectNode document = objectMapper.createObjectNode();
+        document.put(TITLE_FIELD, portfolio.getTitle());
+        for (PortfolioSection section : PortfolioSection.values()) {
+            JsonNode value = readSectionNode(portfolio.getSection(section));
+            document.set(section.getFieldName(), value != null ? value : NullNode.getInstance());
+        }
+        return document;
+    }
+
+    private JsonNode readSectionNode(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return jsonCodecs.getTreeReader().readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored portfolio section is not valid JSON", e);
+        }
+    }
+
+    private static String validateTitle(JsonNode title) {
+        if (title == null || !title.isTextual() || title.asText().isEmpty() || title.asText().length() > 100) {
+            throw new IllegalArgumentException("Title must be between 1 and 100 characters");
+        }
+        return title.asText();
+    }
+
     private PortfolioResponse convertToPortfolioResponse(PortfolioEntity portfolio) {
         PortfolioResponse response = new PortfolioResponse();
         response.setPortfolioId(portfolio.getPortfolioId());
@@ -135,41 +605,21 @@ public class PortfolioServiceImpl implements PortfolioService {
         response.setUserId(portfolio.getUser().getUserId());
         response.setCreatedAt(portfolio.getCreatedAt());
         response.setUpdatedAt(portfolio.getUpdatedAt());
+        response.setVersion(portfolio.getVersion());
+        response.setDiscoverable(portfolio.isDiscoverable());
         
-        try {
-            // Convert JSON strings to objects if they exist
-            if (portfolio.getPersonalInformation() != null) {
-                response.setPersonalInformation(objectMapper.readValue(portfolio.getPersonalInformation(), Object.class));
-            }
-            
-            if (portfolio.getEmploymentHistory() != null) {
-                response.setEmploymentHistory(objectMapper.readValue(portfolio.getEmploymentHistory(), Object.class));
-            }
-            
-            if (portfolio.getEducationalBackground() != null) {
-                response.setEducationalBackground(objectMapper.readValue(portfolio.getEducationalBackground(), Object.class));
-            }
-            
-            if (portfolio.getSkills() != null) {
-                response.setSkills(objectMapper.readValue(portfolio.getSkills(), Object.class));
-            }
-            
-            if (portfolio.getProjectShowcases() != null) {
-                response.setProjectShowcases(objectMapper.readValue(portfolio.getProjectShowcases(), Object.class));
-            }
-        } catch (Exception e) {
-            logger.error("Error converting JSON to objects", e);
-        }
+        // Sections are written to the response verbatim: they were validated when stored and PostgreSQL
+        // only hands out well-formed jsonb, so parsing them into trees here would be wasted work
+        response.setPersonalInformation(rawJson(portfolio.getPersonalInformation()));
+        response.setEmploymentHistory(rawJson(portfolio.getEmploymentHistory()));
+        response.setEducationalBackground(rawJson(portfolio.getEducationalBackground()));
+        response.setSkills(rawJson(portfolio.getSkills()));
+        response.setProjectShowcases(rawJson(portfolio.getProjectShowcases()));
         
         return response;
     }
     
-    private PortfolioSummaryResponse convertToPortfolioSummaryResponse(PortfolioEntity portfolio) {
-        return new PortfolioSummaryResponse(
-                portfolio.getPortfolioId(),
-                portfolio.getTitle(),
-                portfolio.getCreatedAt(),
-                portfolio.getUpdatedAt()
-        );
+    private static RawValue rawJson(String json) {
+        return json != null ? new RawValue(json) : null;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.apas.website.services.implementations;
+
+import com.apas.website.caching.SharePageCache;
+import com.apas.website.caching.SharePageCache.SharePage;
+import com.apas.website.entities.models.request.PdfGenerationRequest;
+import com.apas.website.entities.models.response.PortfolioResponse;
+import com.apas.website.entities.models.response.ShareLinkResponse;
+import com.apas.website.repositories.PortfolioRepository;
+import com.apas.website.services.PdfService;
+import com.apas.website.services.PortfolioService;
+import com.apas.website.services.PortfolioShareService;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+@Service
+public class PortfolioShareServiceImpl implements PortfolioShareService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioShareServiceImpl.class);
+    private static final int TOKEN_BYTES = 32;
+    // 32 random bytes in unpadded base64url; anything else is rejected without a lookup
+    private static final Pattern TOKEN_PATTERN = Pattern.compile("[A-Za-z0-9_-]{43}");
+
+    private final PortfolioRepository portfolioRepository;
+    private final PortfolioService portfolioService;
+    private final PdfService pdfService;
+    private final SharePageCache sharePageCache;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Autowired
+    public PortfolioShareServiceImpl(PortfolioRepository portfolioRepository, PortfolioService portfolioService,
+                                     PdfService pdfService, SharePageCache sharePageCache) {
+        this.portfolioRepository = portfolioRepository;
+        this.portfolioService = portfolioService;
+        this.pdfService = pdfService;
+        this.sharePageCache = sharePageCache;
+    }
+
+    @Override
+    @Transactional
+    public ShareLinkResponse createShareLink(String portfolioId) {
+        if (!portfolioRepository.existsById(portfolioId)) {
+            throw new EntityNotFoundException("Portfolio not found with ID: " + portfolioId);
+        }
+        String token = portfolioRepository.findShareTokenByPortfolioId(portfolioId).orElse(null);
+        if (token == null) {
+            byte[] random = new byte[TOKEN_BYTES];
+            secureRandom.nextBytes(random);
+            token = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+            portfolioRepository.updateShareToken(portfolioId, token);
+            logger.info("Created share link for portfolio with ID: {}", portfolioId);
+        }
+        return new ShareLinkResponse(portfolioId, token, "/share/" + token);
+    }
+
+    @Override
+    @Transactional
+    public boolean revokeShareLink(String portfolioId) {
+        String token = portfolioRepository.findShareTokenByPortfolioId(portfolioId).orElse(null);
+        if (token == null) {
+            return false;
+        }
+        portfolioRepository.updateShareToken(portfolioId, null);
+        sharePageCache.invalidateToken(token);
+        logger.info("Revoked share link of portfolio with ID: {}", portfolioId);
+        return true;
+    }
+
+    @Override
+    public Optional<SharePage> getSharePage(String token) {
+        if (token == null || !TOKEN_PATTERN.matcher(token).matches()) {
+            return Optional.empty();
+        }
+        SharePage cached = sharePageCache.get(token);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long stamp = sharePageCache.loadStamp();
+        Optional<String> portfolioId = portfolioRepository.findPortfolioIdByShareToken(token);
+        if (portfolioId.isEmpty()) {
+            return Optional.empty();
+        }
+        // Usually answered by the portfolio cache; the page uses the default style of the PDF template
+        PortfolioResponse portfolio = portfolioService.getPortfolioById(portfolioId.get());
+        String html = pdfService.renderPortfolioHtml(portfolio, new PdfGenerationRequest());
+        SharePage page = SharePage.render(token, portfolio.getPortfolioId(), portfolio.getVersion(), html);
+        sharePageCache.put(page, stamp);
+        logger.info("Rendered share page of portfolio {} at version {} ({} bytes, {} gzipped)",
+                    portfolio.getPortfolioId(), portfolio.getVersion(), page.html().length, page.gzipped().length);
+        return Optional.of(page);
+    }
+}
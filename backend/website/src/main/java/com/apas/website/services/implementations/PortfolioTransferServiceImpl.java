@@ -0,0 +1,487 @@
+package com.apas.website.services.implementations;
+
+import com.apas.website.configurations.JsonCodecs;
+import com.apas.website.entities.PortfolioSection;
+import com.apas.website.entities.models.response.PortfolioImportErrorResponse;
+import com.apas.website.entities.models.response.PortfolioImportReportResponse;
+import com.apas.website.events.PortfolioChangedEvent;
+import com.apas.website.events.PortfolioChangedEvent.ChangeType;
+import com.apas.website.repositories.UserRepository;
+import com.apas.website.services.PortfolioTransferService;
+import com.apas.website.utilities.CustomIdGenerator;
+import com.apas.website.utilities.SectionJson;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * NDJSON import and export of portfolios. Both directions use the Jackson streaming API and plain JDBC
+ * instead of entities: the import parses one line at a time and writes bounded multi-row batches, the
+ * export writes each row of a server-side cursor straight to the response, copying the jsonb sections as text.
+ */
+@Service
+public class PortfolioTransferServiceImpl implements PortfolioTransferService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioTransferServiceImpl.class);
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_TITLE_LENGTH = 100;
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+    private static final int EXPORT_FETCH_SIZE = 500;
+    private static final String TITLE_FIELD = "title";
+    private static final String DISCOVERABLE_FIELD = "discoverable";
+    // Export-only fields, accepted and ignored so an export can be imported again
+    private static final Set<String> IGNORED_FIELDS = Set.of("portfolioId", "userId", "version", "createdAt", "updatedAt");
+
+    private static final String SECTION_COLUMNS = Arrays.stream(PortfolioSection.values())
+            .map(PortfolioSection::getColumnName)
+            .collect(Collectors.joining(", "));
+    private static final String INSERT_PORTFOLIO_SQL =
+            "INSERT INTO portfolios (portfolio_id, user_id, title, discoverable, version, section_hashes, created_at, updated_at, " +
+            SECTION_COLUMNS + ") VALUES (?, ?, ?, ?, 0, CAST(? AS jsonb), ?, ?" +
+            ", CAST(? AS jsonb)".repeat(PortfolioSection.values().length) + ")";
+    private static final int[] INSERT_PORTFOLIO_TYPES = insertPortfolioTypes();
+    // Imported portfolios start their history like created ones: a snapshot of version 0
+    private static final String INSERT_REVISION_SQL =
+            "INSERT INTO portfolio_revisions (portfolio_id, revision, snapshot, content, created_at) " +
+            "VALUES (?, 0, TRUE, CAST(? AS jsonb), now())";
+    private static final int[] INSERT_REVISION_TYPES = {Types.VARCHAR, Types.VARCHAR};
+    private static final String EXPORT_SQL =
+            "SELECT portfolio_id, title, discoverable, version, created_at, updated_at, " + SECTION_COLUMNS +
+            " FROM portfolios WHERE user_id = ? ORDER BY portfolio_id";
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final JsonCodecs jsonCodecs;
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate cursorJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.portfolio.import.batchSize:500}")
+    private int batchSize;
+
+    @Value("${app.portfolio.import.maxBatchBytes:8388608}") // Flushes a batch early when its lines are large
+    private long maxBatchBytes;
+
+    @Value("${app.portfolio.import.maxLineBytes:1048576}")
+    private int maxLineBytes;
+
+    @Autowired
+    public PortfolioTransferServiceImpl(UserRepository userRepository, JsonCodecs jsonCodecs, JdbcTemplate jdbcTemplate,
+                                        PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher) {
+        this.userRepository = userRepository;
+        this.objectMapper = jsonCodecs.getObjectMapper();
+        this.jsonCodecs = jsonCodecs;
+        this.jdbcTemplate = jdbcTemplate;
+        // PostgreSQL only streams with a fetch size inside a transaction; without one it buffers the whole result
+        this.cursorJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.cursorJdbcTemplate.setFetchSize(EXPORT_FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public PortfolioImportReportResponse importPortfolios(String userId, InputStream inputStream) throws IOException {
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException("User not found with ID: " + userId);
+        }
+        long startedAt = System.currentTimeMillis();
+        ImportReport report = new ImportReport();
+        LineReader reader = new LineReader(inputStream, maxLineBytes);
+        List<ImportedPortfolio> batch = new ArrayList<>(batchSize);
+        long batchBytes = 0;
+
+        while (reader.next()) {
+            if (reader.isOversized()) {
+                report.fail(reader.getLineNumber(), "Line is longer than " + maxLineBytes + " bytes");
+                continue;
+            }
+            if (reader.isBlank()) {
+                continue;
+            }
+            try {
+                batch.add(parseLine(reader.getLineNumber(), reader.getBuffer(), reader.getLength()));
+            } catch (IllegalArgumentException e) {
+                report.fail(reader.getLineNumber(), e.getMessage());
+                continue;
+            }
+            batchBytes += reader.getLength();
+            if (batch.size() >= batchSize || batchBytes >= maxBatchBytes) {
+                insertBatch(userId, batch, report);
+                batch.clear();
+                batchBytes = 0;
+            }
+        }
+        if (!batch.isEmpty()) {
+            insertBatch(userId, batch, report);
+        }
+
+        logger.info("Imported {} portfolio(s) for user {} from {} line(s) in {} ms ({} failed).",
+                    report.imported, userId, reader.getLineNumber(), System.currentTimeMillis() - startedAt, report.failed);
+        return new PortfolioImportReportResponse(report.imported, report.failed, report.errors, report.errorsTruncated);
+    }
+
+    /**
+     * Validates one line and turns it into the column values to insert. Sections are canonicalized and
+     * hashed exactly like the portfolio service does, so a later no-op update is still recognized as one.
+     */
+    private ImportedPortfolio parseLine(long lineNumber, byte[] buffer, int length) {
+        String title = null;
+        boolean discoverable = false;
+        Map<PortfolioSection, JsonNode> sections = new EnumMap<>(PortfolioSection.class);
+        try (JsonParser parser = objectMapper.createParser(buffer, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Line is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (TITLE_FIELD.equals(field)) {
+                    if (value != JsonToken.VALUE_STRING) {
+                        throw new IllegalArgumentException("title must be a string");
+                    }
+                    title = parser.getText();
+                } else if (DISCOVERABLE_FIELD.equals(field)) {
+                    if (!value.isBoolean()) {
+                        throw new IllegalArgumentException("discoverable must be true or false");
+                    }
+                    discoverable = value == JsonToken.VALUE_TRUE;
+                } else if (IGNORED_FIELDS.contains(field)) {
+                    parser.skipChildren();
+                } else {
+                    JsonNode section = parser.readValueAsTree();
+                    sections.put(PortfolioSection.fromName(field), SectionJson.toNode(jsonCodecs, section));
+                }
+            }
+            if (parser.nextToken() != null) {
+                throw new IllegalArgumentException("Unexpected content after the JSON object");
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getMessage());
+        }
+        if (title == null || title.isEmpty() || title.length() > MAX_TITLE_LENGTH) {
+            throw new IllegalArgumentException("Title must be between 1 and " + MAX_TITLE_LENGTH + " characters");
+        }
+
+        ImportedPortfolio portfolio = new ImportedPortfolio(lineNumber, CustomIdGenerator.generatePortfolioId(), title, discoverable);
+        portfolio.document.put(TITLE_FIELD, title);
+        Map<String, String> hashes = new HashMap<>();
+        for (PortfolioSection section : PortfolioSection.values()) {
+            JsonNode node = sections.get(section);
+            String json = SectionJson.write(jsonCodecs, node);
+            if (SectionJson.NULL_JSON.equals(json)) {
+                portfolio.document.set(section.getFieldName(), NullNode.getInstance());
+                continue;
+            }
+            portfolio.sections.put(section, json);
+            hashes.put(section.getFieldName(), SectionJson.sha256(json));
+            portfolio.document.set(section.getFieldName(), node);
+        }
+        portfolio.sectionHashes = writeJson(objectMapper.writer(), hashes);
+        return portfolio;
+    }
+
+    /**
+     * Inserts a batch in one transaction. If the batch is rejected (e.g. a generated ID collided), its rows
+     * are retried one transaction each so that only the offending lines are reported.
+     */
+    private void insertBatch(String userId, List<ImportedPortfolio> batch, ImportReport report) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> writeRows(userId, batch));
+            report.imported += batch.size();
+            return;
+        } catch (DataAccessException | TransactionException e) {
+            logger.warn("Import batch of {} portfolio(s) for user {} failed, retrying row by row: {}",
+                        batch.size(), userId, e.getMessage());
+        }
+        for (ImportedPortfolio portfolio : batch) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> writeRows(userId, List.of(portfolio)));
+                report.imported++;
+            } catch (DataAccessException | TransactionException e) {
+                Throwable cause = e instanceof DataAccessException dataAccessException ? dataAccessException.getMostSpecificCause() : e;
+                report.fail(portfolio.lineNumber, "Portfolio could not be stored: " + cause.getMessage());
+            }
+        }
+    }
+
+    private void writeRows(String userId, List<ImportedPortfolio> portfolios) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> portfolioRows = new ArrayList<>(portfolios.size());
+        List<Object[]> revisionRows = new ArrayList<>(portfolios.size());
+        for (ImportedPortfolio portfolio : portfolios) {
+            Object[] row = new Object[INSERT_PORTFOLIO_TYPES.length];
+            row[0] = portfolio.portfolioId;
+            row[1] = userId;
+            row[2] = portfolio.title;
+            row[3] = portfolio.discoverable;
+            row[4] = portfolio.sectionHashes;
+            row[5] = now;
+            row[6] = now;
+            for (PortfolioSection section : PortfolioSection.values()) {
+                row[7 + section.ordinal()] = portfolio.sections.get(section);
+            }
+            portfolioRows.add(row);
+            revisionRows.add(new Object[] {portfolio.portfolioId, writeJson(jsonCodecs.getTreeWriter(), portfolio.document)});
+        }
+        // With reWriteBatchedInserts the driver sends each batch as a few multi-row INSERTs
+        jdbcTemplate.batchUpdate(INSERT_PORTFOLIO_SQL, portfolioRows, INSERT_PORTFOLIO_TYPES);
+        jdbcTemplate.batchUpdate(INSERT_REVISION_SQL, revisionRows, INSERT_REVISION_TYPES);
+        // Delivered after the commit, so listeners never see rows of a rolled back batch
+        for (ImportedPortfolio portfolio : portfolios) {
+            eventPublisher.publishEvent(new PortfolioChangedEvent(portfolio.portfolioId, userId, ChangeType.CREATED,
+                                                                  null, portfolio.document));
+        }
+    }
+
+    @Override
+    public void exportPortfolios(String userId, OutputStream outputStream) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null); // Lines are separated by the newline written after each row
+
+            long[] count = new long[1];
+            readOnlyTransactionTemplate.executeWithoutResult(status -> cursorJdbcTemplate.query(EXPORT_SQL,
+                    (RowCallbackHandler) resultSet -> {
+                        writeRow(generator, resultSet);
+                        count[0]++;
+                    }, userId));
+            generator.flush();
+            logger.info("Exported {} portfolio(s) as NDJSON for user {} in {} ms.", count[0], userId, System.currentTimeMillis() - startedAt);
+        } catch (UncheckedIOException e) {
+            logger.warn("NDJSON export for user {} aborted, most likely because the client disconnected: {}", userId, e.getMessage());
+            throw e.getCause();
+        }
+    }
+
+    private static void writeRow(JsonGenerator generator, ResultSet resultSet) throws SQLException {
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("portfolioId", resultSet.getString("portfolio_id"));
+            generator.writeStringField(TITLE_FIELD, resultSet.getString("title"));
+            generator.writeBooleanField(DISCOVERABLE_FIELD, resultSet.getBoolean("discoverable"));
+            generator.writeNumberField("version", resultSet.getLong("version"));
+            writeTimestamp(generator, "createdAt", resultSet.getTimestamp("created_at"));
+            writeTimestamp(generator, "updatedAt", resultSet.getTimestamp("updated_at"));
+            for (PortfolioSection section : PortfolioSection.values()) {
+                // jsonb text never contains raw line breaks, so it can be copied into the line unparsed
+                String json = resultSet.getString(section.getColumnName());
+                generator.writeFieldName(section.getFieldName());
+                if (json != null) {
+                    generator.writeRawValue(json);
+                } else {
+                    generator.writeNull();
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeTimestamp(JsonGenerator generator, String field, Timestamp timestamp) throws IOException {
+        if (timestamp != null) {
+            generator.writeStringField(field, timestamp.toLocalDateTime().toString());
+        } else {
+            generator.writeNullField(field);
+        }
+    }
+
+    private static String writeJson(ObjectWriter writer, Object value) {
+        try {
+            return writer.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Import row could not be serialized", e);
+        }
+    }
+
+    private static int[] insertPortfolioTypes() {
+        int[] types = new int[7 + PortfolioSection.values().length];
+        Arrays.fill(types, Types.VARCHAR);
+        types[3] = Types.BOOLEAN;
+        types[5] = Types.TIMESTAMP;
+        types[6] = Types.TIMESTAMP;
+        return types;
+    }
+
+    /**
+     * A validated line waiting in the current batch
+     */
+    private final class ImportedPortfolio {
+        private final long lineNumber;
+        private final String portfolioId;
+        private final String title;
+        private final boolean discoverable;
+        private final Map<PortfolioSection, String> sections = new EnumMap<>(PortfolioSection.class);
+        private final ObjectNode document = objectMapper.createObjectNode();
+        private String sectionHashes;
+
+        private ImportedPortfolio(long lineNumber, String portfolioId, String title, boolean discoverable) {
+            this.lineNumber = lineNumber;
+            this.portfolioId = portfolioId;
+            this.title = title;
+            this.discoverable = discoverable;
+        }
+    }
+
+    private static final class ImportReport {
+        private long imported;
+        private long failed;
+        private final List<PortfolioImportErrorResponse> errors = new ArrayList<>();
+        private boolean errorsTruncated;
+
+        private void fail(long lineNumber, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new PortfolioImportErrorResponse(lineNumber, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+    }
+
+    /**
+     * Splits a byte stream into lines without decoding it, reusing one buffer of at most {@code maxLineBytes}.
+     * Longer lines are consumed to their end and flagged instead of being buffered.
+     */
+    private static final class LineReader {
+        private final InputStream inputStream;
+        private final byte[] chunk = new byte[READ_BUFFER_BYTES];
+        private final byte[] line;
+        private int chunkPosition;
+        private int chunkLength;
+        private int length;
+        private boolean oversized;
+        private boolean endOfStream;
+        private long lineNumber;
+
+        private LineReader(InputStream inputStream, int maxLineBytes) {
+            this.inputStream = inputStream;
+            this.line = new byte[maxLineBytes];
+        }
+
+        /**
+         * Advances to the next line; returns false once the stream is exhausted
+         */
+        private boolean next() throws IOException {
+            if (endOfStream) {
+                return false;
+            }
+            length = 0;
+            oversized = false;
+            boolean readAny = false;
+            while (true) {
+                if (chunkPosition == chunkLength) {
+                    chunkLength = inputStream.read(chunk);
+                    chunkPosition = 0;
+                    if (chunkLength < 0) {
+                        chunkLength = 0;
+                        endOfStream = true;
+                        if (!readAny) {
+                            return false;
+                        }
+                        break;
+                    }
+                }
+                readAny = true;
+                int newline = chunkPosition;
+                while (newline < chunkLength && chunk[newline] != '\n') {
+                    newline++;
+                }
+                append(chunkPosition, newline - chunkPosition);
+                boolean complete = newline < chunkLength;
+                chunkPosition = complete ? newline + 1 : chunkLength;
+                if (complete) {
+                    break;
+                }
+            }
+            lineNumber++;
+            if (!oversized && length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            return true;
+        }
+
+        private void append(int offset, int count) {
+            if (oversized) {
+                return;
+            }
+            if (length + count > line.length) {
+                oversized = true;
+                return;
+            }
+            System.arraycopy(chunk, offset, line, length, count);
+            length += count;
+        }
+
+        private boolean isBlank() {
+            for (int i = 0; i < length; i++) {
+                if (line[i] != ' ' && line[i] != '\t') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean isOversized() {
+            return oversized;
+        }
+
+        private long getLineNumber() {
+            return lineNumber;
+        }
+
+        private byte[] getBuffer() {
+            return line;
+        }
+
+        private int getLength() {
+            return length;
+        }
+    }
+}
@@ -0,0 +1,464 @@
+package com.apas.website.services.implementations;
+
+import com.apas.website.configurations.JsonCodecs;
+import com.apas.website.entities.PortfolioSection;
+import com.apas.website.entities.models.response.SimilarPortfolioResponse;
+import com.apas.website.events.PortfolioChangedEvent;
+import com.apas.website.repositories.PortfolioRepository;
+import com.apas.website.repositories.PortfolioRepository.PortfolioTitle;
+import com.apas.website.repositories.PortfolioRepository.SimilaritySource;
+import com.apas.website.services.SimilarityService;
+import com.apas.website.utilities.MinHashLshIndex;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a {@link MinHashLshIndex} of the discoverable portfolios in memory, built from the skill items and
+ * project technologies of each portfolio. Saves update it from the document carried by
+ * {@link PortfolioChangedEvent}; changes without a document (discoverability, restores) re-read the two
+ * sections of that portfolio. A periodic rebuild from the database corrects what the events cannot see, such
+ * as bulk deletes; until then, portfolios that are gone or hidden are dropped when a lookup finds them.
+ * <p>
+ * The index is written to {@code app.portfolio.similarity.snapshotPath} periodically and on shutdown. On
+ * startup the snapshot is loaded and only portfolios saved since it was taken are re-read, so a restart does
+ * not re-sign every portfolio. Loading, rebuilding and snapshots run on one background thread, never on the
+ * scheduler, and a rebuild briefly holds two copies of the index (roughly 350 bytes per portfolio each).
+ */
+@Service
+public class SimilarityServiceImpl implements SimilarityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimilarityServiceImpl.class);
+    private static final int MAX_RESULTS = 50;
+    // Extra matches looked up so results still fill the limit when some turn out to be gone or hidden
+    private static final int STALE_ALLOWANCE = 5;
+    private static final int MAX_TOKEN_LENGTH = 100;
+    private static final int SNAPSHOT_MAGIC = 0x53494D31;
+    // Saves still committing while the watermark is taken may carry a slightly older updated_at
+    private static final Duration WATERMARK_MARGIN = Duration.ofMinutes(5);
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final PortfolioRepository portfolioRepository;
+    private final JsonCodecs jsonCodecs;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final Path snapshotPath;
+    private final ExecutorService indexer;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    // Portfolios saved while a refresh reads the database; re-read once it is done so no save is lost
+    private final Set<String> changedDuringRefresh = ConcurrentHashMap.newKeySet();
+    private MinHashLshIndex index = new MinHashLshIndex(); // Guarded by lock
+    // Portfolios saved after this are re-read when the snapshot is loaded; null until the index is first loaded
+    private volatile LocalDateTime watermark;
+
+    @Value("${app.portfolio.similarity.maxCandidates:2000}")
+    private int maxCandidates;
+
+    @Value("${app.portfolio.similarity.minSimilarity:0.1}")
+    private double minSimilarity;
+
+    @Autowired
+    public SimilarityServiceImpl(PortfolioRepository portfolioRepository, JsonCodecs jsonCodecs,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.portfolio.similarity.snapshotPath:data/similarity.index}") String snapshotPath) {
+        this.portfolioRepository = portfolioRepository;
+        this.jsonCodecs = jsonCodecs;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.snapshotPath = Path.of(snapshotPath);
+        this.indexer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "similarity-index");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    @Override
+    public List<SimilarPortfolioResponse> findSimilar(String portfolioId, boolean ownedByCaller, int limit) {
+        if (limit < 1 || limit > MAX_RESULTS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_RESULTS);
+        }
+        long startedAt = System.nanoTime();
+        SimilaritySource source = portfolioRepository.findSimilaritySource(portfolioId)
+                .orElseThrow(() -> new EntityNotFoundException("Portfolio not found with ID: " + portfolioId));
+        if (!Boolean.TRUE.equals(source.getDiscoverable()) && !ownedByCaller) {
+            throw new AccessDeniedException("You can only find portfolios similar to discoverable portfolios or your own");
+        }
+        short[] signature = signatureOf(source);
+        if (signature == null) {
+            return List.of();
+        }
+
+        List<MinHashLshIndex.Match> matches;
+        lock.readLock().lock();
+        try {
+            matches = index.query(signature, limit + STALE_ALLOWANCE, maxCandidates, minSimilarity, portfolioId);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, String> titles = new HashMap<>();
+        for (PortfolioTitle title : portfolioRepository.findDiscoverableTitlesByPortfolioIdIn(
+                matches.stream().map(MinHashLshIndex.Match::id).collect(Collectors.toList()))) {
+            titles.put(title.getPortfolioId(), title.getTitle());
+        }
+        List<SimilarPortfolioResponse> results = new ArrayList<>();
+        List<String> stale = new ArrayList<>();
+        for (MinHashLshIndex.Match match : matches) {
+            if (!titles.containsKey(match.id())) {
+                stale.add(match.id());
+            } else if (results.size() < limit) {
+                results.add(new SimilarPortfolioResponse(match.id(), titles.get(match.id()), match.similarity()));
+            }
+        }
+        if (!stale.isEmpty()) {
+            stale.forEach(id -> apply(id, null));
+            logger.debug("Dropped {} deleted or hidden portfolio(s) from the similarity index: {}", stale.size(), stale);
+        }
+
+        logger.info("Found {} portfolio(s) similar to {} in {} ms", results.size(), portfolioId,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        return results;
+    }
+
+    /**
+     * Loads the snapshot (or builds the index from scratch) on the first run after startup, and rebuilds it
+     * from the database on every later run
+     */
+    @Override
+    @Scheduled(initialDelayString = "${app.portfolio.similarity.initialDelayMs:5000}",
+               fixedDelayString = "${app.portfolio.similarity.rebuildIntervalMs:86400000}")
+    public void rebuildIndex() {
+        if (!refreshing.compareAndSet(false, true)) {
+            logger.debug("Similarity index refresh already running; skipping.");
+            return;
+        }
+        indexer.execute(() -> {
+            try {
+                LocalDateTime since = watermark == null ? loadSnapshot() : null;
+                if (since != null) {
+                    catchUp(since);
+                } else {
+                    rebuild();
+                }
+                reindexChangedDuringRefresh();
+            } catch (RuntimeException e) {
+                logger.error("Similarity index refresh failed; keeping the current index: {}", e.getMessage(), e);
+            } finally {
+                refreshing.set(false);
+            }
+        });
+    }
+
+    @Scheduled(initialDelayString = "${app.portfolio.similarity.snapshotIntervalMs:600000}",
+               fixedDelayString = "${app.portfolio.similarity.snapshotIntervalMs:600000}")
+    public void snapshotIndex() {
+        if (watermark != null && dirty.get()) {
+            indexer.execute(this::writeSnapshot);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        indexer.shutdownNow();
+        try {
+            indexer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writeSnapshot();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        String portfolioId = event.getPortfolioId();
+        if (refreshing.get()) {
+            changedDuringRefresh.add(portfolioId);
+        }
+        if (event.getChangeType() == PortfolioChangedEvent.ChangeType.DELETED) {
+            apply(portfolioId, null);
+            return;
+        }
+        JsonNode document = event.getDocument();
+        if (document == null) {
+            reindex(portfolioId); // E.g. the portfolio was made discoverable or hidden
+            return;
+        }
+
+        Set<String> tokens = extractTokens(document.path(PortfolioSection.SKILLS.getFieldName()),
+                                           document.path(PortfolioSection.PROJECT_SHOWCASES.getFieldName()));
+        boolean indexed;
+        lock.readLock().lock();
+        try {
+            indexed = index.contains(portfolioId);
+        } finally {
+            lock.readLock().unlock();
+        }
+        // Indexed means discoverable, so only the signature can have changed; otherwise ask once whether it is
+        if (indexed || (!tokens.isEmpty() && portfolioRepository.findDiscoverableByPortfolioId(portfolioId).orElse(false))) {
+            apply(portfolioId, MinHashLshIndex.signature(tokens));
+            logger.debug("Updated similarity signature of portfolio {} from {} token(s)", portfolioId, tokens.size());
+        }
+    }
+
+    /**
+     * Reads the snapshot into the index
+     *
+     * @return The watermark of the snapshot, or null if there is no usable snapshot
+     */
+    private LocalDateTime loadSnapshot() {
+        long startedAt = System.currentTimeMillis();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a similarity index snapshot");
+            }
+            LocalDateTime since = LocalDateTime.parse(in.readUTF());
+            MinHashLshIndex loaded = MinHashLshIndex.readFrom(in);
+            swap(loaded);
+            logger.info("Loaded similarity index with {} portfolio(s) from {} in {} ms.",
+                        loaded.size(), snapshotPath, System.currentTimeMillis() - startedAt);
+            return since;
+        } catch (NoSuchFileException e) {
+            logger.info("No similarity index snapshot at {}; building the index from the database.", snapshotPath);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not load similarity index snapshot {}; building the index from the database: {}",
+                        snapshotPath, e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Re-reads the portfolios saved after {@code since}, adding, updating or removing each in the live index
+     */
+    private void catchUp(LocalDateTime since) {
+        long startedAt = System.currentTimeMillis();
+        LocalDateTime next = latestUpdatedAt();
+        AtomicInteger count = new AtomicInteger();
+        readOnlyTransactionTemplate.executeWithoutResult(status -> {
+            try (Stream<SimilaritySource> sources = portfolioRepository.streamSimilaritySourcesUpdatedSince(since)) {
+                sources.forEach(source -> {
+                    apply(source.getPortfolioId(), Boolean.TRUE.equals(source.getDiscoverable()) ? signatureOf(source) : null);
+                    count.incrementAndGet();
+                });
+            }
+        });
+        watermark = next;
+        logger.info("Caught up the similarity index with {} portfolio(s) saved since {} in {} ms.",
+                    count.get(), since, System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * Builds a new index from all discoverable portfolios off to the side, so lookups keep being answered
+     * from the current one meanwhile, and swaps it in
+     */
+    private void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        LocalDateTime next = latestUpdatedAt();
+        int expectedSize;
+        lock.readLock().lock();
+        try {
+            expectedSize = index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+        MinHashLshIndex rebuilt = new MinHashLshIndex(expectedSize);
+        readOnlyTransactionTemplate.executeWithoutResult(status -> {
+            try (Stream<SimilaritySource> sources = portfolioRepository.streamDiscoverableSimilaritySources()) {
+                sources.forEach(source -> {
+                    short[] signature = signatureOf(source);
+                    if (signature != null) {
+                        rebuilt.put(source.getPortfolioId(), signature);
+                    }
+                });
+            }
+        });
+        swap(rebuilt);
+        watermark = next;
+        dirty.set(true);
+        logger.info("Rebuilt similarity index with {} portfolio(s) in {} ms.", rebuilt.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    private void reindexChangedDuringRefresh() {
+        for (Iterator<String> changed = changedDuringRefresh.iterator(); changed.hasNext(); ) {
+            String portfolioId = changed.next();
+            changed.remove();
+            reindex(portfolioId);
+        }
+    }
+
+    private void writeSnapshot() {
+        LocalDateTime since = watermark;
+        if (since == null || !dirty.compareAndSet(true, false)) {
+            return;
+        }
+        long startedAt = System.currentTimeMillis();
+        Path temporary = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try {
+            if (snapshotPath.getParent() != null) {
+                Files.createDirectories(snapshotPath.getParent());
+            }
+            int size;
+            // Lookups go on while the snapshot is written; index updates wait for it
+            lock.readLock().lock();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeUTF(since.toString());
+                index.writeTo(out);
+                size = index.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+            Files.move(temporary, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Wrote similarity index snapshot with {} portfolio(s) to {} in {} ms.",
+                        size, snapshotPath, System.currentTimeMillis() - startedAt);
+        } catch (IOException e) {
+            dirty.set(true);
+            logger.warn("Could not write similarity index snapshot {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    private void reindex(String portfolioId) {
+        short[] signature = portfolioRepository.findSimilaritySource(portfolioId)
+                .filter(source -> Boolean.TRUE.equals(source.getDiscoverable()))
+                .map(this::signatureOf)
+                .orElse(null);
+        apply(portfolioId, signature);
+    }
+
+    /**
+     * Stores the signature of a portfolio, or removes the portfolio if the signature is null
+     */
+    private void apply(String portfolioId, short[] signature) {
+        lock.writeLock().lock();
+        try {
+            if (signature != null) {
+                index.put(portfolioId, signature);
+                dirty.set(true);
+            } else if (index.remove(portfolioId)) {
+                dirty.set(true);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void swap(MinHashLshIndex replacement) {
+        lock.writeLock().lock();
+        try {
+            index = replacement;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private LocalDateTime latestUpdatedAt() {
+        return portfolioRepository.findLatestUpdatedAt()
+                .map(latest -> latest.minus(WATERMARK_MARGIN))
+                .orElse(BEGINNING);
+    }
+
+    private short[] signatureOf(SimilaritySource source) {
+        return MinHashLshIndex.signature(extractTokens(parse(source.getSkills()), parse(source.getProjectShowcases())));
+    }
+
+    private JsonNode parse(String json) {
+        if (json == null || json.isBlank()) {
+            return MissingNode.getInstance();
+        }
+        try {
+            return jsonCodecs.getTreeReader().readTree(json);
+        } catch (IOException e) {
+            logger.debug("Skipping unreadable section JSON: {}", e.getMessage());
+            return MissingNode.getInstance();
+        }
+    }
+
+    /**
+     * Collects the distinct skill items and project technologies of a portfolio, normalized. Skill items and
+     * technologies may be plain strings or {"name": ...} objects, and technologies also a comma-separated string.
+     */
+    private static Set<String> extractTokens(JsonNode skills, JsonNode projectShowcases) {
+        Set<String> tokens = new HashSet<>();
+        if (skills.isArray()) {
+            for (JsonNode entry : skills) {
+                if (entry.isTextual()) {
+                    addToken(tokens, entry.asText());
+                }
+                for (JsonNode item : entry.path("items")) {
+                    addToken(tokens, item.isObject() ? item.path("name").asText(null) : item.asText(null));
+                }
+            }
+        }
+        if (projectShowcases.isArray()) {
+            for (JsonNode project : projectShowcases) {
+                JsonNode technologies = project.path("technologies");
+                if (technologies.isTextual()) {
+                    for (String technology : technologies.asText().split(",")) {
+                        addToken(tokens, technology);
+                    }
+                }
+                for (JsonNode technology : technologies) {
+                    addToken(tokens, technology.isObject() ? technology.path("name").asText(null) : technology.asText(null));
+                }
+            }
+        }
+        return tokens;
+    }
+
+    private static void addToken(Set<String> tokens, String value) {
+        if (value == null) {
+            return;
+        }
+        String token = value.trim().toLowerCase(Locale.ROOT);
+        if (!token.isEmpty() && token.length() <= MAX_TOKEN_LENGTH) {
+            tokens.add(token);
+        }
+    }
+}
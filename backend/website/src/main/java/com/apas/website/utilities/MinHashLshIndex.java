@@ -0,0 +1,384 @@
+package com.apas.website.utilities;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Locality-sensitive hashing index of MinHash signatures, answering "which entries have a token set most
+ * similar (by Jaccard similarity) to this one" without comparing against every entry.
+ * <p>
+ * A signature keeps, for each of {@value #SIGNATURE_LENGTH} seeded hash functions, the low 16 bits of the
+ * smallest hash over the tokens; the share of equal positions in two signatures estimates the Jaccard
+ * similarity of their token sets. Signatures are cut into {@value #BANDS} bands of {@value #ROWS} positions
+ * and every entry is linked into one bucket per band, so a lookup only scores entries sharing at least one
+ * whole band: pairs with similarity 0.5 meet with a probability of about 0.65, pairs at 0.8 almost surely.
+ * <p>
+ * Entries live in flat arrays indexed by slot (signatures, one bucket chain per band), roughly 350 bytes per
+ * entry including the ID map, and slots of removed entries are reused. The hash functions are fixed, so a
+ * snapshot written by {@link #writeTo} stays valid across restarts. Not thread-safe: callers guard it with
+ * a lock.
+ */
+public class MinHashLshIndex {
+
+    public static final int SIGNATURE_LENGTH = 64;
+    public static final int BANDS = 16;
+    public static final int ROWS = SIGNATURE_LENGTH / BANDS;
+
+    // Identifies the hash family in snapshots; change it whenever signatures would be computed differently
+    private static final long HASH_FAMILY = 0x4D484C5348000001L;
+    private static final long[] SEEDS = new SplittableRandom(HASH_FAMILY).longs(SIGNATURE_LENGTH).toArray();
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Map<String, Integer> slots;
+    private String[] ids;
+    private short[] signatures;
+    private int[][] next;
+    private int[][] heads;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int highWater;
+
+    public MinHashLshIndex() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize Number of entries to size the arrays for up front
+     */
+    public MinHashLshIndex(int expectedSize) {
+        int capacity = tableSizeFor(Math.max(expectedSize, 16));
+        this.slots = new HashMap<>(capacity * 4 / 3 + 1);
+        this.ids = new String[capacity];
+        this.signatures = new short[capacity * SIGNATURE_LENGTH];
+        this.next = new int[BANDS][capacity];
+        this.heads = newHeads(capacity);
+    }
+
+    /**
+     * Computes the signature of a token set. Tokens are expected to be normalized by the caller.
+     *
+     * @return The signature, or null if there are no tokens (such entries cannot be compared)
+     */
+    public static short[] signature(Collection<String> tokens) {
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        long[] minimums = new long[SIGNATURE_LENGTH];
+        Arrays.fill(minimums, Long.MAX_VALUE);
+        for (String token : tokens) {
+            long hash = hash(token);
+            for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+                long value = mix(hash ^ SEEDS[i]);
+                if (value < minimums[i]) {
+                    minimums[i] = value;
+                }
+            }
+        }
+        short[] signature = new short[SIGNATURE_LENGTH];
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            signature[i] = (short) minimums[i];
+        }
+        return signature;
+    }
+
+    /**
+     * Estimated Jaccard similarity of the token sets behind two signatures, between 0 and 1
+     */
+    public static double similarity(short[] a, short[] b) {
+        return matches(a, 0, b, 0) / (double) SIGNATURE_LENGTH;
+    }
+
+    /**
+     * Number of entries
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    public boolean contains(String id) {
+        return slots.containsKey(id);
+    }
+
+    /**
+     * Returns a copy of the signature of an entry, or null if it is not in the index
+     */
+    public short[] get(String id) {
+        Integer slot = slots.get(id);
+        if (slot == null) {
+            return null;
+        }
+        int offset = slot * SIGNATURE_LENGTH;
+        return Arrays.copyOfRange(signatures, offset, offset + SIGNATURE_LENGTH);
+    }
+
+    /**
+     * Adds an entry or replaces the signature of an existing one
+     */
+    public void put(String id, short[] signature) {
+        if (signature.length != SIGNATURE_LENGTH) {
+            throw new IllegalArgumentException("Signature must have " + SIGNATURE_LENGTH + " positions");
+        }
+        Integer existing = slots.get(id);
+        int slot;
+        if (existing != null) {
+            slot = existing;
+            unlink(slot);
+        } else {
+            slot = allocate();
+            ids[slot] = id;
+            slots.put(id, slot);
+        }
+        System.arraycopy(signature, 0, signatures, slot * SIGNATURE_LENGTH, SIGNATURE_LENGTH);
+        link(slot);
+        if (slots.size() > heads[0].length) {
+            rehash(heads[0].length * 2);
+        }
+    }
+
+    /**
+     * Removes an entry
+     *
+     * @return Whether the entry was in the index
+     */
+    public boolean remove(String id) {
+        Integer slot = slots.remove(id);
+        if (slot == null) {
+            return false;
+        }
+        unlink(slot);
+        ids[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+        return true;
+    }
+
+    /**
+     * Finds the entries most similar to a signature among those sharing at least one band with it.
+     * Each band contributes at most {@code maxCandidates / BANDS} candidates, which bounds the cost of
+     * very common token sets.
+     *
+     * @param signature Signature to compare against, see {@link #signature}
+     * @param limit Maximum number of matches
+     * @param maxCandidates Maximum number of entries scored
+     * @param minSimilarity Matches below this estimated similarity are dropped
+     * @param excludeId Entry to leave out (usually the one the signature belongs to), or null
+     * @return Matches, most similar first
+     */
+    public List<Match> query(short[] signature, int limit, int maxCandidates, double minSimilarity, String excludeId) {
+        int perBand = Math.max(1, maxCandidates / BANDS);
+        int minMatches = (int) Math.ceil(minSimilarity * SIGNATURE_LENGTH);
+        Integer excluded = excludeId != null ? slots.get(excludeId) : null;
+        Set<Integer> seen = new HashSet<>();
+        PriorityQueue<Match> best = new PriorityQueue<>(Match.BEST_FIRST.reversed());
+        int mask = heads[0].length - 1;
+
+        for (int band = 0; band < BANDS; band++) {
+            long key = bandKey(signature, 0, band);
+            int visited = 0;
+            for (int slot = heads[band][bucket(key, band) & mask]; slot != NONE && visited < perBand; slot = next[band][slot]) {
+                if (bandKey(signatures, slot * SIGNATURE_LENGTH, band) != key) {
+                    continue; // Different band value that landed in the same bucket
+                }
+                visited++;
+                if ((excluded != null && slot == excluded) || !seen.add(slot)) {
+                    continue;
+                }
+                int matches = matches(signature, 0, signatures, slot * SIGNATURE_LENGTH);
+                if (matches < minMatches) {
+                    continue;
+                }
+                best.add(new Match(ids[slot], matches / (double) SIGNATURE_LENGTH));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+        List<Match> result = new ArrayList<>(best);
+        result.sort(Match.BEST_FIRST);
+        return result;
+    }
+
+    /**
+     * Writes all entries with the parameters of the hash family, so {@link #readFrom} can reject snapshots
+     * that were computed differently
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeLong(HASH_FAMILY);
+        out.writeInt(SIGNATURE_LENGTH);
+        out.writeInt(BANDS);
+        out.writeInt(slots.size());
+        for (int slot = 0; slot < highWater; slot++) {
+            if (ids[slot] == null) {
+                continue;
+            }
+            out.writeUTF(ids[slot]);
+            int offset = slot * SIGNATURE_LENGTH;
+            for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+                out.writeShort(signatures[offset + i]);
+            }
+        }
+    }
+
+    /**
+     * Reads entries written by {@link #writeTo}
+     *
+     * @throws IOException If the input is truncated or was written with a different hash family
+     */
+    public static MinHashLshIndex readFrom(DataInput in) throws IOException {
+        long family = in.readLong();
+        int length = in.readInt();
+        int bands = in.readInt();
+        if (family != HASH_FAMILY || length != SIGNATURE_LENGTH || bands != BANDS) {
+            throw new IOException("Index was written with a different hash family");
+        }
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Invalid entry count " + count);
+        }
+        MinHashLshIndex index = new MinHashLshIndex(count);
+        short[] signature = new short[SIGNATURE_LENGTH];
+        for (int n = 0; n < count; n++) {
+            String id = in.readUTF();
+            for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+                signature[i] = in.readShort();
+            }
+            index.put(id, signature);
+        }
+        return index;
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (highWater == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            signatures = Arrays.copyOf(signatures, capacity * SIGNATURE_LENGTH);
+            for (int band = 0; band < BANDS; band++) {
+                next[band] = Arrays.copyOf(next[band], capacity);
+            }
+        }
+        return highWater++;
+    }
+
+    private void link(int slot) {
+        int mask = heads[0].length - 1;
+        int offset = slot * SIGNATURE_LENGTH;
+        for (int band = 0; band < BANDS; band++) {
+            int bucket = bucket(bandKey(signatures, offset, band), band) & mask;
+            next[band][slot] = heads[band][bucket];
+            heads[band][bucket] = slot;
+        }
+    }
+
+    /**
+     * Unlinks a slot from its bucket in every band. Chains are singly linked, so this walks the bucket;
+     * buckets are short except for token sets shared by very many entries.
+     */
+    private void unlink(int slot) {
+        int mask = heads[0].length - 1;
+        int offset = slot * SIGNATURE_LENGTH;
+        for (int band = 0; band < BANDS; band++) {
+            int bucket = bucket(bandKey(signatures, offset, band), band) & mask;
+            int[] chain = next[band];
+            if (heads[band][bucket] == slot) {
+                heads[band][bucket] = chain[slot];
+                continue;
+            }
+            for (int previous = heads[band][bucket]; previous != NONE; previous = chain[previous]) {
+                if (chain[previous] == slot) {
+                    chain[previous] = chain[slot];
+                    break;
+                }
+            }
+        }
+    }
+
+    private void rehash(int tableSize) {
+        heads = newHeads(tableSize);
+        for (int slot = 0; slot < highWater; slot++) {
+            if (ids[slot] != null) {
+                link(slot);
+            }
+        }
+    }
+
+    private static int[][] newHeads(int tableSize) {
+        int[][] heads = new int[BANDS][tableSize];
+        for (int[] band : heads) {
+            Arrays.fill(band, NONE);
+        }
+        return heads;
+    }
+
+    private static int matches(short[] a, int aOffset, short[] b, int bOffset) {
+        int matches = 0;
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            if (a[aOffset + i] == b[bOffset + i]) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    // The ROWS 16-bit positions of one band packed into a long; equal keys mean equal bands
+    private static long bandKey(short[] signature, int offset, int band) {
+        long key = 0;
+        int start = offset + band * ROWS;
+        for (int i = 0; i < ROWS; i++) {
+            key = (key << 16) | (signature[start + i] & 0xFFFFL);
+        }
+        return key;
+    }
+
+    private static int bucket(long bandKey, int band) {
+        return (int) mix(bandKey + band * 0x9E3779B97F4A7C15L);
+    }
+
+    // 64-bit FNV-1a over the UTF-16 code units, finished with a mix so similar tokens spread well
+    private static long hash(String token) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < token.length(); i++) {
+            hash ^= token.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    // Finalizer of SplitMix64
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    private static int tableSizeFor(int size) {
+        return Integer.highestOneBit(size - 1) << 1;
+    }
+
+    /**
+     * An entry with its estimated similarity to the queried signature
+     */
+    public record Match(String id, double similarity) {
+
+        static final Comparator<Match> BEST_FIRST = Comparator
+                .comparingDouble(Match::similarity).reversed()
+                .thenComparing(Match::id);
+    }
+}
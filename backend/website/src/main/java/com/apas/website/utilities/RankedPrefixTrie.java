@@ -0,0 +1,302 @@
+package com.apas.website.utilities;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Radix (path-compressed) trie of terms with a count per term, answering "the most frequent terms that
+ * start with this prefix". Every node keeps the highest count found in its subtree, so a lookup walks down
+ * to the prefix and then visits nodes best-first, touching roughly {@code limit} branches instead of the
+ * whole subtree.
+ * <p>
+ * Keys are expected to be normalized by the caller (e.g. lower-cased); each term also keeps the display
+ * text it was first added with. Not thread-safe: callers guard it with a lock.
+ */
+public class RankedPrefixTrie {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Comparator<Candidate> BEST_FIRST = Comparator
+            .comparingLong((Candidate candidate) -> candidate.rank).reversed()
+            .thenComparing(candidate -> candidate.terminal ? candidate.node.value : "");
+
+    private final Node root = new Node("");
+    private int size;
+
+    /**
+     * Number of terms with a positive count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the count of a term, or 0 if it is not in the trie
+     */
+    public long count(String key) {
+        Node node = find(key, false);
+        return node != null && node.value != null ? node.count : 0;
+    }
+
+    /**
+     * Adds {@code delta} to the count of a term. A term is created on its first positive delta and
+     * removed, together with any nodes it no longer needs, when its count drops to zero or below.
+     * Negative deltas for unknown terms are ignored.
+     *
+     * @param key Normalized term
+     * @param display Text to suggest for the term; only used when the term is created
+     * @param delta Change of the count
+     */
+    public void add(String key, String display, long delta) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int position = 0;
+        while (position < key.length()) {
+            Node child = node.child(key.charAt(position));
+            if (child == null) {
+                if (delta <= 0) {
+                    return;
+                }
+                child = new Node(key.substring(position));
+                node.addChild(child);
+                node = child;
+                path.add(node);
+                position = key.length();
+                break;
+            }
+            int common = commonPrefixLength(child.label, key, position);
+            if (common < child.label.length()) {
+                if (delta <= 0) {
+                    return;
+                }
+                // Split the edge: the shared part becomes a new inner node above the existing child
+                Node split = new Node(child.label.substring(0, common));
+                node.replaceChild(split);
+                child.label = child.label.substring(common);
+                split.children = new Node[] {child};
+                split.subtreeMax = child.subtreeMax;
+                child = split;
+            }
+            node = child;
+            path.add(node);
+            position += common;
+        }
+
+        if (node.value == null) {
+            if (delta <= 0) {
+                return;
+            }
+            node.value = display;
+            node.count = 0;
+            size++;
+        }
+        node.count += delta;
+        if (node.count <= 0) {
+            remove(node, path);
+        }
+        for (int i = path.size() - 1; i >= 0; i--) {
+            path.get(i).updateSubtreeMax();
+        }
+    }
+
+    /**
+     * Returns the most frequent terms starting with the prefix, highest count first and ties by display text
+     *
+     * @param prefix Normalized prefix; empty matches every term
+     * @param limit Maximum number of terms
+     * @param minCount Terms with a lower count are left out
+     */
+    public List<Suggestion> top(String prefix, int limit, long minCount) {
+        List<Suggestion> suggestions = new ArrayList<>(Math.min(limit, 16));
+        Node start = find(prefix, true);
+        if (start == null || limit <= 0) {
+            return suggestions;
+        }
+        long threshold = Math.max(minCount, 1);
+
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(BEST_FIRST);
+        queue.add(new Candidate(start, false, start.subtreeMax));
+        while (!queue.isEmpty() && suggestions.size() < limit) {
+            Candidate candidate = queue.poll();
+            if (candidate.rank < threshold) {
+                break; // Everything still queued ranks lower
+            }
+            if (candidate.terminal) {
+                suggestions.add(new Suggestion(candidate.node.value, candidate.node.count));
+                continue;
+            }
+            if (candidate.node.value != null) {
+                queue.add(new Candidate(candidate.node, true, candidate.node.count));
+            }
+            for (Node child : candidate.node.children) {
+                queue.add(new Candidate(child, false, child.subtreeMax));
+            }
+        }
+        return suggestions;
+    }
+
+    /**
+     * Finds the node for a key, or with {@code prefixMatch} the first node whose path starts with the key
+     */
+    private Node find(String key, boolean prefixMatch) {
+        Node node = root;
+        int position = 0;
+        while (position < key.length()) {
+            Node child = node.child(key.charAt(position));
+            if (child == null) {
+                return null;
+            }
+            int remaining = key.length() - position;
+            if (child.label.length() > remaining) {
+                return prefixMatch && child.label.startsWith(key.substring(position)) ? child : null;
+            }
+            if (!key.regionMatches(position, child.label, 0, child.label.length())) {
+                return null;
+            }
+            node = child;
+            position += child.label.length();
+        }
+        return node;
+    }
+
+    private void remove(Node node, List<Node> path) {
+        node.value = null;
+        node.count = 0;
+        size--;
+        if (node == root) {
+            return;
+        }
+        if (node.children.length == 0) {
+            Node parent = path.get(path.size() - 2);
+            parent.removeChild(node);
+            path.remove(path.size() - 1);
+            if (parent != root && parent.value == null && parent.children.length == 1) {
+                parent.absorbOnlyChild();
+            }
+        } else if (node.children.length == 1) {
+            node.absorbOnlyChild();
+        }
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+        private String label;
+        private Node[] children = NO_CHILDREN; // Sorted by the first character of their label
+        private String value;
+        private long count;
+        private long subtreeMax;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private Node child(char first) {
+            int index = indexOf(first);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private int indexOf(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char candidate = children[middle].label.charAt(0);
+                if (candidate < first) {
+                    low = middle + 1;
+                } else if (candidate > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private void addChild(Node child) {
+            int insertAt = -(indexOf(child.label.charAt(0)) + 1);
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, insertAt);
+            grown[insertAt] = child;
+            System.arraycopy(children, insertAt, grown, insertAt + 1, children.length - insertAt);
+            children = grown;
+        }
+
+        private void replaceChild(Node child) {
+            children[indexOf(child.label.charAt(0))] = child;
+        }
+
+        private void removeChild(Node child) {
+            int index = indexOf(child.label.charAt(0));
+            Node[] shrunk = new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, index);
+            System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+            children = shrunk.length == 0 ? NO_CHILDREN : shrunk;
+        }
+
+        // Merges a non-terminal node with its single child to keep paths compressed
+        private void absorbOnlyChild() {
+            Node child = children[0];
+            label = label + child.label;
+            children = child.children;
+            value = child.value;
+            count = child.count;
+            subtreeMax = child.subtreeMax;
+        }
+
+        private void updateSubtreeMax() {
+            long max = value != null ? count : 0;
+            for (Node child : children) {
+                max = Math.max(max, child.subtreeMax);
+            }
+            subtreeMax = max;
+        }
+    }
+
+    private static final class Candidate {
+        private final Node node;
+        private final boolean terminal; // true: the node's own term, false: the node's subtree
+        private final long rank;
+
+        private Candidate(Node node, boolean terminal, long rank) {
+            this.node = node;
+            this.terminal = terminal;
+            this.rank = rank;
+        }
+    }
+
+    /**
+     * A suggested term with its count
+     */
+    public static final class Suggestion {
+        private final String value;
+        private final long count;
+
+        public Suggestion(String value, long count) {
+            this.value = value;
+            this.count = count;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            return value + " (" + count + ")";
+        }
+    }
+}
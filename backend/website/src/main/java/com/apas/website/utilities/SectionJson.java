@@ -0,0 +1,75 @@
+package com.apas.website.utilities;
+
+import com.apas.website.configurations.JsonCodecs;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Conversions shared by everything that writes portfolio sections, so the stored text and the
+ * section hashes come out the same no matter which endpoint wrote them.
+ */
+public final class SectionJson {
+
+    /**
+     * Canonical text of an absent section; stored as SQL NULL
+     */
+    public static final String NULL_JSON = "null";
+
+    private SectionJson() {
+    }
+
+    /**
+     * Converts a section from a request body into a JSON tree. Clients send sections either as JSON
+     * values or as JSON.stringify'd strings; the latter are parsed so the column holds the actual
+     * object or array instead of a double-encoded string. Strings that are not JSON are kept as JSON strings.
+     */
+    public static JsonNode toNode(JsonCodecs jsonCodecs, Object section) {
+        if (section instanceof JsonNode node) {
+            return node.isTextual() ? toNode(jsonCodecs, node.asText()) : node;
+        }
+        if (section instanceof String text) {
+            try {
+                JsonNode parsed = jsonCodecs.getTreeReader().readValue(text);
+                if (parsed != null && parsed.isContainerNode()) {
+                    return parsed;
+                }
+            } catch (JsonProcessingException e) {
+                // Not JSON, fall through and store it as a plain string
+            }
+            return TextNode.valueOf(text);
+        }
+        return jsonCodecs.getObjectMapper().valueToTree(section);
+    }
+
+    /**
+     * Serializes a section with object properties in sorted order, so equal content always yields equal text and hash
+     */
+    public static String write(JsonCodecs jsonCodecs, JsonNode section) {
+        if (section == null || section.isNull() || section.isMissingNode()) {
+            return NULL_JSON;
+        }
+        try {
+            return jsonCodecs.getCanonicalTreeWriter().writeValueAsString(section);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Portfolio section could not be serialized: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    /**
+     * Hex SHA-256 of the canonical section text, as kept in {@code section_hashes}
+     */
+    public static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+-- Progress of the admin-triggered re-render of generated PDFs. PDFs are processed in pdf_id order and
+-- last_pdf_id is the checkpoint: everything up to it is done, so a stopped or crashed job resumes after it.
+CREATE TABLE IF NOT EXISTS pdf_rerender_jobs (
+    job_id VARCHAR(36) PRIMARY KEY,
+    status VARCHAR(16) NOT NULL,
+    total BIGINT NOT NULL DEFAULT 0,
+    processed BIGINT NOT NULL DEFAULT 0,
+    skipped BIGINT NOT NULL DEFAULT 0,
+    failed BIGINT NOT NULL DEFAULT 0,
+    last_pdf_id VARCHAR(20),
+    started_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    finished_at TIMESTAMP WITH TIME ZONE
+);
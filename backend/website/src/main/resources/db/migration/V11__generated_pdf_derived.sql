@@ -0,0 +1,4 @@
+-- PDFs built from other stored PDFs (stamped copies, bundles) rather than rendered from a portfolio.
+-- They keep the style options and revision of their source, but re-rendering them would drop what was
+-- added on top, so the re-render job leaves them alone.
+ALTER TABLE generated_pdfs ADD COLUMN IF NOT EXISTS derived BOOLEAN NOT NULL DEFAULT FALSE;
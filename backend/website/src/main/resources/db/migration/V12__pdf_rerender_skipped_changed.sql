@@ -0,0 +1,3 @@
+-- PDFs generated before revisions were recorded whose portfolio has changed since: the content they show is
+-- no longer known, so the re-render job leaves them alone and counts them separately
+ALTER TABLE pdf_rerender_jobs ADD COLUMN IF NOT EXISTS skipped_changed BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,56 @@
+-- Baseline schema, matching what ddl-auto=update produced for the entity model.
+-- Databases that already have these tables are baselined at version 1 and skip this script.
+
+CREATE TABLE users (
+    user_id      VARCHAR(20)  NOT NULL,
+    first_name   VARCHAR(255),
+    last_name    VARCHAR(255),
+    email        VARCHAR(255),
+    password     VARCHAR(255),
+    isoauth2user BOOLEAN,
+    CONSTRAINT users_pkey PRIMARY KEY (user_id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE portfolios (
+    portfolio_id           VARCHAR(25)  NOT NULL,
+    title                  VARCHAR(255),
+    personal_information   TEXT,
+    employment_history     TEXT,
+    educational_background TEXT,
+    skills                 TEXT,
+    project_showcases      TEXT,
+    user_id                VARCHAR(20)  NOT NULL,
+    created_at             TIMESTAMP(6) NOT NULL,
+    updated_at             TIMESTAMP(6) NOT NULL,
+    CONSTRAINT portfolios_pkey PRIMARY KEY (portfolio_id),
+    CONSTRAINT fk_portfolios_user FOREIGN KEY (user_id) REFERENCES users (user_id)
+);
+
+CREATE TABLE generated_pdfs (
+    pdf_id                   VARCHAR(20)              NOT NULL,
+    portfolio_id             VARCHAR(25)              NOT NULL,
+    user_id                  VARCHAR(20)              NOT NULL,
+    custom_display_name      VARCHAR(255),
+    original_portfolio_title VARCHAR(255),
+    filename                 VARCHAR(255)             NOT NULL,
+    generated_at             TIMESTAMP WITH TIME ZONE NOT NULL,
+    file_size_bytes          BIGINT,
+    pdf_content              BYTEA,
+    storage_path             VARCHAR(255),
+    style_options            JSONB,
+    CONSTRAINT generated_pdfs_pkey PRIMARY KEY (pdf_id),
+    CONSTRAINT fk_generated_pdfs_portfolio FOREIGN KEY (portfolio_id) REFERENCES portfolios (portfolio_id),
+    CONSTRAINT fk_generated_pdfs_user FOREIGN KEY (user_id) REFERENCES users (user_id)
+);
+
+CREATE TABLE refresh_tokens (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    token       VARCHAR(255)                NOT NULL,
+    expiry_date TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    user_id     VARCHAR(20),
+    revoked     BOOLEAN                     NOT NULL,
+    CONSTRAINT refresh_tokens_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_refresh_tokens_token UNIQUE (token),
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (user_id)
+);
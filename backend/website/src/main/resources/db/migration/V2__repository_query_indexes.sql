@@ -0,0 +1,30 @@
+-- Indexes backing the hot repository queries. IF NOT EXISTS keeps this safe on databases
+-- that were baselined from an existing ddl-auto=update schema.
+
+-- GeneratedPdfRepository.findByPortfolioPortfolioIdAndFilename / existsBy... / deleteByPortfolioIdAndFilename
+CREATE INDEX IF NOT EXISTS idx_generated_pdfs_portfolio_filename
+    ON generated_pdfs (portfolio_id, filename);
+
+-- GeneratedPdfRepository.findByUserUserIdOrderByGeneratedAtDesc (the "My PDFs" list)
+CREATE INDEX IF NOT EXISTS idx_generated_pdfs_user_generated_at
+    ON generated_pdfs (user_id, generated_at DESC);
+
+-- Retention pin flag; added here rather than in V1 because baselined databases never run V1
+ALTER TABLE generated_pdfs ADD COLUMN IF NOT EXISTS pinned BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- GeneratedPdfRepository.findPurgeCandidates: per-portfolio window over unpinned PDFs, newest first
+CREATE INDEX IF NOT EXISTS idx_generated_pdfs_unpinned_portfolio_generated_at
+    ON generated_pdfs (portfolio_id, generated_at DESC)
+    WHERE pinned = FALSE;
+
+-- PortfolioRepository.findByUserUserId and the export's keyset stream (user_id, portfolio_id > ?)
+CREATE INDEX IF NOT EXISTS idx_portfolios_user_portfolio
+    ON portfolios (user_id, portfolio_id);
+
+-- RefreshTokenRepository.findAllByUserAndRevokedFalse / revokeAllUserTokens
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user_revoked
+    ON refresh_tokens (user_id, revoked);
+
+-- UserRepository.existsByEmail compares case-insensitively
+CREATE INDEX IF NOT EXISTS idx_users_lower_email
+    ON users (lower(email));
@@ -0,0 +1,47 @@
+-- Portfolio sections move from TEXT to JSONB. Clients used to send each section as a
+-- JSON.stringify'd string, so many rows hold a JSON string whose content is the actual
+-- object or array; those are unwrapped one level. Text that is not JSON at all is kept
+-- as a JSON string rather than failing the migration.
+
+CREATE OR REPLACE FUNCTION folioflow_section_to_jsonb(section TEXT) RETURNS JSONB
+LANGUAGE plpgsql IMMUTABLE AS $$
+DECLARE
+    parsed JSONB;
+BEGIN
+    IF section IS NULL THEN
+        RETURN NULL;
+    END IF;
+    BEGIN
+        parsed := section::jsonb;
+    EXCEPTION WHEN others THEN
+        RETURN to_jsonb(section);
+    END;
+    IF jsonb_typeof(parsed) = 'string' THEN
+        BEGIN
+            RETURN (parsed #>> '{}')::jsonb;
+        EXCEPTION WHEN others THEN
+            RETURN parsed;
+        END;
+    END IF;
+    RETURN parsed;
+END;
+$$;
+
+ALTER TABLE portfolios
+    ALTER COLUMN personal_information   TYPE JSONB USING folioflow_section_to_jsonb(personal_information),
+    ALTER COLUMN employment_history     TYPE JSONB USING folioflow_section_to_jsonb(employment_history),
+    ALTER COLUMN educational_background TYPE JSONB USING folioflow_section_to_jsonb(educational_background),
+    ALTER COLUMN skills                 TYPE JSONB USING folioflow_section_to_jsonb(skills),
+    ALTER COLUMN project_showcases      TYPE JSONB USING folioflow_section_to_jsonb(project_showcases);
+
+DROP FUNCTION folioflow_section_to_jsonb(TEXT);
+
+-- jsonb_path_ops indexes serve containment (@>) and jsonpath (@?, @@) lookups into the list sections
+CREATE INDEX IF NOT EXISTS idx_portfolios_employment_history_gin
+    ON portfolios USING GIN (employment_history jsonb_path_ops);
+CREATE INDEX IF NOT EXISTS idx_portfolios_educational_background_gin
+    ON portfolios USING GIN (educational_background jsonb_path_ops);
+CREATE INDEX IF NOT EXISTS idx_portfolios_skills_gin
+    ON portfolios USING GIN (skills jsonb_path_ops);
+CREATE INDEX IF NOT EXISTS idx_portfolios_project_showcases_gin
+    ON portfolios USING GIN (project_showcases jsonb_path_ops);
@@ -0,0 +1,3 @@
+-- Content hash per portfolio section, written together with the section. Rows without hashes
+-- simply get them on their next write.
+ALTER TABLE portfolios ADD COLUMN IF NOT EXISTS section_hashes JSONB;
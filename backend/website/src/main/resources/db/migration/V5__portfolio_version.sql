@@ -0,0 +1,2 @@
+-- Optimistic locking version for portfolios, exposed to clients as the ETag
+ALTER TABLE portfolios ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
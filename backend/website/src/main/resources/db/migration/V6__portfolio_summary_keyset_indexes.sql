@@ -0,0 +1,7 @@
+-- Keyset pagination of portfolio summaries: (user, sort value, id) in both supported sort orders.
+-- Both indexes are scanned forwards or backwards for ascending and descending pages.
+CREATE INDEX IF NOT EXISTS idx_portfolios_user_updated_at
+    ON portfolios (user_id, updated_at, portfolio_id);
+
+CREATE INDEX IF NOT EXISTS idx_portfolios_user_title
+    ON portfolios (user_id, title, portfolio_id);
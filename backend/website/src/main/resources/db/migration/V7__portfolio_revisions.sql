@@ -0,0 +1,17 @@
+-- Revision history of portfolios. Revision numbers are the portfolio version that was written.
+-- A row either holds the full document (snapshot) or a JSON Patch (RFC 6902) against the previous
+-- revision; snapshots are written at a fixed interval so rebuilding a revision replays a bounded number of patches.
+CREATE TABLE IF NOT EXISTS portfolio_revisions (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    portfolio_id VARCHAR(25)              NOT NULL,
+    revision     BIGINT                   NOT NULL,
+    snapshot     BOOLEAN                  NOT NULL,
+    content      JSONB                    NOT NULL,
+    created_at   TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT portfolio_revisions_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_portfolio_revisions_portfolio_revision UNIQUE (portfolio_id, revision),
+    CONSTRAINT fk_portfolio_revisions_portfolio FOREIGN KEY (portfolio_id) REFERENCES portfolios (portfolio_id) ON DELETE CASCADE
+);
+
+-- Portfolio revision each PDF was rendered from; NULL for PDFs generated before revisions were recorded
+ALTER TABLE generated_pdfs ADD COLUMN IF NOT EXISTS portfolio_revision BIGINT;
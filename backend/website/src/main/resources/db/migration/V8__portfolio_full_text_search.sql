@@ -0,0 +1,16 @@
+-- Full-text search over portfolios. Only portfolios their owners opted in with "discoverable" are searchable.
+ALTER TABLE portfolios ADD COLUMN IF NOT EXISTS discoverable BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Maintained by PostgreSQL on every insert and update, so no write path can forget it. Only string values
+-- of the sections are indexed (not keys), and personal information is left out on purpose.
+-- Weights: A = title and skills, B = employment history, C = projects and education.
+ALTER TABLE portfolios ADD COLUMN IF NOT EXISTS search_vector TSVECTOR GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+    setweight(jsonb_to_tsvector('english', coalesce(skills, '[]'::jsonb), '["string"]'), 'A') ||
+    setweight(jsonb_to_tsvector('english', coalesce(employment_history, '[]'::jsonb), '["string"]'), 'B') ||
+    setweight(jsonb_to_tsvector('english', coalesce(project_showcases, '[]'::jsonb), '["string"]'), 'C') ||
+    setweight(jsonb_to_tsvector('english', coalesce(educational_background, '[]'::jsonb), '["string"]'), 'C')
+) STORED;
+
+-- Partial, so private portfolios neither bloat the index nor show up in it
+CREATE INDEX IF NOT EXISTS idx_portfolios_search_vector ON portfolios USING GIN (search_vector) WHERE discoverable;
@@ -0,0 +1,5 @@
+-- Unguessable token of a portfolio's public share link; NULL while the portfolio is not shared.
+ALTER TABLE portfolios ADD COLUMN IF NOT EXISTS share_token VARCHAR(64);
+
+-- Partial, so the many unshared portfolios take no space in it; also resolves /share/{token} lookups
+CREATE UNIQUE INDEX IF NOT EXISTS idx_portfolios_share_token ON portfolios (share_token) WHERE share_token IS NOT NULL;
@@ -0,0 +1,156 @@
+package com.apas.website.configurations;
+
+import com.apas.website.entities.models.request.PdfGenerationRequest;
+import com.apas.website.entities.models.response.GeneratedPdfItemResponse;
+import com.apas.website.entities.models.response.PdfStyleOptionsResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the portfolio read and write paths before and after the tuned JSON layer: a plain
+ * {@link ObjectMapper} called ad hoc (readValue into Object[], convertValue per entry, a fresh sorted writer
+ * per call) against the Blackbird mapper with the prebuilt {@link JsonCodecs}. Both sides must produce the
+ * same result; the throughput of each is printed.
+ * <p>
+ * Not part of the regular build: {@code mvn test -Dgroups=benchmark -DexcludedGroups=none}
+ */
+@Tag("benchmark")
+class JsonCodecsBenchmarkTests {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final long ROUND_NANOS = 500_000_000L;
+
+    private static ObjectMapper plainMapper;
+    private static JsonCodecs jsonCodecs;
+    private static String employmentJson;
+    private static JsonNode sectionsTree;
+    private static List<GeneratedPdfItemResponse> pdfItems;
+    private static PdfGenerationRequest pdfOptions;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        plainMapper = new ObjectMapper();
+        plainMapper.registerModule(new JavaTimeModule());
+        plainMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        jsonCodecs = new JsonCodecs(new JacksonConfig().objectMapper());
+
+        StringBuilder employment = new StringBuilder("[");
+        for (int i = 0; i < 12; i++) {
+            employment.append(i > 0 ? "," : "")
+                    .append("{\"company\":\"Company ").append(i).append("\",\"position\":\"Senior Engineer\",")
+                    .append("\"startDate\":\"2015-01\",\"endDate\":\"2018-06\",")
+                    .append("\"description\":\"Built services\\nLed a team of five\\nCut latency by half\"}");
+        }
+        employmentJson = employment.append("]").toString();
+        sectionsTree = plainMapper.readTree("{\"skills\":[{\"items\":[{\"name\":\"Java\"},{\"name\":\"SQL\"}],\"category\":\"Languages\"}],"
+                                            + "\"employmentHistory\":" + employmentJson + "}");
+
+        pdfOptions = new PdfGenerationRequest("#2d5f9a", "#4a7fb5", "Arial", true, "A4", "Client X");
+        pdfItems = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            pdfItems.add(new GeneratedPdfItemResponse("PDF-0000-" + i, "PORT-0000-0001", "Draft " + i, "Portfolio",
+                    "portfolio_" + i + ".pdf", "/api/portfolios/PORT-0000-0001/download-pdf/portfolio_" + i + ".pdf",
+                    Instant.parse("2025-01-01T00:00:00Z"), 102_400L,
+                    new PdfStyleOptionsResponse("#2d5f9a", "#4a7fb5", "Arial", true, "A4"), false, (long) i));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sectionReadPath() throws Exception {
+        Callable<Object> before = () -> {
+            Object[] entries = plainMapper.readValue(employmentJson, Object[].class);
+            List<Map<String, Object>> maps = new ArrayList<>();
+            for (Object entry : entries) {
+                maps.add(plainMapper.convertValue(entry, Map.class));
+            }
+            return maps;
+        };
+        Callable<Object> after = () -> jsonCodecs.getSectionListReader().readValue(employmentJson);
+
+        assertThat(after.call()).isEqualTo(before.call());
+        compare("section read (PDF rendering)", before, after);
+    }
+
+    @Test
+    void canonicalSectionWritePath() throws Exception {
+        Callable<Object> before = () -> plainMapper.writer().with(JsonNodeFeature.WRITE_PROPERTIES_SORTED).writeValueAsString(sectionsTree);
+        Callable<Object> after = () -> jsonCodecs.getCanonicalTreeWriter().writeValueAsString(sectionsTree);
+
+        assertThat(after.call()).isEqualTo(before.call());
+        compare("canonical section write", before, after);
+    }
+
+    @Test
+    void styleOptionsRoundTrip() throws Exception {
+        ObjectMapper lenientMapper = plainMapper.copy().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        Callable<Object> before = () -> {
+            Map<String, Object> stored = plainMapper.convertValue(pdfOptions, new TypeReference<Map<String, Object>>() {});
+            return lenientMapper.convertValue(stored, PdfStyleOptionsResponse.class);
+        };
+        Callable<Object> after = () -> {
+            String stored = jsonCodecs.getPdfGenerationRequestWriter().writeValueAsString(pdfOptions);
+            return jsonCodecs.getPdfStyleOptionsReader().readValue(stored);
+        };
+
+        assertThat(after.call()).isEqualTo(before.call());
+        compare("PDF style options store/load", before, after);
+    }
+
+    @Test
+    void generatedPdfListResponse() throws Exception {
+        Callable<Object> before = () -> plainMapper.writeValueAsString(pdfItems);
+        Callable<Object> after = () -> jsonCodecs.getObjectMapper().writeValueAsString(pdfItems);
+
+        assertThat(after.call()).isEqualTo(before.call());
+        compare("generated PDF list response", before, after);
+    }
+
+    private static void compare(String name, Callable<Object> before, Callable<Object> after) throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            measure(before);
+            measure(after);
+        }
+        double beforeOps = 0;
+        double afterOps = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            beforeOps = Math.max(beforeOps, measure(before));
+            afterOps = Math.max(afterOps, measure(after));
+        }
+        System.out.printf("%-32s before: %,12.0f ops/s  after: %,12.0f ops/s  (%.2fx)%n",
+                          name, beforeOps, afterOps, afterOps / beforeOps);
+    }
+
+    private static double measure(Callable<Object> operation) throws Exception {
+        long operations = 0;
+        long startedAt = System.nanoTime();
+        long elapsed;
+        Object sink = null;
+        do {
+            for (int i = 0; i < 100; i++) {
+                sink = operation.call();
+            }
+            operations += 100;
+            elapsed = System.nanoTime() - startedAt;
+        } while (elapsed < ROUND_NANOS);
+        assertThat(sink).isNotNull();
+        return operations * 1e9 / elapsed;
+    }
+}
@@ -0,0 +1,228 @@
+package com.apas.website.repositories;
+
+import com.apas.website.repositories.PortfolioSummaryRepository.SummarySort;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations against a throwaway PostgreSQL, calls the hot repository methods and checks
+ * that the SQL they actually issue is served by the migration-defined indexes. Each test runs in one
+ * transaction, so the per-transaction scan counters of PostgreSQL show which indexes were used and
+ * whether the table was scanned sequentially. Sequential scans are disabled so the planner picks an index
+ * whenever one is usable, independent of the tiny test data set. Also checks that a database created before
+ * Flyway was introduced (the V1 schema) is baselined and upgraded cleanly.
+ * Skipped when no Docker daemon is available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class RepositoryIndexUsageTests {
+
+    private static final String SHARE_TOKEN = "q3Xv0d7nF1c8mZk2Yp5sWb9tLr4hGj6aEo0uNi3yTxQ";
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GeneratedPdfRepository generatedPdfRepository;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    private PortfolioRevisionRepository portfolioRevisionRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.execute("INSERT INTO users (user_id, first_name, email) VALUES ('USER-0001', 'Test', 'test@example.com')");
+        jdbcTemplate.execute("INSERT INTO portfolios (portfolio_id, title, user_id, created_at, updated_at, discoverable, share_token) " +
+                             "VALUES ('PORT-0001', 'Java developer', 'USER-0001', now(), now(), true, '" + SHARE_TOKEN + "')");
+        jdbcTemplate.execute("INSERT INTO generated_pdfs (pdf_id, portfolio_id, user_id, filename, generated_at) " +
+                             "VALUES ('PDF-0001', 'PORT-0001', 'USER-0001', 'portfolio.pdf', now())");
+        jdbcTemplate.execute("INSERT INTO refresh_tokens (token, expiry_date, user_id, revoked) " +
+                             "VALUES ('token', now(), 'USER-0001', false)");
+        jdbcTemplate.execute("INSERT INTO portfolio_revisions (portfolio_id, revision, snapshot, content, created_at) " +
+                             "VALUES ('PORT-0001', 0, true, '{}', now())");
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    @Test
+    void findPdfByPortfolioAndFilenameUsesIndex() {
+        assertServedBy("generated_pdfs", () -> generatedPdfRepository.findByPortfolioPortfolioIdAndFilename("PORT-0001", "portfolio.pdf"),
+                       "idx_generated_pdfs_portfolio_filename");
+    }
+
+    @Test
+    void findPdfsByUserOrderedByGeneratedAtUsesIndex() {
+        assertServedBy("generated_pdfs", () -> generatedPdfRepository.findByUserUserIdOrderByGeneratedAtDesc("USER-0001"),
+                       "idx_generated_pdfs_user_generated_at");
+    }
+
+    @Test
+    void purgeRangeAndCandidatesUsePartialIndex() {
+        OffsetDateTime cutoff = OffsetDateTime.now(ZoneOffset.UTC).minusDays(180);
+        assertServedBy("generated_pdfs", () -> generatedPdfRepository.findPurgeRangeEnd("", 200),
+                       "idx_generated_pdfs_unpinned_portfolio_generated_at");
+        assertServedBy("generated_pdfs", () -> generatedPdfRepository.findPurgeCandidates("", "PORT-0001", 20, cutoff, 200),
+                       "idx_generated_pdfs_unpinned_portfolio_generated_at");
+    }
+
+    @Test
+    void findPortfoliosByUserUsesIndex() {
+        assertServedBy("portfolios", () -> portfolioRepository.findByUserUserId("USER-0001"),
+                       "idx_portfolios_user_portfolio");
+    }
+
+    @Test
+    void portfolioSummaryKeysetPageUsesIndex() {
+        assertServedBy("portfolios", () -> portfolioRepository.findSummaries(
+                               "USER-0001", SummarySort.UPDATED_AT, false, LocalDateTime.now(), "PORT-0001", 51),
+                       "idx_portfolios_user_updated_at");
+    }
+
+    @Test
+    void revisionReconstructionChainUsesUniqueIndex() {
+        assertServedBy("portfolio_revisions", () -> portfolioRevisionRepository.findReconstructionChain("PORT-0001", 5),
+                       "uk_portfolio_revisions_portfolio_revision");
+    }
+
+    @Test
+    void findActiveRefreshTokensByUserUsesIndex() {
+        assertServedBy("refresh_tokens", () -> refreshTokenRepository.findAllByUserAndRevokedFalse(
+                               userRepository.getReferenceById("USER-0001")),
+                       "idx_refresh_tokens_user_revoked");
+    }
+
+    @Test
+    void sectionContainmentUsesIndex() {
+        // Either the owner's portfolios or the containment GIN indexes narrow the rows, whichever is cheaper
+        assertServedBy("portfolios", () -> portfolioRepository.findIdsByUserIdAndSectionsContaining(
+                               "USER-0001", "[{\"category\": \"Languages\"}]"),
+                       "idx_portfolios_user_portfolio", "idx_portfolios_employment_history_gin",
+                       "idx_portfolios_educational_background_gin", "idx_portfolios_skills_gin",
+                       "idx_portfolios_project_showcases_gin");
+    }
+
+    @Test
+    void fullTextSearchUsesPartialGinIndex() {
+        assertServedBy("portfolios", () -> portfolioRepository.searchDiscoverable("java developer", 2000, 21, 0),
+                       "idx_portfolios_search_vector");
+    }
+
+    @Test
+    void shareTokenLookupUsesPartialUniqueIndex() {
+        assertServedBy("portfolios", () -> portfolioRepository.findPortfolioIdByShareToken(SHARE_TOKEN),
+                       "idx_portfolios_share_token");
+    }
+
+    @Test
+    void existsByEmailUsesLowerEmailIndex() {
+        assertServedBy("users", () -> userRepository.existsByEmail("Test@Example.com"),
+                       "idx_users_lower_email");
+    }
+
+    @Test
+    void findByEmailUsesUniqueConstraintIndex() {
+        assertServedBy("users", () -> userRepository.findByEmail("test@example.com"),
+                       "uk_users_email");
+    }
+
+    @Test
+    void baselinedDatabaseUpgradesToCurrentSchema() throws SQLException, IOException {
+        String legacyUrl = postgres.getJdbcUrl().replace("/" + postgres.getDatabaseName(), "/legacy");
+        try (Connection connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE legacy");
+        }
+        // The schema ddl-auto=update produced before the migrations existed, without a Flyway history
+        String baseline = new ClassPathResource("db/migration/V1__baseline.sql").getContentAsString(StandardCharsets.UTF_8);
+        try (Connection connection = DriverManager.getConnection(legacyUrl, postgres.getUsername(), postgres.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute(baseline);
+        }
+
+        MigrateResult result = Flyway.configure()
+                .dataSource(legacyUrl, postgres.getUsername(), postgres.getPassword())
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        assertThat(result.success).isTrue();
+        assertThat(result.migrationsExecuted).isGreaterThan(0);
+        try (Connection connection = DriverManager.getConnection(legacyUrl, postgres.getUsername(), postgres.getPassword());
+             Statement statement = connection.createStatement();
+             ResultSet columns = statement.executeQuery("SELECT count(*) FROM information_schema.columns " +
+                                                        "WHERE table_name = 'generated_pdfs' AND column_name IN ('pinned', 'derived')")) {
+            columns.next();
+            assertThat(columns.getInt(1)).isEqualTo(2);
+        }
+    }
+
+    /**
+     * Calls a repository method and checks that it scanned at least one of the given indexes and never read
+     * {@code table} sequentially
+     */
+    private void assertServedBy(String table, Runnable call, String... indexes) {
+        long tableScans = scans(table);
+        Map<String, Long> indexScans = Arrays.stream(indexes).collect(Collectors.toMap(Function.identity(), this::scans));
+
+        call.run();
+
+        assertThat(scans(table)).as("sequential scans of %s", table).isEqualTo(tableScans);
+        assertThat(indexScans.entrySet())
+                .as("scans of %s", String.join(" or ", indexes))
+                .anyMatch(index -> scans(index.getKey()) > index.getValue());
+    }
+
+    // For a table this counts sequential scans, for an index index scans, both within the current transaction
+    private long scans(String relation) {
+        return jdbcTemplate.queryForObject("SELECT pg_stat_get_xact_numscans(CAST(? AS regclass))", Long.class, relation);
+    }
+}
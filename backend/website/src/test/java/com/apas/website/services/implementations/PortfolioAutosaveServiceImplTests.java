@@ -0,0 +1,195 @@
+package com.apas.website.services.implementations;
+
+import com.apas.website.configurations.JacksonConfig;
+import com.apas.website.configurations.JsonCodecs;
+import com.apas.website.entities.PortfolioSection;
+import com.apas.website.entities.models.request.UpdatePortfolioRequest;
+import com.apas.website.entities.models.response.PortfolioAutosaveResponse;
+import com.apas.website.services.PortfolioService;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs {@link PortfolioAutosaveServiceImpl} against a journal in a temporary directory and a stubbed
+ * {@link PortfolioService} that keeps the personal information section of each portfolio in a map. A
+ * restart is simulated by opening a second service on the same journal without flushing the first one.
+ */
+class PortfolioAutosaveServiceImplTests {
+
+    // Long enough that only explicit flushes and recovered drafts are written during a test
+    private static final long FLUSH_DELAY_MS = 60_000;
+    private static final long IDLE_MS = 60_000;
+
+    @TempDir
+    Path directory;
+
+    private final JsonCodecs jsonCodecs = new JsonCodecs(new JacksonConfig().objectMapper());
+    private final Map<String, JsonNode> stored = new HashMap<>();
+    private PortfolioService portfolioService;
+    private Path journalPath;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        journalPath = directory.resolve("autosave.journal");
+        portfolioService = mock(PortfolioService.class);
+        when(portfolioService.getPortfolioSectionJson(any(), eq(PortfolioSection.PERSONAL_INFORMATION), isNull()))
+                .thenAnswer(invocation -> {
+                    JsonNode section = stored.get(invocation.<String>getArgument(0));
+                    if (section == null) {
+                        throw new EntityNotFoundException("Portfolio not found");
+                    }
+                    return jsonCodecs.getTreeWriter().writeValueAsString(section);
+                });
+        when(portfolioService.updatePortfolio(any(), any(), isNull())).thenAnswer(invocation -> {
+            UpdatePortfolioRequest request = invocation.getArgument(1);
+            stored.put(invocation.getArgument(0), (JsonNode) request.getPersonalInformation());
+            return null;
+        });
+        stored.put("PORT-0001", json("{\"fullName\": \"Ada\"}"));
+        stored.put("PORT-0002", json("{\"fullName\": \"Grace\"}"));
+    }
+
+    @Test
+    void buffersEditsAndWritesThemInOneUpdate() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PortfolioAutosaveServiceImpl service = open(meterRegistry);
+
+        service.autosave("PORT-0001", json("{\"personalInformation\": {\"phone\": \"1\"}}"));
+        service.autosave("PORT-0001", json("{\"personalInformation\": {\"email\": \"ada@example.com\"}}"));
+        PortfolioAutosaveResponse response = service.autosave("PORT-0001", json("{\"personalInformation\": {\"phone\": \"2\"}}"));
+
+        assertThat(response.isBuffered()).isTrue();
+        assertThat(response.getPendingEdits()).isEqualTo(3);
+        verify(portfolioService, never()).updatePortfolio(any(), any(), any());
+
+        assertThat(service.flushPending("PORT-0001")).isTrue();
+        assertThat(service.flushPending("PORT-0001")).isFalse();
+        verify(portfolioService, times(1)).updatePortfolio(eq("PORT-0001"), any(), isNull());
+        assertThat(stored.get("PORT-0001")).isEqualTo(json("{\"fullName\": \"Ada\", \"phone\": \"2\", \"email\": \"ada@example.com\"}"));
+        assertThat(meterRegistry.counter("portfolio.autosave.edits").count()).isEqualTo(3);
+        assertThat(meterRegistry.counter("portfolio.autosave.writes").count()).isEqualTo(1);
+    }
+
+    @Test
+    void replaysOnlyEditsAfterTheLastFlushedMarker() throws Exception {
+        // PORT-0001's first edit is already stored; the journal ends in a line torn by a crash
+        stored.put("PORT-0001", json("{\"fullName\": \"Ada\", \"phone\": \"1\"}"));
+        Files.writeString(journalPath, String.join("\n",
+                "{\"portfolioId\":\"PORT-0001\",\"patch\":{\"personalInformation\":{\"phone\":\"1\"}}}",
+                "{\"portfolioId\":\"PORT-0001\",\"flushed\":true}",
+                "{\"portfolioId\":\"PORT-0001\",\"patch\":{\"personalInformation\":{\"email\":\"ada@example.com\"}}}",
+                "{\"portfolioId\":\"PORT-0002\",\"patch\":{\"personalInformation\":{\"phone\":\"3\"}}}",
+                "{\"portfolioId\":\"PORT-0002\",\"flushed\":true}",
+                "{\"portfolioId\":\"PORT-0001\",\"patch\":{\"personalInfo"), StandardCharsets.UTF_8);
+
+        PortfolioAutosaveServiceImpl service = open(new SimpleMeterRegistry());
+        service.flushDueDrafts();
+
+        verify(portfolioService, times(1)).updatePortfolio(any(), any(), any());
+        assertThat(stored.get("PORT-0001")).isEqualTo(json("{\"fullName\": \"Ada\", \"phone\": \"1\", \"email\": \"ada@example.com\"}"));
+        assertThat(stored.get("PORT-0002")).isEqualTo(json("{\"fullName\": \"Grace\"}"));
+        assertThat(Files.size(journalPath)).isZero();
+    }
+
+    @Test
+    void entryAfterTornLineIsReadableOnTheNextStart() throws Exception {
+        Files.writeString(journalPath, "{\"portfolioId\":\"PORT-0002\",\"patch\":{\"personalInfo", StandardCharsets.UTF_8);
+
+        PortfolioAutosaveServiceImpl crashed = open(new SimpleMeterRegistry());
+        crashed.autosave("PORT-0001", json("{\"personalInformation\": {\"phone\": \"1\"}}"));
+
+        open(new SimpleMeterRegistry()).flushDueDrafts();
+
+        assertThat(stored.get("PORT-0001")).isEqualTo(json("{\"fullName\": \"Ada\", \"phone\": \"1\"}"));
+        assertThat(stored.get("PORT-0002")).isEqualTo(json("{\"fullName\": \"Grace\"}"));
+    }
+
+    @Test
+    void restartLosesNoEditsAndRewritesNoneThatWereStored() throws Exception {
+        PortfolioAutosaveServiceImpl crashed = open(new SimpleMeterRegistry());
+        crashed.autosave("PORT-0001", json("{\"personalInformation\": {\"phone\": \"1\"}}"));
+        crashed.autosave("PORT-0002", json("{\"personalInformation\": {\"phone\": \"2\"}}"));
+        crashed.flushPending("PORT-0002");
+        crashed.autosave("PORT-0001", json("{\"personalInformation\": {\"email\": \"ada@example.com\"}}"));
+        verify(portfolioService, times(1)).updatePortfolio(any(), any(), any());
+
+        // Stored outside the draft after its flush; replaying the already written edit must not undo this
+        stored.put("PORT-0002", json("{\"fullName\": \"Grace Hopper\", \"phone\": \"2\"}"));
+        PortfolioAutosaveServiceImpl restarted = open(new SimpleMeterRegistry());
+        restarted.flushDueDrafts();
+
+        verify(portfolioService, times(1)).updatePortfolio(eq("PORT-0001"), any(), isNull());
+        verify(portfolioService, times(1)).updatePortfolio(eq("PORT-0002"), any(), isNull());
+        assertThat(stored.get("PORT-0001")).isEqualTo(json("{\"fullName\": \"Ada\", \"phone\": \"1\", \"email\": \"ada@example.com\"}"));
+        assertThat(stored.get("PORT-0002")).isEqualTo(json("{\"fullName\": \"Grace Hopper\", \"phone\": \"2\"}"));
+        assertThat(Files.size(journalPath)).isZero();
+    }
+
+    @Test
+    void truncatesJournalOnlyWhenNoDraftIsPending() throws Exception {
+        PortfolioAutosaveServiceImpl service = open(new SimpleMeterRegistry());
+        service.autosave("PORT-0001", json("{\"personalInformation\": {\"phone\": \"1\"}}"));
+        service.autosave("PORT-0002", json("{\"personalInformation\": {\"phone\": \"2\"}}"));
+
+        service.flushPending("PORT-0001");
+        service.flushDueDrafts();
+        assertThat(journalLines()).anyMatch(line -> line.contains("PORT-0002"));
+
+        service.flushPending("PORT-0002");
+        service.flushDueDrafts();
+        assertThat(Files.size(journalPath)).isZero();
+    }
+
+    @Test
+    void dropsDraftOfDeletedPortfolio() throws Exception {
+        PortfolioAutosaveServiceImpl service = open(new SimpleMeterRegistry());
+        service.autosave("PORT-0001", json("{\"personalInformation\": {\"phone\": \"1\"}}"));
+        doThrow(new EntityNotFoundException("Portfolio not found"))
+                .when(portfolioService).updatePortfolio(eq("PORT-0001"), any(), isNull());
+
+        assertThat(service.flushPending("PORT-0001")).isFalse();
+        service.flushDueDrafts();
+
+        assertThat(Files.size(journalPath)).isZero();
+        open(new SimpleMeterRegistry()).flushDueDrafts();
+        verify(portfolioService, times(1)).updatePortfolio(any(), any(), any());
+    }
+
+    private PortfolioAutosaveServiceImpl open(SimpleMeterRegistry meterRegistry) {
+        PortfolioAutosaveServiceImpl service = new PortfolioAutosaveServiceImpl(portfolioService, jsonCodecs, meterRegistry,
+                FLUSH_DELAY_MS, IDLE_MS, 100, false, journalPath.toString());
+        service.openJournal();
+        return service;
+    }
+
+    private List<String> journalLines() throws IOException {
+        return Files.readAllLines(journalPath, StandardCharsets.UTF_8);
+    }
+
+    private JsonNode json(String value) throws IOException {
+        return jsonCodecs.getTreeReader().readValue(value);
+    }
+}
@@ -0,0 +1,201 @@
+package com.apas.website.services.implementations;
+
+import com.apas.website.configurations.JacksonConfig;
+import com.apas.website.configurations.JsonCodecs;
+import com.apas.website.entities.PortfolioRevision;
+import com.apas.website.entities.models.response.PortfolioRevisionResponse;
+import com.apas.website.repositories.PortfolioRevisionRepository;
+import com.apas.website.repositories.PortfolioRevisionRepository.RevisionHeads;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Records revisions through {@link PortfolioRevisionServiceImpl} into an in-memory stand-in for the revision
+ * table and checks that every recorded revision is rebuilt exactly from its snapshot and patches.
+ */
+class PortfolioRevisionServiceImplTests {
+
+    private static final String PORTFOLIO_ID = "PORT-0001";
+    private static final int SNAPSHOT_INTERVAL = 3;
+
+    private final List<PortfolioRevision> rows = new ArrayList<>();
+    private PortfolioRevisionServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        PortfolioRevisionRepository repository = mock(PortfolioRevisionRepository.class);
+        when(repository.save(any(PortfolioRevision.class))).thenAnswer(invocation -> {
+            PortfolioRevision row = invocation.getArgument(0);
+            rows.add(row);
+            return row;
+        });
+        when(repository.findHeadsByPortfolioId(anyString())).thenAnswer(invocation -> heads(invocation.getArgument(0)));
+        when(repository.findReconstructionChain(anyString(), anyLong()))
+                .thenAnswer(invocation -> chain(invocation.getArgument(0), invocation.getArgument(1)));
+        service = new PortfolioRevisionServiceImpl(repository, new JsonCodecs(new JacksonConfig().objectMapper()), SNAPSHOT_INTERVAL);
+    }
+
+    @Test
+    void rebuildsEveryRecordedRevision() {
+        int revisions = 10;
+        service.recordInitialRevision(PORTFOLIO_ID, 0, document(0));
+        for (int k = 1; k <= revisions; k++) {
+            service.recordRevision(PORTFOLIO_ID, k - 1, document(k - 1), k, document(k));
+        }
+
+        for (int k = 0; k <= revisions; k++) {
+            assertThat(service.getRevisionDocument(PORTFOLIO_ID, k)).as("revision %d", k).isEqualTo(document(k));
+        }
+        PortfolioRevisionResponse latest = service.getRevision(PORTFOLIO_ID, revisions);
+        assertThat(latest.getTitle()).isEqualTo("Portfolio " + revisions);
+        assertThat(latest.getSkills()).isEqualTo(document(revisions).get("skills"));
+    }
+
+    @Test
+    void writesSnapshotEverySnapshotIntervalAndPatchesInBetween() {
+        service.recordInitialRevision(PORTFOLIO_ID, 0, document(0));
+        for (int k = 1; k <= 7; k++) {
+            service.recordRevision(PORTFOLIO_ID, k - 1, document(k - 1), k, document(k));
+        }
+
+        assertThat(snapshotRevisions()).containsExactly(0L, 3L, 6L);
+        // Patches are JSON Patch arrays of operations, rebuilt by replaying them over the snapshot
+        PortfolioRevision patch = row(5);
+        assertThat(patch.isSnapshot()).isFalse();
+        assertThat(patch.getContent()).startsWith("[").contains("\"op\"");
+        assertThat(chain(PORTFOLIO_ID, 5)).extracting(PortfolioRevision::getRevision).containsExactly(3L, 4L, 5L);
+    }
+
+    @Test
+    void storesSnapshotWhenPatchIsNotSmallerThanDocument() {
+        ObjectNode before = JsonNodeFactory.instance.objectNode().put("title", "A");
+        ObjectNode after = JsonNodeFactory.instance.objectNode().put("name", "B");
+        service.recordInitialRevision(PORTFOLIO_ID, 0, before);
+        service.recordRevision(PORTFOLIO_ID, 0, before, 1, after);
+
+        assertThat(row(1).isSnapshot()).isTrue();
+        assertThat(service.getRevisionDocument(PORTFOLIO_ID, 0)).isEqualTo(before);
+        assertThat(service.getRevisionDocument(PORTFOLIO_ID, 1)).isEqualTo(after);
+    }
+
+    @Test
+    void anchorsWithSnapshotWhenThereIsNoHistory() {
+        service.recordRevision(PORTFOLIO_ID, 4, document(4), 5, document(5));
+
+        assertThat(snapshotRevisions()).containsExactly(4L);
+        assertThat(row(5).isSnapshot()).isFalse();
+        assertThat(service.getRevisionDocument(PORTFOLIO_ID, 4)).isEqualTo(document(4));
+        assertThat(service.getRevisionDocument(PORTFOLIO_ID, 5)).isEqualTo(document(5));
+    }
+
+    @Test
+    void reanchorsWhenHistoryStopsBeforePreviousRevision() {
+        service.recordInitialRevision(PORTFOLIO_ID, 0, document(0));
+        service.recordRevision(PORTFOLIO_ID, 0, document(0), 1, document(1));
+        // Revisions 2 to 3 were saved without being recorded
+        service.recordRevision(PORTFOLIO_ID, 4, document(4), 5, document(5));
+
+        assertThat(snapshotRevisions()).containsExactly(0L, 4L);
+        assertThat(row(5).isSnapshot()).isFalse();
+        for (long k : new long[] {0, 1, 4, 5}) {
+            assertThat(service.getRevisionDocument(PORTFOLIO_ID, k)).as("revision %d", k).isEqualTo(document((int) k));
+        }
+        assertThatThrownBy(() -> service.getRevisionDocument(PORTFOLIO_ID, 3)).isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    void unknownRevisionIsNotFound() {
+        service.recordInitialRevision(PORTFOLIO_ID, 0, document(0));
+
+        assertThatThrownBy(() -> service.getRevision(PORTFOLIO_ID, 1)).isInstanceOf(EntityNotFoundException.class);
+        assertThatThrownBy(() -> service.getRevision("PORT-0002", 0)).isInstanceOf(EntityNotFoundException.class);
+    }
+
+    /**
+     * A portfolio document large enough that one revision's edit patches to less than the whole document.
+     * Revision k renames the title, rewrites one job and adds a skill every other revision.
+     */
+    private static ObjectNode document(int k) {
+        JsonNodeFactory nodes = JsonNodeFactory.instance;
+        ObjectNode document = nodes.objectNode();
+        document.put("title", "Portfolio " + k);
+        document.set("personalInformation", nodes.objectNode().put("fullName", "Ada Lovelace").put("email", "ada@example.com"));
+        ArrayNode employment = document.putArray("employmentHistory");
+        for (int i = 0; i < 8; i++) {
+            employment.addObject()
+                    .put("company", "Company " + i)
+                    .put("position", i == k % 8 ? "Principal Engineer (" + k + ")" : "Senior Engineer")
+                    .put("description", "Built services and led a team of five engineers");
+        }
+        ArrayNode skills = document.putArray("skills");
+        for (int i = 0; i <= k / 2; i++) {
+            skills.addObject().put("category", "Languages").put("name", "Skill " + i);
+        }
+        return document;
+    }
+
+    private RevisionHeads heads(String portfolioId) {
+        List<PortfolioRevision> stored = rowsOf(portfolioId);
+        OptionalLong latest = stored.stream().mapToLong(PortfolioRevision::getRevision).max();
+        OptionalLong latestSnapshot = stored.stream().filter(PortfolioRevision::isSnapshot).mapToLong(PortfolioRevision::getRevision).max();
+        return new RevisionHeads() {
+            @Override
+            public Long getLatestRevision() {
+                return latest.isPresent() ? latest.getAsLong() : null;
+            }
+
+            @Override
+            public Long getLatestSnapshotRevision() {
+                return latestSnapshot.isPresent() ? latestSnapshot.getAsLong() : null;
+            }
+        };
+    }
+
+    // Same rows as the findReconstructionChain query: latest snapshot at or before the revision, then the rows up to it
+    private List<PortfolioRevision> chain(String portfolioId, long revision) {
+        List<PortfolioRevision> stored = rowsOf(portfolioId);
+        Optional<Long> snapshot = stored.stream()
+                .filter(row -> row.isSnapshot() && row.getRevision() <= revision)
+                .map(PortfolioRevision::getRevision)
+                .max(Comparator.naturalOrder());
+        if (snapshot.isEmpty()) {
+            return List.of();
+        }
+        return stored.stream()
+                .filter(row -> row.getRevision() >= snapshot.get() && row.getRevision() <= revision)
+                .sorted(Comparator.comparing(PortfolioRevision::getRevision))
+                .collect(Collectors.toList());
+    }
+
+    private List<PortfolioRevision> rowsOf(String portfolioId) {
+        return rows.stream().filter(row -> row.getPortfolioId().equals(portfolioId)).collect(Collectors.toList());
+    }
+
+    private PortfolioRevision row(long revision) {
+        return rows.stream().filter(row -> row.getRevision() == revision).findFirst().orElseThrow();
+    }
+
+    private List<Long> snapshotRevisions() {
+        return rows.stream().filter(PortfolioRevision::isSnapshot).map(PortfolioRevision::getRevision).collect(Collectors.toList());
+    }
+}
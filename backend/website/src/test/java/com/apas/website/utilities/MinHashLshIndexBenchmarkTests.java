@@ -0,0 +1,206 @@
+package com.apas.website.utilities;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Similar-portfolio lookups over a synthetic corpus of a million portfolios: each one draws most of its
+ * skills and technologies from one of a few thousand profiles (e.g. "Java backend") plus a few random ones.
+ * Compares the LSH lookup against an exact Jaccard scan of the whole corpus; the LSH results must be nearly as
+ * similar as the exact top matches. Latencies, build time and snapshot round trip are printed.
+ * <p>
+ * Not part of the regular build: {@code mvn test -Dgroups=benchmark -DexcludedGroups=none}
+ */
+@Tag("benchmark")
+class MinHashLshIndexBenchmarkTests {
+
+    private static final int PORTFOLIOS = 1_000_000;
+    private static final int VOCABULARY = 5_000;
+    private static final int PROFILES = 2_000;
+    private static final int PROFILE_TOKENS = 25;
+    private static final int LIMIT = 10;
+    private static final int MAX_CANDIDATES = 2_000;
+    private static final double MIN_SIMILARITY = 0.1;
+    private static final int QUERIES = 1_000;
+    private static final int EXACT_QUERIES = 30;
+
+    private static String[] vocabulary;
+    private static int[][] tokens;
+    private static MinHashLshIndex index;
+
+    @BeforeAll
+    static void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        vocabulary = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            vocabulary[i] = "skill " + i;
+        }
+        int[][] profiles = new int[PROFILES][PROFILE_TOKENS];
+        for (int[] profile : profiles) {
+            Arrays.setAll(profile, i -> random.nextInt(VOCABULARY));
+        }
+
+        tokens = new int[PORTFOLIOS][];
+        for (int p = 0; p < PORTFOLIOS; p++) {
+            int[] profile = profiles[random.nextInt(PROFILES)];
+            TreeSet<Integer> picked = new TreeSet<>();
+            for (int token : profile) {
+                if (random.nextInt(10) < 7) {
+                    picked.add(token);
+                }
+            }
+            for (int extra = random.nextInt(6); extra > 0; extra--) {
+                picked.add(random.nextInt(VOCABULARY));
+            }
+            tokens[p] = picked.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        long startedAt = System.nanoTime();
+        index = new MinHashLshIndex();
+        for (int p = 0; p < PORTFOLIOS; p++) {
+            index.put(id(p), signature(p));
+        }
+        System.out.printf("Indexed %,d portfolios in %,d ms%n", index.size(), (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    @Test
+    void lookupLatency() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < QUERIES; i++) {
+            query(random.nextInt(PORTFOLIOS)); // Warm-up
+        }
+        long[] nanos = new long[QUERIES];
+        int found = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            int p = random.nextInt(PORTFOLIOS);
+            long startedAt = System.nanoTime();
+            found += query(p).size();
+            nanos[i] = System.nanoTime() - startedAt;
+        }
+        Arrays.sort(nanos);
+
+        assertThat(found).isGreaterThan(QUERIES * LIMIT / 2);
+        System.out.printf("LSH lookup over %,d portfolios  p50: %.2f ms  p99: %.2f ms  max: %.2f ms%n", PORTFOLIOS,
+                          nanos[QUERIES / 2] / 1e6, nanos[QUERIES * 99 / 100] / 1e6, nanos[QUERIES - 1] / 1e6);
+    }
+
+    @Test
+    void resultsAreNearlyAsSimilarAsExactScan() {
+        SplittableRandom random = new SplittableRandom(11);
+        double lshTotal = 0;
+        double exactTotal = 0;
+        long lshNanos = 0;
+        long exactNanos = 0;
+        for (int i = 0; i < EXACT_QUERIES; i++) {
+            int p = random.nextInt(PORTFOLIOS);
+
+            long startedAt = System.nanoTime();
+            List<MinHashLshIndex.Match> matches = query(p);
+            lshNanos += System.nanoTime() - startedAt;
+            for (MinHashLshIndex.Match match : matches) {
+                lshTotal += jaccard(tokens[p], tokens[Integer.parseInt(match.id().substring(5))]);
+            }
+
+            startedAt = System.nanoTime();
+            double[] best = new double[LIMIT];
+            for (int other = 0; other < PORTFOLIOS; other++) {
+                if (other != p) {
+                    double similarity = jaccard(tokens[p], tokens[other]);
+                    if (similarity > best[0]) {
+                        best[0] = similarity;
+                        Arrays.sort(best);
+                    }
+                }
+            }
+            exactNanos += System.nanoTime() - startedAt;
+            exactTotal += Arrays.stream(best).sum();
+        }
+
+        assertThat(lshTotal / exactTotal).isGreaterThan(0.9);
+        System.out.printf("Mean Jaccard of top %d  LSH: %.3f  exact: %.3f  (%.1f%%); per lookup LSH: %.2f ms  exact scan: %.0f ms%n",
+                          LIMIT, lshTotal / (EXACT_QUERIES * LIMIT), exactTotal / (EXACT_QUERIES * LIMIT),
+                          100 * lshTotal / exactTotal, lshNanos / 1e6 / EXACT_QUERIES, exactNanos / 1e6 / EXACT_QUERIES);
+    }
+
+    @Test
+    void updatesAndSnapshotRoundTrip(@TempDir Path directory) throws Exception {
+        SplittableRandom random = new SplittableRandom(13);
+        int updates = 100_000;
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < updates; i++) {
+            int p = random.nextInt(PORTFOLIOS);
+            index.put(id(p), signature(p));
+        }
+        long updateNanos = System.nanoTime() - startedAt;
+
+        Path snapshot = directory.resolve("similarity.index");
+        startedAt = System.nanoTime();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(snapshot), 1 << 16))) {
+            index.writeTo(out);
+        }
+        long writeNanos = System.nanoTime() - startedAt;
+
+        startedAt = System.nanoTime();
+        MinHashLshIndex loaded;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot), 1 << 16))) {
+            loaded = MinHashLshIndex.readFrom(in);
+        }
+        long readNanos = System.nanoTime() - startedAt;
+
+        assertThat(loaded.size()).isEqualTo(index.size());
+        int p = random.nextInt(PORTFOLIOS);
+        assertThat(loaded.query(signature(p), LIMIT, MAX_CANDIDATES, MIN_SIMILARITY, id(p)))
+                .isEqualTo(query(p));
+        System.out.printf("Re-signed %,d portfolios at %,.0f updates/s; snapshot of %,d MB written in %,d ms, loaded in %,d ms%n",
+                          updates, updates * 1e9 / updateNanos, Files.size(snapshot) >> 20, writeNanos / 1_000_000, readNanos / 1_000_000);
+    }
+
+    private static List<MinHashLshIndex.Match> query(int p) {
+        return index.query(signature(p), LIMIT, MAX_CANDIDATES, MIN_SIMILARITY, id(p));
+    }
+
+    private static short[] signature(int p) {
+        List<String> names = new ArrayList<>(tokens[p].length);
+        for (int token : tokens[p]) {
+            names.add(vocabulary[token]);
+        }
+        return MinHashLshIndex.signature(names);
+    }
+
+    private static String id(int p) {
+        return "PORT-" + p;
+    }
+
+    // Both arrays are sorted and distinct
+    private static double jaccard(int[] a, int[] b) {
+        int common = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return common / (double) (a.length + b.length - common);
+    }
+}